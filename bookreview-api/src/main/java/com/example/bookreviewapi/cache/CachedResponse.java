@@ -0,0 +1,34 @@
+package com.example.bookreviewapi.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A fully serialised response body plus its pre-compressed variant(s), stored once and then
+ * written to the socket as-is on every hit.
+ */
+public record CachedResponse(String contentType, String eTag, String lastModified, String cacheControl,
+                             byte[] identity, byte[] gzip) {
+
+    // Bodies this small do not shrink enough to be worth a Content-Encoding
+    static final int MIN_COMPRESS_BYTES = 256;
+
+    public static CachedResponse of(String contentType, String eTag, String lastModified, String cacheControl,
+                                    byte[] body) {
+        byte[] gzip = body.length >= MIN_COMPRESS_BYTES ? gzip(body) : null;
+        return new CachedResponse(contentType, eTag, lastModified, cacheControl, body, gzip);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen for an in-memory stream
+        }
+        byte[] compressed = out.toByteArray();
+        return compressed.length < body.length ? compressed : null;
+    }
+}
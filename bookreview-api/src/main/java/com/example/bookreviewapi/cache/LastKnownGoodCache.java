@@ -0,0 +1,272 @@
+package com.example.bookreviewapi.cache;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.bookreviewapi.datasource.PrimaryReads;
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+import com.example.bookreviewapi.resilience.Lane;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Last-known-good copies of the book, review-list and rating reads, so they keep answering
+ * (marked stale) while the database is slow or down.
+ *
+ * - With no usable copy the load runs on the caller's thread exactly as before.
+ * - With a copy, the load runs with a timeout, and concurrent callers of a key wait on the
+ *   same load instead of starting their own. A slow load is answered from the copy and still
+ *   replaces it when it finishes; until then callers get the copy without waiting.
+ * - After a failure the key is "failing": every caller gets the copy, and one background
+ *   refresh per retry interval probes the database, instead of every request hitting it.
+ *   A copy close to max-staleness is refreshed right away.
+ * - Copies older than max-staleness are never served; the error goes out as before.
+ */
+@Component
+public class LastKnownGoodCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastKnownGoodCache.class);
+
+    // RFC 7234 warn-codes
+    public static final String WARNING_STALE = "110 - \"Response is Stale\"";
+    public static final String WARNING_REVALIDATION_FAILED = "111 - \"Revalidation Failed\"";
+
+    static final String METRIC = "bookreview.stale.reads";
+
+    /** What a read produces: the validators and the body they describe. */
+    public record Snapshot<T>(String eTag, long lastModifiedMillis, T body) {
+    }
+
+    /** A snapshot plus how it was obtained; warning is null for a fresh read. */
+    public record Read<T>(Snapshot<T> snapshot, long ageSeconds, String warning) {
+        public boolean isStale() {
+            return warning != null;
+        }
+    }
+
+    private static final class Entry {
+        final Snapshot<?> snapshot;
+        final long loadedAtMillis;
+        // Set while a load overruns the timeout or a background refresh runs
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        // The load callers of this key currently wait on
+        final AtomicReference<CompletableFuture<Snapshot<?>>> load = new AtomicReference<>();
+        volatile boolean failing;
+        volatile long nextAttemptMillis;
+
+        Entry(Snapshot<?> snapshot, long loadedAtMillis) {
+            this.snapshot = snapshot;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final boolean enabled;
+    private final long maxStalenessMs;
+    private final long loadTimeoutMs;
+    private final long retryIntervalMs;
+    private final long refreshAheadMs;
+    private final int maxEntries;
+
+    @Autowired
+    public LastKnownGoodCache(MeterRegistry meterRegistry,
+                              @Value("${bookreview.stale.enabled:true}") boolean enabled,
+                              @Value("${bookreview.stale.max-staleness-ms:600000}") long maxStalenessMs,
+                              @Value("${bookreview.stale.load-timeout-ms:500}") long loadTimeoutMs,
+                              @Value("${bookreview.stale.retry-interval-ms:5000}") long retryIntervalMs,
+                              @Value("${bookreview.stale.refresh-ahead-ms:60000}") long refreshAheadMs,
+                              @Value("${bookreview.stale.max-entries:1000}") int maxEntries) {
+        this(meterRegistry, Clock.systemUTC(), enabled, maxStalenessMs, loadTimeoutMs, retryIntervalMs, refreshAheadMs, maxEntries);
+    }
+
+    LastKnownGoodCache(MeterRegistry meterRegistry, Clock clock, boolean enabled, long maxStalenessMs,
+                       long loadTimeoutMs, long retryIntervalMs, long refreshAheadMs, int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.maxStalenessMs = maxStalenessMs;
+        this.loadTimeoutMs = loadTimeoutMs;
+        this.retryIntervalMs = retryIntervalMs;
+        this.refreshAheadMs = refreshAheadMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Loads key through loader, which is handed the previous snapshot (or null) so it can return
+     * that same instance when the version is unchanged and skip the body query.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Read<T> read(String key, UnaryOperator<Snapshot<T>> loader) {
+        if (!enabled) {
+            return new Read<>(loader.apply(null), 0, null);
+        }
+        long now = clock.millis();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.loadedAtMillis > maxStalenessMs) {
+            entries.remove(key, entry); // Too old to serve, behave as if there was no copy
+            entry = null;
+        }
+
+        if (entry == null) {
+            return fresh(key, loader.apply(null));
+        }
+
+        if (entry.failing) {
+            boolean nearExpiry = now - entry.loadedAtMillis > maxStalenessMs - refreshAheadMs;
+            if (now >= entry.nextAttemptMillis || nearExpiry) {
+                refreshInBackground(key, entry, loader);
+            }
+            return stale(entry, now, WARNING_REVALIDATION_FAILED);
+        }
+
+        if (entry.refreshing.get()) {
+            // The database is already slow for this key: no new load, and no waiting on the old one
+            return stale(entry, now, WARNING_STALE);
+        }
+        CompletableFuture<Snapshot<T>> load = load(entry, loader);
+        try {
+            return fresh(key, load.get(loadTimeoutMs, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            // Let the slow load finish in the background; it replaces the copy if it succeeds
+            Entry current = entry;
+            if (current.refreshing.compareAndSet(false, true)) {
+                load.whenComplete((snapshot, error) -> {
+                    complete(key, current, snapshot, error);
+                    current.refreshing.set(false);
+                });
+            }
+            return stale(entry, now, WARNING_STALE);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DatabaseOperationException) {
+                markFailing(key, entry, cause);
+                return stale(entry, now, WARNING_REVALIDATION_FAILED);
+            }
+            entries.remove(key, entry); // e.g. BookNotFoundException: the copy is no longer valid
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new DatabaseOperationException("load " + key, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException("load " + key, e);
+        }
+    }
+
+    // The stored copy for key, or null
+    Snapshot<?> current(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.snapshot : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loaders.shutdownNow();
+    }
+
+    private <T> Read<T> fresh(String key, Snapshot<T> snapshot) {
+        store(key, snapshot);
+        meterRegistry.counter(METRIC, "result", "fresh").increment();
+        return new Read<>(snapshot, 0, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Read<T> stale(Entry entry, long now, String warning) {
+        meterRegistry.counter(METRIC, "result", warning == WARNING_STALE ? "stale-slow" : "stale-error").increment();
+        long ageSeconds = Math.max(0, (now - entry.loadedAtMillis) / 1000);
+        return new Read<>((Snapshot<T>) entry.snapshot, ageSeconds, warning);
+    }
+
+    /**
+     * The load of entry's key the caller waits on: the one already running, or a new one. A caller
+     * pinned to the primary (read-your-writes) gets its own, since the shared one may read a replica.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> CompletableFuture<Snapshot<T>> load(Entry entry, UnaryOperator<Snapshot<T>> loader) {
+        Snapshot<T> previous = (Snapshot<T>) entry.snapshot;
+        if (PrimaryReads.isPinned()) {
+            return CompletableFuture.supplyAsync(
+                Lane.supplier(PrimaryReads.supplier(() -> loader.apply(previous))), loaders);
+        }
+        CompletableFuture<Snapshot<?>> started = new CompletableFuture<>();
+        CompletableFuture<Snapshot<?>> running = entry.load.compareAndExchange(null, started);
+        if (running != null) {
+            return (CompletableFuture) running;
+        }
+        started.whenComplete((snapshot, error) -> entry.load.compareAndSet(started, null));
+        // Its connection counts against the lane of the caller that started it
+        started.completeAsync(Lane.supplier(() -> loader.apply(previous)), loaders);
+        return (CompletableFuture) started;
+    }
+
+    // At most one background refresh per key at a time
+    private <T> void refreshInBackground(String key, Entry entry, UnaryOperator<Snapshot<T>> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Snapshot<T> previous = (Snapshot<T>) entry.snapshot;
+        CompletableFuture.supplyAsync(Lane.supplier(() -> loader.apply(previous)), loaders)
+            .whenComplete((snapshot, error) -> {
+                complete(key, entry, snapshot, error);
+                entry.refreshing.set(false);
+            });
+    }
+
+    // Background results only replace the copy they started from, never a newer one
+    private void complete(String key, Entry entry, Snapshot<?> snapshot, Throwable error) {
+        if (error == null) {
+            entries.replace(key, entry, new Entry(snapshot, clock.millis()));
+            return;
+        }
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof DatabaseOperationException) {
+            markFailing(key, entry, cause);
+        } else {
+            entries.remove(key, entry);
+        }
+    }
+
+    private void markFailing(String key, Entry entry, Throwable cause) {
+        if (!entry.failing) {
+            logger.warn("Serving last-known-good copy of {} after a failed load: {}", key, cause.getMessage());
+        }
+        entry.failing = true;
+        entry.nextAttemptMillis = clock.millis() + retryIntervalMs;
+    }
+
+    private void store(String key, Snapshot<?> snapshot) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            Iterator<String> keys = entries.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        entries.put(key, new Entry(snapshot, clock.millis()));
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.bookreviewapi.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.bookreviewapi.invalidation.InvalidationEvent;
+import com.example.bookreviewapi.invalidation.InvalidationListener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Serialised-bytes cache for anonymous catalogue reads:
+ *   /api/books[?includeRatings=...], /api/books/{id}, /api/books/{id}/average-rating
+ *
+ * Entries are evicted precisely by the book and review write paths (after commit), and a
+ * generation counter stops a read that raced with a write from storing a stale body. Writes
+ * made on other nodes arrive through the InvalidationBus.
+ */
+@Component
+public class ResponseBodyCache implements InvalidationListener {
+
+    static final String CATALOGUE_PATH = "/api/books";
+    private static final Pattern BOOK_PATH = Pattern.compile("/api/books/\\d+");
+    private static final Pattern RATING_PATH = Pattern.compile("/api/books/\\d+/average-rating");
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final boolean enabled;
+    private final int maxEntries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter servedBytes;
+    private final Counter compressionSavedBytes;
+
+    public ResponseBodyCache(MeterRegistry meterRegistry,
+                             @Value("${bookreview.response-cache.enabled:true}") boolean enabled,
+                             @Value("${bookreview.response-cache.max-entries:2000}") int maxEntries) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("bookreview.response.cache.requests").tag("result", "hit")
+            .description("Anonymous catalogue reads answered from the response cache").register(meterRegistry);
+        this.misses = Counter.builder("bookreview.response.cache.requests").tag("result", "miss")
+            .description("Anonymous catalogue reads that went to the controller").register(meterRegistry);
+        this.servedBytes = Counter.builder("bookreview.response.cache.served.bytes").baseUnit("bytes")
+            .description("Body bytes written from cache without mapping or serialising").register(meterRegistry);
+        this.compressionSavedBytes = Counter.builder("bookreview.response.cache.compression.saved.bytes").baseUnit("bytes")
+            .description("Bytes not sent thanks to the pre-compressed variant").register(meterRegistry);
+        Gauge.builder("bookreview.response.cache.size", entries, Map::size).register(meterRegistry);
+        Gauge.builder("bookreview.response.cache.hit.ratio", this, ResponseBodyCache::hitRatio).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cache key for a request, or null when the route/parameters are not cacheable.
+     * Only the catalogue list takes a parameter (includeRatings); anything else is not cached.
+     */
+    public static String keyFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String query = request.getQueryString();
+        if (CATALOGUE_PATH.equals(path)) {
+            if (query == null) {
+                return CATALOGUE_PATH;
+            }
+            String includeRatings = request.getParameter("includeRatings");
+            // Anything but a plain true/false is left to the controller (it may be a 400)
+            if (request.getParameterMap().size() == 1
+                    && ("true".equalsIgnoreCase(includeRatings) || "false".equalsIgnoreCase(includeRatings))) {
+                return CATALOGUE_PATH + "?includeRatings=" + includeRatings.toLowerCase();
+            }
+            return null;
+        }
+        if (query == null && (BOOK_PATH.matcher(path).matches() || RATING_PATH.matcher(path).matches())) {
+            return path;
+        }
+        return null;
+    }
+
+    public CachedResponse get(String key) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+        }
+        return cached;
+    }
+
+    public void recordHit(CachedResponse cached, boolean gzipped) {
+        hits.increment();
+        servedBytes.increment(cached.identity().length);
+        if (gzipped) {
+            compressionSavedBytes.increment(cached.identity().length - cached.gzip().length);
+        }
+    }
+
+    // Read before rendering a miss; pass back to put() so a concurrent write wins
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String key, CachedResponse response, long observedGeneration) {
+        if (generation.get() != observedGeneration) {
+            return; // A write happened while this body was being built, it may already be stale
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            evictOne();
+        }
+        entries.put(key, response);
+        // Re-check: an eviction may have slipped in between the check and the put
+        if (generation.get() != observedGeneration) {
+            entries.remove(key, response);
+        }
+    }
+
+    /** The book itself was created, changed or deleted: its entries and every catalogue list go. */
+    public void evictBook(Long bookId) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            entries.remove(CATALOGUE_PATH + "/" + bookId);
+            entries.remove(CATALOGUE_PATH + "/" + bookId + "/average-rating");
+            entries.keySet().removeIf(key -> key.equals(CATALOGUE_PATH) || key.startsWith(CATALOGUE_PATH + "?"));
+        });
+    }
+
+    /**
+     * A review of the book changed: its rating, the book itself (its Last-Modified follows review
+     * changes) and the catalogue lists that carry ratings go.
+     */
+    public void evictReviews(Long bookId) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            entries.remove(CATALOGUE_PATH + "/" + bookId);
+            entries.remove(CATALOGUE_PATH + "/" + bookId + "/average-rating");
+            entries.remove(CATALOGUE_PATH + "?includeRatings=true");
+        });
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        switch (event.kind()) {
+            case BOOK -> evictBook(event.id());
+            case REVIEWS -> evictReviews(event.id());
+            case USER -> {
+                // No user data in the cached bodies
+            }
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    private void evictOne() {
+        Iterator<String> keys = entries.keySet().iterator();
+        if (keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    // Evicting before commit would let a concurrent read re-cache the old row
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.bookreviewapi.cache;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves anonymous catalogue GETs straight from ResponseBodyCache. On a hit no entity, DTO or
+ * Jackson work happens: the stored bytes (gzip when accepted) are written as-is.
+ *
+ * Registered with the default (lowest) order, i.e. after the Spring Security chain, so CORS
+ * headers are still applied to cached responses.
+ */
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private final ResponseBodyCache cache;
+
+    public ResponseCacheFilter(ResponseBodyCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !cache.isEnabled()
+            || !"GET".equals(request.getMethod())
+            || request.getHeader(HttpHeaders.AUTHORIZATION) != null // Only anonymous traffic
+            || !acceptsJson(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = ResponseBodyCache.keyFor(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // The body depends on Accept-Encoding once a compressed variant may be served, and on
+        // Accept because the same route answers CBOR (WebConfig adds it on the uncached routes)
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            writeCached(cached, request, response);
+            return;
+        }
+
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpStatus.OK.value()
+                    && isJson(wrapper.getContentType())
+                    && wrapper.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && wrapper.getHeader(HttpHeaders.WARNING) == null) { // Never keep a stale fallback body
+                cache.put(key, CachedResponse.of(
+                    wrapper.getContentType(),
+                    wrapper.getHeader(HttpHeaders.ETAG),
+                    wrapper.getHeader(HttpHeaders.LAST_MODIFIED),
+                    wrapper.getHeader(HttpHeaders.CACHE_CONTROL),
+                    wrapper.getContentAsByteArray()), generation);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void writeCached(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (cached.eTag() != null) {
+            response.setHeader(HttpHeaders.ETAG, cached.eTag());
+        }
+        if (cached.lastModified() != null) {
+            response.setHeader(HttpHeaders.LAST_MODIFIED, cached.lastModified());
+        }
+        if (cached.cacheControl() != null) {
+            // Keeps Spring Security from adding its default no-store to a cached hit
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cached.cacheControl());
+        }
+        if (cached.eTag() != null && eTagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.eTag())) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            cache.recordHit(cached, false);
+            return;
+        }
+
+        boolean gzip = cached.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] body = gzip ? cached.gzip() : cached.identity();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(cached.contentType());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        cache.recordHit(cached, gzip);
+    }
+
+    static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2); // Weak comparison is what If-None-Match uses
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").equals("q=0");
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsJson(String accept) {
+        return accept == null
+            || accept.contains("*/*")
+            || accept.contains("application/*")
+            || accept.contains(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+}
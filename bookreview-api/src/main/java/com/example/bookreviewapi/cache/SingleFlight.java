@@ -0,0 +1,100 @@
+package com.example.bookreviewapi.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keyed request coalescing for hot reads: concurrent callers for the same key share one
+ * in-flight load instead of each running the query. Only loads that are already running are
+ * joined; nothing is kept once the load finishes, so this is not a cache.
+ *
+ * Followers wait at most max-wait-ms for the leader. After that they stop waiting and run the
+ * load themselves, so a stuck leader cannot hold every caller hostage.
+ */
+@Component
+public class SingleFlight {
+
+    static final String METRIC = "bookreview.singleflight.calls";
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long maxWaitMs;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${bookreview.single-flight.enabled:true}") boolean enabled,
+                        @Value("${bookreview.single-flight.max-wait-ms:1000}") long maxWaitMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxWaitMs = maxWaitMs;
+        Gauge.builder("bookreview.singleflight.in.flight", inFlight, Map::size)
+            .description("Distinct keys with a load currently running").register(meterRegistry);
+    }
+
+    /**
+     * Runs loader for (operation, id) unless an identical load is already running, in which case
+     * its result (or exception) is shared.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object id, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = operation + ":" + id;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+
+        if (running == null) {
+            record(operation, "leader");
+            try {
+                T result = loader.get();
+                mine.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+
+        try {
+            T result = (T) running.get(maxWaitMs, TimeUnit.MILLISECONDS);
+            record(operation, "coalesced");
+            return result;
+        } catch (ExecutionException e) {
+            record(operation, "coalesced");
+            // Followers see the leader's business exception (e.g. BookNotFoundException) as-is
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new DatabaseOperationException(operation, e.getCause());
+        } catch (TimeoutException e) {
+            record(operation, "timeout");
+            return loader.get(); // Bounded wait: give up on the leader and load independently
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException(operation, e);
+        }
+    }
+
+    private void record(String operation, String result) {
+        meterRegistry.counter(METRIC, "operation", operation, "result", result).increment();
+    }
+}
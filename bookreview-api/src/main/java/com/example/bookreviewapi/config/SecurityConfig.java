@@ -1,7 +1,10 @@
 package com.example.bookreviewapi.config;
 
+import com.example.bookreviewapi.resilience.RateLimitFilter;
+import com.example.bookreviewapi.resilience.RateLimiter;
 import com.example.bookreviewapi.service.CustomUserDetailsService;
 import com.example.bookreviewapi.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,10 +26,27 @@ import java.util.Arrays;
 @Configuration
 public class SecurityConfig {
 
+    // Route groups below are also the workload lanes of resilience.BulkheadFilter
+    public static final String[] PUBLIC_GET_ROUTES = {
+        "/schemas/**",                  // Published schema for the binary (CBOR) bodies
+        "/api/books/*/average-rating",  // Average rating
+        "/api/books/*/detail",          // Composite book detail view
+        "/api/books/*/events",          // Review change stream (EventSource cannot send a token)
+        "/api/books", "/api/books/*"    // Books
+    };
+    // Batch rating lookup (read-only, POST only to carry the ID list)
+    public static final String[] PUBLIC_POST_ROUTES = {"/api/books/ratings"};
+    // Only ADMIN can delete books
+    public static final String[] ADMIN_DELETE_ROUTES = {"/api/books/**"};
+
     @Autowired
     private CustomUserDetailsService userDetailsService;
     @Autowired
     private JwtUtil jwtUtil;
+    @Autowired
+    private RateLimiter rateLimiter;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
@@ -48,16 +68,15 @@ public class SecurityConfig {
             .exceptionHandling(eh -> eh.authenticationEntryPoint(authenticationEntryPoint()))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/", "/auth/**", "/swagger-ui/**", "/v3/api-docs/**", "/h2-console/**", "/actuator/**").permitAll()
-                // Public GET endpoint for average rating
-                .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/books/*/average-rating").permitAll()
-                // Public GET endpoints for books
-                .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/books", "/api/books/*").permitAll()
-                // Only ADMIN can delete books
-                .requestMatchers(org.springframework.http.HttpMethod.DELETE, "/api/books/**").hasRole("ADMIN")
+                .requestMatchers(org.springframework.http.HttpMethod.GET, PUBLIC_GET_ROUTES).permitAll()
+                .requestMatchers(org.springframework.http.HttpMethod.POST, PUBLIC_POST_ROUTES).permitAll()
+                .requestMatchers(org.springframework.http.HttpMethod.DELETE, ADMIN_DELETE_ROUTES).hasRole("ADMIN")
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // After JWT so signed-in users are limited by username rather than IP
+            .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), JwtAuthenticationFilter.class)
             .headers(headers -> headers.frameOptions(frame -> frame.disable())); // Allow H2 console in frames
         return http.build();
     }
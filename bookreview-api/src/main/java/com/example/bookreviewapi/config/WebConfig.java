@@ -0,0 +1,44 @@
+package com.example.bookreviewapi.config;
+
+import com.example.bookreviewapi.json.DtoListHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of Jackson: streams List<BookDTO> / List<ReviewDTO> without reflective binding
+        converters.add(0, new DtoListHttpMessageConverter(objectMapper.getFactory()));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Every API body is negotiated between JSON and CBOR, so shared caches must key on Accept
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (!response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+                    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT); // ResponseCacheFilter may have added it
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -6,17 +6,35 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.example.bookreviewapi.cache.LastKnownGoodCache;
+import com.example.bookreviewapi.service.BookDetailService;
 import com.example.bookreviewapi.service.BookService;
 import com.example.bookreviewapi.service.UserService;
+import com.example.bookreviewapi.stream.BookEventBroadcaster;
 
 import jakarta.validation.Valid;
 
 import com.example.bookreviewapi.mapper.BookMapper;
+import com.example.bookreviewapi.dto.BookBatchDTO;
 import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.BookDetailDTO;
+import com.example.bookreviewapi.dto.BookField;
+import com.example.bookreviewapi.dto.BookVersionDTO;
 import com.example.bookreviewapi.dto.CreateBookDTO;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
+import com.example.bookreviewapi.dto.RatingSummaryRequestDTO;
+import com.example.bookreviewapi.dto.SelectableField;
+import com.example.bookreviewapi.exception.BookNotFoundException;
+import com.example.bookreviewapi.exception.InvalidBookDataException;
 import com.example.bookreviewapi.model.Book;
 import com.example.bookreviewapi.model.User;
 
@@ -30,6 +48,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -42,10 +63,17 @@ public class BookController {
 
     private final BookService bookService;
     private final UserService userService;
+    private final BookDetailService bookDetailService;
+    private final LastKnownGoodCache lastKnownGood;
+    private final BookEventBroadcaster bookEvents;
 
-    public BookController(BookService bookService, UserService userService) {
+    public BookController(BookService bookService, UserService userService, BookDetailService bookDetailService,
+                          LastKnownGoodCache lastKnownGood, BookEventBroadcaster bookEvents) {
         this.bookService = bookService;
         this.userService = userService;
+        this.bookDetailService = bookDetailService;
+        this.lastKnownGood = lastKnownGood;
+        this.bookEvents = bookEvents;
     }
 
     @PostMapping
@@ -79,13 +107,86 @@ public class BookController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Books retrieved successfully",
-            content = @Content(schema = @Schema(implementation = BookDTO.class)))
+            content = @Content(schema = @Schema(implementation = BookDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag sent in If-None-Match")
+    })
+    public ResponseEntity<List<BookDTO>> getAllBooks(
+        @Parameter(description = "Include avgRating and reviewCount on each book (one grouped query for the whole list)")
+        @RequestParam(defaultValue = "false") boolean includeRatings,
+        WebRequest webRequest) {
+        // Version check first: one aggregate row instead of the full list (and ratings) query
+        String eTag = bookService.getCatalogueVersion().eTag(includeRatings);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<BookDTO> bookDTO = bookService.getAllBookDTOs(includeRatings);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(bookDTO);
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(
+        summary = "Get all books with selected fields only",
+        description = "Sparse fieldset of the book list: only the listed fields are selected from the database and returned. Allowed fields: id, title, author, genre."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Books retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Catalogue unchanged since the ETag sent in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Empty or unknown field requested")
+    })
+    public ResponseEntity<List<Map<String, Object>>> getAllBookFields(
+        @Parameter(description = "Comma-separated fields to return, e.g. id,title", required = true)
+        @RequestParam String fields,
+        @Parameter(description = "Also include avgRating and reviewCount on each book")
+        @RequestParam(defaultValue = "false") boolean includeRatings,
+        WebRequest webRequest) {
+        // Whitelist check before anything touches the database
+        Set<BookField> selected = SelectableField.parse(fields, BookField.class, InvalidBookDataException::new);
+
+        String eTag = SelectableField.eTag(bookService.getCatalogueVersion().eTag(includeRatings), selected);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(bookService.getBookFields(selected, includeRatings));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(
+        summary = "Get several books by ID",
+        description = "Resolves up to 100 comma-separated IDs with a single query. Found books keep the requested order; IDs without a book are listed in missingIds."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Books retrieved successfully",
+            content = @Content(schema = @Schema(implementation = BookBatchDTO.class))),
+        @ApiResponse(responseCode = "400", description = "No IDs, invalid IDs or too many IDs provided")
+    })
+    public ResponseEntity<BookBatchDTO> getBooksByIds(
+        @Parameter(description = "Comma-separated book IDs, e.g. 1,2,3", required = true)
+        @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(bookService.getBooksByIds(ids));
+    }
+
+    @PostMapping("/ratings")
+    @Operation(
+        summary = "Get rating summaries for several books",
+        description = "Returns the average rating and review count for up to 500 books, in request order, using a single grouped query. Books without reviews (or unknown IDs) report 0.0 and 0."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Rating summaries calculated successfully",
+            content = @Content(schema = @Schema(implementation = RatingSummaryDTO.class))),
+        @ApiResponse(responseCode = "400", description = "No IDs or too many IDs provided")
     })
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
-        List<BookDTO> bookDTO = bookService.getAllBooks().stream()
-            .map(BookMapper::toDTO)
+    public ResponseEntity<List<RatingSummaryDTO>> getRatingSummaries(
+        @Parameter(description = "IDs of the books to summarise", required = true)
+        @RequestBody @Valid RatingSummaryRequestDTO request) {
+        List<Long> bookIds = request.getBookIds().stream()
+            .distinct()
             .toList();
-        return ResponseEntity.ok(bookDTO);
+        Map<Long, RatingSummaryDTO> summaries = bookService.getRatingSummaries(bookIds);
+        return ResponseEntity.ok(bookIds.stream()
+            .map(summaries::get)
+            .toList());
     }
 
     @GetMapping("/{id}")
@@ -96,14 +197,71 @@ public class BookController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Book found and retrieved successfully",
             content = @Content(schema = @Schema(implementation = BookDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Book unchanged since If-None-Match / If-Modified-Since"),
         @ApiResponse(responseCode = "404", description = "Book not found with the given ID")
     })
     public ResponseEntity<BookDTO> getBookById(
         @Parameter(description = "ID of the book to retrieve", required = true)
+        @PathVariable Long id,
+        WebRequest webRequest) {
+        // Version check first: an unchanged book reuses the last body without loading the entity
+        LastKnownGoodCache.Read<BookDTO> read = lastKnownGood.read("book:" + id, previous -> {
+            BookVersionDTO version = bookService.getBookVersion(id).orElseThrow(() -> new BookNotFoundException(id));
+            if (previous != null && previous.eTag().equals(version.bookETag())) {
+                return previous;
+            }
+            BookDTO book = bookService.getBookDTOOrThrow(id);
+            return new LastKnownGoodCache.Snapshot<>(version.bookETag(), version.lastModifiedMillis(), book);
+        });
+        return LastKnownGoodResponses.of(read, webRequest);
+    }
+
+    @GetMapping("/{id}/detail")
+    @Operation(
+        summary = "Get book detail",
+        description = "Returns the book, the first page of its reviews and its rating stats in one response. The parts are loaded concurrently under one deadline; if the rating stats fail or time out they are omitted and listed in 'degraded'."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Book detail assembled successfully",
+            content = @Content(schema = @Schema(implementation = BookDetailDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Book and reviews unchanged since If-None-Match / If-Modified-Since"),
+        @ApiResponse(responseCode = "404", description = "Book not found with the given ID"),
+        @ApiResponse(responseCode = "503", description = "Book or reviews could not be loaded before the deadline")
+    })
+    public ResponseEntity<BookDetailDTO> getBookDetail(
+        @Parameter(description = "ID of the book to retrieve", required = true)
+        @PathVariable Long id,
+        WebRequest webRequest) {
+        Optional<BookVersionDTO> version = bookService.getBookVersion(id);
+        if (version.isPresent()
+                && webRequest.checkNotModified(version.get().detailETag(), version.get().lastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(bookDetailService.getBookDetail(id));
+    }
+
+    @GetMapping(value = "/{id}/events", produces = "text/event-stream")
+    @Operation(
+        summary = "Stream review changes of a book",
+        description = "Server-Sent Events: review-created, review-updated and review-deleted for writes on this node, rating with the new stats after every review change, book-deleted before the stream ends. A heartbeat comment is sent when there is nothing else. The stream is closed if the client falls behind; reconnect and reload."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened"),
+        @ApiResponse(responseCode = "404", description = "Book not found with the given ID"),
+        @ApiResponse(responseCode = "503", description = "Streaming is off or this node has no free stream; retry after Retry-After")
+    })
+    public ResponseEntity<SseEmitter> getBookEvents(
+        @Parameter(description = "ID of the book to follow", required = true)
         @PathVariable Long id) {
-        Book book = bookService.getBookByIdOrThrow(id);
-        BookDTO dto = BookMapper.toDTO(book);
-        return ResponseEntity.ok(dto);
+        // Version lookup only: one row, the book itself is not loaded
+        bookService.getBookVersion(id).orElseThrow(() -> new BookNotFoundException(id));
+        return bookEvents.subscribe(id)
+            .map(emitter -> ResponseEntity.ok().cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no") // Keeps a buffering proxy from holding events back
+                .body(emitter))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5").build());
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -135,11 +293,22 @@ public class BookController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Average rating calculated successfully"),
+        @ApiResponse(responseCode = "304", description = "Reviews unchanged since If-None-Match / If-Modified-Since"),
         @ApiResponse(responseCode = "404", description = "Book not found with the given ID")
     })
     public ResponseEntity<Double> getAverageRating(
         @Parameter(description = "ID of the book to get average rating for", required = true)
-        @PathVariable Long id) {
-        return ResponseEntity.ok(bookService.getAverageRating(id));
+        @PathVariable Long id,
+        WebRequest webRequest) {
+        LastKnownGoodCache.Read<Double> read = lastKnownGood.read("rating:" + id, previous -> {
+            BookVersionDTO version = bookService.getBookVersion(id).orElseThrow(() -> new BookNotFoundException(id));
+            if (previous != null && previous.eTag().equals(version.ratingETag())) {
+                return previous;
+            }
+            // Concurrent requests for the same review version share one load
+            double average = bookService.getAverageRating(id, version.getReviewVersion());
+            return new LastKnownGoodCache.Snapshot<>(version.ratingETag(), version.lastModifiedMillis(), average);
+        });
+        return LastKnownGoodResponses.of(read, webRequest);
     }
 }
\ No newline at end of file
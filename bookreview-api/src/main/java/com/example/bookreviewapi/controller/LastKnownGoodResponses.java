@@ -0,0 +1,29 @@
+package com.example.bookreviewapi.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.example.bookreviewapi.cache.LastKnownGoodCache;
+
+// Turns a last-known-good read into the 200/304 response, adding Warning and Age when it is stale
+final class LastKnownGoodResponses {
+
+    private LastKnownGoodResponses() {
+    }
+
+    static <T> ResponseEntity<T> of(LastKnownGoodCache.Read<T> read, WebRequest webRequest) {
+        HttpHeaders headers = new HttpHeaders();
+        if (read.isStale()) {
+            headers.set(HttpHeaders.WARNING, read.warning());
+            headers.set(HttpHeaders.AGE, Long.toString(read.ageSeconds()));
+        }
+        LastKnownGoodCache.Snapshot<T> snapshot = read.snapshot();
+        if (webRequest.checkNotModified(snapshot.eTag(), snapshot.lastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+        return ResponseEntity.ok().headers(headers).cacheControl(CacheControl.noCache()).body(snapshot.body());
+    }
+}
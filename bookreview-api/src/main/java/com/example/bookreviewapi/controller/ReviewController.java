@@ -7,9 +7,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import com.example.bookreviewapi.cache.LastKnownGoodCache;
+import com.example.bookreviewapi.service.BookService;
 import com.example.bookreviewapi.service.ReviewService;
 import com.example.bookreviewapi.service.UserService;
 import com.example.bookreviewapi.model.User;
@@ -17,9 +23,15 @@ import com.example.bookreviewapi.model.User;
 import jakarta.validation.Valid;
 
 import com.example.bookreviewapi.mapper.ReviewMapper;
+import com.example.bookreviewapi.dto.BookVersionDTO;
 import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.dto.ReviewField;
+import com.example.bookreviewapi.dto.SelectableField;
+import com.example.bookreviewapi.exception.BookNotFoundException;
+import com.example.bookreviewapi.exception.InvalidReviewDataException;
 import com.example.bookreviewapi.dto.CreateReviewDTO;
 import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.writebehind.ReviewWriteBehind;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +42,9 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -43,10 +58,17 @@ public class ReviewController {
 
     private final ReviewService reviewService;
     private final UserService userService;
+    private final BookService bookService;
+    private final LastKnownGoodCache lastKnownGood;
+    private final ReviewWriteBehind writeBehind;
 
-    public ReviewController(ReviewService reviewService, UserService userService) {
+    public ReviewController(ReviewService reviewService, UserService userService, BookService bookService,
+                            LastKnownGoodCache lastKnownGood, ReviewWriteBehind writeBehind) {
         this.reviewService = reviewService;
         this.userService = userService;
+        this.bookService = bookService;
+        this.lastKnownGood = lastKnownGood;
+        this.writeBehind = writeBehind;
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -58,6 +80,8 @@ public class ReviewController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Review created successfully",
             content = @Content(schema = @Schema(implementation = ReviewDTO.class))),
+        @ApiResponse(responseCode = "202", description = "Review accepted and queued for writing (write-behind mode)",
+            content = @Content(schema = @Schema(implementation = ReviewDTO.class))),
         @ApiResponse(responseCode = "400", description = "Invalid review data provided"),
         @ApiResponse(responseCode = "404", description = "Book not found with the given ID")
     })
@@ -71,6 +95,11 @@ public class ReviewController {
         User user = userService.findByUsername(username);
         Review review = ReviewMapper.toEntity(createReviewDTO);
         review.setUser(user);
+        // Write-behind: validated now, written with the next batch
+        Optional<Review> queued = writeBehind.submit(bookId, review);
+        if (queued.isPresent()) {
+            return ResponseEntity.accepted().body(ReviewMapper.toDTO(queued.get()));
+        }
         Review savedReview = reviewService.saveReview(bookId, review);
         return ResponseEntity.ok(ReviewMapper.toDTO(savedReview));
     }
@@ -126,14 +155,54 @@ public class ReviewController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully",
             content = @Content(schema = @Schema(implementation = ReviewDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Reviews unchanged since If-None-Match / If-Modified-Since"),
         @ApiResponse(responseCode = "404", description = "Book not found with the given ID")
     })
     public ResponseEntity<List<ReviewDTO>> getReviewsByBookId(
         @Parameter(description = "ID of the book to get reviews for", required = true)
-        @PathVariable Long bookId) {
-        List<ReviewDTO> reviewDTO = reviewService.getReviewsByBookId(bookId).stream()
-            .map(ReviewMapper::toDTO)
-            .toList();
-        return ResponseEntity.ok(reviewDTO);
+        @PathVariable Long bookId,
+        WebRequest webRequest) {
+        // Version check first: unchanged review sets are answered without running the list query
+        LastKnownGoodCache.Read<List<ReviewDTO>> read = lastKnownGood.read("reviews:" + bookId, previous -> {
+            BookVersionDTO version = bookService.getBookVersion(bookId).orElseThrow(() -> new BookNotFoundException(bookId));
+            if (previous != null && previous.eTag().equals(version.reviewsETag())) {
+                return previous;
+            }
+            // Concurrent requests for the same review version share one load
+            List<ReviewDTO> reviewDTO = reviewService.getReviewsByBookId(bookId, version.getReviewVersion());
+            return new LastKnownGoodCache.Snapshot<>(version.reviewsETag(), version.lastModifiedMillis(), reviewDTO);
+        });
+        return LastKnownGoodResponses.of(read, webRequest);
+    }
+
+    @GetMapping(params = "fields")
+    @Operation(
+        summary = "Get all reviews for a book with selected fields only",
+        description = "Sparse fieldset of the review list: only the listed fields are selected from the database and returned. Allowed fields: id, comment, rating, reviewerName, userId, createdAt, updatedAt."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Reviews unchanged since If-None-Match / If-Modified-Since"),
+        @ApiResponse(responseCode = "400", description = "Empty or unknown field requested"),
+        @ApiResponse(responseCode = "404", description = "Book not found with the given ID")
+    })
+    public ResponseEntity<List<Map<String, Object>>> getReviewFieldsByBookId(
+        @Parameter(description = "ID of the book to get reviews for", required = true)
+        @PathVariable Long bookId,
+        @Parameter(description = "Comma-separated fields to return, e.g. rating,reviewerName", required = true)
+        @RequestParam String fields,
+        WebRequest webRequest) {
+        // Whitelist check before anything touches the database
+        Set<ReviewField> selected = SelectableField.parse(fields, ReviewField.class, InvalidReviewDataException::new);
+
+        Optional<BookVersionDTO> version = bookService.getBookVersion(bookId);
+        if (version.isPresent()
+                && webRequest.checkNotModified(SelectableField.eTag(version.get().reviewsETag(), selected),
+                                               version.get().lastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<Map<String, Object>> reviews = reviewService.getReviewFieldsByBookId(bookId, selected);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(reviews);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.example.bookreviewapi.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.service.ReviewService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+// Review lists that are not per book; with sharded reviews these read every shard
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Review Management", description = "APIs for managing book reviews")
+public class ReviewFeedController {
+
+    private final ReviewService reviewService;
+
+    public ReviewFeedController(ReviewService reviewService) {
+        this.reviewService = reviewService;
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/reviews/latest")
+    @Operation(
+        summary = "Get the latest reviews",
+        description = "Retrieves the newest reviews across all books, newest first."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ReviewDTO.class))),
+        @ApiResponse(responseCode = "400", description = "limit is not between 1 and 100")
+    })
+    public ResponseEntity<List<ReviewDTO>> getLatestReviews(
+        @Parameter(description = "Number of reviews to return (1-100)")
+        @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(reviewService.getLatestReviews(limit));
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/users/{userId}/reviews")
+    @Operation(
+        summary = "Get all reviews by a user",
+        description = "Retrieves every review written by a user, newest first."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ReviewDTO.class)))
+    })
+    public ResponseEntity<List<ReviewDTO>> getReviewsByUserId(
+        @Parameter(description = "ID of the user whose reviews to get", required = true)
+        @PathVariable Long userId) {
+        return ResponseEntity.ok(reviewService.getReviewsByUserId(userId));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bookreviewapi.datasource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+/**
+ * Local stand-in for replication: makes each in-memory H2 "replica" see the primary's tables
+ * through read-only linked tables, so the replica routing can be exercised with two H2
+ * databases. Runs once every singleton (including the schema Hibernate creates) is in place.
+ * Linked tables have no lag; set a lag query and stop a replica to try the health checks.
+ */
+public class H2ReplicaLinker implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(H2ReplicaLinker.class);
+
+    private final DataSourceProperties primary;
+    private final ReplicaSet replicaSet;
+
+    public H2ReplicaLinker(DataSourceProperties primary, ReplicaSet replicaSet) {
+        this.primary = primary;
+        this.replicaSet = replicaSet;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String url = primary.determineUrl();
+        String username = primary.determineUsername();
+        String password = primary.determinePassword();
+        try {
+            List<String> tables = primaryTables(url, username, password);
+            for (ReplicaSet.Replica replica : replicaSet.getReplicas()) {
+                try (Connection connection = replica.getDataSource().getConnection()) {
+                    connection.setReadOnly(false);
+                    try (Statement statement = connection.createStatement()) {
+                        for (String table : tables) {
+                            statement.execute("CREATE LINKED TABLE IF NOT EXISTS \"" + table + "\"("
+                                + literal("org.h2.Driver") + ", " + literal(url) + ", " + literal(username) + ", "
+                                + literal(password) + ", 'PUBLIC', " + literal(table) + ") READONLY");
+                        }
+                    }
+                }
+                logger.info("Linked {} primary tables into H2 replica {}", tables.size(), replica.getName());
+            }
+            replicaSet.checkAll();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not link the H2 replica tables", e);
+        }
+    }
+
+    private static List<String> primaryTables(String url, String username, String password) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                 + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    private static String literal(String value) {
+        return "'" + (value == null ? "" : value.replace("'", "''")) + "'";
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.bookreviewapi.datasource;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+import com.example.bookreviewapi.resilience.Lane;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hedged requests for idempotent reads. The read runs on the caller's thread; if it has not
+ * answered within the operation's hedge delay, the same read is sent to another replica (or the
+ * primary) on a virtual thread and whichever answers first wins. A fast read, which is nearly
+ * all of them, costs no thread hop. The losing attempt is cancelled: its connection is aborted,
+ * which ends a query blocked in JDBC I/O, and its thread is interrupted, which ends a wait for a
+ * pool connection.
+ *
+ * The delay is the configured percentile of the operation's recent latencies, so only the slow
+ * tail is hedged. Hedges are paid from a budget that every read tops up by budget-percent of a
+ * hedge, which caps them at that share of traffic (plus a small burst).
+ *
+ * Only active with read replicas. Reads pinned to the primary are never hedged, and neither are
+ * reads inside a transaction: their connection belongs to that transaction, which cancelling it
+ * would break.
+ */
+@Component
+public class HedgedReads {
+
+    static final String METRIC = "bookreview.hedge.reads";
+
+    // Budget in thousandths of a hedge; at most this many hedges can be saved up
+    private static final long HEDGE_COST = 1000;
+    private static final long MAX_SAVED_HEDGES = 10;
+
+    private static final int SAMPLES = 512;
+    private static final int MIN_SAMPLES = 32;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long creditPerRead;
+    private final AtomicLong budget = new AtomicLong(HEDGE_COST * MAX_SAVED_HEDGES);
+    private final Map<String, Latencies> latencies = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timers = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "hedge-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService hedges = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public HedgedReads(MeterRegistry meterRegistry, ObjectProvider<ReplicaSet> replicaSet,
+                       @Value("${bookreview.hedge.enabled:true}") boolean enabled,
+                       @Value("${bookreview.hedge.percentile:95}") int percentile,
+                       @Value("${bookreview.hedge.min-delay-ms:10}") long minDelayMs,
+                       @Value("${bookreview.hedge.max-delay-ms:500}") long maxDelayMs,
+                       @Value("${bookreview.hedge.budget-percent:5}") double budgetPercent) {
+        this(meterRegistry, enabled && replicaSet.getIfAvailable() != null, percentile, minDelayMs, maxDelayMs,
+            budgetPercent);
+    }
+
+    public HedgedReads(MeterRegistry meterRegistry, boolean enabled, int percentile, long minDelayMs,
+                       long maxDelayMs, double budgetPercent) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.creditPerRead = Math.round(HEDGE_COST * budgetPercent / 100);
+        timers.setRemoveOnCancelPolicy(true); // Nearly every timer is cancelled, don't keep them queued
+        Gauge.builder("bookreview.hedge.budget", budget, value -> value.get() / (double) HEDGE_COST)
+            .description("Hedges that can be sent right now").register(meterRegistry);
+    }
+
+    /**
+     * Runs an idempotent read, hedging it when it is slow. A hedge runs on another thread, so
+     * the read must not depend on state bound to the caller's thread other than its primary pin
+     * and lane, which are carried over.
+     */
+    public <T> T execute(String operation, Supplier<T> read) {
+        if (!enabled || PrimaryReads.isPinned() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return read.get();
+        }
+        Latencies stats = latencies.computeIfAbsent(operation, this::newLatencies);
+        deposit();
+
+        long start = System.nanoTime();
+        Race<T> race = new Race<>(Thread.currentThread(), ReadAttempt.first());
+        // Only a read still running after the delay gets a thread for its hedge
+        Callable<Void> sendHedge = Lane.callable(() -> {
+            sendHedge(race, read);
+            return null;
+        });
+        ScheduledFuture<?> timer = timers.schedule(() -> {
+            race.sent = hedges.submit(sendHedge);
+        }, stats.delayNanos, TimeUnit.NANOSECONDS);
+
+        T value;
+        try {
+            value = race.first.wrap(read::get).call();
+        } catch (Exception e) {
+            if (!race.firstEnded()) {
+                return hedgeWon(operation, stats, start, race);
+            }
+            // The hedge may still answer; otherwise this failure is the read's
+            if (race.claim(Race.FIRST)) {
+                timer.cancel(false);
+                meterRegistry.counter(METRIC, "operation", operation, "result", "failed").increment();
+                throw e instanceof RuntimeException runtime ? runtime : new DatabaseOperationException(operation, e);
+            }
+            return awaitHedge(operation, stats, start, race, e);
+        }
+        if (!race.firstEnded()) {
+            return hedgeWon(operation, stats, start, race);
+        }
+        String result;
+        if (race.claim(Race.FIRST)) {
+            timer.cancel(false);
+            result = "not-hedged";
+        } else {
+            race.cancelHedge();
+            result = race.budgetExhausted ? "budget-exhausted" : "first-won";
+        }
+        stats.record(System.nanoTime() - start);
+        meterRegistry.counter(METRIC, "operation", operation, "result", result).increment();
+        return value;
+    }
+
+    // Runs on a virtual thread once the delay is up: sends the hedge unless the first answered
+    private <T> void sendHedge(Race<T> race, Supplier<T> read) {
+        // Both written before the claim, which the caller reads after
+        race.second = ReadAttempt.hedgeFor(race.first);
+        boolean funded = withdraw();
+        race.budgetExhausted = !funded;
+        if (!race.claim(Race.HEDGE)) {
+            if (funded) {
+                refund();
+            }
+            race.hedge.cancel(false);
+            return;
+        }
+        if (!funded) {
+            race.hedge.cancel(false);
+            return;
+        }
+        T value;
+        try {
+            value = race.second.wrap(read::get).call();
+        } catch (Exception e) {
+            race.hedge.completeExceptionally(e);
+            return;
+        }
+        race.hedge.complete(value);
+        race.hedgeAnswered();
+    }
+
+    private <T> T hedgeWon(String operation, Latencies stats, long start, Race<T> race) {
+        race.awaitCancelled();
+        return finish(operation, stats, start, race.hedge.join(), "hedge-won");
+    }
+
+    // The first attempt failed after the hedge was sent: its answer decides
+    private <T> T awaitHedge(String operation, Latencies stats, long start, Race<T> race, Exception firstFailure) {
+        T value;
+        try {
+            value = race.hedge.get();
+        } catch (ExecutionException | CancellationException e) {
+            meterRegistry.counter(METRIC, "operation", operation, "result", "failed").increment();
+            throw firstFailure instanceof RuntimeException runtime ? runtime
+                : new DatabaseOperationException(operation, firstFailure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException(operation + " interrupted", e);
+        }
+        return finish(operation, stats, start, value, "hedge-won");
+    }
+
+    private <T> T finish(String operation, Latencies stats, long start, T value, String result) {
+        // Time to the first answer: a lower bound for a slow attempt that lost
+        stats.record(System.nanoTime() - start);
+        meterRegistry.counter(METRIC, "operation", operation, "result", result).increment();
+        return value;
+    }
+
+    /** Whether the read running on this thread is an attempt that lost its race and was cancelled. */
+    public static boolean isCancelledAttempt() {
+        ReadAttempt attempt = ReadAttempt.current();
+        return attempt != null && attempt.isCancelled();
+    }
+
+    private void deposit() {
+        long cap = HEDGE_COST * MAX_SAVED_HEDGES;
+        budget.getAndUpdate(current -> Math.min(cap, current + creditPerRead));
+    }
+
+    private void refund() {
+        long cap = HEDGE_COST * MAX_SAVED_HEDGES;
+        budget.getAndUpdate(current -> Math.min(cap, current + HEDGE_COST));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+
+    long delayNanos(String operation) {
+        Latencies stats = latencies.get(operation);
+        return stats == null ? maxDelayNanos : stats.delayNanos;
+    }
+
+    private Latencies newLatencies(String operation) {
+        Latencies stats = new Latencies();
+        Gauge.builder("bookreview.hedge.delay", stats, s -> s.delayNanos / 1_000_000.0)
+            .tag("operation", operation)
+            .description("Wait before a read is hedged, ms").register(meterRegistry);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timers.shutdownNow();
+        hedges.shutdownNow();
+    }
+
+    /**
+     * One hedged read. Whoever claims it first decides whether a hedge goes out: the first
+     * attempt by answering (or failing) within the delay, the hedge by starting after it. A hedge
+     * that answers while the first attempt still runs cancels it and interrupts the caller, which
+     * then returns the hedge's answer.
+     */
+    private static final class Race<T> {
+        static final int FIRST = 1;
+        static final int HEDGE = 2;
+
+        final Thread caller;
+        final ReadAttempt first;
+        volatile ReadAttempt second; // Made when the delay is up, to avoid where the first one went
+        final CompletableFuture<T> hedge = new CompletableFuture<>();
+        final AtomicInteger claimedBy = new AtomicInteger();
+        // Set by the caller once its attempt returned, or by a hedge that answered before that
+        final AtomicBoolean decided = new AtomicBoolean();
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        volatile boolean budgetExhausted;
+        volatile Future<?> sent;
+
+        Race(Thread caller, ReadAttempt first) {
+            this.caller = caller;
+            this.first = first;
+        }
+
+        boolean claim(int by) {
+            return claimedBy.compareAndSet(0, by);
+        }
+
+        // False when the hedge answered first and is cancelling this attempt
+        boolean firstEnded() {
+            return decided.compareAndSet(false, true);
+        }
+
+        // The first attempt answered first: abort the hedge's query and wake its thread
+        void cancelHedge() {
+            ReadAttempt attempt = second;
+            if (attempt != null) {
+                attempt.cancel();
+            }
+            Future<?> running = sent;
+            if (running != null) {
+                running.cancel(true);
+            }
+        }
+
+        void hedgeAnswered() {
+            if (decided.compareAndSet(false, true)) {
+                first.cancel();
+                caller.interrupt();
+                cancelled.countDown();
+            }
+        }
+
+        // Waits for the hedge to finish cancelling, then clears its interrupt off the caller
+        void awaitCancelled() {
+            while (true) {
+                try {
+                    cancelled.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // The hedge's interrupt, landing while we wait for it to finish
+                }
+            }
+            Thread.interrupted();
+        }
+    }
+
+    /** Ring of recent latencies; the hedge delay is recomputed from it every few samples. */
+    private final class Latencies {
+        private final long[] samples = new long[SAMPLES];
+        private int count;
+        private int index;
+        private int sinceRecompute;
+        private volatile long delayNanos = maxDelayNanos; // Until there is data to go on
+
+        synchronized void record(long nanos) {
+            samples[index] = nanos;
+            index = (index + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= MIN_SAMPLES && ++sinceRecompute >= RECOMPUTE_EVERY) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int rank = (int) Math.ceil(percentile / 100.0 * count) - 1;
+                long value = sorted[Math.max(0, Math.min(rank, count - 1))];
+                delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bookreviewapi.datasource;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread's reads as needing the primary, e.g. for a user inside their
+ * read-your-writes window (see {@link ReadYourWritesFilter}). Read-only transactions on a pinned
+ * thread skip the replicas.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PINNED.remove();
+    }
+
+    /** Runs the task with its reads on the primary, e.g. right after a commit on another thread. */
+    public static <T> T onPrimary(Supplier<T> task) {
+        boolean alreadyPinned = isPinned();
+        pin();
+        try {
+            return task.get();
+        } finally {
+            if (!alreadyPinned) {
+                clear();
+            }
+        }
+    }
+
+    /** Carries the caller's pin over to the thread that runs the task. */
+    public static <T> Supplier<T> supplier(Supplier<T> task) {
+        if (!isPinned()) {
+            return task;
+        }
+        return () -> {
+            boolean alreadyPinned = isPinned();
+            pin();
+            try {
+                return task.get();
+            } finally {
+                if (!alreadyPinned) {
+                    clear();
+                }
+            }
+        };
+    }
+
+    /** Carries the caller's pin over to the thread that runs the task. */
+    public static <T> Callable<T> callable(Callable<T> task) {
+        if (!isPinned()) {
+            return task;
+        }
+        return () -> {
+            boolean alreadyPinned = isPinned();
+            pin();
+            try {
+                return task.call();
+            } finally {
+                if (!alreadyPinned) {
+                    clear();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bookreviewapi.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+
+/**
+ * One attempt of a hedged read (see {@link HedgedReads}), visible to the routing on the thread
+ * that runs it: a hedge avoids the replica that serves the attempt it backs up.
+ */
+final class ReadAttempt {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<ReadAttempt> CURRENT = new ThreadLocal<>();
+
+    private final boolean hedge;
+    private final String avoid;
+    private volatile String servedBy;
+    private volatile Connection connection;
+    private volatile boolean cancelled;
+
+    private ReadAttempt(boolean hedge, String avoid) {
+        this.hedge = hedge;
+        this.avoid = avoid;
+    }
+
+    static ReadAttempt first() {
+        return new ReadAttempt(false, null);
+    }
+
+    /** Backup for first; avoids its target if it already has a connection. */
+    static ReadAttempt hedgeFor(ReadAttempt first) {
+        return new ReadAttempt(true, first.servedBy);
+    }
+
+    static ReadAttempt current() {
+        return CURRENT.get();
+    }
+
+    boolean isHedge() {
+        return hedge;
+    }
+
+    /** Replica (or PRIMARY) that the hedge should not use, may be null. */
+    String avoid() {
+        return avoid;
+    }
+
+    /** Where this attempt got its connection, null until it has one. */
+    String servedBy() {
+        return servedBy;
+    }
+
+    void servedBy(String target) {
+        servedBy = target;
+    }
+
+    /** The connection the routing handed this attempt, so cancel() can abort it mid-query. */
+    void connected(Connection connection) throws SQLException {
+        this.connection = connection;
+        if (cancelled) {
+            connection.close(); // Straight back to the pool, nothing ran on it
+            throw new SQLException("Read attempt cancelled, the other attempt answered first");
+        }
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Aborting (not closing) is what a JDBC driver allows from another thread
+    void cancel() {
+        cancelled = true;
+        Connection current = connection;
+        if (current != null) {
+            abort(current);
+        }
+    }
+
+    private static void abort(Connection connection) {
+        try {
+            connection.abort(Runnable::run);
+        } catch (SQLException | RuntimeException e) {
+            // Already closed or not supported: the attempt just runs to its end
+        }
+    }
+
+    <T> Callable<T> wrap(Callable<T> read) {
+        return () -> {
+            CURRENT.set(this);
+            try {
+                return read.call();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.bookreviewapi.datasource;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * The application DataSource when replicas are on. Connections are lazy: the physical one is
+ * only fetched at the first statement, by which time a read-only transaction has marked the
+ * connection read-only. Read-only connections then come from {@link ReplicaRoutingDataSource},
+ * everything else from the primary.
+ */
+public class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    public ReadWriteDataSource(DataSource primary, ReplicaRoutingDataSource readOnly) {
+        super(primary);
+        setReadOnlyDataSource(readOnly);
+    }
+
+    @Override
+    public void close() throws Exception {
+        // Replica pools belong to the ReplicaSet bean
+        if (getTargetDataSource() instanceof AutoCloseable primary) {
+            primary.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bookreviewapi.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Primary plus read replicas. Replaces Boot's single pool: the primary is still configured by
+ * spring.datasource.* (including spring.datasource.hikari.*), each URL in
+ * bookreview.datasource.replica.urls gets its own read-only pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bookreview.datasource.replicas.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaSet replicaSet(DataSourceProperties properties, MeterRegistry meterRegistry,
+                                 @Value("${bookreview.datasource.replica.urls}") String[] urls,
+                                 @Value("${bookreview.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                 @Value("${bookreview.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                 @Value("${bookreview.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+                                 @Value("${bookreview.datasource.replica.connection-timeout-ms:2000}") long connectionTimeoutMs,
+                                 @Value("${bookreview.datasource.replica.lag-query:}") String lagQuery,
+                                 @Value("${bookreview.datasource.replica.max-lag-seconds:10}") long maxLagSeconds,
+                                 @Value("${bookreview.datasource.replica.validation-timeout-seconds:2}") int validationTimeoutSeconds,
+                                 @Value("${bookreview.datasource.replica.health-check-interval-ms:5000}") long healthCheckIntervalMs) {
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("bookreview-replica-" + i);
+            pool.setJdbcUrl(urls[i].trim());
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setConnectionTimeout(connectionTimeoutMs);
+            // A replica that is down at startup must not stop the application
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(pool.getPoolName(), pool);
+        }
+        return new ReplicaSet(pools, meterRegistry, lagQuery, maxLagSeconds, validationTimeoutSeconds,
+            healthCheckIntervalMs);
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, ReplicaSet replicaSet,
+                                 MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (!StringUtils.hasText(primary.getPoolName())) {
+            primary.setPoolName("bookreview-primary");
+        }
+        return new ReadWriteDataSource(primary, new ReplicaRoutingDataSource(primary, replicaSet, meterRegistry));
+    }
+
+    @Bean
+    public ReplicaSetHealthIndicator replicaSetHealthIndicator(ReplicaSet replicaSet) {
+        return new ReplicaSetHealthIndicator(replicaSet);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "bookreview.datasource.replica.link-h2-tables", havingValue = "true")
+    public H2ReplicaLinker h2ReplicaLinker(DataSourceProperties properties, ReplicaSet replicaSet) {
+        return new H2ReplicaLinker(properties, replicaSet);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.bookreviewapi.datasource;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.example.bookreviewapi.config.SecurityConfig;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps replica lag invisible to the user who caused it. Write requests run pinned to the
+ * primary throughout, so the reads they do before writing are current. After a successful write
+ * the user's reads stay on the primary for the window, by which time the replicas have caught up.
+ *
+ * Runs after the security chain (default order) so the user is known.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final List<PathPattern> PUBLIC_POST = Arrays.stream(SecurityConfig.PUBLIC_POST_ROUTES)
+        .map(PathPatternParser.defaultInstance::parse).toList();
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    // Username -> end of the window, System.nanoTime() based
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReadYourWritesFilter(@Value("${bookreview.datasource.replicas.enabled:false}") boolean enabled,
+                                @Value("${bookreview.datasource.read-your-writes-ms:5000}") long windowMs) {
+        this(enabled, windowMs, System::nanoTime);
+    }
+
+    ReadYourWritesFilter(boolean enabled, long windowMs, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String user = currentUser();
+        boolean write = isWrite(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        if (!write && !isInWindow(user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        PrimaryReads.pin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryReads.clear();
+            if (write && user != null && response.getStatus() < 400) {
+                recordWrite(user);
+            }
+        }
+    }
+
+    void recordWrite(String user) {
+        long now = nanoClock.getAsLong();
+        if (pinnedUntil.size() >= SWEEP_THRESHOLD) {
+            // Users who wrote and never read again would otherwise stay forever
+            pinnedUntil.values().removeIf(until -> now - until >= 0);
+        }
+        pinnedUntil.put(user, now + windowNanos);
+    }
+
+    boolean isInWindow(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (nanoClock.getAsLong() - until >= 0) {
+            pinnedUntil.remove(user, until);
+            return false;
+        }
+        return true;
+    }
+
+    int trackedUsers() {
+        return pinnedUntil.size();
+    }
+
+    static boolean isWrite(String method, String path) {
+        return switch (method) {
+            case "GET", "HEAD", "OPTIONS", "TRACE" -> false;
+            // Public POSTs such as the rating summaries are reads
+            case "POST" -> PUBLIC_POST.stream().noneMatch(pattern -> pattern.matches(PathContainer.parsePath(path)));
+            default -> true;
+        };
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bookreviewapi.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Where read-only connections come from. A healthy replica, picked round robin, unless the
+ * thread is pinned to the primary ({@link PrimaryReads}) or no replica is healthy. A replica
+ * that cannot hand out a connection is marked down and the read goes to the primary instead,
+ * so a lost replica costs one pool timeout rather than failing reads until the next check.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    static final String METRIC = "bookreview.datasource.reads";
+
+    private final DataSource primary;
+    private final ReplicaSet replicas;
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicas, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PrimaryReads.isPinned()) {
+            return fromPrimary("read-your-writes");
+        }
+        ReadAttempt attempt = ReadAttempt.current();
+        if (attempt != null && attempt.isHedge()) {
+            return forHedge(attempt);
+        }
+        ReplicaSet.Replica replica = replicas.next(null);
+        if (replica == null) {
+            return fromPrimary("no-healthy-replica", attempt);
+        }
+        return fromReplica(replica, "read-only", attempt);
+    }
+
+    // A hedge goes to another healthy replica, or to the primary when the first attempt holds
+    // the only one (a fresh primary connection still sidesteps a stuck one)
+    private Connection forHedge(ReadAttempt attempt) throws SQLException {
+        ReplicaSet.Replica replica = replicas.next(attempt.avoid());
+        if (replica == null) {
+            return fromPrimary("hedge", attempt);
+        }
+        return fromReplica(replica, "hedge", attempt);
+    }
+
+    private Connection fromReplica(ReplicaSet.Replica replica, String reason, ReadAttempt attempt) throws SQLException {
+        try {
+            Connection connection = replica.getDataSource().getConnection();
+            meterRegistry.counter(METRIC, "target", "replica", "reason", reason).increment();
+            if (attempt != null) {
+                attempt.servedBy(replica.getName());
+            }
+            return connected(connection, attempt);
+        } catch (SQLException | RuntimeException e) {
+            if (attempt != null && attempt.isCancelled()) {
+                throw e; // Lost its race, the replica is fine
+            }
+            replicas.markDown(replica, e);
+            return fromPrimary("replica-failed", attempt);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Replica routing uses the pools' own credentials");
+    }
+
+    private Connection fromPrimary(String reason) throws SQLException {
+        return fromPrimary(reason, null);
+    }
+
+    private Connection fromPrimary(String reason, ReadAttempt attempt) throws SQLException {
+        meterRegistry.counter(METRIC, "target", "primary", "reason", reason).increment();
+        if (attempt != null) {
+            attempt.servedBy(ReadAttempt.PRIMARY);
+        }
+        return connected(primary.getConnection(), attempt);
+    }
+
+    private static Connection connected(Connection connection, ReadAttempt attempt) throws SQLException {
+        if (attempt != null) {
+            attempt.connected(connection);
+        }
+        return connection;
+    }
+}
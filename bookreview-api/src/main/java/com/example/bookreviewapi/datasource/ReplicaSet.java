@@ -0,0 +1,196 @@
+package com.example.bookreviewapi.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The read replicas and their health. A replica takes reads only while its last check passed:
+ * the connection is valid and, when a lag query is configured, it is no more than maxLagSeconds
+ * behind. A replica whose pool fails to hand out a connection is taken out at once and comes
+ * back with the next passing check.
+ */
+public class ReplicaSet implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaSet.class);
+
+    /** One replica pool; lastError is null while it is healthy. */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile String lastError = "not checked yet";
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final int validationTimeoutSeconds;
+    private final long checkIntervalMs;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private ScheduledExecutorService checker;
+
+    public ReplicaSet(Map<String, DataSource> replicas, MeterRegistry meterRegistry, String lagQuery,
+                      long maxLagSeconds, int validationTimeoutSeconds, long checkIntervalMs) {
+        List<Replica> list = new ArrayList<>();
+        replicas.forEach((name, dataSource) -> list.add(new Replica(name, dataSource)));
+        this.replicas = Collections.unmodifiableList(list);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.checkIntervalMs = checkIntervalMs;
+        Gauge.builder("bookreview.datasource.replicas.healthy", this, set -> set.healthyCount())
+            .description("Read replicas currently taking reads").register(meterRegistry);
+    }
+
+    /** Checks every replica now, then keeps checking in the background. */
+    public void start() {
+        checkAll();
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkAll, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Next healthy replica in round-robin order, skipping the one named avoid (may be null), or
+     * null when there is none.
+     */
+    public Replica next(String avoid) {
+        int size = replicas.size();
+        int start = Math.floorMod(nextIndex.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy && !replica.name.equals(avoid)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public void markDown(Replica replica, Throwable cause) {
+        if (replica.healthy) {
+            logger.warn("Read replica {} taken out of rotation: {}", replica.name, cause.toString());
+        }
+        replica.healthy = false;
+        replica.lastError = cause.toString();
+    }
+
+    void checkAll() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+    }
+
+    void check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(validationTimeoutSeconds)) {
+                throw new SQLException("connection is not valid");
+            }
+            if (StringUtils.hasText(lagQuery)) {
+                long lag = lagSeconds(connection);
+                if (lag > maxLagSeconds) {
+                    throw new SQLException("replica is " + lag + "s behind (max " + maxLagSeconds + "s)");
+                }
+            }
+            if (!replica.healthy) {
+                logger.info("Read replica {} back in rotation", replica.name);
+            }
+            replica.lastError = null;
+            replica.healthy = true;
+        } catch (SQLException | RuntimeException e) {
+            markDown(replica, e);
+        }
+    }
+
+    private long lagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(validationTimeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                // No row, e.g. replication not running, counts as infinitely behind
+                return resultSet.next() ? resultSet.getLong(1) : Long.MAX_VALUE;
+            }
+        }
+    }
+
+    int healthyCount() {
+        int count = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Name to state, for the health endpoint. */
+    Map<String, String> describe() {
+        Map<String, String> states = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            states.put(replica.name, replica.healthy ? "UP" : "DOWN (" + replica.lastError + ")");
+        }
+        return states;
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Could not close read replica {}", replica.name, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bookreviewapi.datasource;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+// Shows up as "replicaSet" under /actuator/health. A lost replica only moves reads to the
+// primary, so it reports UNKNOWN rather than DOWN and never fails the overall status.
+public class ReplicaSetHealthIndicator implements HealthIndicator {
+
+    private final ReplicaSet replicaSet;
+
+    public ReplicaSetHealthIndicator(ReplicaSet replicaSet) {
+        this.replicaSet = replicaSet;
+    }
+
+    @Override
+    public Health health() {
+        int healthy = replicaSet.healthyCount();
+        Health.Builder builder = healthy == replicaSet.getReplicas().size() ? Health.up() : Health.unknown();
+        return builder
+            .withDetail("healthy", healthy)
+            .withDetail("replicas", replicaSet.describe())
+            .build();
+    }
+}
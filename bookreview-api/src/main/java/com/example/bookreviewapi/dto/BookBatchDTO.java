@@ -0,0 +1,16 @@
+package com.example.bookreviewapi.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchDTO {
+
+    private List<BookDTO> books; // Found books, in the requested order
+    private List<Long> missingIds; // Requested IDs with no matching book
+}
@@ -1,12 +1,30 @@
 package com.example.bookreviewapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class BookDTO {
     
     private Long id;
     private String title;
     private String author;
     private String genre;
-}
\ No newline at end of file
+
+    // Only filled when ratings are requested (GET /api/books?includeRatings=true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double avgRating;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long reviewCount;
+
+    // Used by the JPQL constructor projections in BookRepository (reviews are not loaded)
+    public BookDTO(Long id, String title, String author, String genre) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.genre = genre;
+    }
+}
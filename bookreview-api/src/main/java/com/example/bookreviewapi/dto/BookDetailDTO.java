@@ -0,0 +1,30 @@
+package com.example.bookreviewapi.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookDetailDTO {
+
+    private BookDTO book;
+    private List<ReviewDTO> reviews; // First page of reviews, oldest first
+    private RatingSummaryDTO ratingStats; // Null when the stats could not be loaded in time
+    private List<String> degraded; // Names of optional parts that were left out, e.g. "ratingStats"
+
+    // From the book_summary read model only (bookreview.read-model.enabled)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> ratingHistogram; // Reviews with 1..5 stars
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LatestReviewDTO latestReview; // Null when the book has no reviews
+
+    public BookDetailDTO(BookDTO book, List<ReviewDTO> reviews, RatingSummaryDTO ratingStats, List<String> degraded) {
+        this(book, reviews, ratingStats, degraded, null, null);
+    }
+}
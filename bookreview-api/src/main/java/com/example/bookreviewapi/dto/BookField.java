@@ -0,0 +1,31 @@
+package com.example.bookreviewapi.dto;
+
+/**
+ * Whitelist for GET /api/books?fields=... (same names and order as BookDTO).
+ * The rating fields are not selectable here, they come with includeRatings=true.
+ */
+public enum BookField implements SelectableField {
+
+    ID("id", "b.id"),
+    TITLE("title", "b.title"),
+    AUTHOR("author", "b.author"),
+    GENRE("genre", "b.genre");
+
+    private final String fieldName;
+    private final String path;
+
+    BookField(String fieldName, String path) {
+        this.fieldName = fieldName;
+        this.path = path;
+    }
+
+    @Override
+    public String fieldName() {
+        return fieldName;
+    }
+
+    @Override
+    public String path() {
+        return path;
+    }
+}
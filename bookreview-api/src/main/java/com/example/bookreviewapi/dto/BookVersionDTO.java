@@ -0,0 +1,53 @@
+package com.example.bookreviewapi.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change counters of one book, read with a single-row projection before any full query runs.
+ * The ETags are strong: they change exactly when the underlying counters change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookVersionDTO {
+
+    private Long id;
+    private long version;
+    private long reviewVersion;
+    private LocalDateTime updatedAt;
+
+    // GET /api/books/{id}
+    public String bookETag() {
+        return "\"book-" + id + "-" + version + "\"";
+    }
+
+    // GET /api/books/{id}/reviews
+    public String reviewsETag() {
+        return "\"reviews-" + id + "-" + reviewVersion + "\"";
+    }
+
+    // GET /api/books/{id}/average-rating
+    public String ratingETag() {
+        return "\"rating-" + id + "-" + reviewVersion + "\"";
+    }
+
+    // GET /api/books/{id}/detail
+    public String detailETag() {
+        return "\"detail-" + id + "-" + version + "-" + reviewVersion + "\"";
+    }
+
+    // Epoch millis for Last-Modified, -1 when unknown (header is then left out)
+    public long lastModifiedMillis() {
+        return toEpochMillis(updatedAt);
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        // Timestamps are written with LocalDateTime.now(), i.e. in the server's zone
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bookreviewapi.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version of the catalogue as a whole, from one aggregate row over the book table.
+ * Any insert moves count/maxId, any delete moves count, any book or review change moves the sums.
+ * There is deliberately no Last-Modified here: a delete does not move MAX(updated_at).
+ */
+@Data
+@NoArgsConstructor
+public class CatalogueVersionDTO {
+
+    private long bookCount;
+    private long maxBookId;
+    private long versionSum;
+    private long reviewVersionSum;
+
+    // Used by the aggregate JPQL query in BookRepository (aggregates are null on an empty table)
+    public CatalogueVersionDTO(Long bookCount, Long maxBookId, Long versionSum, Long reviewVersionSum) {
+        this.bookCount = bookCount != null ? bookCount : 0L;
+        this.maxBookId = maxBookId != null ? maxBookId : 0L;
+        this.versionSum = versionSum != null ? versionSum : 0L;
+        this.reviewVersionSum = reviewVersionSum != null ? reviewVersionSum : 0L;
+    }
+
+    // GET /api/books; review changes only matter when ratings are part of the body
+    public String eTag(boolean includeRatings) {
+        String base = "books-" + bookCount + "-" + maxBookId + "-" + versionSum;
+        return "\"" + (includeRatings ? base + "-r" + reviewVersionSum : base) + "\"";
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bookreviewapi.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A book's newest review as kept in the book_summary read model: only the start of the comment.
+ * Also the projection of the "newest review per book" queries the read model is rebuilt from.
+ */
+@Data
+@NoArgsConstructor
+public class LatestReviewDTO {
+
+    public static final int SNIPPET_LENGTH = 200;
+
+    @JsonIgnore
+    private Long bookId;
+    private Long id;
+    private String reviewerName;
+    private String snippet;
+    private LocalDateTime createdAt;
+
+    // Also used by the JPQL constructor projection in ReviewRepository: the comment is cut here
+    public LatestReviewDTO(Long bookId, Long id, String reviewerName, String comment, LocalDateTime createdAt) {
+        this.bookId = bookId;
+        this.id = id;
+        this.reviewerName = reviewerName;
+        this.snippet = snippet(comment);
+        this.createdAt = createdAt;
+    }
+
+    public static String snippet(String comment) {
+        return comment == null || comment.length() <= SNIPPET_LENGTH ? comment : comment.substring(0, SNIPPET_LENGTH);
+    }
+}
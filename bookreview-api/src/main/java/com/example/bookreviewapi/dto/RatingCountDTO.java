@@ -0,0 +1,24 @@
+package com.example.bookreviewapi.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of reviews of one book with one rating: a row of the grouped (book, rating) queries the
+ * book_summary histogram is rebuilt from.
+ */
+@Data
+@NoArgsConstructor
+public class RatingCountDTO {
+
+    private Long bookId;
+    private int rating;
+    private long count;
+
+    // Used by the grouped JPQL query in ReviewRepository (COUNT -> Long)
+    public RatingCountDTO(Long bookId, Integer rating, Long count) {
+        this.bookId = bookId;
+        this.rating = rating != null ? rating : 0;
+        this.count = count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.bookreviewapi.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RatingSummaryDTO {
+
+    private Long bookId;
+    private double avgRating;
+    private long reviewCount;
+
+    // Used by the grouped JPQL queries in ReviewRepository (AVG -> Double, COUNT -> Long)
+    public RatingSummaryDTO(Long bookId, Double avgRating, Long reviewCount) {
+        this.bookId = bookId;
+        this.avgRating = avgRating != null ? avgRating : 0.0;
+        this.reviewCount = reviewCount != null ? reviewCount : 0L;
+    }
+
+    // Books without reviews report 0.0 / 0, same as GET /api/books/{id}/average-rating
+    public static RatingSummaryDTO empty(Long bookId) {
+        return new RatingSummaryDTO(bookId, 0.0, 0L);
+    }
+
+    // From the totals kept in book_summary
+    public static RatingSummaryDTO of(Long bookId, long ratingSum, long reviewCount) {
+        return new RatingSummaryDTO(bookId, average(ratingSum, reviewCount), reviewCount);
+    }
+
+    public static double average(long ratingSum, long reviewCount) {
+        return reviewCount == 0 ? 0.0 : (double) ratingSum / reviewCount;
+    }
+}
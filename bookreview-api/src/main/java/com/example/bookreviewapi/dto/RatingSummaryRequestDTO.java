@@ -0,0 +1,21 @@
+package com.example.bookreviewapi.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@Schema(description = "Data transfer object for requesting rating summaries of several books")
+public class RatingSummaryRequestDTO {
+
+    public static final int MAX_BOOK_IDS = 500;
+
+    @Schema(description = "IDs of the books to summarise", example = "[1, 2, 3]", required = true)
+    @NotEmpty(message = "At least one book ID is required")
+    @Size(max = MAX_BOOK_IDS, message = "No more than {max} book IDs can be requested at once")
+    private List<@NotNull(message = "Book IDs cannot be null") Long> bookIds;
+}
@@ -1,8 +1,14 @@
 package com.example.bookreviewapi.dto;
 
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class ReviewDTO {
     
     private Long id;
@@ -13,4 +19,31 @@ public class ReviewDTO {
     private String createdAt; // Formatted date
     private String updatedAt; // Formatted date
 
-}
\ No newline at end of file
+    // Raw timestamps, formatted on demand so list endpoints can stream them without a String per row
+    @JsonIgnore
+    private LocalDateTime createdAtTime;
+    @JsonIgnore
+    private LocalDateTime updatedAtTime;
+
+    // Used by the JPQL constructor projections in ReviewRepository (no entities are loaded)
+    public ReviewDTO(Long id, String comment, int rating, String reviewerName, Long userId,
+                     LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.comment = comment;
+        this.rating = rating;
+        this.reviewerName = reviewerName;
+        this.userId = userId;
+        this.createdAtTime = createdAt;
+        this.updatedAtTime = updatedAt;
+    }
+
+    // Formatted date (LocalDateTime.toString), the raw timestamp wins when present
+    public String getCreatedAt() {
+        return createdAtTime != null ? createdAtTime.toString() : createdAt;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAtTime != null ? updatedAtTime.toString() : updatedAt;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.example.bookreviewapi.dto;
+
+/**
+ * Whitelist for GET /api/books/{bookId}/reviews?fields=... (same names and order as ReviewDTO).
+ * Paths use the aliases of the review query: r = Review, u = its User.
+ */
+public enum ReviewField implements SelectableField {
+
+    ID("id", "r.id"),
+    COMMENT("comment", "r.comment"),
+    RATING("rating", "r.rating"),
+    REVIEWER_NAME("reviewerName", "u.username"),
+    USER_ID("userId", "u.id"),
+    CREATED_AT("createdAt", "r.createdAt"),
+    UPDATED_AT("updatedAt", "r.updatedAt");
+
+    private final String fieldName;
+    private final String path;
+
+    ReviewField(String fieldName, String path) {
+        this.fieldName = fieldName;
+        this.path = path;
+    }
+
+    @Override
+    public String fieldName() {
+        return fieldName;
+    }
+
+    @Override
+    public String path() {
+        return path;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bookreviewapi.dto;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A field a client may ask for with ?fields=..., mapped to the JPQL expression that selects it.
+ * Implemented by the per-resource whitelists (BookField, ReviewField).
+ */
+public interface SelectableField {
+
+    // JSON property name, as in the full DTO
+    String fieldName();
+
+    // JPQL select expression (constant, never built from client input)
+    String path();
+
+    /**
+     * Parses a comma-separated fields parameter against the whitelist. The result iterates in
+     * declaration order, so the trimmed JSON keeps the full DTO's property order.
+     */
+    static <E extends Enum<E> & SelectableField> EnumSet<E> parse(String fields, Class<E> type,
+                                                                Function<String, RuntimeException> invalid) {
+        EnumSet<E> selected = EnumSet.noneOf(type);
+        if (fields != null) {
+            for (String name : fields.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                E field = find(type, trimmed);
+                if (field == null) {
+                    throw invalid.apply("Unknown field '" + trimmed + "'. Allowed fields: " + allowed(type));
+                }
+                selected.add(field);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw invalid.apply("At least one field is required. Allowed fields: " + allowed(type));
+        }
+        return selected;
+    }
+
+    // Distinct representations need distinct ETags: "books-3-7-9" -> "books-3-7-9-f-id.title"
+    static String eTag(String eTag, Set<? extends SelectableField> fields) {
+        String suffix = fields.stream().map(SelectableField::fieldName).collect(Collectors.joining("."));
+        return eTag.substring(0, eTag.length() - 1) + "-f-" + suffix + "\"";
+    }
+
+    private static <E extends Enum<E> & SelectableField> E find(Class<E> type, String fieldName) {
+        for (E field : type.getEnumConstants()) {
+            if (field.fieldName().equals(fieldName)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static <E extends Enum<E> & SelectableField> String allowed(Class<E> type) {
+        return EnumSet.allOf(type).stream().map(SelectableField::fieldName).collect(Collectors.joining(", "));
+    }
+}
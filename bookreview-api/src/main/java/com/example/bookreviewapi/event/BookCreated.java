@@ -0,0 +1,7 @@
+package com.example.bookreviewapi.event;
+
+import java.time.Instant;
+
+public record BookCreated(long bookId, String title, String author, String genre, Instant occurredAt)
+        implements DomainEvent {
+}
@@ -0,0 +1,7 @@
+package com.example.bookreviewapi.event;
+
+import java.time.Instant;
+
+// The book's reviews went with it; no ReviewDeleted is published for them
+public record BookDeleted(long bookId, Instant occurredAt) implements DomainEvent {
+}
@@ -0,0 +1,16 @@
+package com.example.bookreviewapi.event;
+
+import java.time.Instant;
+
+/**
+ * Something that happened to a book or its reviews, delivered to every
+ * {@link DomainEventListener} once the change is committed (see {@link DomainEventPublisher}).
+ * Events of one book reach a listener in the order they were published.
+ */
+public sealed interface DomainEvent permits BookCreated, BookUpdated, BookDeleted, ReviewCreated, ReviewUpdated,
+        ReviewDeleted {
+
+    long bookId();
+
+    Instant occurredAt();
+}
@@ -0,0 +1,11 @@
+package com.example.bookreviewapi.event;
+
+/**
+ * Keeps derived state (aggregates, indexes, caches) in step with book and review changes. Every
+ * bean implementing it is called by {@link DomainEventPublisher} on one of its worker threads,
+ * after commit, never on the request thread.
+ */
+public interface DomainEventListener {
+
+    void onEvent(DomainEvent event);
+}
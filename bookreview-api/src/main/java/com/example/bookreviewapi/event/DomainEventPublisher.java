@@ -0,0 +1,134 @@
+package com.example.bookreviewapi.event;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.bookreviewapi.outbox.OutboxStore;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hands domain events to the {@link DomainEventListener} beans after the publishing transaction
+ * commits (immediately when there is none, i.e. the write already committed); a rolled-back
+ * write publishes nothing.
+ *
+ * Delivery runs on worker threads, one single-threaded lane per book id bucket, so the request
+ * never waits for a listener and each book's events stay in order. Every lane holds at most
+ * queue-capacity / threads events; when a lane is full the event is dropped and counted, rather
+ * than slowing down writes. A listener that throws is logged and does not affect the others.
+ *
+ * These in-process listeners lose queued events when the instance stops. Every event is
+ * therefore also written to the outbox in the publishing transaction, for consumers that must
+ * not miss one (see OutboxRelay).
+ */
+@Component
+public class DomainEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(DomainEventPublisher.class);
+
+    static final String METRIC = "bookreview.events";
+
+    private final MeterRegistry meterRegistry;
+    private final OutboxStore outbox;
+    private final ObjectProvider<DomainEventListener> listeners;
+    private final boolean enabled;
+    private final ThreadPoolExecutor[] lanes;
+
+    public DomainEventPublisher(MeterRegistry meterRegistry, OutboxStore outbox,
+                                ObjectProvider<DomainEventListener> listeners,
+                                @Value("${bookreview.events.enabled:true}") boolean enabled,
+                                @Value("${bookreview.events.threads:4}") int threads,
+                                @Value("${bookreview.events.queue-capacity:10000}") int queueCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.outbox = outbox;
+        this.listeners = listeners;
+        this.enabled = enabled;
+        this.lanes = new ThreadPoolExecutor[threads];
+        int laneCapacity = Math.max(1, queueCapacity / threads);
+        for (int i = 0; i < threads; i++) {
+            String name = "domain-events-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(laneCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+        Gauge.builder(METRIC + ".queued", this, DomainEventPublisher::queued)
+            .description("Domain events waiting for their listeners").register(meterRegistry);
+    }
+
+    public void publish(DomainEvent event) {
+        // Joins the caller's transaction: the row commits or rolls back with the change
+        outbox.append(event);
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Let queued events finish; whatever is still queued after that is lost
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void dispatch(DomainEvent event) {
+        String type = event.getClass().getSimpleName();
+        ThreadPoolExecutor lane = lanes[(int) Math.floorMod(event.bookId(), (long) lanes.length)];
+        try {
+            lane.execute(() -> deliver(event, type));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter(METRIC, "type", type, "result", "dropped").increment();
+            logger.warn("Domain event queue full, dropped {}", event);
+        }
+    }
+
+    private void deliver(DomainEvent event, String type) {
+        List<DomainEventListener> targets = listeners.orderedStream().toList();
+        for (DomainEventListener listener : targets) {
+            try {
+                listener.onEvent(event);
+                meterRegistry.counter(METRIC, "type", type, "result", "delivered").increment();
+            } catch (RuntimeException e) {
+                meterRegistry.counter(METRIC, "type", type, "result", "failed").increment();
+                logger.warn("Domain event listener {} failed on {}", listener.getClass().getSimpleName(), event, e);
+            }
+        }
+    }
+
+    private int queued() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+}
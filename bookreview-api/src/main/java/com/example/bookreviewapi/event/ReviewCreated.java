@@ -0,0 +1,7 @@
+package com.example.bookreviewapi.event;
+
+import java.time.Instant;
+
+public record ReviewCreated(Long reviewId, long bookId, Long userId, int rating, Instant occurredAt)
+        implements DomainEvent {
+}
@@ -0,0 +1,6 @@
+package com.example.bookreviewapi.event;
+
+import java.time.Instant;
+
+public record ReviewDeleted(Long reviewId, long bookId, int oldRating, Instant occurredAt) implements DomainEvent {
+}
@@ -0,0 +1,8 @@
+package com.example.bookreviewapi.event;
+
+import java.time.Instant;
+
+// Both ratings, so aggregates can apply the difference without reading the review back
+public record ReviewUpdated(Long reviewId, long bookId, Long userId, int oldRating, int newRating, Instant occurredAt)
+        implements DomainEvent {
+}
@@ -0,0 +1,34 @@
+package com.example.bookreviewapi.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers events synchronously to every bus started on the same instance: on its own a no-op
+ * for a single node, and several buses sharing one instance stand in for a cluster in tests.
+ */
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<InvalidationEvent>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String name() {
+        return "in-memory";
+    }
+
+    @Override
+    public void start(Consumer<InvalidationEvent> receiver) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        receivers.forEach(receiver -> receiver.accept(event));
+    }
+
+    @Override
+    public void close() {
+        receivers.clear();
+    }
+}
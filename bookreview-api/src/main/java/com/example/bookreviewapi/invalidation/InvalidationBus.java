@@ -0,0 +1,119 @@
+package com.example.bookreviewapi.invalidation;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tells the other nodes which entities changed so they drop their in-process copies.
+ *
+ * The service write paths evict their own node's caches directly, as before, and also publish
+ * here. The event leaves after commit (a rolled-back write changed nothing) through the
+ * configured {@link InvalidationTransport}; on the receiving nodes every
+ * {@link InvalidationListener} bean gets it. A node ignores its own events.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    static final String EVENTS_METRIC = "bookreview.invalidation.events";
+    static final String LAG_METRIC = "bookreview.invalidation.lag";
+
+    private final MeterRegistry meterRegistry;
+    private final InvalidationTransport transport;
+    private final ObjectProvider<InvalidationListener> listeners;
+    private final LongSupplier clock;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Timer lag;
+
+    @Autowired
+    public InvalidationBus(MeterRegistry meterRegistry, InvalidationTransport transport,
+                           ObjectProvider<InvalidationListener> listeners,
+                           @Value("${bookreview.invalidation.enabled:true}") boolean enabled) {
+        this(meterRegistry, transport, listeners, System::currentTimeMillis, enabled);
+    }
+
+    InvalidationBus(MeterRegistry meterRegistry, InvalidationTransport transport,
+                    ObjectProvider<InvalidationListener> listeners, LongSupplier clock, boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.transport = transport;
+        this.listeners = listeners;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.lag = Timer.builder(LAG_METRIC).tag("transport", transport.name())
+            .description("From the write's commit on one node to the eviction on another (publisher's clock)")
+            .publishPercentiles(0.5, 0.99).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            transport.start(this::receive);
+            logger.info("Cache invalidation bus started on node {} over {}", nodeId, transport.name());
+        }
+    }
+
+    public void publish(InvalidationEvent.Kind kind, Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        afterCommit(() -> {
+            InvalidationEvent event = new InvalidationEvent(kind, id, nodeId, clock.getAsLong());
+            try {
+                transport.publish(event);
+                meterRegistry.counter(EVENTS_METRIC, "kind", kind.name(), "direction", "published").increment();
+            } catch (RuntimeException e) {
+                // The write is committed; the other nodes catch up when their copies expire or are rewritten
+                meterRegistry.counter(EVENTS_METRIC, "kind", kind.name(), "direction", "failed").increment();
+                logger.warn("Could not publish invalidation {}: {}", event, e.toString());
+            }
+        });
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    void receive(InvalidationEvent event) {
+        if (nodeId.equals(event.origin())) {
+            return;
+        }
+        lag.record(Math.max(0, clock.getAsLong() - event.publishedAtMillis()), TimeUnit.MILLISECONDS);
+        meterRegistry.counter(EVENTS_METRIC, "kind", event.kind().name(), "direction", "received").increment();
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onInvalidation(event);
+            } catch (RuntimeException e) {
+                logger.warn("Invalidation listener {} failed on {}", listener.getClass().getSimpleName(), event, e);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bookreviewapi.invalidation;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.bookreviewapi.jobs.ClusterJob;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Picks the invalidation transport from bookreview.invalidation.transport. For any other value
+ * the application must define its own {@link InvalidationTransport} bean.
+ */
+@Configuration
+public class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "bookreview.invalidation.transport", havingValue = "in-memory", matchIfMissing = true)
+    public InvalidationTransport inMemoryInvalidationTransport() {
+        return new InMemoryInvalidationTransport();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "bookreview.invalidation.transport", havingValue = "jdbc")
+    public JdbcInvalidationTransport jdbcInvalidationTransport(
+            DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${bookreview.invalidation.jdbc.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${bookreview.invalidation.jdbc.grace-ms:5000}") long graceMs,
+            @Value("${bookreview.invalidation.jdbc.retention-ms:3600000}") long retentionMs,
+            @Value("${bookreview.invalidation.jdbc.batch-size:500}") int batchSize) {
+        return new JdbcInvalidationTransport(dataSource, meterRegistry, pollIntervalMs, graceMs, retentionMs, batchSize);
+    }
+
+    // One node deletes the expired rows, not every node
+    @Bean
+    @ConditionalOnProperty(name = "bookreview.invalidation.transport", havingValue = "jdbc")
+    public ClusterJob cacheInvalidationPurgeJob(
+            JdbcInvalidationTransport transport,
+            @Value("${bookreview.invalidation.jdbc.purge-interval-ms:60000}") long purgeIntervalMs) {
+        return ClusterJob.of("cache-invalidation-purge", Duration.ofMillis(purgeIntervalMs), transport::purge);
+    }
+}
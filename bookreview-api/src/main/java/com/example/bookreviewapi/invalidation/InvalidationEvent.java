@@ -0,0 +1,17 @@
+package com.example.bookreviewapi.invalidation;
+
+/**
+ * "Entity id changed on node origin at publishedAtMillis" (publisher's clock). Carries no data,
+ * receivers drop what they cached and reload on the next read.
+ */
+public record InvalidationEvent(Kind kind, long id, String origin, long publishedAtMillis) {
+
+    public enum Kind {
+        /** A book was created, updated or deleted; id is the book id. */
+        BOOK,
+        /** A review of a book was created, updated or deleted; id is the book id. */
+        REVIEWS,
+        /** A user was created or changed; id is the user id. */
+        USER
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bookreviewapi.invalidation;
+
+/**
+ * An in-process cache that must forget entries changed on another node. Every bean implementing
+ * it is called by {@link InvalidationBus}, on the transport's delivery thread.
+ */
+public interface InvalidationListener {
+
+    void onInvalidation(InvalidationEvent event);
+}
@@ -0,0 +1,23 @@
+package com.example.bookreviewapi.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation events between the nodes. Delivery is at least once, in no particular
+ * order, and every node (the publisher included) receives every event.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    /** Tag value for the bus metrics. */
+    String name();
+
+    /** Starts delivering events, from any node, to receiver. */
+    void start(Consumer<InvalidationEvent> receiver);
+
+    /** Sends an event; must not block the caller on the network or throw for a delivery failure. */
+    void publish(InvalidationEvent event);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.bookreviewapi.invalidation;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Invalidations through the cache_invalidation table of the main database, so a cluster needs
+ * nothing but the database it already shares.
+ *
+ * Publishing inserts a row from the transport's own thread (outside any request transaction, so
+ * the insert commits on its own and a slow database never holds up the request). Every
+ * poll-interval-ms each node reads the rows after its watermark and hands them to the bus.
+ *
+ * Ids are assigned at insert but become visible at commit, so a row can appear after a higher
+ * id was already read. The watermark therefore trails the newest id by grace-ms: rows of the
+ * last grace-ms are read again and the ones already delivered are skipped by id. Rows older
+ * than retention-ms are deleted by {@link #purge()}, run once per cluster as a ClusterJob.
+ */
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcInvalidationTransport.class);
+
+    static final String ERRORS_METRIC = "bookreview.invalidation.jdbc.errors";
+
+    private static final RowMapper<InvalidationEvent> EVENT_MAPPER = (rs, rowNum) -> new InvalidationEvent(
+        InvalidationEvent.Kind.valueOf(rs.getString("kind")), rs.getLong("entity_id"),
+        rs.getString("origin"), rs.getLong("published_at"));
+
+    private final JdbcTemplate jdbc;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final long pollIntervalMs;
+    private final long graceMs;
+    private final long retentionMs;
+    private final int batchSize;
+    private final ScheduledExecutorService worker;
+
+    private volatile Consumer<InvalidationEvent> receiver;
+
+    // Poller state, only touched by poll()
+    private long watermark = -1;
+    private final TreeMap<Long, Long> recent = new TreeMap<>(); // id -> first read at, above the watermark
+
+    public JdbcInvalidationTransport(DataSource dataSource, MeterRegistry meterRegistry, long pollIntervalMs,
+                                     long graceMs, long retentionMs, int batchSize) {
+        this(dataSource, meterRegistry, System::currentTimeMillis, pollIntervalMs, graceMs, retentionMs, batchSize);
+    }
+
+    JdbcInvalidationTransport(DataSource dataSource, MeterRegistry meterRegistry, LongSupplier clock,
+                              long pollIntervalMs, long graceMs, long retentionMs, int batchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.pollIntervalMs = pollIntervalMs;
+        this.graceMs = graceMs;
+        this.retentionMs = retentionMs;
+        this.batchSize = batchSize;
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invalidation-jdbc");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String name() {
+        return "jdbc";
+    }
+
+    @Override
+    public void start(Consumer<InvalidationEvent> receiver) {
+        this.receiver = receiver;
+        // The first round only notes the newest row: everything up to it is older than this
+        // node's caches. If the table is not there yet, the next round tries again.
+        run("poll", this::poll);
+        worker.scheduleWithFixedDelay(() -> run("poll", this::poll), pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        worker.execute(() -> run("publish", () -> insert(event)));
+    }
+
+    @Override
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    void insert(InvalidationEvent event) {
+        jdbc.update("INSERT INTO cache_invalidation (kind, entity_id, origin, published_at) VALUES (?, ?, ?, ?)",
+            event.kind().name(), event.id(), event.origin(), event.publishedAtMillis());
+    }
+
+    void poll() {
+        if (watermark < 0) {
+            watermark = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidation", Long.class);
+            return;
+        }
+        long now = clock.getAsLong();
+        long cursor = watermark;
+        List<Long> ids;
+        do {
+            ids = jdbc.query("SELECT id, kind, entity_id, origin, published_at FROM cache_invalidation "
+                    + "WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> {
+                    long id = rs.getLong("id");
+                    if (recent.putIfAbsent(id, now) == null) {
+                        receiver.accept(EVENT_MAPPER.mapRow(rs, rowNum));
+                    }
+                    return id;
+                }, cursor, batchSize);
+            if (!ids.isEmpty()) {
+                cursor = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == batchSize);
+
+        while (!recent.isEmpty() && now - recent.firstEntry().getValue() >= graceMs) {
+            watermark = recent.pollFirstEntry().getKey();
+        }
+    }
+
+    public void purge() {
+        int deleted = jdbc.update("DELETE FROM cache_invalidation WHERE published_at < ?", clock.getAsLong() - retentionMs);
+        if (deleted > 0) {
+            logger.debug("Purged {} old cache invalidations", deleted);
+        }
+    }
+
+    long watermark() {
+        return watermark;
+    }
+
+    // A failed round is retried by the next one; the worker must survive it
+    private void run(String stage, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            meterRegistry.counter(ERRORS_METRIC, "stage", stage).increment();
+            logger.warn("Cache invalidation {} failed: {}", stage, e.toString());
+        }
+    }
+}
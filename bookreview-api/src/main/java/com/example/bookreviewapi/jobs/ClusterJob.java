@@ -0,0 +1,40 @@
+package com.example.bookreviewapi.jobs;
+
+import java.time.Duration;
+
+/**
+ * Background work that must run once per cluster per interval, not once per node. Every bean
+ * implementing it is picked up by {@link ClusterJobScheduler}.
+ *
+ * run() executes on a scheduler thread while this node holds the job's lease. It should check
+ * the thread's interrupt flag between steps: the flag is set when the lease is lost.
+ */
+public interface ClusterJob {
+
+    /** Lock row key, at most 64 characters, stable across releases. */
+    String name();
+
+    /** Time from the start of one run to the earliest start of the next, cluster wide. */
+    Duration interval();
+
+    void run();
+
+    static ClusterJob of(String name, Duration interval, Runnable task) {
+        return new ClusterJob() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public Duration interval() {
+                return interval;
+            }
+
+            @Override
+            public void run() {
+                task.run();
+            }
+        };
+    }
+}
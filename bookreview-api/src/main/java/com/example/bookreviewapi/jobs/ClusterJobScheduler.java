@@ -0,0 +1,228 @@
+package com.example.bookreviewapi.jobs;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs every {@link ClusterJob} bean once per cluster per interval.
+ *
+ * Each node checks every poll-interval-ms whether a job is due. The first node to take the
+ * job's lease in job_lock runs it and renews the lease every third of lease-ms while it runs; a
+ * node that dies mid-run stops renewing, and another node can take over once the lease has run
+ * out. After the run the lease is freed and the job is due again interval after the start. A
+ * node that cannot renew in time (lost to another node, or the database unreachable until the
+ * lease ran out) interrupts the run. Every run is recorded in job_run for run-history-ms.
+ */
+@Component
+public class ClusterJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobScheduler.class);
+
+    static final String METRIC = "bookreview.jobs.runs";
+
+    /** A job as this node sees it, for the jobs endpoint. */
+    public record JobInfo(String name, long intervalMs, boolean runningHere) {
+    }
+
+    private final JobStore store;
+    private final MeterRegistry meterRegistry;
+    private final List<ClusterJob> jobs;
+    private final LongSupplier clock;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final long leaseMs;
+    private final long runHistoryMs;
+    private final String owner;
+    private final Set<String> runningHere = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService runners;
+    private ScheduledExecutorService heartbeats;
+
+    @Autowired
+    public ClusterJobScheduler(DataSource dataSource, MeterRegistry meterRegistry, ObjectProvider<ClusterJob> jobs,
+                               @Value("${bookreview.jobs.enabled:true}") boolean enabled,
+                               @Value("${bookreview.jobs.poll-interval-ms:15000}") long pollIntervalMs,
+                               @Value("${bookreview.jobs.lease-ms:60000}") long leaseMs,
+                               @Value("${bookreview.jobs.run-history-ms:604800000}") long runHistoryMs) {
+        this(new JobStore(dataSource), meterRegistry, jobs.orderedStream().toList(), System::currentTimeMillis,
+            enabled, pollIntervalMs, leaseMs, runHistoryMs, nodeName());
+    }
+
+    ClusterJobScheduler(JobStore store, MeterRegistry meterRegistry, List<ClusterJob> jobs, LongSupplier clock,
+                        boolean enabled, long pollIntervalMs, long leaseMs, long runHistoryMs, String owner) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.jobs = jobs;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.leaseMs = leaseMs;
+        this.runHistoryMs = runHistoryMs;
+        this.owner = owner;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled || jobs.isEmpty()) {
+            return;
+        }
+        AtomicInteger threads = new AtomicInteger();
+        runners = Executors.newScheduledThreadPool(jobs.size(), runnable -> {
+            Thread thread = new Thread(runnable, "cluster-job-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (ClusterJob job : jobs) {
+            runners.scheduleWithFixedDelay(() -> tick(job), pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Cluster jobs {} scheduled on {}", jobs.stream().map(ClusterJob::name).toList(), owner);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (runners != null) {
+            runners.shutdownNow();
+            heartbeats.shutdownNow();
+        }
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    public List<JobInfo> jobs() {
+        return jobs.stream()
+            .map(job -> new JobInfo(job.name(), job.interval().toMillis(), runningHere.contains(job.name())))
+            .toList();
+    }
+
+    JobStore store() {
+        return store;
+    }
+
+    /** Runs the job if it is due and no other node holds it; false when it did not run here. */
+    boolean tick(ClusterJob job) {
+        String name = job.name();
+        long startedAt = clock.getAsLong();
+        long runId;
+        try {
+            if (!store.tryAcquire(name, owner, startedAt, startedAt + leaseMs)) {
+                return false;
+            }
+            runId = store.startRun(name, owner, startedAt);
+        } catch (RuntimeException e) {
+            meterRegistry.counter(METRIC, "job", name, "status", "not-started").increment();
+            logger.warn("Could not start cluster job {}: {}", name, e.toString());
+            return false;
+        }
+
+        runningHere.add(name);
+        AtomicLong leaseUntil = new AtomicLong(startedAt + leaseMs);
+        AtomicBoolean lost = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread runner = Thread.currentThread();
+        long beat = Math.max(1, leaseMs / 3);
+        ScheduledFuture<?> heartbeat = heartbeats == null ? null : heartbeats.scheduleWithFixedDelay(
+            () -> renew(name, leaseUntil, lost, done, runner), beat, beat, TimeUnit.MILLISECONDS);
+
+        String status = "SUCCEEDED";
+        String message = null;
+        try {
+            job.run();
+        } catch (RuntimeException e) {
+            status = "FAILED";
+            message = e.toString();
+            logger.warn("Cluster job {} failed", name, e);
+        } finally {
+            if (heartbeat != null) {
+                heartbeat.cancel(false);
+            }
+            synchronized (done) {
+                done.set(true);
+            }
+            Thread.interrupted(); // The lease-lost interrupt must not hit the bookkeeping below
+            runningHere.remove(name);
+        }
+        if (lost.get()) {
+            status = "LEASE_LOST";
+        }
+        long finishedAt = clock.getAsLong();
+        meterRegistry.timer(METRIC, "job", name, "status", status.toLowerCase())
+            .record(finishedAt - startedAt, TimeUnit.MILLISECONDS);
+        try {
+            store.finishRun(runId, finishedAt, status, message);
+            store.release(name, owner, startedAt + job.interval().toMillis());
+            store.purgeRuns(name, finishedAt - runHistoryMs);
+        } catch (RuntimeException e) {
+            // The lease runs out on its own; the next run closes this one as ABANDONED
+            logger.warn("Could not record the end of cluster job {}: {}", name, e.toString());
+        }
+        return true;
+    }
+
+    private void renew(String name, AtomicLong leaseUntil, AtomicBoolean lost, AtomicBoolean done, Thread runner) {
+        if (lost.get()) {
+            return;
+        }
+        long next = clock.getAsLong() + leaseMs;
+        try {
+            if (store.renew(name, owner, next)) {
+                leaseUntil.set(next);
+                return;
+            }
+            logger.warn("Cluster job {} lost its lease to another node, interrupting it", name);
+        } catch (RuntimeException e) {
+            if (clock.getAsLong() < leaseUntil.get()) {
+                logger.warn("Could not renew the lease of cluster job {}, will retry: {}", name, e.toString());
+                return;
+            }
+            logger.warn("Lease of cluster job {} ran out while the database was unreachable, interrupting it", name);
+        }
+        synchronized (done) {
+            if (!done.get()) {
+                lost.set(true);
+                runner.interrupt();
+            }
+        }
+    }
+
+    private static String nodeName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.bookreviewapi.jobs;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+/**
+ * JDBC access to the job_lock and job_run tables of the main database. Every lease change is a
+ * single conditional UPDATE, so two nodes can never both see their acquire succeed.
+ *
+ * Times are epoch millis from the nodes' clocks, which are assumed to agree to well within a
+ * lease (NTP).
+ */
+public class JobStore {
+
+    public record Lock(String name, String owner, long leaseUntil, long nextRunAt) {
+    }
+
+    public record Run(long id, String name, String owner, long startedAt, Long finishedAt, String status,
+                      String message) {
+    }
+
+    private final JdbcTemplate jdbc;
+
+    public JobStore(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /** Takes the lease if it is free and the job is due; creates the row on the job's very first run. */
+    public boolean tryAcquire(String name, String owner, long now, long leaseUntil) {
+        int updated = jdbc.update("UPDATE job_lock SET owner = ?, lease_until = ? "
+            + "WHERE name = ? AND lease_until < ? AND next_run_at <= ?", owner, leaseUntil, name, now, now);
+        if (updated == 1) {
+            return true;
+        }
+        Integer rows = jdbc.queryForObject("SELECT COUNT(*) FROM job_lock WHERE name = ?", Integer.class, name);
+        if (rows != null && rows > 0) {
+            return false; // Held elsewhere or not due
+        }
+        try {
+            jdbc.update("INSERT INTO job_lock (name, owner, lease_until, next_run_at) VALUES (?, ?, ?, 0)",
+                name, owner, leaseUntil);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false; // Another node created it first
+        }
+    }
+
+    /** Extends the lease; false when another node has taken it over. */
+    public boolean renew(String name, String owner, long leaseUntil) {
+        return jdbc.update("UPDATE job_lock SET lease_until = ? WHERE name = ? AND owner = ?",
+            leaseUntil, name, owner) == 1;
+    }
+
+    /** Frees the lease and sets when the job is due next. */
+    public void release(String name, String owner, long nextRunAt) {
+        jdbc.update("UPDATE job_lock SET lease_until = 0, next_run_at = ? WHERE name = ? AND owner = ?",
+            nextRunAt, name, owner);
+    }
+
+    /** Records the start of a run; RUNNING rows left by a node that died are closed as ABANDONED. */
+    public long startRun(String name, String owner, long now) {
+        jdbc.update("UPDATE job_run SET status = 'ABANDONED', finished_at = ? WHERE name = ? AND status = 'RUNNING'",
+            now, name);
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO job_run (name, owner, started_at, status) VALUES (?, ?, ?, 'RUNNING')", new String[] {"id"});
+            statement.setString(1, name);
+            statement.setString(2, owner);
+            statement.setLong(3, now);
+            return statement;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    public void finishRun(long id, long now, String status, String message) {
+        jdbc.update("UPDATE job_run SET finished_at = ?, status = ?, message = ? WHERE id = ?",
+            now, status, message == null ? null : message.substring(0, Math.min(message.length(), 1000)), id);
+    }
+
+    public int purgeRuns(String name, long before) {
+        return jdbc.update("DELETE FROM job_run WHERE name = ? AND started_at < ?", name, before);
+    }
+
+    public List<Lock> locks() {
+        return jdbc.query("SELECT name, owner, lease_until, next_run_at FROM job_lock ORDER BY name",
+            (rs, rowNum) -> new Lock(rs.getString("name"), rs.getString("owner"), rs.getLong("lease_until"),
+                rs.getLong("next_run_at")));
+    }
+
+    /** The newest runs of a job first. */
+    public List<Run> runs(String name, int limit) {
+        return jdbc.query("SELECT id, name, owner, started_at, finished_at, status, message FROM job_run "
+                + "WHERE name = ? ORDER BY id DESC LIMIT ?",
+            (rs, rowNum) -> new Run(rs.getLong("id"), rs.getString("name"), rs.getString("owner"),
+                rs.getLong("started_at"), rs.getObject("finished_at", Long.class), rs.getString("status"),
+                rs.getString("message")), name, limit);
+    }
+}
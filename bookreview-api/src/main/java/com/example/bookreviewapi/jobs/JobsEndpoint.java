@@ -0,0 +1,72 @@
+package com.example.bookreviewapi.jobs;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/jobs: every cluster job with its lease holder, next due time and last run;
+ * /actuator/jobs/{name}: the job's recent run history, newest first.
+ */
+@Component
+@Endpoint(id = "jobs")
+public class JobsEndpoint {
+
+    private static final int HISTORY_SIZE = 20;
+
+    private final ClusterJobScheduler scheduler;
+
+    public JobsEndpoint(ClusterJobScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> jobs() {
+        Map<String, JobStore.Lock> locks = scheduler.store().locks().stream()
+            .collect(Collectors.toMap(JobStore.Lock::name, Function.identity()));
+        long now = System.currentTimeMillis();
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        for (ClusterJobScheduler.JobInfo job : scheduler.jobs()) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("intervalMs", job.intervalMs());
+            status.put("runningHere", job.runningHere());
+            JobStore.Lock lock = locks.get(job.name());
+            boolean leased = lock != null && lock.leaseUntil() >= now;
+            status.put("leaseHolder", leased ? lock.owner() : null);
+            status.put("leaseUntil", leased ? Instant.ofEpochMilli(lock.leaseUntil()) : null);
+            status.put("nextRunAt", lock == null ? null : Instant.ofEpochMilli(lock.nextRunAt()));
+            List<JobStore.Run> last = scheduler.store().runs(job.name(), 1);
+            status.put("lastRun", last.isEmpty() ? null : view(last.get(0)));
+            jobs.put(job.name(), status);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("node", scheduler.owner());
+        body.put("jobs", jobs);
+        return body;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> history(@Selector String name) {
+        return scheduler.store().runs(name, HISTORY_SIZE).stream().map(JobsEndpoint::view).toList();
+    }
+
+    private static Map<String, Object> view(JobStore.Run run) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", run.id());
+        view.put("status", run.status());
+        view.put("node", run.owner());
+        view.put("startedAt", Instant.ofEpochMilli(run.startedAt()));
+        view.put("finishedAt", run.finishedAt() == null ? null : Instant.ofEpochMilli(run.finishedAt()));
+        view.put("durationMs", run.finishedAt() == null ? null : run.finishedAt() - run.startedAt());
+        view.put("message", run.message());
+        return view;
+    }
+}
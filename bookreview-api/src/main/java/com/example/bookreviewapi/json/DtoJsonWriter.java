@@ -0,0 +1,122 @@
+package com.example.bookreviewapi.json;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Hand-written streaming serialisation of the hot list DTOs. The output must stay byte-identical
+ * to what the default ObjectMapper produces for the same objects (see DtoJsonWriterTest), so the
+ * field order and null handling below mirror the DTO declarations.
+ */
+public final class DtoJsonWriter {
+
+    // Field names are quoted and UTF-8 encoded once, not per row
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString AUTHOR = new SerializedString("author");
+    private static final SerializableString GENRE = new SerializedString("genre");
+    private static final SerializableString AVG_RATING = new SerializedString("avgRating");
+    private static final SerializableString REVIEW_COUNT = new SerializedString("reviewCount");
+    private static final SerializableString COMMENT = new SerializedString("comment");
+    private static final SerializableString RATING = new SerializedString("rating");
+    private static final SerializableString REVIEWER_NAME = new SerializedString("reviewerName");
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+
+    private DtoJsonWriter() {
+    }
+
+    public static void writeBooks(JsonGenerator generator, List<BookDTO> books) throws IOException {
+        generator.writeStartArray();
+        for (BookDTO book : books) {
+            writeBook(generator, book);
+        }
+        generator.writeEndArray();
+    }
+
+    public static void writeReviews(JsonGenerator generator, List<ReviewDTO> reviews) throws IOException {
+        // One timestamp buffer for the whole list
+        char[] timestamp = new char[TimestampFormat.MAX_LENGTH];
+        generator.writeStartArray();
+        for (ReviewDTO review : reviews) {
+            writeReview(generator, review, timestamp);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeBook(JsonGenerator generator, BookDTO book) throws IOException {
+        if (book == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        writeLong(generator, book.getId());
+        generator.writeFieldName(TITLE);
+        generator.writeString(book.getTitle());
+        generator.writeFieldName(AUTHOR);
+        generator.writeString(book.getAuthor());
+        generator.writeFieldName(GENRE);
+        generator.writeString(book.getGenre());
+        // @JsonInclude(NON_NULL) on the DTO
+        if (book.getAvgRating() != null) {
+            generator.writeFieldName(AVG_RATING);
+            generator.writeNumber(book.getAvgRating().doubleValue());
+        }
+        if (book.getReviewCount() != null) {
+            generator.writeFieldName(REVIEW_COUNT);
+            generator.writeNumber(book.getReviewCount().longValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeReview(JsonGenerator generator, ReviewDTO review, char[] timestamp) throws IOException {
+        if (review == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        writeLong(generator, review.getId());
+        generator.writeFieldName(COMMENT);
+        generator.writeString(review.getComment());
+        generator.writeFieldName(RATING);
+        generator.writeNumber(review.getRating());
+        generator.writeFieldName(REVIEWER_NAME);
+        generator.writeString(review.getReviewerName());
+        generator.writeFieldName(USER_ID);
+        writeLong(generator, review.getUserId());
+        generator.writeFieldName(CREATED_AT);
+        writeTimestamp(generator, review.getCreatedAtTime(), review, true, timestamp);
+        generator.writeFieldName(UPDATED_AT);
+        writeTimestamp(generator, review.getUpdatedAtTime(), review, false, timestamp);
+        generator.writeEndObject();
+    }
+
+    private static void writeLong(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator generator, LocalDateTime time, ReviewDTO review,
+                                       boolean created, char[] buffer) throws IOException {
+        int length = time != null ? TimestampFormat.format(time, buffer) : -1;
+        if (length >= 0) {
+            generator.writeString(buffer, 0, length);
+        } else {
+            // No raw timestamp (or a year toString signs): same String the getter hands Jackson
+            generator.writeString(created ? review.getCreatedAt() : review.getUpdatedAt());
+        }
+    }
+}
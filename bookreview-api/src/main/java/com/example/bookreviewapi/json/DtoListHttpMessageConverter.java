@@ -0,0 +1,104 @@
+package com.example.bookreviewapi.json;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes List<BookDTO> / List<ReviewDTO> response bodies with DtoJsonWriter instead of reflective
+ * Jackson binding. Write-only, JSON-only; every other body falls through to the Jackson converter.
+ *
+ * The generator comes from the application's JsonFactory, so Jackson's recycled byte/char buffers
+ * are reused across requests.
+ */
+public class DtoListHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final JsonFactory jsonFactory;
+
+    public DtoListHttpMessageConverter(JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false; // The element type is needed, see below
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return elementType(type) != null && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Class<?> elementType = elementType(type);
+        try (JsonGenerator generator = jsonFactory.createGenerator(
+                StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            if (elementType == BookDTO.class) {
+                DtoJsonWriter.writeBooks(generator, castList(body));
+            } else if (elementType == ReviewDTO.class) {
+                DtoJsonWriter.writeReviews(generator, castList(body));
+            } else {
+                throw new HttpMessageNotWritableException("Unsupported list body type: " + type);
+            }
+        }
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("DtoListHttpMessageConverter is write-only");
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("DtoListHttpMessageConverter is write-only");
+    }
+
+    // BookDTO or ReviewDTO for a List<BookDTO> / List<ReviewDTO> declared type, otherwise null
+    private static Class<?> elementType(Type type) {
+        if (type == null) {
+            return null;
+        }
+        ResolvableType listType = ResolvableType.forType(type).as(List.class);
+        if (listType == ResolvableType.NONE) {
+            return null;
+        }
+        Class<?> element = listType.resolveGeneric(0);
+        return element == BookDTO.class || element == ReviewDTO.class ? element : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> castList(Object body) {
+        return (List<T>) body;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bookreviewapi.json;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes a LocalDateTime into a caller-owned char buffer in exactly the LocalDateTime.toString
+ * format (uuuu-MM-dd'T'HH:mm[:ss[.SSS|.SSSSSS|.SSSSSSSSS]]), without creating a String.
+ */
+final class TimestampFormat {
+
+    // Longest output: 2025-07-01T10:30:15.123456789
+    static final int MAX_LENGTH = 29;
+
+    private TimestampFormat() {
+    }
+
+    /**
+     * Formats into buffer and returns the number of chars written, or -1 for years outside
+     * 0..9999 (toString adds a sign there; callers fall back to it).
+     */
+    static int format(LocalDateTime time, char[] buffer) {
+        int year = time.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        int pos = 0;
+        pos = digits(year, 4, buffer, pos);
+        buffer[pos++] = '-';
+        pos = digits(time.getMonthValue(), 2, buffer, pos);
+        buffer[pos++] = '-';
+        pos = digits(time.getDayOfMonth(), 2, buffer, pos);
+        buffer[pos++] = 'T';
+        pos = digits(time.getHour(), 2, buffer, pos);
+        buffer[pos++] = ':';
+        pos = digits(time.getMinute(), 2, buffer, pos);
+
+        int second = time.getSecond();
+        int nano = time.getNano();
+        if (second > 0 || nano > 0) {
+            buffer[pos++] = ':';
+            pos = digits(second, 2, buffer, pos);
+            if (nano > 0) {
+                buffer[pos++] = '.';
+                // Same precision rules as LocalTime.toString: millis, micros or nanos
+                if (nano % 1_000_000 == 0) {
+                    pos = digits(nano / 1_000_000, 3, buffer, pos);
+                } else if (nano % 1_000 == 0) {
+                    pos = digits(nano / 1_000, 6, buffer, pos);
+                } else {
+                    pos = digits(nano, 9, buffer, pos);
+                }
+            }
+        }
+        return pos;
+    }
+
+    // Zero-padded decimal of a non-negative value into exactly width chars
+    private static int digits(int value, int width, char[] buffer, int pos) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
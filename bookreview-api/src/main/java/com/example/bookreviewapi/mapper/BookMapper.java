@@ -2,7 +2,12 @@ package com.example.bookreviewapi.mapper;
 
 import com.example.bookreviewapi.dto.BookDTO;
 import com.example.bookreviewapi.dto.CreateBookDTO;
+import com.example.bookreviewapi.dto.LatestReviewDTO;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
 import com.example.bookreviewapi.model.Book;
+import com.example.bookreviewapi.model.BookSummary;
+
+import java.util.List;
 
 public class BookMapper {
 
@@ -29,5 +34,38 @@ public class BookMapper {
 
         return dto;
     }
+
+    // Adds the aggregate rating fields to an already mapped BookDTO (GET API with includeRatings)
+    public static BookDTO withRatingSummary(BookDTO dto, RatingSummaryDTO summary) {
+        dto.setAvgRating(summary.getAvgRating());
+        dto.setReviewCount(summary.getReviewCount());
+
+        return dto;
+    }
+
+    // Mapped BookSummary (read model row) -> BookDTO, ratings only when asked for
+    public static BookDTO toDTO(BookSummary summary, boolean includeRatings) {
+        BookDTO dto = new BookDTO(summary.getId(), summary.getTitle(), summary.getAuthor(), summary.getGenre());
+        return includeRatings ? withRatingSummary(dto, toRatingSummary(summary)) : dto;
+    }
+
+    public static RatingSummaryDTO toRatingSummary(BookSummary summary) {
+        return RatingSummaryDTO.of(summary.getId(), summary.getRatingSum(), summary.getReviewCount());
+    }
+
+    // Reviews with 1..5 stars
+    public static List<Long> toRatingHistogram(BookSummary summary) {
+        return List.of(summary.getRating1(), summary.getRating2(), summary.getRating3(),
+            summary.getRating4(), summary.getRating5());
+    }
+
+    // Null while the book has no reviews
+    public static LatestReviewDTO toLatestReview(BookSummary summary) {
+        if (summary.getLatestReviewId() == null) {
+            return null;
+        }
+        return new LatestReviewDTO(summary.getId(), summary.getLatestReviewId(), summary.getLatestReviewerName(),
+            summary.getLatestReviewSnippet(), summary.getLatestReviewAt());
+    }
     
 }
\ No newline at end of file
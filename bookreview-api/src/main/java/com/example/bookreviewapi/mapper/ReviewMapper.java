@@ -35,13 +35,9 @@ public class ReviewMapper {
             dto.setUserId(null);
         }
         
-        // Format dates
-        if (review.getCreatedAt() != null) {
-            dto.setCreatedAt(review.getCreatedAt().toString());
-        }
-        if (review.getUpdatedAt() != null) {
-            dto.setUpdatedAt(review.getUpdatedAt().toString());
-        }
+        // Dates are formatted when serialised (ReviewDTO.getCreatedAt / DtoJsonWriter)
+        dto.setCreatedAtTime(review.getCreatedAt());
+        dto.setUpdatedAtTime(review.getUpdatedAt());
 
         return dto;
     }
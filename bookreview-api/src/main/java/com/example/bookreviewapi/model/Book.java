@@ -3,6 +3,8 @@ package com.example.bookreviewapi.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity 
@@ -18,7 +20,20 @@ public class Book {
     private String author;
     private String genre;
 
+    // Change counters used for ETags (see BookVersionDTO)
+    // version: bumped when the book itself changes
+    // reviewVersion: bumped atomically on every review create/update/delete of this book
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false, name = "review_version")
+    private long reviewVersion;
+
+    // Last change to the book or to any of its reviews (Last-Modified header)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
     private List<Review> reviews;
     
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.example.bookreviewapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Read model of the catalogue: one flat row per book with its review aggregates, so the book
+// GET endpoints are single-table reads. Written only by BookSummaries (in the transaction of the
+// book or review change) and BookSummaryReconciler; never edited through the entity elsewhere.
+@Entity
+@Table(name = "book_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSummary {
+
+    // The book's id (not generated)
+    @Id
+    @Column(name = "book_id")
+    private Long id;
+
+    private String title;
+    private String author;
+    private String genre;
+
+    @Column(nullable = false, name = "review_count")
+    private long reviewCount;
+
+    // Sum of all ratings; the average is ratingSum / reviewCount
+    @Column(nullable = false, name = "rating_sum")
+    private long ratingSum;
+
+    // Rating histogram: number of reviews with 1..5 stars
+    @Column(nullable = false, name = "rating_1")
+    private long rating1;
+
+    @Column(nullable = false, name = "rating_2")
+    private long rating2;
+
+    @Column(nullable = false, name = "rating_3")
+    private long rating3;
+
+    @Column(nullable = false, name = "rating_4")
+    private long rating4;
+
+    @Column(nullable = false, name = "rating_5")
+    private long rating5;
+
+    // Newest review (by created_at, then id); all null while the book has no reviews
+    @Column(name = "latest_review_id")
+    private Long latestReviewId;
+
+    @Column(name = "latest_reviewer_name")
+    private String latestReviewerName;
+
+    // Start of the comment, see LatestReviewDTO.SNIPPET_LENGTH
+    @Column(name = "latest_review_snippet", length = 200)
+    private String latestReviewSnippet;
+
+    @Column(name = "latest_review_at")
+    private LocalDateTime latestReviewAt;
+}
@@ -0,0 +1,34 @@
+package com.example.bookreviewapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outgoing cache invalidations of the jdbc transport. Mapped so dev/test get the table from
+// Hibernate and prod validates it; rows are written and polled with JDBC by
+// JdbcInvalidationTransport, never through JPA.
+@Entity
+@Table(name = "cache_invalidation")
+@Data
+@NoArgsConstructor
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // InvalidationEvent.Kind name
+    @Column(nullable = false, length = 16)
+    private String kind;
+
+    @Column(nullable = false, name = "entity_id")
+    private long entityId;
+
+    // Node that made the change; it has already evicted its own caches
+    @Column(nullable = false, length = 64)
+    private String origin;
+
+    // Publisher's clock, epoch millis (delivery lag)
+    @Column(nullable = false, name = "published_at")
+    private long publishedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.bookreviewapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row per cluster job: who holds its lease and when it is due next. Mapped for the schema
+// only; JobStore reads and writes it with JDBC.
+@Entity
+@Table(name = "job_lock")
+@Data
+@NoArgsConstructor
+public class JobLock {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(length = 128)
+    private String owner;
+
+    // Epoch millis; the lease is free once this has passed
+    @Column(nullable = false, name = "lease_until")
+    private long leaseUntil;
+
+    // Epoch millis; no node starts the job before this
+    @Column(nullable = false, name = "next_run_at")
+    private long nextRunAt;
+}
@@ -0,0 +1,36 @@
+package com.example.bookreviewapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Run history of the cluster jobs, written with JDBC by JobStore
+@Entity
+@Table(name = "job_run")
+@Data
+@NoArgsConstructor
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    @Column(nullable = false, name = "started_at")
+    private long startedAt;
+
+    @Column(name = "finished_at")
+    private Long finishedAt;
+
+    // RUNNING, SUCCEEDED, FAILED, LEASE_LOST or ABANDONED
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(length = 1000)
+    private String message;
+}
@@ -0,0 +1,43 @@
+package com.example.bookreviewapi.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Domain events waiting for the outbox relay. Mapped so dev/test get the table from Hibernate
+// and prod validates it; rows are inserted and claimed with JDBC by OutboxStore, never through JPA.
+@Entity
+@Table(name = "outbox_event")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // DomainEvent record name, e.g. ReviewCreated
+    @Column(nullable = false, name = "event_type", length = 32)
+    private String eventType;
+
+    @Column(nullable = false, name = "book_id")
+    private long bookId;
+
+    // The event as JSON
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    // Epoch millis of the write (relay lag)
+    @Column(nullable = false, name = "created_at")
+    private long createdAt;
+
+    // Epoch millis before which the relay leaves the row alone (retry backoff)
+    @Column(nullable = false, name = "available_at")
+    private long availableAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -13,8 +13,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class Review {
     
+    // Taken in blocks from review_id_block (pooled-lo, see application.properties), the row
+    // write-behind claims its ids from too (ReviewIdBlocks), so the two never hand out the same id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "review_id")
+    @TableGenerator(name = "review_id", table = "review_id_block", pkColumnName = "name",
+        pkColumnValue = "review", valueColumnName = "last_id", allocationSize = 50)
     private Long id;
     
     private String comment;
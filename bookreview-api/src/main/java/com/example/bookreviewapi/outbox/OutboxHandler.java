@@ -0,0 +1,11 @@
+package com.example.bookreviewapi.outbox;
+
+/**
+ * Receives every outbox message from {@link OutboxRelay}. Delivery is at least once: a message
+ * is handed to every handler again when any of them throws, or when the relay dies before its
+ * batch commits. Handlers run inside the relay's transaction on the main database.
+ */
+public interface OutboxHandler {
+
+    void handle(OutboxMessage message);
+}
@@ -0,0 +1,12 @@
+package com.example.bookreviewapi.outbox;
+
+import com.example.bookreviewapi.event.DomainEvent;
+
+/**
+ * A domain event read back from the outbox. The id is stable across redeliveries, so handlers
+ * can use it to skip messages they have already applied.
+ *
+ * @param attempts earlier deliveries that failed
+ */
+public record OutboxMessage(long id, DomainEvent event, long createdAtMillis, int attempts) {
+}
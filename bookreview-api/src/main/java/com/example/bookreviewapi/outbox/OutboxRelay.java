@@ -0,0 +1,185 @@
+package com.example.bookreviewapi.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moves outbox rows to the {@link OutboxHandler} beans.
+ *
+ * Each of the relay's threads claims up to batch-size due rows in one transaction, hands every
+ * message to every handler and deletes the delivered rows before committing; a full batch is
+ * followed straight away by the next one, otherwise the thread sleeps poll-interval-ms. Claimed
+ * rows are locked with SKIP LOCKED, so several threads and instances drain the table side by side.
+ *
+ * A message a handler throws on stays in the table and is retried after retry-ms, doubling per
+ * attempt up to max-retry-ms. After max-attempts failures it is no longer claimed and waits in
+ * the table (last_error says why) until someone deletes it or resets its attempts.
+ *
+ * Without any handler bean the relay claims nothing: the rows wait in the table for the first
+ * handler to be deployed instead of being deleted as delivered to nobody.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final String MESSAGES_METRIC = "bookreview.outbox.messages";
+    static final String LAG_METRIC = "bookreview.outbox.lag";
+
+    private final OutboxStore store;
+    private final TransactionTemplate transactions;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<OutboxHandler> handlers;
+    private final LongSupplier clock;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryMs;
+    private final long maxRetryMs;
+    private final int threads;
+    private final Timer lag;
+    private final Timer batches;
+
+    private ScheduledExecutorService workers;
+    private volatile boolean warnedNoHandlers;
+
+    @Autowired
+    public OutboxRelay(OutboxStore store, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                       ObjectProvider<OutboxHandler> handlers,
+                       @Value("${bookreview.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${bookreview.outbox.relay.poll-interval-ms:1000}") long pollIntervalMs,
+                       @Value("${bookreview.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${bookreview.outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${bookreview.outbox.relay.retry-ms:1000}") long retryMs,
+                       @Value("${bookreview.outbox.relay.max-retry-ms:300000}") long maxRetryMs,
+                       @Value("${bookreview.outbox.relay.threads:1}") int threads) {
+        this(store, transactionManager, meterRegistry, handlers, System::currentTimeMillis, enabled, pollIntervalMs,
+            batchSize, maxAttempts, retryMs, maxRetryMs, threads);
+    }
+
+    OutboxRelay(OutboxStore store, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                ObjectProvider<OutboxHandler> handlers, LongSupplier clock, boolean enabled, long pollIntervalMs,
+                int batchSize, int maxAttempts, long retryMs, long maxRetryMs, int threads) {
+        this.store = store;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.handlers = handlers;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryMs = retryMs;
+        this.maxRetryMs = maxRetryMs;
+        this.threads = threads;
+        this.lag = Timer.builder(LAG_METRIC)
+            .description("From the write to its outbox message being handled")
+            .publishPercentileHistogram().register(meterRegistry);
+        this.batches = Timer.builder("bookreview.outbox.batches")
+            .description("Outbox relay batches, claim to commit").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled || !store.isEnabled()) {
+            return;
+        }
+        AtomicInteger index = new AtomicInteger();
+        workers = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            workers.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (workers != null) {
+            // An unfinished batch rolls back and is claimed again by the next relay
+            workers.shutdown();
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Relays batches until one comes back short; the worker must survive a failed round. */
+    void drain() {
+        try {
+            int claimed;
+            do {
+                claimed = relayBatch();
+            } while (claimed == batchSize && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            meterRegistry.counter("bookreview.outbox.errors").increment();
+            logger.warn("Outbox relay round failed: {}", e.toString());
+        }
+    }
+
+    /** Claims, delivers and settles one batch in one transaction; returns the number of rows claimed. */
+    public int relayBatch() {
+        List<OutboxHandler> targets = handlers.orderedStream().toList();
+        if (targets.isEmpty()) {
+            if (!warnedNoHandlers) {
+                warnedNoHandlers = true;
+                logger.warn("No OutboxHandler registered; outbox messages stay in the table until one is");
+            }
+            return 0;
+        }
+        long startedAt = System.nanoTime();
+        Integer claimed = transactions.execute(status -> {
+            List<OutboxStore.Row> rows = store.claim(clock.getAsLong(), maxAttempts, batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            List<Long> delivered = new ArrayList<>(rows.size());
+            for (OutboxStore.Row row : rows) {
+                try {
+                    OutboxMessage message = new OutboxMessage(row.id(), store.decode(row), row.createdAt(), row.attempts());
+                    for (OutboxHandler handler : targets) {
+                        handler.handle(message);
+                    }
+                    delivered.add(row.id());
+                    lag.record(Math.max(0, clock.getAsLong() - row.createdAt()), TimeUnit.MILLISECONDS);
+                    meterRegistry.counter(MESSAGES_METRIC, "type", row.type(), "result", "delivered").increment();
+                } catch (RuntimeException e) {
+                    store.fail(row.id(), clock.getAsLong() + backoff(row.attempts()), e.toString());
+                    meterRegistry.counter(MESSAGES_METRIC, "type", row.type(), "result", "failed").increment();
+                    logger.warn("Outbox message {} ({}) failed on attempt {}: {}", row.id(), row.type(),
+                        row.attempts() + 1, e.toString());
+                }
+            }
+            store.delete(delivered);
+            return rows.size();
+        });
+        if (claimed != null && claimed > 0) {
+            batches.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        return claimed == null ? 0 : claimed;
+    }
+
+    private long backoff(int attempts) {
+        return Math.min(maxRetryMs, retryMs << Math.min(attempts, 20));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.bookreviewapi.outbox;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.bookreviewapi.event.DomainEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JDBC access to the outbox_event table of the main database.
+ *
+ * {@link #append} runs on the caller's connection, so inside a service transaction the row
+ * commits or rolls back with the change it describes. {@link #claim} locks the rows it returns
+ * and skips rows locked by another relay (FOR UPDATE SKIP LOCKED), so any number of relays can
+ * share the table without handing out a message twice.
+ */
+@Component
+public class OutboxStore {
+
+    /** A claimed row; the payload is decoded by {@link #decode}. */
+    public record Row(long id, String type, String payload, long createdAt, int attempts) {
+    }
+
+    private static final Map<String, Class<? extends DomainEvent>> TYPES =
+        Arrays.stream(DomainEvent.class.getPermittedSubclasses())
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, type -> type.asSubclass(DomainEvent.class)));
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public OutboxStore(DataSource dataSource, ObjectMapper objectMapper,
+                       @Value("${bookreview.outbox.enabled:true}") boolean enabled) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Queues the event for the relay; call it inside the transaction of the change. */
+    public void append(DomainEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialise " + event, e);
+        }
+        long createdAt = event.occurredAt().toEpochMilli();
+        jdbc.update("INSERT INTO outbox_event (event_type, book_id, payload, created_at, available_at, attempts) "
+            + "VALUES (?, ?, ?, ?, ?, 0)", event.getClass().getSimpleName(), event.bookId(), payload, createdAt, createdAt);
+    }
+
+    /**
+     * Locks and returns up to limit due rows, oldest first. Only meaningful inside a transaction:
+     * the locks last until it ends.
+     */
+    public List<Row> claim(long now, int maxAttempts, int limit) {
+        return jdbc.query("SELECT id, event_type, payload, created_at, attempts FROM outbox_event "
+                + "WHERE available_at <= ? AND attempts < ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+            (rs, rowNum) -> new Row(rs.getLong("id"), rs.getString("event_type"), rs.getString("payload"),
+                rs.getLong("created_at"), rs.getInt("attempts")), now, maxAttempts, limit);
+    }
+
+    public DomainEvent decode(Row row) {
+        Class<? extends DomainEvent> type = TYPES.get(row.type());
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown outbox event type " + row.type());
+        }
+        try {
+            return objectMapper.readValue(row.payload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read outbox event " + row.id(), e);
+        }
+    }
+
+    public void delete(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbc.batchUpdate("DELETE FROM outbox_event WHERE id = ?", ids, ids.size(),
+                (statement, id) -> statement.setLong(1, id));
+        }
+    }
+
+    /** Records a failed delivery; the row is claimed again from availableAt. */
+    public void fail(long id, long availableAt, String error) {
+        jdbc.update("UPDATE outbox_event SET attempts = attempts + 1, available_at = ?, last_error = ? WHERE id = ?",
+            availableAt, error == null ? null : error.substring(0, Math.min(error.length(), 1000)), id);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.bookreviewapi.readmodel;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.LatestReviewDTO;
+import com.example.bookreviewapi.dto.RatingCountDTO;
+import com.example.bookreviewapi.model.Book;
+import com.example.bookreviewapi.model.BookSummary;
+import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.repository.BookRepository;
+import com.example.bookreviewapi.repository.BookSummaryRepository;
+import com.example.bookreviewapi.repository.ReviewRepository;
+import com.example.bookreviewapi.repository.ShardedReviewRepository;
+import com.example.bookreviewapi.writebehind.PendingReview;
+
+/**
+ * Keeps the book_summary read model current from the book and review write paths. Every method
+ * runs inside the caller's transaction, after the book row has been written or locked
+ * (saveBook / deleteBook, or markReviewsChanged for reviews), so a summary row changes exactly
+ * when its book and reviews do and {@link BookSummaryReconciler} can lock the same rows to
+ * recompute it.
+ *
+ * Counts, the rating sum and the histogram are updated in place with deltas. The newest review
+ * is replaced only by a newer one; when it is deleted the next newest is looked up again. A book
+ * whose row is missing (one that predates the table, or a write that missed it) gets the whole
+ * row computed from book and review instead of a delta that would update nothing.
+ */
+@Component
+public class BookSummaries {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSummaries.class);
+
+    private final BookSummaryRepository bookSummaryRepository;
+    private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final ShardedReviewRepository shardedReviews;
+    private final boolean enabled;
+
+    public BookSummaries(BookSummaryRepository bookSummaryRepository, BookRepository bookRepository,
+                         ReviewRepository reviewRepository, ShardedReviewRepository shardedReviews,
+                         @Value("${bookreview.read-model.enabled:true}") boolean enabled) {
+        this.bookSummaryRepository = bookSummaryRepository;
+        this.bookRepository = bookRepository;
+        this.reviewRepository = reviewRepository;
+        this.shardedReviews = shardedReviews;
+        this.enabled = enabled;
+    }
+
+    /** False: nothing is written here and the book reads query book and review as before. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void bookSaved(Book book, boolean created) {
+        if (!enabled) {
+            return;
+        }
+        if (created) {
+            bookSummaryRepository.save(empty(book.getId(), book.getTitle(), book.getAuthor(), book.getGenre()));
+        } else if (bookSummaryRepository.updateBook(book.getId(), book.getTitle(), book.getAuthor(), book.getGenre()) == 0) {
+            recompute(book.getId());
+        }
+    }
+
+    public void bookDeleted(Long bookId) {
+        if (enabled) {
+            bookSummaryRepository.deleteBook(bookId);
+        }
+    }
+
+    /** A created review (oldRating empty) or an update of one that had oldRating. */
+    public void reviewSaved(Long bookId, Review review, Optional<Integer> oldRating) {
+        if (!enabled) {
+            return;
+        }
+        long[] delta = new long[6];
+        delta[review.getRating()]++;
+        if (oldRating.isPresent()) {
+            delta[oldRating.get()]--;
+            if (!addRatings(bookId, 0, review.getRating() - oldRating.get(), delta)) {
+                return;
+            }
+            bookSummaryRepository.updateLatestReviewSnippet(bookId, review.getId(),
+                LatestReviewDTO.snippet(review.getComment()));
+            return;
+        }
+        if (!addRatings(bookId, 1, review.getRating(), delta)) {
+            return;
+        }
+        String reviewerName = review.getUser() == null ? null : review.getUser().getUsername();
+        bookSummaryRepository.offerLatestReview(bookId, review.getId(), reviewerName,
+            LatestReviewDTO.snippet(review.getComment()), review.getCreatedAt());
+    }
+
+    public void reviewDeleted(Long bookId, Long reviewId, int rating) {
+        if (!enabled) {
+            return;
+        }
+        long[] delta = new long[6];
+        delta[rating]--;
+        if (!addRatings(bookId, -1, -rating, delta)) {
+            return;
+        }
+        if (bookSummaryRepository.clearLatestReview(bookId, reviewId) > 0) {
+            // It was the newest one: the review is already gone, so this finds the next newest
+            findLatestReview(bookId).ifPresent(this::offerLatest);
+        }
+    }
+
+    /** A write-behind batch: one update per book, however many of its reviews are in it. */
+    public void reviewsInserted(List<PendingReview> reviews) {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, long[]> deltas = new HashMap<>();
+        Map<Long, PendingReview> newest = new HashMap<>();
+        for (PendingReview review : reviews) {
+            // [0] count, [1..5] histogram, the sum follows from the histogram
+            long[] delta = deltas.computeIfAbsent(review.bookId(), bookId -> new long[6]);
+            delta[0]++;
+            delta[review.rating()]++;
+            newest.merge(review.bookId(), review, (a, b) ->
+                b.createdAt().isAfter(a.createdAt()) || (b.createdAt().equals(a.createdAt()) && b.id() > a.id()) ? b : a);
+        }
+        Set<Long> recomputed = new HashSet<>();
+        deltas.forEach((bookId, delta) -> {
+            long sum = 0;
+            for (int rating = 1; rating <= 5; rating++) {
+                sum += rating * delta[rating];
+            }
+            if (!addRatings(bookId, delta[0], sum, delta)) {
+                recomputed.add(bookId);
+            }
+        });
+        for (PendingReview review : newest.values()) {
+            if (recomputed.contains(review.bookId())) {
+                continue;
+            }
+            bookSummaryRepository.offerLatestReview(review.bookId(), review.id(), review.username(),
+                LatestReviewDTO.snippet(review.comment()), review.createdAt());
+        }
+    }
+
+    /**
+     * The summaries of the books as book and review currently hold them (not as stored in
+     * book_summary): three queries for the whole list.
+     */
+    public Map<Long, BookSummary> compute(List<BookDTO> books) {
+        Map<Long, BookSummary> summaries = new HashMap<>();
+        for (BookDTO book : books) {
+            summaries.put(book.getId(), empty(book.getId(), book.getTitle(), book.getAuthor(), book.getGenre()));
+        }
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+        List<RatingCountDTO> counts = shardedReviews.isEnabled()
+            ? shardedReviews.findRatingCountsByBookIds(summaries.keySet())
+            : reviewRepository.findRatingCountsByBookIds(summaries.keySet());
+        for (RatingCountDTO count : counts) {
+            BookSummary summary = summaries.get(count.getBookId());
+            if (summary == null || count.getRating() < 1 || count.getRating() > 5) {
+                continue;
+            }
+            summary.setReviewCount(summary.getReviewCount() + count.getCount());
+            summary.setRatingSum(summary.getRatingSum() + count.getRating() * count.getCount());
+            switch (count.getRating()) {
+                case 1 -> summary.setRating1(count.getCount());
+                case 2 -> summary.setRating2(count.getCount());
+                case 3 -> summary.setRating3(count.getCount());
+                case 4 -> summary.setRating4(count.getCount());
+                default -> summary.setRating5(count.getCount());
+            }
+        }
+        for (LatestReviewDTO latest : findLatestReviews(summaries.keySet())) {
+            BookSummary summary = summaries.get(latest.getBookId());
+            if (summary != null) {
+                summary.setLatestReviewId(latest.getId());
+                summary.setLatestReviewerName(latest.getReviewerName());
+                summary.setLatestReviewSnippet(latest.getSnippet());
+                summary.setLatestReviewAt(latest.getCreatedAt());
+            }
+        }
+        return summaries;
+    }
+
+    // False when the book had no row: it has been recomputed, this change included, instead
+    private boolean addRatings(Long bookId, long count, long sum, long[] histogram) {
+        if (bookSummaryRepository.addRatings(bookId, count, sum,
+                histogram[1], histogram[2], histogram[3], histogram[4], histogram[5]) > 0) {
+            return true;
+        }
+        recompute(bookId);
+        return false;
+    }
+
+    // Book and review already hold the change being made, so the computed row includes it
+    private void recompute(Long bookId) {
+        List<BookDTO> book = bookRepository.findBookDTOsByIdIn(List.of(bookId));
+        if (!book.isEmpty()) {
+            logger.warn("book_summary had no row for book {}, computing it from book and review", bookId);
+            bookSummaryRepository.save(compute(book).get(bookId));
+        }
+    }
+
+    private void offerLatest(LatestReviewDTO latest) {
+        bookSummaryRepository.offerLatestReview(latest.getBookId(), latest.getId(), latest.getReviewerName(),
+            latest.getSnippet(), latest.getCreatedAt());
+    }
+
+    private Optional<LatestReviewDTO> findLatestReview(Long bookId) {
+        return shardedReviews.isEnabled()
+            ? shardedReviews.findLatestReview(bookId)
+            : reviewRepository.findLatestReviewByBookId(bookId, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    private List<LatestReviewDTO> findLatestReviews(Collection<Long> bookIds) {
+        return shardedReviews.isEnabled()
+            ? shardedReviews.findLatestReviewsByBookIds(bookIds)
+            : reviewRepository.findLatestReviewsByBookIds(bookIds);
+    }
+
+    private static BookSummary empty(Long id, String title, String author, String genre) {
+        BookSummary summary = new BookSummary();
+        summary.setId(id);
+        summary.setTitle(title);
+        summary.setAuthor(author);
+        summary.setGenre(genre);
+        return summary;
+    }
+}
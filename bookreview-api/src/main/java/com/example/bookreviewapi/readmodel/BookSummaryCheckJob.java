@@ -0,0 +1,47 @@
+package com.example.bookreviewapi.readmodel;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.bookreviewapi.jobs.ClusterJob;
+
+/**
+ * Periodic consistency check of book_summary against book and review (see
+ * {@link BookSummaryReconciler}). Differences come from writes made outside the services, e.g.
+ * by hand in the database, or from a shard write whose main transaction failed; with repair on
+ * they are fixed as they are found.
+ */
+@Component
+@ConditionalOnProperty(name = "bookreview.read-model.enabled", havingValue = "true", matchIfMissing = true)
+public class BookSummaryCheckJob implements ClusterJob {
+
+    private final BookSummaryReconciler reconciler;
+    private final Duration interval;
+    private final boolean repair;
+
+    public BookSummaryCheckJob(BookSummaryReconciler reconciler,
+                               @Value("${bookreview.jobs.book-summary-check.interval-ms:21600000}") long intervalMs,
+                               @Value("${bookreview.jobs.book-summary-check.repair:true}") boolean repair) {
+        this.reconciler = reconciler;
+        this.interval = Duration.ofMillis(intervalMs);
+        this.repair = repair;
+    }
+
+    @Override
+    public String name() {
+        return "book-summary-check";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public void run() {
+        reconciler.check(repair);
+    }
+}
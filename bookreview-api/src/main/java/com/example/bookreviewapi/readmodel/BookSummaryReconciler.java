@@ -0,0 +1,158 @@
+package com.example.bookreviewapi.readmodel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.model.BookSummary;
+import com.example.bookreviewapi.repository.BookRepository;
+import com.example.bookreviewapi.repository.BookSummaryRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Compares book_summary with what book and review hold, page by page in book id order, and
+ * optionally rewrites the rows that differ: the consistency check and the rebuild are the same
+ * walk, the rebuild just repairs everything it finds (including a missing or orphaned row).
+ *
+ * A page is first compared without locks. Only rows that differ are looked at again, with their
+ * book rows locked: a review write in between would otherwise show up as a false mismatch, and
+ * a repair could overwrite its update. Writes to other books are never blocked.
+ */
+@Component
+public class BookSummaryReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSummaryReconciler.class);
+
+    static final String METRIC = "bookreview.read-model.mismatches";
+
+    /** What a pass found; repaired is 0 for a check without repair. */
+    public record Report(long checked, long mismatched, long missing, long orphaned, long repaired) {
+    }
+
+    private final BookSummaries bookSummaries;
+    private final BookSummaryRepository bookSummaryRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactions;
+    private final MeterRegistry meterRegistry;
+    private final int pageSize;
+
+    public BookSummaryReconciler(BookSummaries bookSummaries, BookSummaryRepository bookSummaryRepository,
+                                 BookRepository bookRepository, PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${bookreview.read-model.page-size:500}") int pageSize) {
+        this.bookSummaries = bookSummaries;
+        this.bookSummaryRepository = bookSummaryRepository;
+        this.bookRepository = bookRepository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.pageSize = pageSize;
+    }
+
+    /** Recomputes every row that differs from book and review, and drops rows of deleted books. */
+    public Report rebuild() {
+        Report report = reconcile(true);
+        logger.info("book_summary rebuilt: {}", report);
+        return report;
+    }
+
+    /** Counts the rows that differ from book and review; repairs them when asked to. */
+    public Report check(boolean repair) {
+        Report report = reconcile(repair);
+        if (report.mismatched() + report.missing() + report.orphaned() > 0) {
+            logger.warn("book_summary is inconsistent with book and review: {}", report);
+        }
+        return report;
+    }
+
+    private Report reconcile(boolean repair) {
+        long checked = 0;
+        long[] found = new long[3]; // mismatched, missing, repaired
+        long afterId = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<BookDTO> page = bookRepository.findBookDTOsAfter(afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+            checked += page.size();
+            List<Long> suspects = differing(page);
+            if (!suspects.isEmpty()) {
+                long[] confirmed = transactions.execute(status -> verify(suspects, repair));
+                for (int i = 0; i < found.length; i++) {
+                    found[i] += confirmed[i];
+                }
+            }
+        }
+
+        List<Long> orphans = bookSummaryRepository.findOrphanIds();
+        if (repair && !orphans.isEmpty()) {
+            bookSummaryRepository.deleteAllByIdInBatch(orphans);
+        }
+
+        meterRegistry.counter(METRIC, "kind", "mismatched").increment(found[0]);
+        meterRegistry.counter(METRIC, "kind", "missing").increment(found[1]);
+        meterRegistry.counter(METRIC, "kind", "orphaned").increment(orphans.size());
+        return new Report(checked, found[0], found[1], orphans.size(), found[2] + (repair ? orphans.size() : 0));
+    }
+
+    // Ids of the page whose stored summary differs from the computed one (unlocked, may be stale)
+    private List<Long> differing(List<BookDTO> page) {
+        Map<Long, BookSummary> expected = bookSummaries.compute(page);
+        Map<Long, BookSummary> stored = stored(expected.keySet());
+        List<Long> ids = new ArrayList<>();
+        for (BookDTO book : page) {
+            if (!Objects.equals(expected.get(book.getId()), stored.get(book.getId()))) {
+                ids.add(book.getId());
+            }
+        }
+        return ids;
+    }
+
+    // The same comparison with the books locked; returns {mismatched, missing, repaired}
+    private long[] verify(List<Long> ids, boolean repair) {
+        List<Long> locked = bookRepository.lockExistingIds(ids);
+        if (locked.isEmpty()) {
+            return new long[3]; // Deleted meanwhile
+        }
+        Map<Long, BookSummary> expected = bookSummaries.compute(bookRepository.findBookDTOsByIdIn(locked));
+        Map<Long, BookSummary> stored = stored(expected.keySet());
+        long mismatched = 0;
+        long missing = 0;
+        List<BookSummary> repairs = new ArrayList<>();
+        for (BookSummary summary : expected.values()) {
+            BookSummary current = stored.get(summary.getId());
+            if (summary.equals(current)) {
+                continue;
+            }
+            if (current == null) {
+                missing++;
+            } else {
+                mismatched++;
+                logger.debug("book_summary of book {} is {}, expected {}", summary.getId(), current, summary);
+            }
+            repairs.add(summary);
+        }
+        if (repair) {
+            bookSummaryRepository.saveAll(repairs);
+        }
+        return new long[] {mismatched, missing, repair ? repairs.size() : 0};
+    }
+
+    private Map<Long, BookSummary> stored(Iterable<Long> ids) {
+        return bookSummaryRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(BookSummary::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.bookreviewapi.readmodel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.example.bookreviewapi.datasource.PrimaryReads;
+import com.example.bookreviewapi.repository.BookRepository;
+import com.example.bookreviewapi.repository.BookSummaryRepository;
+
+/**
+ * Maintenance commands for book_summary, run instead of serving when the application is started
+ * with one of the options, e.g.
+ * java -jar bookreview-api.jar --spring.main.web-application-type=none --rebuild-book-summaries
+ * - --rebuild-book-summaries: recomputes every row that differs from book and review, then exits.
+ * - --check-book-summaries: reports the differences without changing anything; exits with 1
+ *   when there are any.
+ * Without an option, a book_summary that is still empty while there are books (the first start
+ * after the table was added) is filled once every bean is created, which is before the web server
+ * is started and so before the first request or readiness probe.
+ */
+@Component
+public class BookSummaryRunner implements ApplicationRunner, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSummaryRunner.class);
+
+    static final String REBUILD_OPTION = "rebuild-book-summaries";
+    static final String CHECK_OPTION = "check-book-summaries";
+
+    private final BookSummaryReconciler reconciler;
+    private final BookSummaries bookSummaries;
+    private final BookSummaryRepository bookSummaryRepository;
+    private final BookRepository bookRepository;
+    private final ConfigurableApplicationContext context;
+    private final ApplicationArguments arguments;
+
+    public BookSummaryRunner(BookSummaryReconciler reconciler, BookSummaries bookSummaries,
+                             BookSummaryRepository bookSummaryRepository, BookRepository bookRepository,
+                             ConfigurableApplicationContext context, ApplicationArguments arguments) {
+        this.reconciler = reconciler;
+        this.bookSummaries = bookSummaries;
+        this.bookSummaryRepository = bookSummaryRepository;
+        this.bookRepository = bookRepository;
+        this.context = context;
+        this.arguments = arguments;
+    }
+
+    // Runs before the web server starts (it is started when the context refresh finishes)
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (arguments.containsOption(REBUILD_OPTION) || arguments.containsOption(CHECK_OPTION)) {
+            return; // Handled by run()
+        }
+        if (!bookSummaries.isEnabled()) {
+            return;
+        }
+        // On the primary: the replicas may not be linked or caught up yet (H2ReplicaLinker runs
+        // in this same phase, in no particular order)
+        PrimaryReads.onPrimary(() -> {
+            if (bookSummaryRepository.count() == 0 && bookRepository.count() > 0) {
+                logger.info("book_summary is empty, building it from book and review");
+                reconciler.rebuild();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD_OPTION)) {
+            reconciler.rebuild();
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+        if (args.containsOption(CHECK_OPTION)) {
+            BookSummaryReconciler.Report report = reconciler.check(false);
+            logger.info("book_summary check: {}", report);
+            boolean consistent = report.mismatched() + report.missing() + report.orphaned() == 0;
+            System.exit(SpringApplication.exit(context, () -> consistent ? 0 : 1));
+        }
+    }
+}
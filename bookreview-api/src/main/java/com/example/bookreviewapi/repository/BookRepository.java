@@ -1,18 +1,60 @@
 package com.example.bookreviewapi.repository;
 
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.BookVersionDTO;
+import com.example.bookreviewapi.dto.CatalogueVersionDTO;
 import com.example.bookreviewapi.model.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
     
     Optional<Book> findByTitleAndAuthor(String title, String author);
     
     @Query("SELECT b FROM Book b LEFT JOIN FETCH b.reviews WHERE b.id = :id")
     Optional<Book> findByIdWithReviews(@Param("id") Long id);
+
+    @Query("SELECT new com.example.bookreviewapi.dto.BookDTO(b.id, b.title, b.author, b.genre) FROM Book b WHERE b.id = :id")
+    Optional<BookDTO> findBookDTOById(@Param("id") Long id);
+
+    // Multi-get: one IN query projected straight into BookDTO, so the EAGER reviews are never loaded
+    @Query("SELECT new com.example.bookreviewapi.dto.BookDTO(b.id, b.title, b.author, b.genre) FROM Book b WHERE b.id IN :ids")
+    List<BookDTO> findBookDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset paging over the catalogue (book_summary rebuild and check)
+    @Query("SELECT new com.example.bookreviewapi.dto.BookDTO(b.id, b.title, b.author, b.genre) FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<BookDTO> findBookDTOsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Row locks on the books, held until the transaction ends. Every book and review write takes
+    // the same lock first (the book update, markReviewsChanged), so none of them can run while
+    // book_summary rows are recomputed from book and review.
+    @Query(value = "SELECT id FROM book WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Conditional GETs: cheap version lookups that run before the full query
+    @Query("SELECT new com.example.bookreviewapi.dto.BookVersionDTO(b.id, b.version, b.reviewVersion, b.updatedAt) FROM Book b WHERE b.id = :id")
+    Optional<BookVersionDTO> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.bookreviewapi.dto.CatalogueVersionDTO(COUNT(b), MAX(b.id), SUM(b.version), SUM(b.reviewVersion)) FROM Book b")
+    CatalogueVersionDTO findCatalogueVersion();
+
+    // Atomic increment in the database, so concurrent review writes never lose a version bump
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Book b SET b.reviewVersion = b.reviewVersion + 1, b.updatedAt = :updatedAt WHERE b.id = :id")
+    int markReviewsChanged(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt);
 }
 
 // This interface extends JpaRepository, which provides CRUD operations for the Book entity.
@@ -0,0 +1,13 @@
+package com.example.bookreviewapi.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.bookreviewapi.dto.BookField;
+
+public interface BookRepositoryCustom {
+
+    // Sparse fieldsets: selects only the requested columns, one map per book (ordered by id)
+    List<Map<String, Object>> findBookFields(Set<BookField> fields);
+}
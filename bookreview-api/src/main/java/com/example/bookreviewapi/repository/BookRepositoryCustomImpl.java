@@ -0,0 +1,24 @@
+package com.example.bookreviewapi.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.bookreviewapi.dto.BookField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findBookFields(Set<BookField> fields) {
+        String jpql = "SELECT " + FieldsetQueries.selectList(fields) + " FROM Book b ORDER BY b.id";
+        List<Tuple> tuples = entityManager.createQuery(jpql, Tuple.class).getResultList();
+        return FieldsetQueries.toRows(tuples, fields);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.bookreviewapi.repository;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.model.BookSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The book_summary read model. Reads are single-table; the writes are atomic in-place updates
+ * made by BookSummaries inside the transaction of the book or review change, so concurrent
+ * review writes never lose an increment. Each update also clears the persistence context, so a
+ * summary saved earlier in the same transaction is read back from the row, not from a stale entity.
+ */
+public interface BookSummaryRepository extends JpaRepository<BookSummary, Long>, BookSummaryRepositoryCustom {
+
+    List<BookSummary> findAllByOrderByIdAsc();
+
+    @Query("SELECT new com.example.bookreviewapi.dto.BookDTO(b.id, b.title, b.author, b.genre) FROM BookSummary b WHERE b.id = :id")
+    Optional<BookDTO> findBookDTOById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.bookreviewapi.dto.BookDTO(b.id, b.title, b.author, b.genre) FROM BookSummary b WHERE b.id IN :ids")
+    List<BookDTO> findBookDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Summary rows whose book is gone (a missed delete)
+    @Query("SELECT s.id FROM BookSummary s WHERE s.id NOT IN (SELECT b.id FROM Book b)")
+    List<Long> findOrphanIds();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookSummary b SET b.title = :title, b.author = :author, b.genre = :genre WHERE b.id = :id")
+    int updateBook(@Param("id") Long id, @Param("title") String title, @Param("author") String author,
+                   @Param("genre") String genre);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM BookSummary b WHERE b.id = :id")
+    int deleteBook(@Param("id") Long id);
+
+    // Deltas of the count, the rating sum and each histogram bucket; negative for removals
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookSummary b SET b.reviewCount = b.reviewCount + :count, b.ratingSum = b.ratingSum + :sum, " +
+           "b.rating1 = b.rating1 + :r1, b.rating2 = b.rating2 + :r2, b.rating3 = b.rating3 + :r3, " +
+           "b.rating4 = b.rating4 + :r4, b.rating5 = b.rating5 + :r5 WHERE b.id = :id")
+    int addRatings(@Param("id") Long id, @Param("count") long count, @Param("sum") long sum,
+                   @Param("r1") long r1, @Param("r2") long r2, @Param("r3") long r3,
+                   @Param("r4") long r4, @Param("r5") long r5);
+
+    // Records the review as the newest one unless a newer review is already recorded
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookSummary b SET b.latestReviewId = :reviewId, b.latestReviewerName = :reviewerName, " +
+           "b.latestReviewSnippet = :snippet, b.latestReviewAt = :createdAt WHERE b.id = :id " +
+           "AND (b.latestReviewAt IS NULL OR b.latestReviewAt < :createdAt " +
+           "OR (b.latestReviewAt = :createdAt AND b.latestReviewId < :reviewId))")
+    int offerLatestReview(@Param("id") Long id, @Param("reviewId") Long reviewId,
+                          @Param("reviewerName") String reviewerName, @Param("snippet") String snippet,
+                          @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookSummary b SET b.latestReviewSnippet = :snippet WHERE b.id = :id AND b.latestReviewId = :reviewId")
+    int updateLatestReviewSnippet(@Param("id") Long id, @Param("reviewId") Long reviewId, @Param("snippet") String snippet);
+
+    // 1 when the review was the newest one; the caller then looks up the new newest review
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookSummary b SET b.latestReviewId = NULL, b.latestReviewerName = NULL, " +
+           "b.latestReviewSnippet = NULL, b.latestReviewAt = NULL WHERE b.id = :id AND b.latestReviewId = :reviewId")
+    int clearLatestReview(@Param("id") Long id, @Param("reviewId") Long reviewId);
+}
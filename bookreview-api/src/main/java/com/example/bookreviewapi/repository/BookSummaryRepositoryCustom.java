@@ -0,0 +1,14 @@
+package com.example.bookreviewapi.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.bookreviewapi.dto.BookField;
+
+public interface BookSummaryRepositoryCustom {
+
+    // GET /api/books?fields=... from book_summary: the requested columns plus, with
+    // includeRatings, avgRating and reviewCount from the same row (ordered by id)
+    List<Map<String, Object>> findBookFields(Set<BookField> fields, boolean includeRatings);
+}
@@ -0,0 +1,36 @@
+package com.example.bookreviewapi.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.bookreviewapi.dto.BookField;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+
+public class BookSummaryRepositoryCustomImpl implements BookSummaryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findBookFields(Set<BookField> fields, boolean includeRatings) {
+        // BookField paths (b.id, b.title, ...) name the same properties on BookSummary
+        String jpql = "SELECT " + FieldsetQueries.selectList(fields)
+            + (includeRatings ? ", b.reviewCount, b.ratingSum" : "") + " FROM BookSummary b ORDER BY b.id";
+        List<Tuple> tuples = entityManager.createQuery(jpql, Tuple.class).getResultList();
+        List<Map<String, Object>> rows = FieldsetQueries.toRows(tuples, fields);
+        if (includeRatings) {
+            for (int i = 0; i < rows.size(); i++) {
+                long reviewCount = tuples.get(i).get(fields.size(), Long.class);
+                long ratingSum = tuples.get(i).get(fields.size() + 1, Long.class);
+                rows.get(i).put("avgRating", RatingSummaryDTO.average(ratingSum, reviewCount));
+                rows.get(i).put("reviewCount", reviewCount);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bookreviewapi.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.example.bookreviewapi.dto.SelectableField;
+
+import jakarta.persistence.Tuple;
+
+// Shared pieces of the ?fields= queries; select lists are built only from whitelisted paths
+final class FieldsetQueries {
+
+    private FieldsetQueries() {
+    }
+
+    static String selectList(Set<? extends SelectableField> fields) {
+        return fields.stream().map(SelectableField::path).collect(Collectors.joining(", "));
+    }
+
+    static List<Map<String, Object>> toRows(List<Tuple> tuples, Set<? extends SelectableField> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int i = 0;
+            for (SelectableField field : fields) {
+                Object value = tuple.get(i++);
+                // Same text as the full DTOs (LocalDateTime.toString), not Jackson's date format
+                row.put(field.fieldName(), value instanceof LocalDateTime time ? time.toString() : value);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
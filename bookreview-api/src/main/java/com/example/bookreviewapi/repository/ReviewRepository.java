@@ -1,14 +1,79 @@
 package com.example.bookreviewapi.repository;
 
+import com.example.bookreviewapi.dto.LatestReviewDTO;
+import com.example.bookreviewapi.dto.RatingCountDTO;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
+import com.example.bookreviewapi.dto.ReviewDTO;
 import com.example.bookreviewapi.model.Review;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewRepositoryCustom {
 
     List<Review> findByBookId(Long bookId);
+
+    // The rating as stored, for the old value in ReviewUpdated / ReviewDeleted
+    @Query("SELECT r.rating FROM Review r WHERE r.id = :id")
+    Optional<Integer> findRatingById(@Param("id") Long id);
+
+    // Read path: selects only the columns ReviewDTO needs in one JOIN, so no Review/User/Book
+    // entities (and their EAGER collections) are hydrated or snapshotted for dirty checking.
+    @Query("SELECT new com.example.bookreviewapi.dto.ReviewDTO(r.id, r.comment, r.rating, u.username, u.id, r.createdAt, r.updatedAt) " +
+           "FROM Review r JOIN r.user u WHERE r.book.id = :bookId ORDER BY r.id")
+    List<ReviewDTO> findReviewDTOsByBookId(@Param("bookId") Long bookId);
+
+    // Same projection, limited to one page (e.g. the first page on the book detail view)
+    @Query("SELECT new com.example.bookreviewapi.dto.ReviewDTO(r.id, r.comment, r.rating, u.username, u.id, r.createdAt, r.updatedAt) " +
+           "FROM Review r JOIN r.user u WHERE r.book.id = :bookId ORDER BY r.id")
+    List<ReviewDTO> findReviewDTOsByBookId(@Param("bookId") Long bookId, Pageable pageable);
+
+    // A user's reviews, newest first
+    @Query("SELECT new com.example.bookreviewapi.dto.ReviewDTO(r.id, r.comment, r.rating, u.username, u.id, r.createdAt, r.updatedAt) " +
+           "FROM Review r JOIN r.user u WHERE u.id = :userId ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findReviewDTOsByUserId(@Param("userId") Long userId);
+
+    // Newest reviews across all books, one page
+    @Query("SELECT new com.example.bookreviewapi.dto.ReviewDTO(r.id, r.comment, r.rating, u.username, u.id, r.createdAt, r.updatedAt) " +
+           "FROM Review r JOIN r.user u ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findLatestReviewDTOs(Pageable pageable);
+
+    @Query("SELECT r.book.id FROM Review r WHERE r.id = :id")
+    Optional<Long> findBookIdById(@Param("id") Long id);
+
+    // Rating summaries for many books in one grouped query. Books without reviews have no row.
+    @Query("SELECT new com.example.bookreviewapi.dto.RatingSummaryDTO(r.book.id, AVG(r.rating), COUNT(r)) " +
+           "FROM Review r WHERE r.book.id IN :bookIds GROUP BY r.book.id")
+    List<RatingSummaryDTO> findRatingSummariesByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT new com.example.bookreviewapi.dto.RatingSummaryDTO(r.book.id, AVG(r.rating), COUNT(r)) " +
+           "FROM Review r GROUP BY r.book.id")
+    List<RatingSummaryDTO> findAllRatingSummaries();
+
+    // Rating histograms for the book_summary read model, one grouped query for many books
+    @Query("SELECT new com.example.bookreviewapi.dto.RatingCountDTO(r.book.id, r.rating, COUNT(r)) " +
+           "FROM Review r WHERE r.book.id IN :bookIds GROUP BY r.book.id, r.rating")
+    List<RatingCountDTO> findRatingCountsByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    // Newest review of one book (created_at, then id) when book_summary loses its newest one;
+    // one row off idx_review_book_created, called with a page of one
+    @Query("SELECT new com.example.bookreviewapi.dto.LatestReviewDTO(r.book.id, r.id, u.username, r.comment, r.createdAt) " +
+           "FROM Review r JOIN r.user u WHERE r.book.id = :bookId ORDER BY r.createdAt DESC, r.id DESC")
+    List<LatestReviewDTO> findLatestReviewByBookId(@Param("bookId") Long bookId, Pageable pageable);
+
+    // Newest review of each book (created_at, then id) for rebuilding the book_summary read model;
+    // too costly for a single book inside a write, see findLatestReviewByBookId
+    @Query("SELECT new com.example.bookreviewapi.dto.LatestReviewDTO(r.book.id, r.id, u.username, r.comment, r.createdAt) " +
+           "FROM Review r JOIN r.user u WHERE r.book.id IN :bookIds AND NOT EXISTS (" +
+           "SELECT n.id FROM Review n WHERE n.book.id = r.book.id " +
+           "AND (n.createdAt > r.createdAt OR (n.createdAt = r.createdAt AND n.id > r.id)))")
+    List<LatestReviewDTO> findLatestReviewsByBookIds(@Param("bookIds") Collection<Long> bookIds);
     
 }
 
@@ -16,4 +81,4 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     // It allows you to perform operations like saving, deleting, and finding reviews without needing to implement these methods manually.
     // The Long type parameter indicates that the ID of the Review entity is of type Long.
     // You can use this repository in your service layer to interact with the database for Review entities.
-    // You can also define custom query methods here if needed, such as finding reviews by reviewer name or rating.
\ No newline at end of file
+    // You can also define custom query methods here if needed, such as finding reviews by reviewer name or rating.
@@ -0,0 +1,19 @@
+package com.example.bookreviewapi.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.bookreviewapi.dto.ReviewField;
+import com.example.bookreviewapi.writebehind.PendingReview;
+
+public interface ReviewRepositoryCustom {
+
+    // Sparse fieldsets: same rows as findReviewDTOsByBookId, only the requested columns
+    List<Map<String, Object>> findReviewFieldsByBookId(Long bookId, Set<ReviewField> fields);
+
+    // Write-behind batches: one JDBC batch insert under the given ids; ids already present with
+    // the same book and user are skipped, ids held by another review throw DuplicateKeyException.
+    // Returns the reviews inserted.
+    List<PendingReview> insertNew(List<PendingReview> reviews);
+}
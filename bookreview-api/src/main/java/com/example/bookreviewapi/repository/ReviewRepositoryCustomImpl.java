@@ -0,0 +1,81 @@
+package com.example.bookreviewapi.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.example.bookreviewapi.dto.ReviewField;
+import com.example.bookreviewapi.writebehind.PendingReview;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+
+public class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findReviewFieldsByBookId(Long bookId, Set<ReviewField> fields) {
+        // Inner join kept even when no user column is selected, so the row set matches the full list
+        String jpql = "SELECT " + FieldsetQueries.selectList(fields)
+            + " FROM Review r JOIN r.user u WHERE r.book.id = :bookId ORDER BY r.id";
+        List<Tuple> tuples = entityManager.createQuery(jpql, Tuple.class)
+            .setParameter("bookId", bookId)
+            .getResultList();
+        return FieldsetQueries.toRows(tuples, fields);
+    }
+
+    @Override
+    public List<PendingReview> insertNew(List<PendingReview> reviews) {
+        if (reviews.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PendingReview> byId = reviews.stream()
+            .collect(Collectors.toMap(PendingReview::id, Function.identity()));
+        Set<Long> existing = new HashSet<>();
+        for (Tuple row : entityManager
+                .createQuery("SELECT r.id, r.book.id, r.user.id FROM Review r WHERE r.id IN :ids", Tuple.class)
+                .setParameter("ids", byId.keySet())
+                .getResultList()) {
+            PendingReview review = byId.get(row.get(0, Long.class));
+            // A replay finds its own review; anything else under the id is a collision, not a duplicate
+            if (review.bookId() != row.get(1, Long.class) || review.userId() != row.get(2, Long.class)) {
+                throw new DuplicateKeyException("Review id " + review.id() + " is taken by another review");
+            }
+            existing.add(review.id());
+        }
+        List<PendingReview> inserts = reviews.stream().filter(review -> !existing.contains(review.id())).toList();
+        if (inserts.isEmpty()) {
+            return inserts;
+        }
+        // Plain JDBC on the transaction's connection: nothing enters the persistence context
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO review "
+                    + "(id, comment, rating, created_at, updated_at, user_id, book_id) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (PendingReview review : inserts) {
+                    Timestamp createdAt = Timestamp.valueOf(review.createdAt());
+                    statement.setLong(1, review.id());
+                    statement.setString(2, review.comment());
+                    statement.setInt(3, review.rating());
+                    statement.setTimestamp(4, createdAt);
+                    statement.setTimestamp(5, createdAt);
+                    statement.setLong(6, review.userId());
+                    statement.setLong(7, review.bookId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        return inserts;
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.bookreviewapi.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.example.bookreviewapi.dto.LatestReviewDTO;
+import com.example.bookreviewapi.dto.RatingCountDTO;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.dto.ReviewField;
+import com.example.bookreviewapi.model.Book;
+import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.model.User;
+import com.example.bookreviewapi.shard.ReviewShards;
+import com.example.bookreviewapi.writebehind.PendingReview;
+
+/**
+ * Reviews stored on the review shards (see {@link ReviewShards}), the sharded counterpart of
+ * {@link ReviewRepository}. Queries keyed by book go to that book's shard only; the rest
+ * (by review id, by user, latest, all rating summaries) scatter to every shard and merge.
+ */
+@Repository
+public class ShardedReviewRepository {
+
+    private static final String COLUMNS = "id, book_id, user_id, reviewer_name, comment, rating, created_at, updated_at";
+
+    private static final RowMapper<ReviewDTO> DTO_MAPPER = (rs, rowNum) -> new ReviewDTO(
+        rs.getLong("id"), rs.getString("comment"), rs.getInt("rating"), rs.getString("reviewer_name"),
+        rs.getLong("user_id"), timestamp(rs, "created_at"), timestamp(rs, "updated_at"));
+
+    private static final RowMapper<RatingSummaryDTO> SUMMARY_MAPPER = (rs, rowNum) ->
+        new RatingSummaryDTO(rs.getLong("book_id"), rs.getDouble("average"), rs.getLong("total"));
+
+    // Newest first, ties by id: the merge order of the cross-shard lists
+    private static final Comparator<ReviewDTO> NEWEST_FIRST = Comparator
+        .comparing(ReviewDTO::getCreatedAtTime, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(ReviewDTO::getId, Comparator.reverseOrder());
+
+    private final ReviewShards shards;
+
+    public ShardedReviewRepository(ReviewShards shards) {
+        this.shards = shards;
+    }
+
+    public boolean isEnabled() {
+        return shards.isEnabled();
+    }
+
+    /**
+     * Inserts a new review (id assigned here) or updates an existing one, on the shard of its
+     * book. Returns false when an existing review is not on that book.
+     */
+    public boolean save(Review review) {
+        long bookId = review.getBook().getId();
+        JdbcTemplate jdbc = shards.forBook(bookId);
+        if (review.getId() == null) {
+            review.setId(shards.nextId());
+            jdbc.update("INSERT INTO reviews (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                review.getId(), bookId, review.getUser().getId(), review.getUser().getUsername(),
+                review.getComment(), review.getRating(),
+                Timestamp.valueOf(review.getCreatedAt()), Timestamp.valueOf(review.getUpdatedAt()));
+            return true;
+        }
+        return jdbc.update("UPDATE reviews SET comment = ?, rating = ?, updated_at = ? WHERE id = ? AND book_id = ?",
+            review.getComment(), review.getRating(), Timestamp.valueOf(review.getUpdatedAt()),
+            review.getId(), bookId) == 1;
+    }
+
+    /**
+     * Write-behind batches: inserts the reviews under their given ids, one JDBC batch per shard;
+     * ids already on their shard are skipped, and an id held by a review of another book or user
+     * fails the batch. Returns the reviews inserted.
+     */
+    public List<PendingReview> insertNew(List<PendingReview> reviews) {
+        Map<String, List<PendingReview>> byShard = new LinkedHashMap<>();
+        for (PendingReview review : reviews) {
+            byShard.computeIfAbsent(shards.shardFor(review.bookId()), shard -> new ArrayList<>()).add(review);
+        }
+        List<PendingReview> inserted = new ArrayList<>(reviews.size());
+        byShard.forEach((shard, shardReviews) -> {
+            JdbcTemplate jdbc = shards.shard(shard);
+            String ids = String.join(",", Collections.nCopies(shardReviews.size(), "?"));
+            Map<Long, PendingReview> byId = shardReviews.stream()
+                .collect(Collectors.toMap(PendingReview::id, Function.identity()));
+            Set<Long> existing = new HashSet<>();
+            jdbc.query("SELECT id, book_id, user_id FROM reviews WHERE id IN (" + ids + ")", rs -> {
+                PendingReview review = byId.get(rs.getLong("id"));
+                // A replay finds its own review; anything else under the id is a collision, not a duplicate
+                if (review.bookId() != rs.getLong("book_id") || review.userId() != rs.getLong("user_id")) {
+                    throw new DuplicateKeyException("Review id " + review.id() + " is taken by another review");
+                }
+                existing.add(review.id());
+            }, byId.keySet().toArray());
+            List<PendingReview> inserts = shardReviews.stream().filter(review -> !existing.contains(review.id())).toList();
+            jdbc.batchUpdate("INSERT INTO reviews (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)", inserts,
+                inserts.size(), (statement, review) -> {
+                    Timestamp createdAt = Timestamp.valueOf(review.createdAt());
+                    statement.setLong(1, review.id());
+                    statement.setLong(2, review.bookId());
+                    statement.setLong(3, review.userId());
+                    statement.setString(4, review.username());
+                    statement.setString(5, review.comment());
+                    statement.setInt(6, review.rating());
+                    statement.setTimestamp(7, createdAt);
+                    statement.setTimestamp(8, createdAt);
+                });
+            inserted.addAll(inserts);
+        });
+        return inserted;
+    }
+
+    public List<ReviewDTO> findReviewDTOsByBookId(long bookId) {
+        return shards.forBook(bookId).query(
+            "SELECT " + COLUMNS + " FROM reviews WHERE book_id = ? ORDER BY id", DTO_MAPPER, bookId);
+    }
+
+    // One page, e.g. the first page on the book detail view
+    public List<ReviewDTO> findReviewDTOsByBookId(long bookId, int limit) {
+        return shards.forBook(bookId).query(
+            "SELECT " + COLUMNS + " FROM reviews WHERE book_id = ? ORDER BY id LIMIT ?", DTO_MAPPER, bookId, limit);
+    }
+
+    // Sparse fieldsets: the full rows are narrow, so the columns are picked after the query
+    public List<Map<String, Object>> findReviewFieldsByBookId(long bookId, Set<ReviewField> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (ReviewDTO review : findReviewDTOsByBookId(bookId)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (ReviewField field : fields) {
+                row.put(field.fieldName(), switch (field) {
+                    case ID -> review.getId();
+                    case COMMENT -> review.getComment();
+                    case RATING -> review.getRating();
+                    case REVIEWER_NAME -> review.getReviewerName();
+                    case USER_ID -> review.getUserId();
+                    case CREATED_AT -> review.getCreatedAt();
+                    case UPDATED_AT -> review.getUpdatedAt();
+                });
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * The review with its book and user as id-only references (the user also carries the
+     * username). The id does not say which shard holds it, so every shard is asked.
+     */
+    public Optional<Review> findById(long id) {
+        List<Review> found = shards.scatter("find review by id", jdbc -> jdbc.query(
+            "SELECT " + COLUMNS + " FROM reviews WHERE id = ?", (rs, rowNum) -> toEntity(rs), id));
+        return found.stream().findFirst();
+    }
+
+    public Optional<Integer> findRating(long id, long bookId) {
+        return shards.forBook(bookId).queryForList("SELECT rating FROM reviews WHERE id = ?", Integer.class, id)
+            .stream().findFirst();
+    }
+
+    public void deleteById(long id, long bookId) {
+        shards.forBook(bookId).update("DELETE FROM reviews WHERE id = ?", id);
+    }
+
+    public int deleteByBookId(long bookId) {
+        return shards.forBook(bookId).update("DELETE FROM reviews WHERE book_id = ?", bookId);
+    }
+
+    public List<RatingSummaryDTO> findRatingSummariesByBookIds(Collection<Long> bookIds) {
+        return byBookShard("find rating summaries", bookIds, ShardedReviewRepository::summaries);
+    }
+
+    /** Review counts per (book, rating), for the book_summary histograms. */
+    public List<RatingCountDTO> findRatingCountsByBookIds(Collection<Long> bookIds) {
+        return byBookShard("find rating counts", bookIds, ids -> jdbc -> jdbc.query(
+            "SELECT book_id, rating, COUNT(*) AS total FROM reviews WHERE book_id IN (" + placeholders(ids)
+                + ") GROUP BY book_id, rating",
+            (rs, rowNum) -> new RatingCountDTO(rs.getLong("book_id"), rs.getInt("rating"), rs.getLong("total")),
+            ids.toArray()));
+    }
+
+    /** The newest review (created_at, then id) of the book, for book_summary writes. */
+    public Optional<LatestReviewDTO> findLatestReview(long bookId) {
+        return shards.forBook(bookId).query(
+            "SELECT id, book_id, reviewer_name, comment, created_at FROM reviews WHERE book_id = ? "
+                + "ORDER BY created_at DESC, id DESC LIMIT 1",
+            (rs, rowNum) -> new LatestReviewDTO(rs.getLong("book_id"), rs.getLong("id"), rs.getString("reviewer_name"),
+                rs.getString("comment"), timestamp(rs, "created_at")),
+            bookId).stream().findFirst();
+    }
+
+    /** The newest review (created_at, then id) of each of the books, for rebuilding book_summary. */
+    public List<LatestReviewDTO> findLatestReviewsByBookIds(Collection<Long> bookIds) {
+        return byBookShard("find latest reviews by book", bookIds, ids -> jdbc -> jdbc.query(
+            "SELECT id, book_id, reviewer_name, comment, created_at FROM reviews r WHERE book_id IN ("
+                + placeholders(ids) + ") AND NOT EXISTS (SELECT 1 FROM reviews n WHERE n.book_id = r.book_id "
+                + "AND (n.created_at > r.created_at OR (n.created_at = r.created_at AND n.id > r.id)))",
+            (rs, rowNum) -> new LatestReviewDTO(rs.getLong("book_id"), rs.getLong("id"), rs.getString("reviewer_name"),
+                rs.getString("comment"), timestamp(rs, "created_at")),
+            ids.toArray()));
+    }
+
+    // Each shard is asked only about its own books; a single shard is queried on this thread
+    private <T> List<T> byBookShard(String operation, Collection<Long> bookIds,
+                                    Function<List<Long>, Function<JdbcTemplate, List<T>>> query) {
+        Map<String, List<Long>> byShard = new LinkedHashMap<>();
+        for (Long bookId : bookIds) {
+            byShard.computeIfAbsent(shards.shardFor(bookId), shard -> new ArrayList<>()).add(bookId);
+        }
+        if (byShard.isEmpty()) {
+            return List.of();
+        }
+        if (byShard.size() == 1) {
+            Map.Entry<String, List<Long>> only = byShard.entrySet().iterator().next();
+            return query.apply(only.getValue()).apply(shards.shard(only.getKey()));
+        }
+        Map<String, Function<JdbcTemplate, List<T>>> perShard = new LinkedHashMap<>();
+        byShard.forEach((shard, ids) -> perShard.put(shard, query.apply(ids)));
+        return shards.gather(operation, perShard);
+    }
+
+    public List<RatingSummaryDTO> findAllRatingSummaries() {
+        return shards.scatter("find all rating summaries", jdbc -> jdbc.query(
+            "SELECT book_id, AVG(CAST(rating AS DOUBLE PRECISION)) AS average, COUNT(*) AS total "
+                + "FROM reviews GROUP BY book_id", SUMMARY_MAPPER));
+    }
+
+    /** A user's reviews from every shard, newest first. */
+    public List<ReviewDTO> findReviewDTOsByUserId(long userId) {
+        List<ReviewDTO> reviews = new ArrayList<>(shards.scatter("find reviews by user", jdbc -> jdbc.query(
+            "SELECT " + COLUMNS + " FROM reviews WHERE user_id = ?", DTO_MAPPER, userId)));
+        reviews.sort(NEWEST_FIRST);
+        return reviews;
+    }
+
+    /** The newest reviews overall: the newest limit of each shard, merged and cut to limit. */
+    public List<ReviewDTO> findLatestReviewDTOs(int limit) {
+        List<ReviewDTO> reviews = new ArrayList<>(shards.scatter("find latest reviews", jdbc -> jdbc.query(
+            "SELECT " + COLUMNS + " FROM reviews ORDER BY created_at DESC, id DESC LIMIT ?", DTO_MAPPER, limit)));
+        reviews.sort(NEWEST_FIRST);
+        return reviews.size() > limit ? List.copyOf(reviews.subList(0, limit)) : reviews;
+    }
+
+    private static Function<JdbcTemplate, List<RatingSummaryDTO>> summaries(List<Long> bookIds) {
+        return jdbc -> jdbc.query("SELECT book_id, AVG(CAST(rating AS DOUBLE PRECISION)) AS average, COUNT(*) AS total "
+            + "FROM reviews WHERE book_id IN (" + placeholders(bookIds) + ") GROUP BY book_id", SUMMARY_MAPPER, bookIds.toArray());
+    }
+
+    private static String placeholders(List<Long> ids) {
+        return String.join(", ", Collections.nCopies(ids.size(), "?"));
+    }
+
+    private static Review toEntity(ResultSet rs) throws SQLException {
+        Review review = new Review();
+        review.setId(rs.getLong("id"));
+        review.setComment(rs.getString("comment"));
+        review.setRating(rs.getInt("rating"));
+        review.setCreatedAt(timestamp(rs, "created_at"));
+        review.setUpdatedAt(timestamp(rs, "updated_at"));
+        Book book = new Book();
+        book.setId(rs.getLong("book_id"));
+        review.setBook(book);
+        User user = new User();
+        user.setId(rs.getLong("user_id"));
+        user.setUsername(rs.getString("reviewer_name"));
+        review.setUser(user);
+        return review;
+    }
+
+    private static LocalDateTime timestamp(ResultSet rs, String column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value == null ? null : value.toLocalDateTime();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bookreviewapi.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * AIMD concurrency limit for incoming requests. Every finished request is a latency sample:
+ * - slower than latency-threshold-ms: the limit is multiplied by backoff-ratio;
+ * - otherwise, if the server was at least half busy, the limit grows by one.
+ * So the limit settles just below the point where requests start queueing (on Tomcat threads
+ * or Hikari connections) instead of letting the queue, and the latency, grow.
+ *
+ * Lower priorities only get a share of the limit, which keeps headroom for authenticated writes
+ * when the server is saturated.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    static final String REJECTED_METRIC = "bookreview.concurrency.rejected";
+
+    public enum Priority { ANONYMOUS, AUTHENTICATED_READ, AUTHENTICATED_WRITE }
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final double anonymousShare;
+    private final double authenticatedReadShare;
+
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${bookreview.concurrency-limit.enabled:true}") boolean enabled,
+                                      @Value("${bookreview.concurrency-limit.initial-limit:20}") int initialLimit,
+                                      @Value("${bookreview.concurrency-limit.min-limit:5}") int minLimit,
+                                      @Value("${bookreview.concurrency-limit.max-limit:200}") int maxLimit,
+                                      @Value("${bookreview.concurrency-limit.latency-threshold-ms:500}") long latencyThresholdMs,
+                                      @Value("${bookreview.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${bookreview.concurrency-limit.anonymous-share:0.7}") double anonymousShare,
+                                      @Value("${bookreview.concurrency-limit.authenticated-read-share:0.9}") double authenticatedReadShare) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.backoffRatio = backoffRatio;
+        this.anonymousShare = anonymousShare;
+        this.authenticatedReadShare = authenticatedReadShare;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        Gauge.builder("bookreview.concurrency.limit", this, limiter -> limiter.limit)
+            .description("Current adaptive concurrency limit").register(meterRegistry);
+        Gauge.builder("bookreview.concurrency.in.flight", inFlight, AtomicInteger::get)
+            .description("Requests currently holding a concurrency permit").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Takes a permit unless this priority's share of the limit is in use. Pair with {@link #release}. */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = allowed(priority);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                meterRegistry.counter(REJECTED_METRIC, "priority", priority.name().toLowerCase()).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int busy = inFlight.getAndDecrement(); // Including this request
+        synchronized (this) {
+            if (latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (busy * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    int allowed(Priority priority) {
+        double share = switch (priority) {
+            case ANONYMOUS -> anonymousShare;
+            case AUTHENTICATED_READ -> authenticatedReadShare;
+            case AUTHENTICATED_WRITE -> 1.0;
+        };
+        return Math.max(1, (int) (limit * share));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bookreviewapi.resilience;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.example.bookreviewapi.config.SecurityConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Puts each API request into its lane and holds a request slot there for its duration; a full
+ * lane answers 503 without touching the others. The lane is also exposed on the thread for
+ * {@link LaneQuotaDataSource}.
+ *
+ * Lanes follow the SecurityConfig route groups: its admin-only routes are ADMIN, its public read
+ * routes PUBLIC_READ, and every other /api route AUTHENTICATED.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final List<PathPattern> PUBLIC_GET = parse(SecurityConfig.PUBLIC_GET_ROUTES);
+    private static final List<PathPattern> PUBLIC_POST = parse(SecurityConfig.PUBLIC_POST_ROUTES);
+    private static final List<PathPattern> ADMIN_DELETE = parse(SecurityConfig.ADMIN_DELETE_ROUTES);
+
+    private final Bulkheads bulkheads;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(Bulkheads bulkheads, ObjectMapper objectMapper) {
+        this.bulkheads = bulkheads;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !bulkheads.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Lane lane = laneOf(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        if (lane == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!bulkheads.tryEnter(lane)) {
+            ErrorResponses.write(objectMapper, request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                "The " + lane.tagValue() + " lane is full, retry shortly", 1);
+            return;
+        }
+        Lane.set(lane);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Lane.clear();
+            bulkheads.exit(lane);
+        }
+    }
+
+    static Lane laneOf(String method, String path) {
+        if (!path.startsWith("/api/") && !path.startsWith("/schemas/")) {
+            return null; // Auth, docs, actuator
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        if ("DELETE".equals(method) && matches(ADMIN_DELETE, container)) {
+            return Lane.ADMIN;
+        }
+        if (("GET".equals(method) && matches(PUBLIC_GET, container))
+                || ("POST".equals(method) && matches(PUBLIC_POST, container))) {
+            return Lane.PUBLIC_READ;
+        }
+        return Lane.AUTHENTICATED;
+    }
+
+    private static boolean matches(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<PathPattern> parse(String[] routes) {
+        return Arrays.stream(routes).map(PathPatternParser.defaultInstance::parse).toList();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.bookreviewapi.resilience;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-lane quotas for requests in progress and for database connections held, so one workload
+ * cannot take every request thread or every pool connection: an admin delete cascading over
+ * thousands of reviews holds at most the admin lane's connections, and public browsing keeps
+ * the rest.
+ *
+ * The request quota is enforced by {@link BulkheadFilter}, the connection quota by
+ * {@link LaneQuotaDataSource} for connections taken on behalf of a laned request.
+ */
+@Component
+public class Bulkheads {
+
+    static final String REJECTED_METRIC = "bookreview.bulkhead.rejected";
+
+    private static final class Quota {
+        final int maxConcurrent;
+        final int maxConnections;
+        final Semaphore requests;
+        final Semaphore connections;
+        final Counter requestsRejected;
+        final Counter connectionsRejected;
+
+        Quota(Lane lane, int maxConcurrent, int maxConnections, MeterRegistry meterRegistry) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxConnections = maxConnections;
+            this.requests = new Semaphore(maxConcurrent);
+            this.connections = new Semaphore(maxConnections);
+            String tag = lane.tagValue();
+            this.requestsRejected = meterRegistry.counter(REJECTED_METRIC, "lane", tag, "resource", "requests");
+            this.connectionsRejected = meterRegistry.counter(REJECTED_METRIC, "lane", tag, "resource", "connections");
+            Gauge.builder("bookreview.bulkhead.requests.active", this, quota -> quota.maxConcurrent - quota.requests.availablePermits())
+                .tag("lane", tag).description("Requests in progress in the lane").register(meterRegistry);
+            Gauge.builder("bookreview.bulkhead.requests.max", this, quota -> quota.maxConcurrent)
+                .tag("lane", tag).register(meterRegistry);
+            Gauge.builder("bookreview.bulkhead.connections.active", this, quota -> quota.maxConnections - quota.connections.availablePermits())
+                .tag("lane", tag).description("Database connections held by the lane").register(meterRegistry);
+            Gauge.builder("bookreview.bulkhead.connections.max", this, quota -> quota.maxConnections)
+                .tag("lane", tag).register(meterRegistry);
+        }
+    }
+
+    private final Map<Lane, Quota> quotas = new EnumMap<>(Lane.class);
+    private final boolean enabled;
+    private final long maxWaitMs;
+    private final long connectionWaitMs;
+
+    public Bulkheads(MeterRegistry meterRegistry,
+                     @Value("${bookreview.bulkhead.enabled:true}") boolean enabled,
+                     @Value("${bookreview.bulkhead.max-wait-ms:100}") long maxWaitMs,
+                     @Value("${bookreview.bulkhead.connection-wait-ms:5000}") long connectionWaitMs,
+                     @Value("${bookreview.bulkhead.public-read.max-concurrent:150}") int publicConcurrent,
+                     @Value("${bookreview.bulkhead.public-read.connections:6}") int publicConnections,
+                     @Value("${bookreview.bulkhead.authenticated.max-concurrent:60}") int authenticatedConcurrent,
+                     @Value("${bookreview.bulkhead.authenticated.connections:6}") int authenticatedConnections,
+                     @Value("${bookreview.bulkhead.admin.max-concurrent:2}") int adminConcurrent,
+                     @Value("${bookreview.bulkhead.admin.connections:2}") int adminConnections) {
+        this.enabled = enabled;
+        this.maxWaitMs = maxWaitMs;
+        this.connectionWaitMs = connectionWaitMs;
+        quotas.put(Lane.PUBLIC_READ, new Quota(Lane.PUBLIC_READ, publicConcurrent, publicConnections, meterRegistry));
+        quotas.put(Lane.AUTHENTICATED, new Quota(Lane.AUTHENTICATED, authenticatedConcurrent, authenticatedConnections, meterRegistry));
+        quotas.put(Lane.ADMIN, new Quota(Lane.ADMIN, adminConcurrent, adminConnections, meterRegistry));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Takes a request slot in the lane, waiting at most max-wait-ms. Pair with {@link #exit}. */
+    public boolean tryEnter(Lane lane) {
+        Quota quota = quotas.get(lane);
+        if (acquire(quota.requests, maxWaitMs)) {
+            return true;
+        }
+        quota.requestsRejected.increment();
+        return false;
+    }
+
+    public void exit(Lane lane) {
+        quotas.get(lane).requests.release();
+    }
+
+    /** Takes one of the lane's connections, waiting at most connection-wait-ms. */
+    public boolean tryAcquireConnection(Lane lane) {
+        Quota quota = quotas.get(lane);
+        if (acquire(quota.connections, connectionWaitMs)) {
+            return true;
+        }
+        quota.connectionsRejected.increment();
+        return false;
+    }
+
+    /** Takes one of the lane's connections only if one is free right now. */
+    public boolean tryAcquireSpareConnection(Lane lane) {
+        return quotas.get(lane).connections.tryAcquire();
+    }
+
+    public void releaseConnection(Lane lane) {
+        quotas.get(lane).connections.release();
+    }
+
+    private static boolean acquire(Semaphore semaphore, long waitMs) {
+        try {
+            return semaphore.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
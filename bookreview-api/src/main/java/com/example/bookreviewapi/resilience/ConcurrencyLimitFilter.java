@@ -0,0 +1,74 @@
+package com.example.bookreviewapi.resilience;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.bookreviewapi.resilience.AdaptiveConcurrencyLimiter.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds load with 503 once the adaptive concurrency limit is reached, before the request costs
+ * anything: it runs just ahead of the Spring Security chain, so a shed request never reaches
+ * JwtAuthenticationFilter (and its user lookup).
+ *
+ * Priority is decided from the request line and headers only, since the token has not been
+ * validated yet: a Bearer token with a non-safe method is an authenticated write, a Bearer token
+ * otherwise an authenticated read, anything else anonymous. A forged header only buys a place
+ * in the queue; the security chain still rejects it. Health probes bypass the limit.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 2)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limiter.isEnabled()
+            || request.getRequestURI().startsWith(request.getContextPath() + "/actuator/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire(priorityOf(request))) {
+            ErrorResponses.write(objectMapper, request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                "Server is at its concurrency limit, retry shortly", 1);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    static Priority priorityOf(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return Priority.ANONYMOUS;
+        }
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> Priority.AUTHENTICATED_READ;
+            default -> Priority.AUTHENTICATED_WRITE;
+        };
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.bookreviewapi.resilience;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Circuit breaker for the database, shared by every repository (see
+ * {@link RepositoryCircuitBreakerPostProcessor}).
+ *
+ * CLOSED: calls go through and their outcomes fill a window of the last window-size calls. Once
+ * it holds minimum-calls outcomes and the failure rate or the slow-call rate reaches its
+ * threshold, the breaker opens.
+ * OPEN: calls are rejected immediately for open-duration-ms instead of waiting on pool and JDBC
+ * timeouts.
+ * HALF_OPEN: half-open-calls trial calls are let through; if their rates stay under the
+ * thresholds the breaker closes, otherwise it opens again.
+ *
+ * Only connection, timeout and resource errors count as failures. Constraint violations and
+ * other errors the database answered promptly are successful calls as far as health goes.
+ */
+@Component
+public class DatabaseCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    static final String METRIC = "bookreview.circuitbreaker.calls";
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Point-in-time view for health and metrics; rates are percentages of bufferedCalls. */
+    public record Snapshot(State state, int bufferedCalls, double failureRate, double slowCallRate) {
+    }
+
+    private static final int FAILED = 1;
+    private static final int SLOW = 2;
+
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final boolean enabled;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    // Ring of the last outcomes while CLOSED, guarded by this
+    private final int[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private int windowSlow;
+
+    // Trial calls while HALF_OPEN, guarded by this
+    private int trialsPermitted;
+    private int trialsDone;
+    private int trialFailures;
+    private int trialSlow;
+
+    private volatile State state = State.CLOSED;
+    private long openedAtNanos;
+
+    @Autowired
+    public DatabaseCircuitBreaker(MeterRegistry meterRegistry,
+                                  @Value("${bookreview.circuit-breaker.enabled:true}") boolean enabled,
+                                  @Value("${bookreview.circuit-breaker.window-size:50}") int windowSize,
+                                  @Value("${bookreview.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                                  @Value("${bookreview.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                                  @Value("${bookreview.circuit-breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+                                  @Value("${bookreview.circuit-breaker.slow-call-duration-ms:2000}") long slowCallDurationMs,
+                                  @Value("${bookreview.circuit-breaker.open-duration-ms:10000}") long openDurationMs,
+                                  @Value("${bookreview.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+        this(meterRegistry, System::nanoTime, enabled, windowSize, minimumCalls, failureRateThreshold,
+            slowCallRateThreshold, slowCallDurationMs, openDurationMs, halfOpenCalls);
+    }
+
+    DatabaseCircuitBreaker(MeterRegistry meterRegistry, LongSupplier nanoClock, boolean enabled, int windowSize,
+                           int minimumCalls, int failureRateThreshold, int slowCallRateThreshold,
+                           long slowCallDurationMs, long openDurationMs, int halfOpenCalls) {
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.enabled = enabled;
+        this.window = new int[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallDurationMs);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenCalls = halfOpenCalls;
+        Gauge.builder("bookreview.circuitbreaker.state", this, breaker -> breaker.state.ordinal())
+            .description("Database circuit breaker state: 0 closed, 1 open, 2 half-open").register(meterRegistry);
+        Gauge.builder("bookreview.circuitbreaker.failure.rate", this, breaker -> breaker.snapshot().failureRate())
+            .description("Failed calls in the current window, percent").register(meterRegistry);
+        Gauge.builder("bookreview.circuitbreaker.slow.call.rate", this, breaker -> breaker.snapshot().slowCallRate())
+            .description("Slow calls in the current window, percent").register(meterRegistry);
+    }
+
+    /**
+     * Whether a call may go to the database now. Every permitted call must be followed by
+     * {@link #record}.
+     */
+    public boolean tryAcquire() {
+        if (!enabled || state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAtNanos < openNanos) {
+                    meterRegistry.counter(METRIC, "result", "rejected").increment();
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialsPermitted >= halfOpenCalls) {
+                    meterRegistry.counter(METRIC, "result", "rejected").increment();
+                    return false;
+                }
+                trialsPermitted++;
+            }
+            return true;
+        }
+    }
+
+    public void record(long durationNanos, boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        boolean slow = durationNanos >= slowCallNanos;
+        meterRegistry.counter(METRIC, "result", failed ? "failure" : slow ? "slow" : "success").increment();
+        int outcome = (failed ? FAILED : 0) | (slow ? SLOW : 0);
+
+        synchronized (this) {
+            switch (state) {
+                case CLOSED -> {
+                    addToWindow(outcome);
+                    if (windowCount >= minimumCalls && exceedsThresholds(windowFailures, windowSlow, windowCount)) {
+                        transitionTo(State.OPEN);
+                    }
+                }
+                case HALF_OPEN -> {
+                    trialsDone++;
+                    trialFailures += outcome & FAILED;
+                    trialSlow += (outcome & SLOW) >> 1;
+                    if (trialsDone >= halfOpenCalls) {
+                        transitionTo(exceedsThresholds(trialFailures, trialSlow, trialsDone) ? State.OPEN : State.CLOSED);
+                    }
+                }
+                case OPEN -> {
+                    // Result of a call that started before the breaker opened
+                }
+            }
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public synchronized Snapshot snapshot() {
+        if (state == State.HALF_OPEN) {
+            return new Snapshot(state, trialsDone, percent(trialFailures, trialsDone), percent(trialSlow, trialsDone));
+        }
+        return new Snapshot(state, windowCount, percent(windowFailures, windowCount), percent(windowSlow, windowCount));
+    }
+
+    /** Errors that say the database is unreachable or overloaded, as opposed to a rejected statement. */
+    public static boolean isDatabaseFailure(Throwable error) {
+        // A local quota (see Bulkheads) arrives wrapped, e.g. in CannotCreateTransactionException,
+        // so the whole chain is checked for it before anything is classified
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof LaneQuotaExceededException) {
+                return false;
+            }
+        }
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof DataAccessResourceFailureException
+                    || t instanceof TransientDataAccessResourceException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof SQLTransientConnectionException
+                    || t instanceof SQLNonTransientConnectionException
+                    || t instanceof SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addToWindow(int outcome) {
+        if (windowCount == window.length) {
+            int evicted = window[windowIndex];
+            windowFailures -= evicted & FAILED;
+            windowSlow -= (evicted & SLOW) >> 1;
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = outcome;
+        windowFailures += outcome & FAILED;
+        windowSlow += (outcome & SLOW) >> 1;
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private boolean exceedsThresholds(int failures, int slow, int calls) {
+        return failures * 100L >= (long) failureRateThreshold * calls
+            || slow * 100L >= (long) slowCallRateThreshold * calls;
+    }
+
+    private void transitionTo(State next) {
+        logger.warn("Database circuit breaker {} -> {} ({})", state, next, snapshot());
+        meterRegistry.counter("bookreview.circuitbreaker.transitions", "to", next.name()).increment();
+        state = next;
+        switch (next) {
+            case OPEN -> openedAtNanos = nanoClock.getAsLong();
+            case HALF_OPEN -> {
+                trialsPermitted = 0;
+                trialsDone = 0;
+                trialFailures = 0;
+                trialSlow = 0;
+            }
+            case CLOSED -> {
+                windowIndex = 0;
+                windowCount = 0;
+                windowFailures = 0;
+                windowSlow = 0;
+            }
+        }
+    }
+
+    private static double percent(int part, int total) {
+        return total == 0 ? 0.0 : part * 100.0 / total;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bookreviewapi.resilience;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Shows up as "databaseCircuitBreaker" under /actuator/health. An open breaker is what lets the
+// node ride out a database incident (fast 503s, last-known-good reads), so like replicaSet it
+// reports UNKNOWN rather than DOWN: restarting the node would not bring the database back.
+@Component
+public class DatabaseCircuitBreakerHealthIndicator implements HealthIndicator {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    public DatabaseCircuitBreakerHealthIndicator(DatabaseCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Health health() {
+        DatabaseCircuitBreaker.Snapshot snapshot = circuitBreaker.snapshot();
+        Health.Builder builder = switch (snapshot.state()) {
+            case CLOSED -> Health.up();
+            case HALF_OPEN, OPEN -> Health.unknown();
+        };
+        return builder
+            .withDetail("state", snapshot.state())
+            .withDetail("bufferedCalls", snapshot.bufferedCalls())
+            .withDetail("failureRate", snapshot.failureRate())
+            .withDetail("slowCallRate", snapshot.slowCallRate())
+            .build();
+    }
+}
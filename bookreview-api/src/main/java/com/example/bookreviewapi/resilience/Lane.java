@@ -0,0 +1,92 @@
+package com.example.bookreviewapi.resilience;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/** Workload lanes, each with its own request and connection quota (see {@link Bulkheads}). */
+public enum Lane {
+    PUBLIC_READ,
+    AUTHENTICATED,
+    ADMIN;
+
+    /**
+     * One laned request: its lane and how many connections it holds right now, across every
+     * thread its work was handed to (see {@link #callable}).
+     */
+    static final class Scope {
+        final Lane lane;
+        final AtomicInteger connections = new AtomicInteger();
+
+        Scope(Lane lane) {
+            this.lane = lane;
+        }
+    }
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /** Lane of the request running on this thread, or null outside a laned request. */
+    public static Lane current() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.lane : null;
+    }
+
+    static Scope scope() {
+        return CURRENT.get();
+    }
+
+    // Starts a new request in the lane on this thread
+    static void set(Lane lane) {
+        CURRENT.set(new Scope(lane));
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /** Carries the caller's request, and so its connection quota, over to the thread that runs the task. */
+    public static <T> Supplier<T> supplier(Supplier<T> task) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            Scope previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /** Carries the caller's request, and so its connection quota, over to the thread that runs the task. */
+    public static <T> Callable<T> callable(Callable<T> task) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            Scope previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(Scope previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    String tagValue() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.bookreviewapi.resilience;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts every connection taken for a laned request against that lane's connection quota (see
+ * {@link Bulkheads}) and gives the permit back when the connection is closed, i.e. returned to
+ * the pool. That includes work the request handed to other threads through {@link Lane#callable}
+ * (detail subtasks, last-known-good loads, hedged attempts). Connections taken outside a request
+ * (startup, jobs, the outbox relay) are not counted, and neither are the review shard pools,
+ * which are separate from this one.
+ *
+ * Only a request's first connection waits for a permit. While it holds one, further connections
+ * take a free permit if there is one and are let through otherwise: waiting would sit on the
+ * permits the request holds itself, and its fan-out is bounded by the code, not by clients.
+ */
+public class LaneQuotaDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Supplier<Bulkheads> bulkheads;
+
+    public LaneQuotaDataSource(DataSource target, Supplier<Bulkheads> bulkheads) {
+        super(target);
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Lane.Scope scope = Lane.scope();
+        return scope == null ? super.getConnection() : counted(scope, super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Lane.Scope scope = Lane.scope();
+        return scope == null ? super.getConnection(username, password)
+            : counted(scope, () -> super.getConnection(username, password));
+    }
+
+    // The wrapper is what the context sees, so it has to pass the pool's shutdown on
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable target) {
+            target.close();
+        }
+    }
+
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+
+    private Connection counted(Lane.Scope scope, ConnectionSource source) throws SQLException {
+        Lane lane = scope.lane;
+        Bulkheads quotas = bulkheads.get();
+        boolean permit;
+        if (scope.connections.get() > 0) {
+            permit = quotas.tryAcquireSpareConnection(lane);
+        } else if (quotas.tryAcquireConnection(lane)) {
+            permit = true;
+        } else {
+            throw new LaneQuotaExceededException(lane);
+        }
+        Connection connection;
+        try {
+            connection = source.get();
+        } catch (SQLException | RuntimeException e) {
+            if (permit) {
+                quotas.releaseConnection(lane);
+            }
+            throw e;
+        }
+        scope.connections.incrementAndGet();
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "close":
+                        if (released.compareAndSet(false, true)) {
+                            scope.connections.decrementAndGet();
+                            if (permit) {
+                                quotas.releaseConnection(lane);
+                            }
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.bookreviewapi.resilience;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+// Wraps the application DataSource in LaneQuotaDataSource
+@Component
+public class LaneQuotaDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<Bulkheads> bulkheads;
+
+    public LaneQuotaDataSourcePostProcessor(ObjectProvider<Bulkheads> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return new LaneQuotaDataSource(dataSource, SingletonSupplier.of(bulkheads::getObject));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.bookreviewapi.resilience;
+
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+
+// A lane used up its connection quota; the database itself is fine
+public class LaneQuotaExceededException extends DatabaseOperationException {
+
+    public LaneQuotaExceededException(Lane lane) {
+        super("No database connection available for the " + lane.tagValue() + " lane");
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bookreviewapi.resilience;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.bookreviewapi.resilience.RateLimiter.Decision;
+import com.example.bookreviewapi.resilience.RateLimiter.Group;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies {@link RateLimiter} with RateLimit-Limit / -Remaining / -Reset headers and 429 once a
+ * bucket is empty. Sits in the security chain right after JwtAuthenticationFilter, so signed-in
+ * users are limited by username and everyone else by client IP. The /auth endpoints are always
+ * limited by IP.
+ *
+ * Not a @Component: like JwtAuthenticationFilter it is created in SecurityConfig, so it is not
+ * also registered as a plain servlet filter.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Group group = groupOf(request);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Decision decision = rateLimiter.tryConsume(group, keyOf(group, request));
+        response.setHeader("RateLimit-Limit", Integer.toString(decision.limit()));
+        response.setHeader("RateLimit-Remaining", Integer.toString(decision.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(decision.resetSeconds()));
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ErrorResponses.write(objectMapper, request, response, HttpStatus.TOO_MANY_REQUESTS,
+            "Rate limit exceeded, retry in " + decision.retryAfterSeconds() + "s", decision.retryAfterSeconds());
+    }
+
+    static Group groupOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/auth/")) {
+            return "POST".equals(request.getMethod()) ? Group.AUTH : null;
+        }
+        if (path.startsWith("/api/")) {
+            return "GET".equals(request.getMethod()) && path.startsWith("/api/books") ? Group.CATALOGUE : Group.API;
+        }
+        return null; // Docs, schemas, actuator
+    }
+
+    static String keyOf(Group group, HttpServletRequest request) {
+        if (group != Group.AUTH) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.bookreviewapi.resilience;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Token buckets per route group and client key (user or IP).
+ *
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time" (GCRA), which
+ * behaves exactly like a token bucket of `capacity` tokens refilled at `refill-per-second`:
+ * a request advances the time by one token's worth, and is refused when that would put it more
+ * than a full bucket ahead of now. Taking a token is one CAS and allocates nothing.
+ *
+ * A bucket whose time is not ahead of now is full, i.e. indistinguishable from a new one, so
+ * idle buckets can be dropped at any time. A background sweep drops them every
+ * sweep-interval-ms, off the request threads. While a group holds max-buckets, new keys share
+ * one overflow bucket of the group's size rather than growing the map, so a flood of fresh keys
+ * (e.g. spoofed IPs) is throttled as a whole until the sweep makes room.
+ */
+@Component
+public class RateLimiter {
+
+    public enum Group { AUTH, CATALOGUE, API }
+
+    /** Outcome plus what goes into the RateLimit-* headers. */
+    public record Decision(boolean allowed, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final class Policy {
+        final int capacity;
+        final long intervalNanos;
+        final long burstNanos;
+        final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        // Shared by every key that found the map full; starts full (nanoTime may be negative)
+        final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+        final Counter rejected;
+        final Counter overflowed;
+
+        Policy(Group group, int capacity, double refillPerSecond, MeterRegistry meterRegistry) {
+            this.capacity = capacity;
+            this.intervalNanos = (long) (NANOS_PER_SECOND / refillPerSecond);
+            this.burstNanos = intervalNanos * capacity;
+            String name = group.name().toLowerCase();
+            this.rejected = meterRegistry.counter("bookreview.ratelimit.requests", "group", name, "result", "rejected");
+            this.overflowed = meterRegistry.counter("bookreview.ratelimit.requests", "group", name, "result", "overflow");
+            Gauge.builder("bookreview.ratelimit.buckets", buckets, Map::size).tag("group", name)
+                .description("Client buckets currently held").register(meterRegistry);
+        }
+    }
+
+    private final Map<Group, Policy> policies = new EnumMap<>(Group.class);
+    private final LongSupplier nanoClock;
+    private final boolean enabled;
+    private final int maxBuckets;
+    private final long sweepIntervalMs;
+    private ScheduledExecutorService sweeper;
+
+    @Autowired
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${bookreview.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${bookreview.rate-limit.max-buckets:100000}") int maxBuckets,
+                       @Value("${bookreview.rate-limit.sweep-interval-ms:10000}") long sweepIntervalMs,
+                       @Value("${bookreview.rate-limit.auth.capacity:10}") int authCapacity,
+                       @Value("${bookreview.rate-limit.auth.refill-per-second:0.2}") double authRefill,
+                       @Value("${bookreview.rate-limit.catalogue.capacity:60}") int catalogueCapacity,
+                       @Value("${bookreview.rate-limit.catalogue.refill-per-second:10}") double catalogueRefill,
+                       @Value("${bookreview.rate-limit.api.capacity:30}") int apiCapacity,
+                       @Value("${bookreview.rate-limit.api.refill-per-second:5}") double apiRefill) {
+        this(meterRegistry, System::nanoTime, enabled, maxBuckets, sweepIntervalMs,
+            authCapacity, authRefill, catalogueCapacity, catalogueRefill, apiCapacity, apiRefill);
+    }
+
+    RateLimiter(MeterRegistry meterRegistry, LongSupplier nanoClock, boolean enabled, int maxBuckets,
+                long sweepIntervalMs, int authCapacity, double authRefill, int catalogueCapacity,
+                double catalogueRefill, int apiCapacity, double apiRefill) {
+        this.nanoClock = nanoClock;
+        this.enabled = enabled;
+        this.maxBuckets = maxBuckets;
+        this.sweepIntervalMs = sweepIntervalMs;
+        policies.put(Group.AUTH, new Policy(Group.AUTH, authCapacity, authRefill, meterRegistry));
+        policies.put(Group.CATALOGUE, new Policy(Group.CATALOGUE, catalogueCapacity, catalogueRefill, meterRegistry));
+        policies.put(Group.API, new Policy(Group.API, apiCapacity, apiRefill, meterRegistry));
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled || sweepIntervalMs <= 0) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Decision tryConsume(Group group, String key) {
+        Policy policy = policies.get(group);
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = policy.buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(policy, key, now);
+            if (bucket == null) {
+                policy.overflowed.increment();
+                bucket = policy.overflow;
+            }
+        }
+
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + policy.intervalNanos;
+            long ahead = next - now;
+            if (ahead > policy.burstNanos) {
+                policy.rejected.increment();
+                return new Decision(false, policy.capacity, 0,
+                    ceilSeconds(arrival - now), ceilSeconds(ahead - policy.burstNanos));
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                int remaining = (int) ((policy.burstNanos - ahead) / policy.intervalNanos);
+                return new Decision(true, policy.capacity, remaining, ceilSeconds(ahead), 0);
+            }
+        }
+    }
+
+    int bucketCount(Group group) {
+        return policies.get(group).buckets.size();
+    }
+
+    // Null when the group is full: the caller takes from the overflow bucket instead
+    private AtomicLong newBucket(Policy policy, String key, long now) {
+        if (policy.buckets.size() >= maxBuckets) {
+            return null;
+        }
+        AtomicLong created = new AtomicLong(now);
+        AtomicLong existing = policy.buckets.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    // Drops the buckets that are full again; a token taken from one while it is dropped is forgiven
+    void sweep() {
+        long now = nanoClock.getAsLong();
+        for (Policy policy : policies.values()) {
+            policy.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return nanos <= 0 ? 0 : (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+}
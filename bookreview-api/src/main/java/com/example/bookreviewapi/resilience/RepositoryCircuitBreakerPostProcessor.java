@@ -0,0 +1,73 @@
+package com.example.bookreviewapi.resilience;
+
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.function.SingletonSupplier;
+
+import com.example.bookreviewapi.datasource.HedgedReads;
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+
+/**
+ * Puts every Spring Data repository behind the {@link DatabaseCircuitBreaker}, so the services
+ * (and anything else that reads the database through a repository) fail fast while it is open.
+ * The rejection is a DatabaseOperationException, which the services already pass on as a 503.
+ */
+@Component
+public class RepositoryCircuitBreakerPostProcessor implements BeanPostProcessor {
+
+    // Resolved on first call: post-processors are created before the beans the breaker needs
+    private final Supplier<DatabaseCircuitBreaker> circuitBreaker;
+
+    public RepositoryCircuitBreakerPostProcessor(ObjectProvider<DatabaseCircuitBreaker> circuitBreaker) {
+        this.circuitBreaker = SingletonSupplier.of(circuitBreaker::getObject);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof Repository<?, ?>)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(bean);
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(bean.getClass())) {
+            if (Repository.class.isAssignableFrom(type)) {
+                proxyFactory.addInterface(type);
+            }
+        }
+        proxyFactory.addAdvice(interceptor(beanName));
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    private MethodInterceptor interceptor(String beanName) {
+        return invocation -> {
+            if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            DatabaseCircuitBreaker breaker = circuitBreaker.get();
+            if (!breaker.tryAcquire()) {
+                throw new DatabaseOperationException(
+                    beanName + "." + invocation.getMethod().getName() + " rejected, database circuit breaker is open");
+            }
+            long start = System.nanoTime();
+            boolean failed = false;
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                // A cancelled read attempt (see HedgedReads) fails by interruption or an aborted
+                // connection, not because of the database
+                failed = DatabaseCircuitBreaker.isDatabaseFailure(e) && !Thread.currentThread().isInterrupted()
+                    && !HedgedReads.isCancelledAttempt();
+                throw e;
+            } finally {
+                breaker.record(System.nanoTime() - start, failed);
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.bookreviewapi.service;
+
+import com.example.bookreviewapi.dto.BookDetailDTO;
+
+public interface BookDetailService {
+
+    BookDetailDTO getBookDetail(Long bookId);
+}
@@ -0,0 +1,186 @@
+package com.example.bookreviewapi.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.example.bookreviewapi.datasource.PrimaryReads;
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.BookDetailDTO;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.exception.BookNotFoundException;
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+import com.example.bookreviewapi.mapper.BookMapper;
+import com.example.bookreviewapi.model.BookSummary;
+import com.example.bookreviewapi.readmodel.BookSummaries;
+import com.example.bookreviewapi.repository.BookRepository;
+import com.example.bookreviewapi.repository.BookSummaryRepository;
+import com.example.bookreviewapi.repository.ReviewRepository;
+import com.example.bookreviewapi.repository.ShardedReviewRepository;
+import com.example.bookreviewapi.resilience.Lane;
+
+/**
+ * Assembles GET /api/books/{id}/detail. The book, the first review page and the rating stats
+ * are independent queries, so they run at the same time on virtual threads under one deadline.
+ * The book and reviews are required; the stats are optional and are dropped (listed in
+ * "degraded") instead of failing the whole response.
+ *
+ * With the book_summary read model the book, its stats, histogram and newest review are one
+ * row of that table, read alongside the review page; nothing is optional any more.
+ */
+@Service
+public class BookDetailServiceImpl implements BookDetailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookDetailServiceImpl.class);
+
+    static final String RATING_STATS = "ratingStats";
+
+    private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final ShardedReviewRepository shardedReviews;
+    private final BookSummaries bookSummaries;
+    private final BookSummaryRepository bookSummaryRepository;
+    private final long deadlineMs;
+    private final int reviewPageSize;
+
+    public BookDetailServiceImpl(BookRepository bookRepository,
+                                 ReviewRepository reviewRepository,
+                                 ShardedReviewRepository shardedReviews,
+                                 BookSummaries bookSummaries,
+                                 BookSummaryRepository bookSummaryRepository,
+                                 @Value("${bookreview.detail.deadline-ms:2000}") long deadlineMs,
+                                 @Value("${bookreview.detail.review-page-size:10}") int reviewPageSize) {
+        this.bookRepository = bookRepository;
+        this.reviewRepository = reviewRepository;
+        this.shardedReviews = shardedReviews;
+        this.bookSummaries = bookSummaries;
+        this.bookSummaryRepository = bookSummaryRepository;
+        this.deadlineMs = deadlineMs;
+        this.reviewPageSize = reviewPageSize;
+    }
+
+    @Override
+    public BookDetailDTO getBookDetail(Long bookId) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        if (bookSummaries.isEnabled()) {
+            return getBookDetailFromSummary(bookId, deadline);
+        }
+        return getBookDetailFromTables(bookId, deadline);
+    }
+
+    private BookDetailDTO getBookDetailFromTables(Long bookId, long deadline) {
+        // The executor is scoped to this call, but not joined: see leave()
+        ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            // Subtasks keep the caller's primary pin (read-your-writes) and its lane's connection quota
+            Future<Optional<BookDTO>> bookTask = scope.submit(Lane.callable(PrimaryReads.callable(() ->
+                bookRepository.findBookDTOById(bookId))));
+            Future<List<ReviewDTO>> reviewsTask = scope.submit(Lane.callable(PrimaryReads.callable(() -> reviewPage(bookId))));
+            Future<List<RatingSummaryDTO>> statsTask = scope.submit(Lane.callable(PrimaryReads.callable(() ->
+                shardedReviews.isEnabled()
+                    ? shardedReviews.findRatingSummariesByBookIds(List.of(bookId))
+                    : reviewRepository.findRatingSummariesByBookIds(List.of(bookId)))));
+
+            try {
+                // Required parts: any failure fails the response
+                BookDTO book = await(bookTask, deadline, "load book detail")
+                    .orElseThrow(() -> new BookNotFoundException(bookId));
+                List<ReviewDTO> reviews = await(reviewsTask, deadline, "load book detail reviews");
+
+                // Optional part: degrade instead of failing
+                List<String> degraded = new ArrayList<>();
+                RatingSummaryDTO ratingStats = null;
+                try {
+                    List<RatingSummaryDTO> stats = await(statsTask, deadline, "load book detail rating stats");
+                    ratingStats = stats.isEmpty() ? RatingSummaryDTO.empty(bookId) : stats.get(0);
+                } catch (DatabaseOperationException e) {
+                    logger.warn("Rating stats for book {} left out of detail response: {}", bookId, e.getMessage());
+                    degraded.add(RATING_STATS);
+                }
+
+                return new BookDetailDTO(book, reviews, ratingStats, degraded);
+            } finally {
+                // Cancel whatever is still running (failure or deadline)
+                bookTask.cancel(true);
+                reviewsTask.cancel(true);
+                statsTask.cancel(true);
+            }
+        } finally {
+            leave(scope);
+        }
+    }
+
+    private BookDetailDTO getBookDetailFromSummary(Long bookId, long deadline) {
+        ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<Optional<BookSummary>> summaryTask = scope.submit(Lane.callable(PrimaryReads.callable(() ->
+                bookSummaryRepository.findById(bookId))));
+            Future<List<ReviewDTO>> reviewsTask = scope.submit(Lane.callable(PrimaryReads.callable(() -> reviewPage(bookId))));
+            try {
+                Optional<BookSummary> found = await(summaryTask, deadline, "load book detail");
+                if (found.isEmpty()) {
+                    // No summary row (not built yet, or a missed write): the book may still exist
+                    return getBookDetailFromTables(bookId, deadline);
+                }
+                BookSummary summary = found.get();
+                List<ReviewDTO> reviews = await(reviewsTask, deadline, "load book detail reviews");
+                return new BookDetailDTO(BookMapper.toDTO(summary, false), reviews, BookMapper.toRatingSummary(summary),
+                    new ArrayList<>(), BookMapper.toRatingHistogram(summary), BookMapper.toLatestReview(summary));
+            } finally {
+                summaryTask.cancel(true);
+                reviewsTask.cancel(true);
+            }
+        } finally {
+            leave(scope);
+        }
+    }
+
+    /**
+     * Shuts the scope down without waiting. A cancelled subtask blocked in JDBC does not react to
+     * the interrupt until its statement returns, and close() would wait for that and overrun the
+     * deadline. The subtask finishes on its own virtual thread and gives its connection back then.
+     */
+    private static void leave(ExecutorService scope) {
+        scope.shutdown();
+    }
+
+    private List<ReviewDTO> reviewPage(Long bookId) {
+        return shardedReviews.isEnabled()
+            ? shardedReviews.findReviewDTOsByBookId(bookId, reviewPageSize)
+            : reviewRepository.findReviewDTOsByBookId(bookId, PageRequest.of(0, reviewPageSize));
+    }
+
+    /**
+     * Waits for a subtask until the shared deadline and unwraps its result. Business exceptions
+     * are re-thrown as-is, everything else (including the deadline) becomes a DatabaseOperationException.
+     */
+    private <T> T await(Future<T> task, long deadline, String operation) {
+        try {
+            long remaining = deadline - System.nanoTime();
+            return task.get(Math.max(remaining, 0L), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BookNotFoundException notFound) {
+                throw notFound; // Re-throw business exception
+            }
+            throw new DatabaseOperationException(operation, e.getCause());
+        } catch (TimeoutException e) {
+            throw new DatabaseOperationException(operation + " (deadline of " + deadlineMs + " ms exceeded)", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException(operation, e);
+        }
+    }
+}
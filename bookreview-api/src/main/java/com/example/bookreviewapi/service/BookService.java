@@ -1,15 +1,35 @@
 package com.example.bookreviewapi.service;
+import com.example.bookreviewapi.dto.BookBatchDTO;
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.BookField;
+import com.example.bookreviewapi.dto.BookVersionDTO;
+import com.example.bookreviewapi.dto.CatalogueVersionDTO;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
 import com.example.bookreviewapi.model.Book;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 public interface BookService {
     
     Book saveBook(Book book);
     Book getBookByIdOrThrow(Long id);
+    BookDTO getBookDTOOrThrow(Long id);
     List<Book> getAllBooks();
+    List<BookDTO> getAllBookDTOs(boolean includeRatings);
+    List<Map<String, Object>> getBookFields(Set<BookField> fields, boolean includeRatings);
+    BookBatchDTO getBooksByIds(List<Long> ids);
     
     void deleteBook(Long id);
     double getAverageRating(Long bookId);
+    double getAverageRating(Long bookId, long reviewVersion); // Coalesced with concurrent identical reads
+    Map<Long, RatingSummaryDTO> getRatingSummaries(Collection<Long> bookIds);
+    Map<Long, RatingSummaryDTO> getAllRatingSummaries();
+
+    Optional<BookVersionDTO> getBookVersion(Long id);
+    CatalogueVersionDTO getCatalogueVersion();
 
 }
\ No newline at end of file
@@ -1,27 +1,85 @@
 package com.example.bookreviewapi.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.bookreviewapi.cache.ResponseBodyCache;
+import com.example.bookreviewapi.cache.SingleFlight;
+import com.example.bookreviewapi.datasource.HedgedReads;
+import com.example.bookreviewapi.event.BookCreated;
+import com.example.bookreviewapi.event.BookDeleted;
+import com.example.bookreviewapi.event.BookUpdated;
+import com.example.bookreviewapi.event.DomainEventPublisher;
+import com.example.bookreviewapi.invalidation.InvalidationBus;
+import com.example.bookreviewapi.invalidation.InvalidationEvent;
+import com.example.bookreviewapi.mapper.BookMapper;
+import com.example.bookreviewapi.readmodel.BookSummaries;
 import com.example.bookreviewapi.repository.BookRepository;
+import com.example.bookreviewapi.repository.BookSummaryRepository;
+import com.example.bookreviewapi.repository.ReviewRepository;
+import com.example.bookreviewapi.repository.ShardedReviewRepository;
+import com.example.bookreviewapi.dto.BookBatchDTO;
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.BookField;
+import com.example.bookreviewapi.dto.BookVersionDTO;
+import com.example.bookreviewapi.dto.CatalogueVersionDTO;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
 import com.example.bookreviewapi.exception.BookNotFoundException;
 import com.example.bookreviewapi.exception.InvalidBookDataException;
 import com.example.bookreviewapi.exception.BookAlreadyExistsException;
 import com.example.bookreviewapi.exception.DatabaseOperationException;
 import com.example.bookreviewapi.model.Book;
+import com.example.bookreviewapi.model.BookSummary;
 import com.example.bookreviewapi.model.Review;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    // Upper bound for GET /api/books?ids=..., keeps the IN list and the response size reasonable
+    static final int MAX_BATCH_SIZE = 100;
+
     private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final ResponseBodyCache responseBodyCache;
+    private final SingleFlight singleFlight;
+    private final HedgedReads hedgedReads;
+    private final ShardedReviewRepository shardedReviews;
+    private final InvalidationBus invalidationBus;
+    private final DomainEventPublisher domainEvents;
+    private final BookSummaries bookSummaries;
+    private final BookSummaryRepository bookSummaryRepository;
 
-    public BookServiceImpl(BookRepository bookRepository) {
+    public BookServiceImpl(BookRepository bookRepository, ReviewRepository reviewRepository,
+                           ResponseBodyCache responseBodyCache, SingleFlight singleFlight,
+                           HedgedReads hedgedReads, ShardedReviewRepository shardedReviews,
+                           InvalidationBus invalidationBus, DomainEventPublisher domainEvents,
+                           BookSummaries bookSummaries, BookSummaryRepository bookSummaryRepository) {
         this.bookRepository = bookRepository;
+        this.reviewRepository = reviewRepository;
+        this.shardedReviews = shardedReviews;
+        this.responseBodyCache = responseBodyCache;
+        this.singleFlight = singleFlight;
+        this.hedgedReads = hedgedReads;
+        this.invalidationBus = invalidationBus;
+        this.domainEvents = domainEvents;
+        this.bookSummaries = bookSummaries;
+        this.bookSummaryRepository = bookSummaryRepository;
     }
 
     @Override
+    @Transactional
     public Book saveBook(Book book) {
         try {
             // Validate book data
@@ -29,8 +87,23 @@ public class BookServiceImpl implements BookService {
             
             // Check if book already exists
             checkBookExists(book);
+
+            // Move the ETag / Last-Modified of this book
+            book.setVersion(book.getVersion() + 1);
+            book.setUpdatedAt(LocalDateTime.now());
+            boolean created = book.getId() == null;
             
-            return bookRepository.save(book);
+            Book savedBook = bookRepository.save(book);
+            bookSummaries.bookSaved(savedBook, created);
+
+            // Drop the cached bodies for this book and the catalogue lists, here and on the other nodes
+            responseBodyCache.evictBook(savedBook.getId());
+            invalidationBus.publish(InvalidationEvent.Kind.BOOK, savedBook.getId());
+            domainEvents.publish(created
+                ? new BookCreated(savedBook.getId(), savedBook.getTitle(), savedBook.getAuthor(), savedBook.getGenre(), Instant.now())
+                : new BookUpdated(savedBook.getId(), savedBook.getTitle(), savedBook.getAuthor(), savedBook.getGenre(), Instant.now()));
+
+            return savedBook;
         } catch (RuntimeException e) {
             if (e instanceof InvalidBookDataException || e instanceof BookAlreadyExistsException) {
                 throw e; // Re-throw business exceptions
@@ -40,9 +113,12 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Book getBookByIdOrThrow(Long id) {
         try {
-            return bookRepository.findById(id).orElseThrow(() -> new BookNotFoundException(id));
+            // Not hedged: inside this transaction a cancelled attempt would break it (see HedgedReads)
+            return bookRepository.findById(id)
+                    .orElseThrow(() -> new BookNotFoundException(id));
         } catch (BookNotFoundException e) {
             throw e; // Re-throw business exception
         } catch (Exception e) {
@@ -51,6 +127,23 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    public BookDTO getBookDTOOrThrow(Long id) {
+        try {
+            // Single-row projection either way, the book's EAGER reviews are never loaded. A book
+            // without a summary row (not built yet, or a missed write) is still found in book.
+            return hedgedReads.execute("find-book", () -> bookSummaries.isEnabled()
+                    ? bookSummaryRepository.findBookDTOById(id).or(() -> bookRepository.findBookDTOById(id))
+                    : bookRepository.findBookDTOById(id))
+                .orElseThrow(() -> new BookNotFoundException(id));
+        } catch (BookNotFoundException e) {
+            throw e; // Re-throw business exception
+        } catch (Exception e) {
+            throw new DatabaseOperationException("find book by id", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Book> getAllBooks() {
         try {
             return bookRepository.findAll();
@@ -60,12 +153,130 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<BookDTO> getAllBookDTOs(boolean includeRatings) {
+        if (!bookSummaries.isEnabled()) {
+            List<BookDTO> books = getAllBooks().stream().map(BookMapper::toDTO).toList();
+            if (includeRatings) {
+                Map<Long, RatingSummaryDTO> summaries = getAllRatingSummaries();
+                books.forEach(dto -> BookMapper.withRatingSummary(dto,
+                    summaries.getOrDefault(dto.getId(), RatingSummaryDTO.empty(dto.getId()))));
+            }
+            return books;
+        }
+        try {
+            // One table, ratings included: no review query, however many books
+            return bookSummaryRepository.findAllByOrderByIdAsc().stream()
+                .map(summary -> BookMapper.toDTO(summary, includeRatings))
+                .toList();
+        } catch (Exception e) {
+            throw new DatabaseOperationException("find all books", e);
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getBookFields(Set<BookField> fields, boolean includeRatings) {
+        try {
+            if (bookSummaries.isEnabled()) {
+                // The ratings are columns of the same rows
+                return bookSummaryRepository.findBookFields(fields, includeRatings);
+            }
+
+            // The id is needed to attach ratings, even when the client did not ask for it
+            Set<BookField> selected = EnumSet.noneOf(BookField.class);
+            selected.addAll(fields);
+            if (includeRatings) {
+                selected.add(BookField.ID);
+            }
+
+            // Only the requested columns are selected, no Book entities are loaded
+            List<Map<String, Object>> rows = bookRepository.findBookFields(selected);
+            if (!includeRatings) {
+                return rows;
+            }
+
+            Map<Long, RatingSummaryDTO> summaries = new HashMap<>();
+            for (RatingSummaryDTO summary : findAllRatingSummaries()) {
+                summaries.put(summary.getBookId(), summary);
+            }
+            for (Map<String, Object> row : rows) {
+                Long id = (Long) (fields.contains(BookField.ID) ? row.get("id") : row.remove("id"));
+                RatingSummaryDTO summary = summaries.getOrDefault(id, RatingSummaryDTO.empty(id));
+                row.put("avgRating", summary.getAvgRating());
+                row.put("reviewCount", summary.getReviewCount());
+            }
+            return rows;
+        } catch (Exception e) {
+            throw new DatabaseOperationException("find book fields", e);
+        }
+    }
+
+    @Override
+    public BookBatchDTO getBooksByIds(List<Long> ids) {
+        // Validate the batch before touching the database
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidBookDataException("At least one book ID is required");
+        }
+        // List.of(...) rejects contains(null), so the ids are checked one by one
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidBookDataException("Book IDs cannot be null");
+        }
+
+        // Drop duplicates but keep the order the client asked for
+        LinkedHashSet<Long> requestedIds = new LinkedHashSet<>(ids);
+        if (requestedIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidBookDataException("No more than " + MAX_BATCH_SIZE + " book IDs can be requested at once");
+        }
+
+        try {
+            // One IN query for the whole batch
+            Map<Long, BookDTO> found = new HashMap<>();
+            List<BookDTO> rows = bookSummaries.isEnabled()
+                ? bookSummaryRepository.findBookDTOsByIdIn(requestedIds)
+                : bookRepository.findBookDTOsByIdIn(requestedIds);
+            for (BookDTO book : rows) {
+                found.put(book.getId(), book);
+            }
+            if (bookSummaries.isEnabled() && found.size() < requestedIds.size()) {
+                // Books without a summary row are still books
+                List<Long> unsummarised = requestedIds.stream().filter(id -> !found.containsKey(id)).toList();
+                for (BookDTO book : bookRepository.findBookDTOsByIdIn(unsummarised)) {
+                    found.put(book.getId(), book);
+                }
+            }
+
+            List<BookDTO> books = new ArrayList<>();
+            List<Long> missingIds = new ArrayList<>();
+            for (Long id : requestedIds) {
+                BookDTO book = found.get(id);
+                if (book != null) {
+                    books.add(book);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+            return new BookBatchDTO(books, missingIds);
+        } catch (Exception e) {
+            throw new DatabaseOperationException("find books by ids", e);
+        }
+    }
+
+    @Override
+    @Transactional
     public void deleteBook(Long id) {
         try {
             if (!bookRepository.existsById(id)) {
                 throw new BookNotFoundException(id);
             }
             bookRepository.deleteById(id);
+            bookSummaries.bookDeleted(id);
+            if (shardedReviews.isEnabled()) {
+                // No cascade across databases: the book's shard drops its reviews here
+                shardedReviews.deleteByBookId(id);
+            }
+            responseBodyCache.evictBook(id);
+            invalidationBus.publish(InvalidationEvent.Kind.BOOK, id);
+            domainEvents.publish(new BookDeleted(id, Instant.now()));
         } catch (BookNotFoundException e) {
             throw e; // Re-throw business exception
         } catch (Exception e) {
@@ -74,8 +285,25 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public double getAverageRating(Long bookId) {
         try {
+            if (bookSummaries.isEnabled()) {
+                Optional<BookSummary> summary = bookSummaryRepository.findById(bookId);
+                if (summary.isPresent()) {
+                    return RatingSummaryDTO.average(summary.get().getRatingSum(), summary.get().getReviewCount());
+                }
+                // No summary row: answered from book and review below
+            }
+            if (shardedReviews.isEnabled()) {
+                if (!bookRepository.existsById(bookId)) {
+                    throw new BookNotFoundException(bookId);
+                }
+                // One grouped query on the book's shard
+                List<RatingSummaryDTO> summary = shardedReviews.findRatingSummariesByBookIds(List.of(bookId));
+                return summary.isEmpty() ? 0.0 : summary.get(0).getAvgRating();
+            }
+
             Book book = bookRepository.findByIdWithReviews(bookId)
                     .orElseThrow(() -> new BookNotFoundException(bookId));
             
@@ -98,6 +326,84 @@ public class BookServiceImpl implements BookService {
         }
     }
 
+    @Override
+    public double getAverageRating(Long bookId, long reviewVersion) {
+        // Keyed by the version the caller saw: a load that started before a newer review was
+        // committed is never handed to a caller whose ETag already reflects that review
+        return singleFlight.execute("average-rating", bookId + "@" + reviewVersion, () -> getAverageRating(bookId));
+    }
+
+    @Override
+    public Map<Long, RatingSummaryDTO> getRatingSummaries(Collection<Long> bookIds) {
+        try {
+            Map<Long, RatingSummaryDTO> summaries = new HashMap<>();
+            if (bookIds == null || bookIds.isEmpty()) {
+                return summaries;
+            }
+
+            Collection<Long> unsummarised = bookIds;
+            if (bookSummaries.isEnabled()) {
+                for (BookSummary summary : bookSummaryRepository.findAllById(bookIds)) {
+                    summaries.put(summary.getId(), BookMapper.toRatingSummary(summary));
+                }
+                // Books without a summary row are counted from review below
+                unsummarised = bookIds.stream().filter(bookId -> !summaries.containsKey(bookId)).toList();
+            }
+            if (!unsummarised.isEmpty()) {
+                // One grouped query for the whole batch
+                List<RatingSummaryDTO> rows = shardedReviews.isEnabled()
+                    ? shardedReviews.findRatingSummariesByBookIds(unsummarised)
+                    : reviewRepository.findRatingSummariesByBookIds(unsummarised);
+                for (RatingSummaryDTO summary : rows) {
+                    summaries.put(summary.getBookId(), summary);
+                }
+            }
+
+            // Books without reviews have no row in the grouped result
+            for (Long bookId : bookIds) {
+                summaries.putIfAbsent(bookId, RatingSummaryDTO.empty(bookId));
+            }
+            return summaries;
+        } catch (Exception e) {
+            throw new DatabaseOperationException("get rating summaries", e);
+        }
+    }
+
+    @Override
+    public Map<Long, RatingSummaryDTO> getAllRatingSummaries() {
+        try {
+            // Only reviewed books are present, callers default the rest to RatingSummaryDTO.empty
+            Map<Long, RatingSummaryDTO> summaries = new HashMap<>();
+            for (RatingSummaryDTO summary : findAllRatingSummaries()) {
+                summaries.put(summary.getBookId(), summary);
+            }
+            return summaries;
+        } catch (Exception e) {
+            throw new DatabaseOperationException("get all rating summaries", e);
+        }
+    }
+
+    @Override
+    public Optional<BookVersionDTO> getBookVersion(Long id) {
+        try {
+            // Runs before every conditional GET of the book, its reviews and its rating. A shared
+            // result can only be older than the data loaded after it, which just costs a 200.
+            return singleFlight.execute("book-version", id,
+                () -> hedgedReads.execute("book-version", () -> bookRepository.findVersionById(id)));
+        } catch (Exception e) {
+            throw new DatabaseOperationException("find book version", e);
+        }
+    }
+
+    @Override
+    public CatalogueVersionDTO getCatalogueVersion() {
+        try {
+            return bookRepository.findCatalogueVersion();
+        } catch (Exception e) {
+            throw new DatabaseOperationException("find catalogue version", e);
+        }
+    }
+
     private void validateBookData(Book book) {
         if (book == null) {
             throw new InvalidBookDataException("Book cannot be null");
@@ -129,4 +435,14 @@ public class BookServiceImpl implements BookService {
             throw new BookAlreadyExistsException(book.getTitle(), book.getAuthor());
         }
     }
+
+    // Sharded reviews: one grouped query per shard, in parallel
+    private List<RatingSummaryDTO> findAllRatingSummaries() {
+        if (bookSummaries.isEnabled()) {
+            return bookSummaryRepository.findAllByOrderByIdAsc().stream().map(BookMapper::toRatingSummary).toList();
+        }
+        return shardedReviews.isEnabled()
+            ? shardedReviews.findAllRatingSummaries()
+            : reviewRepository.findAllRatingSummaries();
+    }
 }
\ No newline at end of file
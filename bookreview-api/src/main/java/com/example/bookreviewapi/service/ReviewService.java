@@ -1,13 +1,24 @@
 package com.example.bookreviewapi.service;
 
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.dto.ReviewField;
 import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.writebehind.PendingReview;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface ReviewService {
     
     Review saveReview(Long BookId, Review review);
-    List<Review> getReviewsByBookId(Long bookId);
+    List<ReviewDTO> getReviewsByBookId(Long bookId);
+    List<ReviewDTO> getReviewsByBookId(Long bookId, long reviewVersion); // Coalesced with concurrent identical reads
+    List<Map<String, Object>> getReviewFieldsByBookId(Long bookId, Set<ReviewField> fields);
     Review getReviewById(Long reviewId);
     void deleteReview(Long reviewId);
+    List<ReviewDTO> getReviewsByUserId(Long userId); // Newest first
+    List<ReviewDTO> getLatestReviews(int limit); // Newest first, across all books
+    void validateNewReview(Long bookId, Review review); // Checks of saveReview, without loading the book
+    int saveReviewBatch(List<PendingReview> reviews); // Inserts in one transaction, returns how many were new
 }
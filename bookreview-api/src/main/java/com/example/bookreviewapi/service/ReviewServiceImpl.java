@@ -1,29 +1,70 @@
 package com.example.bookreviewapi.service;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.example.bookreviewapi.cache.ResponseBodyCache;
+import com.example.bookreviewapi.event.DomainEventPublisher;
+import com.example.bookreviewapi.event.ReviewCreated;
+import com.example.bookreviewapi.event.ReviewDeleted;
+import com.example.bookreviewapi.event.ReviewUpdated;
+import com.example.bookreviewapi.invalidation.InvalidationBus;
+import com.example.bookreviewapi.invalidation.InvalidationEvent;
+import com.example.bookreviewapi.cache.SingleFlight;
+import com.example.bookreviewapi.readmodel.BookSummaries;
 import com.example.bookreviewapi.repository.BookRepository;
 import com.example.bookreviewapi.repository.ReviewRepository;
+import com.example.bookreviewapi.repository.ShardedReviewRepository;
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.dto.ReviewField;
 import com.example.bookreviewapi.model.Review;
 import com.example.bookreviewapi.exception.BookNotFoundException;
 import com.example.bookreviewapi.exception.InvalidReviewDataException;
 import com.example.bookreviewapi.exception.DatabaseOperationException;
 import com.example.bookreviewapi.model.Book;
+import com.example.bookreviewapi.writebehind.PendingReview;
 
 @Service
 public class ReviewServiceImpl implements ReviewService {
+
+    // Upper bound for GET /api/reviews/latest?limit=...
+    static final int MAX_LATEST = 100;
     
     private final BookRepository bookRepository;
     private final ReviewRepository reviewRepository;
+    private final ResponseBodyCache responseBodyCache;
+    private final SingleFlight singleFlight;
+    private final ShardedReviewRepository shardedReviews;
+    private final InvalidationBus invalidationBus;
+    private final DomainEventPublisher domainEvents;
+    private final BookSummaries bookSummaries;
 
-    public ReviewServiceImpl(BookRepository bookRepository, ReviewRepository reviewRepository) {
+    public ReviewServiceImpl(BookRepository bookRepository, ReviewRepository reviewRepository,
+                             ResponseBodyCache responseBodyCache, SingleFlight singleFlight,
+                             ShardedReviewRepository shardedReviews, InvalidationBus invalidationBus,
+                             DomainEventPublisher domainEvents, BookSummaries bookSummaries) {
         this.bookRepository = bookRepository;
         this.reviewRepository = reviewRepository;
+        this.responseBodyCache = responseBodyCache;
+        this.singleFlight = singleFlight;
+        this.shardedReviews = shardedReviews;
+        this.invalidationBus = invalidationBus;
+        this.domainEvents = domainEvents;
+        this.bookSummaries = bookSummaries;
     }
 
     @Override
+    @Transactional
     public Review saveReview(Long bookId, Review review) {
         try {
             // Validate review data
@@ -35,20 +76,51 @@ public class ReviewServiceImpl implements ReviewService {
             // Set the book relationship
             review.setBook(book);
             
-            // Manage bidirectional relationship
-            if (book.getReviews() == null) {
-                book.setReviews(new java.util.ArrayList<>());
-            }
-            book.getReviews().add(review);
-            
             // Set timestamps
             if (review.getCreatedAt() == null) {
                 review.setCreatedAt(LocalDateTime.now());
             }
             review.setUpdatedAt(LocalDateTime.now());
+
+            // The stored rating, read before the save overwrites it, tells an update from a create
+            Optional<Integer> oldRating = Optional.empty();
+            if (review.getId() != null) {
+                if (!shardedReviews.isEnabled()) {
+                    // The sharded save refuses a review of another book itself; here the stored
+                    // book is checked, or the old rating would come off the wrong book's summary
+                    Optional<Long> storedBookId = reviewRepository.findBookIdById(review.getId());
+                    if (storedBookId.isPresent() && !storedBookId.get().equals(bookId)) {
+                        throw new InvalidReviewDataException("Review " + review.getId() + " does not belong to book " + bookId);
+                    }
+                }
+                oldRating = shardedReviews.isEnabled()
+                    ? shardedReviews.findRating(review.getId(), bookId)
+                    : reviewRepository.findRatingById(review.getId());
+            }
+
+            if (shardedReviews.isEnabled()) {
+                return saveToShard(bookId, review, oldRating);
+            }
+
+            // Manage bidirectional relationship
+            if (book.getReviews() == null) {
+                book.setReviews(new java.util.ArrayList<>());
+            }
+            book.getReviews().add(review);
             
             // Save the review
-            return reviewRepository.save(review);
+            Review savedReview = reviewRepository.save(review);
+
+            // Move the review-set version of the book (ETags / Last-Modified) in the same transaction
+            bookRepository.markReviewsChanged(bookId, review.getUpdatedAt());
+            bookSummaries.reviewSaved(bookId, savedReview, oldRating);
+
+            // Cached rating bodies go once the transaction commits, here and on the other nodes
+            responseBodyCache.evictReviews(bookId);
+            invalidationBus.publish(InvalidationEvent.Kind.REVIEWS, bookId);
+            publishSaved(bookId, savedReview, oldRating);
+
+            return savedReview;
             
         } catch (BookNotFoundException | InvalidReviewDataException e) {
             throw e; // Re-throw business exceptions
@@ -58,15 +130,26 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    public List<Review> getReviewsByBookId(Long bookId) {
+    public List<ReviewDTO> getReviewsByBookId(Long bookId, long reviewVersion) {
+        // Concurrent requests that saw the same review version share one load. The list is
+        // only serialised afterwards, never modified, so sharing it is safe.
+        return singleFlight.execute("reviews", bookId + "@" + reviewVersion, () -> getReviewsByBookId(bookId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReviewDTO> getReviewsByBookId(Long bookId) {
         try {
-            // Find the book with reviews loaded and validate it exists
-            Book book = bookRepository.findByIdWithReviews(bookId)
-                    .orElseThrow(() -> new BookNotFoundException(bookId));
-            
-            // Return the reviews from the book, ensuring we never return null
-            List<Review> reviews = book.getReviews();
-            return reviews != null ? reviews : new java.util.ArrayList<>();
+            // Single projection query, no Review/User entities are hydrated
+            List<ReviewDTO> reviews = shardedReviews.isEnabled()
+                ? shardedReviews.findReviewDTOsByBookId(bookId)
+                : reviewRepository.findReviewDTOsByBookId(bookId);
+
+            // An empty result is ambiguous, only then check that the book exists
+            if (reviews.isEmpty() && !bookRepository.existsById(bookId)) {
+                throw new BookNotFoundException(bookId);
+            }
+            return reviews;
             
         } catch (BookNotFoundException e) {
             throw e; // Re-throw business exception
@@ -75,15 +158,155 @@ public class ReviewServiceImpl implements ReviewService {
         }
     }
 
+    @Override
+    public List<Map<String, Object>> getReviewFieldsByBookId(Long bookId, Set<ReviewField> fields) {
+        try {
+            // Only the requested columns are selected
+            List<Map<String, Object>> reviews = shardedReviews.isEnabled()
+                ? shardedReviews.findReviewFieldsByBookId(bookId, fields)
+                : reviewRepository.findReviewFieldsByBookId(bookId, fields);
+
+            if (reviews.isEmpty() && !bookRepository.existsById(bookId)) {
+                throw new BookNotFoundException(bookId);
+            }
+            return reviews;
+
+        } catch (BookNotFoundException e) {
+            throw e; // Re-throw business exception
+        } catch (Exception e) {
+            throw new DatabaseOperationException("get review fields by book id", e);
+        }
+    }
+
     @Override
     public Review getReviewById(Long reviewId) {
-        return reviewRepository.findById(reviewId)
+        Optional<Review> review = shardedReviews.isEnabled()
+            ? shardedReviews.findById(reviewId)
+            : reviewRepository.findById(reviewId);
+        return review
             .orElseThrow(() -> new com.example.bookreviewapi.exception.InvalidReviewDataException("Review not found with id: " + reviewId));
     }
 
     @Override
+    @Transactional
     public void deleteReview(Long reviewId) {
+        if (shardedReviews.isEnabled()) {
+            Review review = shardedReviews.findById(reviewId).orElse(null);
+            if (review != null) {
+                Long bookId = review.getBook().getId();
+                bookRepository.markReviewsChanged(bookId, LocalDateTime.now());
+                shardedReviews.deleteById(reviewId, bookId);
+                bookSummaries.reviewDeleted(bookId, reviewId, review.getRating());
+                responseBodyCache.evictReviews(bookId);
+                invalidationBus.publish(InvalidationEvent.Kind.REVIEWS, bookId);
+                domainEvents.publish(new ReviewDeleted(reviewId, bookId, review.getRating(), Instant.now()));
+            }
+            return;
+        }
+        Long bookId = reviewRepository.findBookIdById(reviewId).orElse(null);
+        Optional<Integer> oldRating = bookId == null ? Optional.empty() : reviewRepository.findRatingById(reviewId);
         reviewRepository.deleteById(reviewId);
+        if (bookId != null) {
+            bookRepository.markReviewsChanged(bookId, LocalDateTime.now());
+            oldRating.ifPresent(rating -> bookSummaries.reviewDeleted(bookId, reviewId, rating));
+            responseBodyCache.evictReviews(bookId);
+            invalidationBus.publish(InvalidationEvent.Kind.REVIEWS, bookId);
+            oldRating.ifPresent(rating ->
+                domainEvents.publish(new ReviewDeleted(reviewId, bookId, rating, Instant.now())));
+        }
+    }
+
+    @Override
+    public List<ReviewDTO> getReviewsByUserId(Long userId) {
+        try {
+            return shardedReviews.isEnabled()
+                ? shardedReviews.findReviewDTOsByUserId(userId)
+                : reviewRepository.findReviewDTOsByUserId(userId);
+        } catch (Exception e) {
+            throw new DatabaseOperationException("get reviews by user id", e);
+        }
+    }
+
+    @Override
+    public List<ReviewDTO> getLatestReviews(int limit) {
+        if (limit < 1 || limit > MAX_LATEST) {
+            throw new InvalidReviewDataException("limit must be between 1 and " + MAX_LATEST);
+        }
+        try {
+            return shardedReviews.isEnabled()
+                ? shardedReviews.findLatestReviewDTOs(limit)
+                : reviewRepository.findLatestReviewDTOs(PageRequest.of(0, limit));
+        } catch (Exception e) {
+            throw new DatabaseOperationException("get latest reviews", e);
+        }
+    }
+
+    @Override
+    public void validateNewReview(Long bookId, Review review) {
+        validateReviewData(review);
+        // Existence only: loading the book would also load all of its (EAGER) reviews
+        if (!bookRepository.existsById(bookId)) {
+            throw new BookNotFoundException(bookId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int saveReviewBatch(List<PendingReview> reviews) {
+        try {
+            // Books deleted since the reviews were accepted lose them
+            Set<Long> books = new HashSet<>(bookRepository.findExistingIds(
+                reviews.stream().map(PendingReview::bookId).collect(Collectors.toSet())));
+            List<PendingReview> writable = reviews.stream().filter(review -> books.contains(review.bookId())).toList();
+
+            // One version bump per book for the whole batch, before the inserts as in saveToShard
+            Map<Long, LocalDateTime> changed = new LinkedHashMap<>();
+            for (PendingReview review : writable) {
+                changed.merge(review.bookId(), review.createdAt(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+            changed.forEach(bookRepository::markReviewsChanged);
+
+            // Ids already present (a journal replay after a crash) are skipped
+            List<PendingReview> inserted = shardedReviews.isEnabled()
+                ? shardedReviews.insertNew(writable)
+                : reviewRepository.insertNew(writable);
+            bookSummaries.reviewsInserted(inserted);
+
+            for (Long bookId : changed.keySet()) {
+                responseBodyCache.evictReviews(bookId);
+                invalidationBus.publish(InvalidationEvent.Kind.REVIEWS, bookId);
+            }
+            for (PendingReview review : inserted) {
+                domainEvents.publish(new ReviewCreated(review.id(), review.bookId(), review.userId(), review.rating(),
+                    Instant.now()));
+            }
+            return inserted.size();
+
+        } catch (Exception e) {
+            throw new DatabaseOperationException("save review batch", e);
+        }
+    }
+
+    // Reviews live on the book's shard; the version bump stays in this transaction on the main
+    // database. It is written first, so a failed shard write rolls it back. Only a failed commit
+    // after the shard write leaves a review the version does not account for yet.
+    private Review saveToShard(Long bookId, Review review, Optional<Integer> oldRating) {
+        bookRepository.markReviewsChanged(bookId, review.getUpdatedAt());
+        if (!shardedReviews.save(review)) {
+            throw new InvalidReviewDataException("Review " + review.getId() + " does not belong to book " + bookId);
+        }
+        bookSummaries.reviewSaved(bookId, review, oldRating);
+        responseBodyCache.evictReviews(bookId);
+        invalidationBus.publish(InvalidationEvent.Kind.REVIEWS, bookId);
+        publishSaved(bookId, review, oldRating);
+        return review;
+    }
+
+    private void publishSaved(Long bookId, Review review, Optional<Integer> oldRating) {
+        Long userId = review.getUser() == null ? null : review.getUser().getId();
+        domainEvents.publish(oldRating.isPresent()
+            ? new ReviewUpdated(review.getId(), bookId, userId, oldRating.get(), review.getRating(), Instant.now())
+            : new ReviewCreated(review.getId(), bookId, userId, review.getRating(), Instant.now()));
     }
 
     /**
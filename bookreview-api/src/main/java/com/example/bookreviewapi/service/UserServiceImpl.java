@@ -1,6 +1,8 @@
 package com.example.bookreviewapi.service;
 import com.example.bookreviewapi.exception.UserAlreadyExistsException;
 import com.example.bookreviewapi.exception.UserNotFoundException;
+import com.example.bookreviewapi.invalidation.InvalidationBus;
+import com.example.bookreviewapi.invalidation.InvalidationEvent;
 import com.example.bookreviewapi.model.User;
 import com.example.bookreviewapi.repository.UserRepository;
 
@@ -12,10 +14,13 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final InvalidationBus invalidationBus;
 
-    public UserServiceImpl(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder,
+                           InvalidationBus invalidationBus) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.invalidationBus = invalidationBus;
     }
 
     @Override
@@ -34,8 +39,10 @@ public class UserServiceImpl implements UserService {
         String encodedPassword = passwordEncoder.encode(user.getPassword());
         user.setPassword(encodedPassword);
 
-        // Save the user
-        return userRepository.save(user);
+        // Save the user, and let the other nodes drop anything they cached under this id
+        User savedUser = userRepository.save(user);
+        invalidationBus.publish(InvalidationEvent.Kind.USER, savedUser.getId());
+        return savedUser;
 
     }
 
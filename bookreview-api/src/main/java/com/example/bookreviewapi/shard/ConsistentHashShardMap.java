@@ -0,0 +1,60 @@
+package com.example.bookreviewapi.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent hashing ring with virtual nodes. Adding a shard moves only about 1/n of the books
+ * (those whose ring position the new shard's nodes now own), which keeps rebalancing cheap.
+ */
+public class ConsistentHashShardMap implements ShardMap {
+
+    private final List<String> shards;
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashShardMap(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    @Override
+    public String shardFor(long bookId) {
+        Map.Entry<Long, String> owner = ring.ceilingEntry(mix(bookId));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    @Override
+    public List<String> shards() {
+        return shards;
+    }
+
+    // FNV-1a over the bytes, then the same finaliser as the book ids
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // MurmurHash3 fmix64: sequential ids land all over the ring
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
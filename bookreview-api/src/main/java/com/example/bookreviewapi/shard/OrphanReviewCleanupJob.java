@@ -0,0 +1,81 @@
+package com.example.bookreviewapi.shard;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.bookreviewapi.jobs.ClusterJob;
+import com.example.bookreviewapi.repository.BookRepository;
+
+/**
+ * Reconciles the shards with the main database: deleting a book removes its shard reviews in a
+ * second step, and a crash in between (or a review insert whose main transaction rolled back)
+ * leaves reviews of a book that does not exist. This job deletes them.
+ *
+ * Only books whose newest review is older than min-age-ms are looked at, so a book that a lagging
+ * replica does not know yet is never taken for deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "bookreview.sharding.enabled", havingValue = "true")
+public class OrphanReviewCleanupJob implements ClusterJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanReviewCleanupJob.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ReviewShards shards;
+    private final BookRepository bookRepository;
+    private final Duration interval;
+    private final long minAgeMs;
+
+    public OrphanReviewCleanupJob(ReviewShards shards, BookRepository bookRepository,
+                                  @Value("${bookreview.jobs.orphan-reviews.interval-ms:3600000}") long intervalMs,
+                                  @Value("${bookreview.jobs.orphan-reviews.min-age-ms:600000}") long minAgeMs) {
+        this.shards = shards;
+        this.bookRepository = bookRepository;
+        this.interval = Duration.ofMillis(intervalMs);
+        this.minAgeMs = minAgeMs;
+    }
+
+    @Override
+    public String name() {
+        return "orphan-review-cleanup";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public void run() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - minAgeMs);
+        int deleted = 0;
+        for (String shard : shards.shardNames()) {
+            JdbcTemplate jdbc = shards.shard(shard);
+            List<Long> bookIds = jdbc.queryForList(
+                "SELECT book_id FROM reviews GROUP BY book_id HAVING MAX(created_at) < ?", Long.class, cutoff);
+            for (int from = 0; from < bookIds.size() && !Thread.currentThread().isInterrupted(); from += BATCH_SIZE) {
+                List<Long> batch = bookIds.subList(from, Math.min(from + BATCH_SIZE, bookIds.size()));
+                Set<Long> existing = new HashSet<>(bookRepository.findExistingIds(batch));
+                for (Long bookId : batch) {
+                    if (!existing.contains(bookId)) {
+                        deleted += jdbc.update("DELETE FROM reviews WHERE book_id = ?", bookId);
+                    }
+                }
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} reviews of books that no longer exist", deleted);
+        }
+    }
+}
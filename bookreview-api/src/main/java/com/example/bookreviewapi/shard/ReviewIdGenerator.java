@@ -0,0 +1,53 @@
+package com.example.bookreviewapi.shard;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Review ids for the shards, unique across shards and instances without a central sequence, and
+ * kept under 2^53 so JavaScript clients read them exactly:
+ * 31 bits of seconds since 2025-01-01 | 6 bits node id | 16 bits sequence.
+ * A node that uses up a second's 65536 ids borrows from the next second instead of waiting.
+ * An id never changes, so rebalancing can move a review to another shard as is.
+ */
+public class ReviewIdGenerator {
+
+    static final long EPOCH_SECONDS = 1_735_689_600L; // 2025-01-01T00:00:00Z
+    static final int MAX_NODE_ID = 63;
+
+    private static final int SEQUENCE_BITS = 16;
+    private static final int NODE_BITS = 6;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier epochSeconds;
+
+    // seconds << SEQUENCE_BITS | sequence of the last id handed out
+    private final AtomicLong last = new AtomicLong();
+
+    public ReviewIdGenerator(int nodeId) {
+        this(nodeId, () -> System.currentTimeMillis() / 1000);
+    }
+
+    ReviewIdGenerator(int nodeId, LongSupplier epochSeconds) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.epochSeconds = epochSeconds;
+    }
+
+    public long nextId() {
+        long now = epochSeconds.getAsLong() - EPOCH_SECONDS;
+        long next = last.updateAndGet(previous -> {
+            long seconds = previous >>> SEQUENCE_BITS;
+            long sequence = previous & MAX_SEQUENCE;
+            if (now > seconds) {
+                return now << SEQUENCE_BITS;
+            }
+            return sequence < MAX_SEQUENCE ? previous + 1 : (seconds + 1) << SEQUENCE_BITS;
+        });
+        long seconds = next >>> SEQUENCE_BITS;
+        return (seconds << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & MAX_SEQUENCE);
+    }
+}
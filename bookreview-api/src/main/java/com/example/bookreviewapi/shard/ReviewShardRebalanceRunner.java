@@ -0,0 +1,35 @@
+package com.example.bookreviewapi.shard;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link ReviewShardRebalancer} and exits when the application is started with
+ * --rebalance-review-shards, e.g.
+ * java -jar bookreview-api.jar --spring.main.web-application-type=none --rebalance-review-shards
+ */
+@Component
+public class ReviewShardRebalanceRunner implements ApplicationRunner {
+
+    static final String OPTION = "rebalance-review-shards";
+
+    private final ReviewShardRebalancer rebalancer;
+    private final ConfigurableApplicationContext context;
+
+    public ReviewShardRebalanceRunner(ReviewShardRebalancer rebalancer, ConfigurableApplicationContext context) {
+        this.rebalancer = rebalancer;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        rebalancer.rebalance();
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
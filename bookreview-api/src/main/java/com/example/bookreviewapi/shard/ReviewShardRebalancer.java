@@ -0,0 +1,69 @@
+package com.example.bookreviewapi.shard;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline tool that moves reviews to the shard the current {@link ShardMap} assigns their book
+ * to, e.g. after a shard was added to bookreview.sharding.urls. Run it with writes stopped (see
+ * {@link ReviewShardRebalanceRunner}).
+ *
+ * Books are moved one at a time: copy the rows the target does not have yet, then delete them
+ * from the source. A run that is interrupted can simply be started again.
+ */
+@Component
+public class ReviewShardRebalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewShardRebalancer.class);
+
+    private static final String COLUMNS = "id, book_id, user_id, reviewer_name, comment, rating, created_at, updated_at";
+
+    public record Report(int booksMoved, int reviewsMoved) {
+    }
+
+    private final ReviewShards shards;
+
+    public ReviewShardRebalancer(ReviewShards shards) {
+        this.shards = shards;
+    }
+
+    public Report rebalance() {
+        if (!shards.isEnabled()) {
+            throw new IllegalStateException("Review sharding is not enabled");
+        }
+        int books = 0;
+        int reviews = 0;
+        for (String source : shards.shardNames()) {
+            JdbcTemplate from = shards.shard(source);
+            List<Long> bookIds = from.queryForList("SELECT DISTINCT book_id FROM reviews", Long.class);
+            for (Long bookId : bookIds) {
+                String target = shards.shardFor(bookId);
+                if (!target.equals(source)) {
+                    reviews += moveBook(bookId, from, shards.shard(target));
+                    books++;
+                    logger.info("Moved the reviews of book {} from {} to {}", bookId, source, target);
+                }
+            }
+        }
+        logger.info("Review shard rebalance done: {} books, {} reviews moved", books, reviews);
+        return new Report(books, reviews);
+    }
+
+    private static int moveBook(long bookId, JdbcTemplate from, JdbcTemplate to) {
+        List<Object[]> rows = from.query("SELECT " + COLUMNS + " FROM reviews WHERE book_id = ?",
+            (rs, rowNum) -> new Object[] {
+                rs.getLong("id"), rs.getLong("book_id"), rs.getLong("user_id"), rs.getString("reviewer_name"),
+                rs.getString("comment"), rs.getInt("rating"), rs.getTimestamp("created_at"), rs.getTimestamp("updated_at")
+            }, bookId);
+        // Rows left on the target by an earlier interrupted run are kept, not inserted twice
+        List<Long> present = to.queryForList("SELECT id FROM reviews WHERE book_id = ?", Long.class, bookId);
+        List<Object[]> missing = rows.stream().filter(row -> !present.contains((Long) row[0])).toList();
+        to.batchUpdate("INSERT INTO reviews (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)", missing);
+        from.update("DELETE FROM reviews WHERE book_id = ?", bookId);
+        return rows.size();
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.bookreviewapi.shard;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The review shards: one pool per database in bookreview.sharding.urls (named shard-0, shard-1,
+ * ... in that order) and the {@link ShardMap} that places books on them. Per-book work goes to
+ * {@link #forBook}; cross-shard reads fan out with {@link #scatter}, one virtual thread per
+ * shard under a single deadline.
+ *
+ * Disabled by default, in which case reviews stay in the main database.
+ */
+@Component
+public class ReviewShards {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewShards.class);
+
+    static final String METRIC = "bookreview.shard.queries";
+
+    private final boolean enabled;
+    private final Map<String, JdbcTemplate> shards;
+    private final ShardMap shardMap;
+    private final ReviewIdGenerator idGenerator;
+    private final MeterRegistry meterRegistry;
+    private final long scatterTimeoutMs;
+
+    @Autowired
+    public ReviewShards(MeterRegistry meterRegistry, ObjectProvider<ShardMap> customShardMap,
+                        @Value("${bookreview.sharding.enabled:false}") boolean enabled,
+                        @Value("${bookreview.sharding.urls:}") String[] urls,
+                        @Value("${bookreview.sharding.username:${spring.datasource.username:}}") String username,
+                        @Value("${bookreview.sharding.password:${spring.datasource.password:}}") String password,
+                        @Value("${bookreview.sharding.maximum-pool-size:10}") int maximumPoolSize,
+                        @Value("${bookreview.sharding.virtual-nodes:128}") int virtualNodes,
+                        @Value("${bookreview.sharding.node-id:0}") int nodeId,
+                        @Value("${bookreview.sharding.scatter-timeout-ms:2000}") long scatterTimeoutMs,
+                        @Value("${bookreview.sharding.initialize-schema:false}") boolean initializeSchema) {
+        this(meterRegistry, enabled ? pools(urls, username, password, maximumPoolSize, meterRegistry) : Map.of(),
+            enabled ? customShardMap.getIfAvailable(() -> new ConsistentHashShardMap(shardNames(urls), virtualNodes)) : null,
+            nodeId, scatterTimeoutMs);
+        if (enabled && initializeSchema) {
+            initializeSchema();
+        }
+    }
+
+    public ReviewShards(MeterRegistry meterRegistry, Map<String, DataSource> dataSources, ShardMap shardMap,
+                        int nodeId, long scatterTimeoutMs) {
+        this.enabled = !dataSources.isEmpty();
+        this.shards = new LinkedHashMap<>();
+        dataSources.forEach((name, dataSource) -> shards.put(name, new JdbcTemplate(dataSource)));
+        this.shardMap = shardMap;
+        this.idGenerator = new ReviewIdGenerator(nodeId);
+        this.meterRegistry = meterRegistry;
+        this.scatterTimeoutMs = scatterTimeoutMs;
+        if (enabled && !shards.keySet().containsAll(shardMap.shards())) {
+            throw new IllegalStateException("Shard map " + shardMap.shards() + " names shards that are not configured "
+                + shards.keySet());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String shardFor(long bookId) {
+        return shardMap.shardFor(bookId);
+    }
+
+    public JdbcTemplate forBook(long bookId) {
+        String shard = shardFor(bookId);
+        meterRegistry.counter(METRIC, "shard", shard, "mode", "single").increment();
+        return shards.get(shard);
+    }
+
+    public JdbcTemplate shard(String name) {
+        return shards.get(name);
+    }
+
+    public List<String> shardNames() {
+        return List.copyOf(shards.keySet());
+    }
+
+    public long nextId() {
+        return idGenerator.nextId();
+    }
+
+    /** Runs the query on every shard in parallel and concatenates the results in shard order. */
+    public <T> List<T> scatter(String operation, Function<JdbcTemplate, List<T>> query) {
+        Map<String, Function<JdbcTemplate, List<T>>> perShard = new LinkedHashMap<>();
+        shards.keySet().forEach(shard -> perShard.put(shard, query));
+        return gather(operation, perShard);
+    }
+
+    /** Runs one query per listed shard in parallel and concatenates the results in the given order. */
+    public <T> List<T> gather(String operation, Map<String, Function<JdbcTemplate, List<T>>> perShard) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(scatterTimeoutMs);
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<String, Future<List<T>>> futures = new LinkedHashMap<>();
+            perShard.forEach((shard, query) -> {
+                meterRegistry.counter(METRIC, "shard", shard, "mode", "scatter").increment();
+                JdbcTemplate jdbc = shards.get(shard);
+                // No lane carried over: the shard pools are not behind the lane connection quotas
+                futures.put(shard, scope.submit(() -> query.apply(jdbc)));
+            });
+            List<T> results = new ArrayList<>();
+            for (Map.Entry<String, Future<List<T>>> future : futures.entrySet()) {
+                try {
+                    long remaining = Math.max(0, deadline - System.nanoTime());
+                    results.addAll(future.getValue().get(remaining, TimeUnit.NANOSECONDS));
+                } catch (ExecutionException e) {
+                    cancelAll(futures);
+                    throw new DatabaseOperationException(operation + " on " + future.getKey(), e.getCause());
+                } catch (TimeoutException e) {
+                    cancelAll(futures);
+                    throw new DatabaseOperationException(operation + " on " + future.getKey()
+                        + " (no answer within " + scatterTimeoutMs + " ms)", e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancelAll(futures);
+                    throw new DatabaseOperationException(operation + " interrupted", e);
+                }
+            }
+            return results;
+        }
+    }
+
+    private static <T> void cancelAll(Map<String, Future<T>> futures) {
+        futures.values().forEach(future -> future.cancel(true));
+    }
+
+    private void initializeSchema() {
+        shards.forEach((name, jdbc) -> {
+            initializeSchema(jdbc.getDataSource());
+            logger.info("Review shard {} schema ready", name);
+        });
+    }
+
+    // The script for the shard's database, db/shard/reviews-<platform>.sql (h2 or mysql)
+    static void initializeSchema(DataSource dataSource) {
+        String platform;
+        try {
+            platform = DatabaseDriver.fromProductName(
+                JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName)).getId();
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot tell the database of a review shard", e);
+        }
+        ClassPathResource script = new ClassPathResource("db/shard/reviews-" + platform + ".sql");
+        if (!script.exists()) {
+            throw new IllegalStateException("No review shard schema for " + platform + " (" + script.getPath() + ")");
+        }
+        new ResourceDatabasePopulator(script).execute(dataSource);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (JdbcTemplate jdbc : shards.values()) {
+            if (jdbc.getDataSource() instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+
+    private static List<String> shardNames(String[] urls) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            names.add("shard-" + i);
+        }
+        return names;
+    }
+
+    private static Map<String, DataSource> pools(String[] urls, String username, String password, int maximumPoolSize,
+                                                 MeterRegistry meterRegistry) {
+        if (urls.length == 0) {
+            throw new IllegalStateException("bookreview.sharding.enabled needs bookreview.sharding.urls");
+        }
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        List<String> names = shardNames(urls);
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("bookreview-" + names.get(i));
+            pool.setJdbcUrl(urls[i].trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(names.get(i), pool);
+        }
+        return pools;
+    }
+}
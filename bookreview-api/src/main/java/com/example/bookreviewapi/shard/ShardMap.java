@@ -0,0 +1,15 @@
+package com.example.bookreviewapi.shard;
+
+import java.util.List;
+
+/**
+ * Which review shard holds a book's reviews. All reviews of a book live on one shard, so
+ * per-book reads and writes touch exactly one database. Declare a bean of this type to replace
+ * the default {@link ConsistentHashShardMap}.
+ */
+public interface ShardMap {
+
+    String shardFor(long bookId);
+
+    List<String> shards();
+}
@@ -0,0 +1,295 @@
+package com.example.bookreviewapi.stream;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.bookreviewapi.datasource.PrimaryReads;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
+import com.example.bookreviewapi.event.BookDeleted;
+import com.example.bookreviewapi.event.DomainEvent;
+import com.example.bookreviewapi.event.DomainEventListener;
+import com.example.bookreviewapi.event.ReviewCreated;
+import com.example.bookreviewapi.event.ReviewDeleted;
+import com.example.bookreviewapi.event.ReviewUpdated;
+import com.example.bookreviewapi.invalidation.InvalidationEvent;
+import com.example.bookreviewapi.invalidation.InvalidationListener;
+import com.example.bookreviewapi.service.BookService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans review changes out to the Server-Sent Events streams of GET /api/books/{id}/events.
+ *
+ * Each event is serialised once and offered to every subscriber of its book. A subscriber has a
+ * bounded buffer and its own sender (a virtual thread), so a slow client never holds up the
+ * others or the event lanes: when its buffer is full it is dropped, and the client reconnects
+ * and reloads. The sender also writes a heartbeat comment after heartbeat-ms without events,
+ * which keeps proxies from closing the connection and finds clients that have gone away.
+ *
+ * Review events come from writes on this node (DomainEventListener). Writes on other nodes only
+ * arrive as REVIEWS invalidations without data, so for those just the rating stats are pushed.
+ * The stats are read once per book however many subscribers it has, and reads for a burst of
+ * changes are coalesced.
+ */
+@Component
+public class BookEventBroadcaster implements DomainEventListener, InvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookEventBroadcaster.class);
+
+    static final String METRIC = "bookreview.stream.events";
+    static final String CONNECTIONS_METRIC = "bookreview.stream.connections";
+
+    // What goes into a subscriber's buffer; the SSE builder itself cannot be shared
+    record StreamEvent(String name, String data) {
+    }
+
+    // Queued behind the last event to end a stream
+    private static final StreamEvent END = new StreamEvent(null, null);
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Supplier<SseEmitter> emitters;
+    private final boolean enabled;
+    private final int maxConnections;
+    private final int bufferSize;
+    private final long heartbeatMs;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    // Books with a rating read queued; further changes before it runs are covered by it
+    private final Set<Long> ratingPending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public BookEventBroadcaster(BookService bookService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${bookreview.stream.enabled:true}") boolean enabled,
+                                @Value("${bookreview.stream.max-connections:1000}") int maxConnections,
+                                @Value("${bookreview.stream.buffer-size:32}") int bufferSize,
+                                @Value("${bookreview.stream.heartbeat-ms:15000}") long heartbeatMs,
+                                @Value("${bookreview.stream.timeout-ms:1800000}") long timeoutMs) {
+        this(bookService, objectMapper, meterRegistry, () -> new SseEmitter(timeoutMs), enabled, maxConnections,
+            bufferSize, heartbeatMs);
+    }
+
+    BookEventBroadcaster(BookService bookService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         Supplier<SseEmitter> emitters, boolean enabled, int maxConnections, int bufferSize,
+                         long heartbeatMs) {
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.emitters = emitters;
+        this.enabled = enabled;
+        this.maxConnections = maxConnections;
+        this.bufferSize = bufferSize;
+        this.heartbeatMs = heartbeatMs;
+        Gauge.builder(CONNECTIONS_METRIC, connections, AtomicInteger::get)
+            .description("Open book event streams on this node").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        subscribers.values().forEach(book -> book.forEach(Subscriber::close));
+        workers.shutdownNow();
+    }
+
+    /**
+     * Opens a stream of the book's review events. Empty when streaming is off or this node
+     * already serves max-connections streams.
+     */
+    public Optional<SseEmitter> subscribe(long bookId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            meterRegistry.counter(METRIC, "result", "rejected").increment();
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(bookId, emitters.get());
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+        subscribers.compute(bookId, (id, book) -> {
+            Set<Subscriber> subscribed = book == null ? ConcurrentHashMap.newKeySet() : book;
+            subscribed.add(subscriber);
+            return subscribed;
+        });
+        workers.execute(subscriber::sendLoop);
+        return Optional.of(subscriber.emitter);
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (!subscribers.containsKey(event.bookId())) {
+            return;
+        }
+        switch (event) {
+            case ReviewCreated created -> broadcast(created.bookId(), "review-created", created);
+            case ReviewUpdated updated -> broadcast(updated.bookId(), "review-updated", updated);
+            case ReviewDeleted deleted -> broadcast(deleted.bookId(), "review-deleted", deleted);
+            case BookDeleted deleted -> {
+                broadcast(deleted.bookId(), "book-deleted", deleted);
+                Set<Subscriber> book = subscribers.get(deleted.bookId());
+                if (book != null) {
+                    book.forEach(subscriber -> subscriber.end(true));
+                }
+                return;
+            }
+            default -> {
+                return; // Title, author and genre are not streamed
+            }
+        }
+        refreshRating(event.bookId());
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.kind() == InvalidationEvent.Kind.REVIEWS && subscribers.containsKey(event.id())) {
+            refreshRating(event.id());
+        }
+    }
+
+    private void refreshRating(long bookId) {
+        if (!ratingPending.add(bookId)) {
+            return;
+        }
+        workers.execute(() -> {
+            // Cleared before the read, so a change committed during it schedules another one
+            ratingPending.remove(bookId);
+            try {
+                // From the primary: a replica may not have the change that triggered this yet
+                Map<Long, RatingSummaryDTO> summaries =
+                    PrimaryReads.onPrimary(() -> bookService.getRatingSummaries(List.of(bookId)));
+                broadcast(bookId, "rating", summaries.getOrDefault(bookId, RatingSummaryDTO.empty(bookId)));
+            } catch (RuntimeException e) {
+                logger.warn("Rating stats of book {} not streamed: {}", bookId, e.toString());
+            }
+        });
+    }
+
+    private void broadcast(long bookId, String name, Object payload) {
+        Set<Subscriber> book = subscribers.get(bookId);
+        if (book == null || book.isEmpty()) {
+            return;
+        }
+        StreamEvent event;
+        try {
+            event = new StreamEvent(name, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialise {} event of book {}", name, bookId, e);
+            return;
+        }
+        for (Subscriber subscriber : book) {
+            if (!subscriber.offer(event)) {
+                // Its buffer is full: the client is not keeping up, so it reconnects and reloads instead
+                meterRegistry.counter(METRIC, "result", "dropped").increment();
+                logger.debug("Dropping slow event stream of book {}", bookId);
+                subscriber.end(false);
+            }
+        }
+    }
+
+    final class Subscriber {
+
+        private final long bookId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<StreamEvent> buffer;
+        private final AtomicInteger state = new AtomicInteger(); // 0 open, 1 ending, 2 closed
+
+        Subscriber(long bookId, SseEmitter emitter) {
+            this.bookId = bookId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize + 1); // Room for END
+        }
+
+        boolean offer(StreamEvent event) {
+            // The last slot is kept for END
+            return buffer.remainingCapacity() > 1 && buffer.offer(event);
+        }
+
+        // Runs on its own virtual thread until the stream ends
+        void sendLoop() {
+            try {
+                while (state.get() != 2) {
+                    StreamEvent event = buffer.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                    if (event == END) {
+                        emitter.complete();
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+                        meterRegistry.counter(METRIC, "result", "sent").increment();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away (or the emitter was already completed)
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Stops offering events to it at once and ends the response once the sender gets to it;
+         * without flush the events still buffered are discarded first.
+         */
+        void end(boolean flush) {
+            if (!state.compareAndSet(0, 1)) {
+                return;
+            }
+            unregister();
+            if (!flush) {
+                buffer.clear();
+            }
+            if (!buffer.offer(END)) {
+                buffer.clear(); // Filled up meanwhile: nothing of it is worth waiting for
+                buffer.offer(END);
+            }
+        }
+
+        void close() {
+            if (state.getAndSet(2) != 2) {
+                unregister();
+                buffer.clear();
+                connections.decrementAndGet();
+            }
+        }
+
+        private void unregister() {
+            subscribers.computeIfPresent(bookId, (id, book) -> {
+                book.remove(this);
+                return book.isEmpty() ? null : book;
+            });
+        }
+    }
+}
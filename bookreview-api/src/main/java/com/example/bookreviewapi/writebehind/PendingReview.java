@@ -0,0 +1,11 @@
+package com.example.bookreviewapi.writebehind;
+
+import java.time.LocalDateTime;
+
+/**
+ * A review accepted by {@link ReviewWriteBehind} and not yet written: everything the insert
+ * needs, with the id it was acknowledged under.
+ */
+public record PendingReview(long id, long bookId, long userId, String username, String comment, int rating,
+                            LocalDateTime createdAt) {
+}
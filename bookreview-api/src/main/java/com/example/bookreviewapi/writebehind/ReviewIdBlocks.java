@@ -0,0 +1,74 @@
+package com.example.bookreviewapi.writebehind;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Review ids for write-behind, taken in blocks from the review_id_block row of the main database.
+ * The JPA generator on Review takes its blocks from the same row: the row holds the highest id
+ * anyone has taken, and a block is the ids between the old and the new value. So an id
+ * acknowledged here is never handed out to a synchronous insert, on this instance or any other.
+ *
+ * A block is claimed in its own transaction, one round trip per block-size ids; the rest of a
+ * block is lost when the instance stops, which only leaves a gap.
+ *
+ * With sharding, the shards' own inserts use the time-based ReviewIdGenerator, whose ids are
+ * above 10^14 for any time after 2025; this counter starts at the main table's ids and stays far
+ * below that.
+ */
+public class ReviewIdBlocks {
+
+    static final String NAME = "review";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final int blockSize;
+
+    // The next id to hand out and the last id of the block it is from
+    private long next = 1;
+    private long last;
+
+    public ReviewIdBlocks(DataSource dataSource, PlatformTransactionManager transactionManager, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Id block size must be at least 1");
+        }
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactions = new TransactionTemplate(transactionManager);
+        // Committed before the id is used, whatever transaction the caller is in
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public synchronized long nextId() {
+        if (next > last) {
+            last = claim();
+            next = last - blockSize + 1;
+        }
+        return next++;
+    }
+
+    // The UPDATE locks the row until the commit, so the value read back is this block's last id
+    private long claim() {
+        return transactions.execute(status -> {
+            if (jdbc.update("UPDATE review_id_block SET last_id = last_id + ? WHERE name = ?", blockSize, NAME) == 0) {
+                createRow();
+                jdbc.update("UPDATE review_id_block SET last_id = last_id + ? WHERE name = ?", blockSize, NAME);
+            }
+            return jdbc.queryForObject("SELECT last_id FROM review_id_block WHERE name = ?", Long.class, NAME);
+        });
+    }
+
+    // Only without Flyway's V8, which creates the row at the existing reviews' highest id
+    private void createRow() {
+        try {
+            jdbc.update("INSERT INTO review_id_block (name, last_id) VALUES (?, 0)", NAME);
+        } catch (DuplicateKeyException e) {
+            // Created by another instance or by the JPA generator in the meantime
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.bookreviewapi.writebehind;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Local append-only file of the reviews {@link ReviewWriteBehind} has acknowledged but not yet
+ * written, one JSON object per line, read back at startup to write whatever a crash left behind.
+ *
+ * The journal is split into segments of segment-entries entries: appends go to the file at path,
+ * and once it is full it is renamed to path.N and a new one is started. Entries are written to
+ * the database in the order they were appended, so {@link #release} can delete every segment
+ * whose entries are all written while newer ones keep arriving; the journal never holds much
+ * more than what is queued.
+ *
+ * With fsync an entry is forced to the device by {@link #sync} before the review is acknowledged,
+ * so it survives a power loss; without it, it survives a crash of the process but not of the
+ * machine. sync is a group commit: one force covers every entry appended so far, so callers that
+ * append while a force is running share the next one instead of queueing one each.
+ * Not thread-safe apart from sync: callers serialise the other calls.
+ */
+public class ReviewJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewJournal.class);
+
+    // Own mapper: the journal format must not follow the API's JSON settings
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    // A full segment, and how many entries the journal held up to its end
+    private record Segment(Path path, long end) {
+    }
+
+    private final Path path;
+    private final boolean fsync;
+    private final int segmentEntries;
+    private final Deque<Segment> sealed = new ArrayDeque<>();
+    // Held while forcing, and while the channel is swapped or closed under a force
+    private final Object forceLock = new Object();
+    private FileChannel channel;
+    private long nextSegment;
+    // Entries appended before the file at path and up to its end, counted from readAll
+    private long activeStart;
+    private long activeEnd;
+    // Positions (activeEnd values) fully written, and fully forced to the device
+    private volatile long appended;
+    private volatile long synced;
+
+    public ReviewJournal(Path path, boolean fsync, int segmentEntries) {
+        this.path = path;
+        this.fsync = fsync;
+        this.segmentEntries = segmentEntries;
+        try {
+            if (path.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+            }
+            this.nextSegment = segmentFiles().stream().mapToLong(this::segmentNumber).max().orElse(0) + 1;
+            this.channel = open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open review journal " + path, e);
+        }
+    }
+
+    /**
+     * Entries left by the previous run, oldest first; a torn last line (crash mid-append) is
+     * skipped. They count as the first entries for {@link #release}.
+     */
+    public List<PendingReview> readAll() {
+        List<PendingReview> entries = new ArrayList<>();
+        try {
+            for (Path segment : segmentFiles()) {
+                read(segment, entries);
+                sealed.add(new Segment(segment, entries.size()));
+            }
+            read(path, entries);
+            activeEnd = entries.size();
+            if (channel.size() > 0) {
+                roll(); // Appending after a torn line would garble the next entry
+            }
+            activeStart = activeEnd;
+            appended = activeEnd;
+            synced = activeEnd;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read review journal " + path, e);
+        }
+        return entries;
+    }
+
+    /** Writes the entry without forcing it; returns its position, for {@link #sync}. */
+    public long append(PendingReview review) {
+        try {
+            if (activeEnd - activeStart >= segmentEntries) {
+                roll();
+            }
+            ByteBuffer line = ByteBuffer.wrap((MAPPER.writeValueAsString(review) + "\n").getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            activeEnd++;
+            appended = activeEnd;
+            return activeEnd;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to review journal " + path, e);
+        }
+    }
+
+    /**
+     * With fsync, returns once the entry at {@code position} is on the device. Safe to call
+     * without the callers' lock, and meant to be: while one caller forces, the others wait here
+     * and find their entries covered when it is done.
+     */
+    public void sync(long position) {
+        if (!fsync || synced >= position) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (synced >= position) {
+                return; // Covered by the force that just finished
+            }
+            long covered = appended;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot sync review journal " + path, e);
+            }
+            synced = covered;
+        }
+    }
+
+    /**
+     * Drops the segments whose entries are all among the first {@code written} (counted from
+     * readAll); only call it once those are in the database.
+     */
+    public void release(long written) {
+        try {
+            while (!sealed.isEmpty() && sealed.peekFirst().end() <= written) {
+                Files.deleteIfExists(sealed.pollFirst().path());
+            }
+            if (sealed.isEmpty() && activeEnd > activeStart && activeEnd <= written) {
+                channel.truncate(0);
+                if (fsync) {
+                    channel.force(false);
+                }
+                activeStart = activeEnd;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot release review journal " + path, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (forceLock) {
+            channel.close();
+        }
+    }
+
+    // Seals the file at path as the next segment and starts an empty one
+    private void roll() throws IOException {
+        Path segment = path.resolveSibling(path.getFileName() + "." + nextSegment);
+        Files.move(path, segment, StandardCopyOption.ATOMIC_MOVE);
+        nextSegment++;
+        sealed.add(new Segment(segment, activeEnd));
+        synchronized (forceLock) {
+            FileChannel full = channel;
+            if (fsync) {
+                // sync only forces the active file, so the sealed one goes to the device here
+                full.force(false);
+                synced = activeEnd;
+            }
+            channel = open();
+            full.close();
+        }
+        activeStart = activeEnd;
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        String prefix = path.getFileName() + ".";
+        try (Stream<Path> files = Files.list(path.toAbsolutePath().getParent())) {
+            return files
+                .filter(file -> file.getFileName().toString().startsWith(prefix)
+                    && file.getFileName().toString().substring(prefix.length()).matches("\\d+"))
+                .sorted(Comparator.comparingLong(this::segmentNumber))
+                .toList();
+        }
+    }
+
+    private long segmentNumber(Path segment) {
+        return Long.parseLong(segment.getFileName().toString().substring(path.getFileName().toString().length() + 1));
+    }
+
+    private void read(Path file, List<PendingReview> entries) throws IOException {
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(MAPPER.readValue(line, PendingReview.class));
+            } catch (JsonProcessingException e) {
+                logger.warn("Skipping unreadable review journal entry in {}: {}", file, e.getOriginalMessage());
+            }
+        }
+    }
+}
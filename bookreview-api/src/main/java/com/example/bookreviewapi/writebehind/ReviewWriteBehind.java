@@ -0,0 +1,315 @@
+package com.example.bookreviewapi.writebehind;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.resilience.DatabaseCircuitBreaker;
+import com.example.bookreviewapi.service.ReviewService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional write-behind for new reviews (POST /api/books/{bookId}/reviews), for bursts such as a
+ * book launch. The request is validated synchronously (review data, the book exists) and
+ * answered 202 with the review's id; the insert happens later on the flusher thread, batched.
+ *
+ * A batch is flushed once it holds batch-size reviews or flush-interval-ms after its first one,
+ * in one transaction: the version bump, cache eviction and invalidation are done once per book
+ * in the batch rather than once per review (see ReviewService.saveReviewBatch).
+ *
+ * Durability of an acknowledged review:
+ * - memory: only queued; lost if the process dies before the flush.
+ * - journal: also appended to a local journal file first; survives a crash of the process.
+ * - journal-fsync: the append is forced to disk before the 202; survives a crash of the machine.
+ *   Concurrent submits share one fsync (see ReviewJournal#sync).
+ * The journal is kept in segments of batch-size reviews, deleted as soon as all of theirs are
+ * written, so under sustained load it stays about as long as the queue.
+ * The journal is replayed at startup; ids that are already in the database are skipped, so a
+ * review is never written twice.
+ *
+ * Ids are claimed in blocks from the main database (see ReviewIdBlocks), the same counter the
+ * synchronous inserts draw from, so this works the same with or without sharding.
+ *
+ * With queue-capacity reviews waiting, submit() declines and the caller writes synchronously.
+ * While the database is unavailable a batch is retried until it goes through; a batch failing
+ * for any other reason is retried max-attempts times and then written review by review, so one
+ * bad review cannot hold up the others.
+ */
+@Component
+public class ReviewWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewWriteBehind.class);
+
+    static final String METRIC = "bookreview.writebehind.reviews";
+
+    // How long an idle flusher waits before checking whether it has been stopped
+    private static final long IDLE_POLL_MS = 100;
+
+    public enum Durability { MEMORY, JOURNAL, JOURNAL_FSYNC }
+
+    private final ReviewService reviewService;
+    private final DatabaseCircuitBreaker circuitBreaker;
+    private final LongSupplier ids;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final long retryMs;
+    private final ReviewJournal journal; // Null with Durability.MEMORY
+    private final Timer batches;
+    private final DistributionSummary batchSizes;
+
+    // Capacity is checked under submitLock rather than by the queue, so journal replay can
+    // exceed it and the journal append and the enqueue happen together
+    private final LinkedBlockingQueue<PendingReview> queue = new LinkedBlockingQueue<>();
+    private final Object submitLock = new Object();
+
+    private long done; // Journal entries written (or given up), counted by the flusher
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public ReviewWriteBehind(ReviewService reviewService, DatabaseCircuitBreaker circuitBreaker, DataSource dataSource,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${bookreview.reviews.write-behind.enabled:false}") boolean enabled,
+                             @Value("${bookreview.reviews.write-behind.durability:journal}") String durability,
+                             @Value("${bookreview.reviews.write-behind.journal-path:review-journal.log}") String journalPath,
+                             @Value("${bookreview.reviews.write-behind.queue-capacity:10000}") int queueCapacity,
+                             @Value("${bookreview.reviews.write-behind.batch-size:200}") int batchSize,
+                             @Value("${bookreview.reviews.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                             @Value("${bookreview.reviews.write-behind.max-attempts:3}") int maxAttempts,
+                             @Value("${bookreview.reviews.write-behind.retry-ms:1000}") long retryMs,
+                             @Value("${bookreview.reviews.write-behind.id-block-size:1000}") int idBlockSize) {
+        this(reviewService, circuitBreaker, new ReviewIdBlocks(dataSource, transactionManager, idBlockSize)::nextId,
+            meterRegistry, enabled,
+            Durability.valueOf(durability.trim().replace('-', '_').toUpperCase(Locale.ROOT)), Path.of(journalPath),
+            queueCapacity, batchSize, flushIntervalMs, maxAttempts, retryMs);
+    }
+
+    ReviewWriteBehind(ReviewService reviewService, DatabaseCircuitBreaker circuitBreaker, LongSupplier ids,
+                      MeterRegistry meterRegistry, boolean enabled, Durability durability, Path journalPath,
+                      int queueCapacity, int batchSize, long flushIntervalMs, int maxAttempts, long retryMs) {
+        this.reviewService = reviewService;
+        this.circuitBreaker = circuitBreaker;
+        this.ids = ids;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.retryMs = retryMs;
+        this.journal = enabled && durability != Durability.MEMORY
+            ? new ReviewJournal(journalPath, durability == Durability.JOURNAL_FSYNC, batchSize) : null;
+        this.batches = Timer.builder("bookreview.writebehind.batches")
+            .description("Write-behind review batches, one transaction each").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("bookreview.writebehind.batch.size")
+            .description("Reviews per write-behind batch").register(meterRegistry);
+        Gauge.builder("bookreview.writebehind.queued", queue, Collection::size)
+            .description("Accepted reviews not written yet").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (journal != null) {
+            List<PendingReview> left = journal.readAll();
+            if (!left.isEmpty()) {
+                logger.info("Replaying {} reviews from the write-behind journal", left.size());
+                queue.addAll(left);
+                meterRegistry.counter(METRIC, "result", "replayed").increment(left.size());
+            }
+        }
+        running = true;
+        accepting = true;
+        flusher = new Thread(this::flushLoop, "review-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        accepting = false;
+        running = false;
+        if (flusher != null) {
+            // The flusher writes out what is queued; anything it cannot is still in the journal
+            flusher.join(10_000);
+        }
+        synchronized (submitLock) {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    /**
+     * Validates the review and queues it under a new id; the review comes back with its id and
+     * timestamps set. Empty when write-behind is off or the queue is full: write it synchronously.
+     */
+    public Optional<Review> submit(Long bookId, Review review) {
+        if (!accepting) {
+            return Optional.empty();
+        }
+        reviewService.validateNewReview(bookId, review);
+        LocalDateTime now = LocalDateTime.now();
+        PendingReview pending = new PendingReview(ids.getAsLong(), bookId, review.getUser().getId(),
+            review.getUser().getUsername(), review.getComment(), review.getRating(), now);
+        long position = 0;
+        synchronized (submitLock) {
+            if (!accepting) {
+                return Optional.empty(); // Stopped while validating
+            }
+            if (queue.size() >= queueCapacity) {
+                meterRegistry.counter(METRIC, "result", "declined").increment();
+                return Optional.empty();
+            }
+            if (journal != null) {
+                position = journal.append(pending);
+            }
+            queue.add(pending);
+        }
+        if (journal != null) {
+            // Outside the lock: one fsync covers every review appended while the previous one ran
+            journal.sync(position);
+        }
+        meterRegistry.counter(METRIC, "result", "accepted").increment();
+        review.setId(pending.id());
+        review.setCreatedAt(now);
+        review.setUpdatedAt(now);
+        return Optional.of(review);
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    private void flushLoop() {
+        while (running || !queue.isEmpty()) {
+            List<PendingReview> batch = nextBatch();
+            if (batch.isEmpty()) {
+                continue;
+            }
+            if (!write(batch)) {
+                return; // Shutting down with the database unavailable: the journal keeps the rest
+            }
+            // The queue takes entries in journal order, so its oldest written entries are done
+            done += batch.size();
+            if (journal != null) {
+                synchronized (submitLock) {
+                    journal.release(done);
+                }
+            }
+        }
+    }
+
+    // Up to batchSize reviews, waiting at most flushIntervalMs after the first one
+    List<PendingReview> nextBatch() {
+        List<PendingReview> batch = new ArrayList<>(batchSize);
+        try {
+            PendingReview first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return batch;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+            while (batch.size() < batchSize) {
+                queue.drainTo(batch, batchSize - batch.size());
+                long remaining = deadline - System.nanoTime();
+                if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                    break;
+                }
+                PendingReview next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return batch;
+    }
+
+    /**
+     * Writes the batch; false when it was given up without being written (shutdown while the
+     * database is unavailable, or interrupted), in which case the journal must be kept.
+     */
+    boolean write(List<PendingReview> batch) {
+        for (int attempt = 1; ; attempt++) {
+            long startedAt = System.nanoTime();
+            try {
+                int written = reviewService.saveReviewBatch(batch);
+                batches.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                batchSizes.record(batch.size());
+                meterRegistry.counter(METRIC, "result", "written").increment(written);
+                // Already written before a crash, or the book has been deleted since
+                meterRegistry.counter(METRIC, "result", "skipped").increment(batch.size() - written);
+                return true;
+            } catch (RuntimeException e) {
+                boolean databaseDown = DatabaseCircuitBreaker.isDatabaseFailure(e)
+                    || circuitBreaker.getState() != DatabaseCircuitBreaker.State.CLOSED;
+                if (databaseDown && !running) {
+                    return false;
+                }
+                if (!databaseDown && attempt >= maxAttempts) {
+                    if (batch.size() > 1) {
+                        logger.warn("Review batch of {} failed {} times, writing one by one: {}", batch.size(),
+                            attempt, e.toString());
+                        for (PendingReview review : batch) {
+                            if (!write(List.of(review))) {
+                                return false;
+                            }
+                        }
+                    } else {
+                        meterRegistry.counter(METRIC, "result", "failed").increment();
+                        logger.error("Dropping review {} after {} attempts", batch.get(0), attempt, e);
+                    }
+                    return true;
+                }
+                logger.warn("Review batch of {} failed (attempt {}), retrying: {}", batch.size(), attempt, e.toString());
+                if (!sleep(Math.min(retryMs * attempt, 30_000))) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
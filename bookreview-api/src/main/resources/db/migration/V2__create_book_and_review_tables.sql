@@ -0,0 +1,24 @@
+CREATE TABLE IF NOT EXISTS book (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255),
+    author VARCHAR(255),
+    genre VARCHAR(255),
+    -- change counters for ETags / Last-Modified on the book, its reviews and the catalogue
+    version BIGINT NOT NULL DEFAULT 0,
+    review_version BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME(6)
+);
+
+CREATE TABLE IF NOT EXISTS review (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    comment VARCHAR(1000),
+    rating INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    user_id BIGINT NOT NULL,
+    book_id BIGINT NOT NULL,
+    CONSTRAINT fk_review_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_review_book FOREIGN KEY (book_id) REFERENCES book (id)
+);
+
+CREATE INDEX idx_review_book_id ON review (book_id);
@@ -0,0 +1,11 @@
+-- Cross-node cache invalidations (bookreview.invalidation.transport=jdbc)
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    kind VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    origin VARCHAR(64) NOT NULL,
+    -- publisher's clock, epoch millis
+    published_at BIGINT NOT NULL
+);
+
+CREATE INDEX idx_cache_invalidation_published_at ON cache_invalidation (published_at);
@@ -0,0 +1,19 @@
+-- Cluster jobs: lease per job and run history (times are epoch millis)
+CREATE TABLE IF NOT EXISTS job_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(128),
+    lease_until BIGINT NOT NULL,
+    next_run_at BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS job_run (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(64) NOT NULL,
+    owner VARCHAR(128) NOT NULL,
+    started_at BIGINT NOT NULL,
+    finished_at BIGINT,
+    status VARCHAR(16) NOT NULL,
+    message VARCHAR(1000)
+);
+
+CREATE INDEX idx_job_run_name ON job_run (name, id);
@@ -0,0 +1,14 @@
+-- Transactional outbox: domain events written with the change, relayed to OutboxHandler beans
+-- (times are epoch millis)
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    book_id BIGINT NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    created_at BIGINT NOT NULL,
+    available_at BIGINT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000)
+);
+
+CREATE INDEX idx_outbox_event_available ON outbox_event (available_at, id);
@@ -0,0 +1,20 @@
+-- Read model of the catalogue: one row per book with its review aggregates, kept current in the
+-- transaction of every book and review write. Filled on first start (or with
+-- --rebuild-book-summaries) from book and review.
+CREATE TABLE IF NOT EXISTS book_summary (
+    book_id BIGINT PRIMARY KEY,
+    title VARCHAR(255),
+    author VARCHAR(255),
+    genre VARCHAR(255),
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_1 BIGINT NOT NULL DEFAULT 0,
+    rating_2 BIGINT NOT NULL DEFAULT 0,
+    rating_3 BIGINT NOT NULL DEFAULT 0,
+    rating_4 BIGINT NOT NULL DEFAULT 0,
+    rating_5 BIGINT NOT NULL DEFAULT 0,
+    latest_review_id BIGINT,
+    latest_reviewer_name VARCHAR(255),
+    latest_review_snippet VARCHAR(200),
+    latest_review_at DATETIME(6)
+);
@@ -0,0 +1,3 @@
+-- Newest review of a book, looked up when book_summary loses its newest one: the lookup reads
+-- one index entry instead of every review of the book.
+CREATE INDEX idx_review_book_created ON review (book_id, created_at, id);
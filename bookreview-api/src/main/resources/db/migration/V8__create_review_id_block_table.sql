@@ -0,0 +1,10 @@
+-- Review ids are handed out in blocks from this row. The JPA generator on Review and the review
+-- write-behind both add their block size to last_id and use the ids above the old value, so
+-- ids acknowledged before the insert never meet the ones synchronous inserts get.
+-- review.id keeps AUTO_INCREMENT for the rows written before; new rows always carry their id.
+CREATE TABLE IF NOT EXISTS review_id_block (
+    name VARCHAR(255) PRIMARY KEY,
+    last_id BIGINT NOT NULL
+);
+
+INSERT INTO review_id_block (name, last_id) SELECT 'review', COALESCE(MAX(id), 0) FROM review;
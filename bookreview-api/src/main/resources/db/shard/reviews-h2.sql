@@ -0,0 +1,17 @@
+-- Review table of every shard, for H2 shards (see reviews-mysql.sql for MySQL). No foreign keys:
+-- books and users live in the main database, and the reviewer's name is copied in so review
+-- lists need no cross-database join. Columns as in the main review table (V2).
+CREATE TABLE IF NOT EXISTS reviews (
+    id BIGINT NOT NULL PRIMARY KEY,
+    book_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    reviewer_name VARCHAR(255) NOT NULL,
+    comment VARCHAR(1000),
+    rating INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_reviews_book ON reviews (book_id);
+CREATE INDEX IF NOT EXISTS idx_reviews_user ON reviews (user_id);
+CREATE INDEX IF NOT EXISTS idx_reviews_created ON reviews (created_at);
+CREATE INDEX IF NOT EXISTS idx_reviews_book_created ON reviews (book_id, created_at, id);
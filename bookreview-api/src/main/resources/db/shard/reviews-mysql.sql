@@ -0,0 +1,19 @@
+-- Review table of every shard, for MySQL shards (see reviews-h2.sql for H2). No foreign keys:
+-- books and users live in the main database, and the reviewer's name is copied in so review
+-- lists need no cross-database join. Columns as in the main review table (V2).
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so the indexes are part of the table definition and
+-- the script can run on every start.
+CREATE TABLE IF NOT EXISTS reviews (
+    id BIGINT NOT NULL PRIMARY KEY,
+    book_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    reviewer_name VARCHAR(255) NOT NULL,
+    comment VARCHAR(1000),
+    rating INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    INDEX idx_reviews_book (book_id),
+    INDEX idx_reviews_user (user_id),
+    INDEX idx_reviews_created (created_at),
+    INDEX idx_reviews_book_created (book_id, created_at, id)
+);
@@ -0,0 +1,16 @@
+package com.example.bookreviewapi;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// The opt-in local cluster: H2 replica, three H2 shards and JDBC invalidation
+@SpringBootTest
+@ActiveProfiles({"dev", "dev-cluster"})
+class DevClusterApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.example.bookreviewapi.benchmark;
+
+import com.example.bookreviewapi.event.ReviewUpdated;
+import com.example.bookreviewapi.outbox.OutboxHandler;
+import com.example.bookreviewapi.outbox.OutboxRelay;
+import com.example.bookreviewapi.outbox.OutboxStore;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox relay throughput against an in-memory H2 database: time to claim, decode, hand to a
+ * no-op handler and delete one batch of ReviewUpdated rows. Messages per second is
+ * batchSize * 1,000,000 / score; the difference between batch sizes is the per-transaction
+ * overhead that larger batches amortise. Filling the table before each batch is not measured.
+ *
+ * Run from the IDE (main method), or after `./mvnw test-compile`:
+ *   java -cp target/test-classes:target/classes:$(./mvnw -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.example.bookreviewapi.benchmark.OutboxRelayBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutboxRelayBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int batchSize;
+
+    private HikariDataSource dataSource;
+    private OutboxStore store;
+    private TransactionTemplate transactions;
+    private OutboxRelay relay;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:outbox-bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(2);
+        new JdbcTemplate(dataSource).execute("CREATE TABLE outbox_event (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "event_type VARCHAR(32) NOT NULL, book_id BIGINT NOT NULL, payload VARCHAR(4000) NOT NULL, "
+            + "created_at BIGINT NOT NULL, available_at BIGINT NOT NULL, attempts INT NOT NULL DEFAULT 0, "
+            + "last_error VARCHAR(1000))");
+        new JdbcTemplate(dataSource).execute("CREATE INDEX idx_outbox_event_available ON outbox_event (available_at, id)");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactions = new TransactionTemplate(transactionManager);
+        store = new OutboxStore(dataSource, Jackson2ObjectMapperBuilder.json().build(), true);
+        OutboxHandler handler = message -> this.blackhole.consume(message);
+        // Never started: the benchmark drives the batches itself
+        relay = new OutboxRelay(store, transactionManager, new SimpleMeterRegistry(),
+            new StaticListableBeanFactory(Map.of("handler", handler)).getBeanProvider(OutboxHandler.class),
+            true, 1000, batchSize, 10, 1000, 300_000, 1);
+    }
+
+    // One batch worth of due rows; runs outside the measured time
+    @Setup(Level.Invocation)
+    public void fill() {
+        transactions.executeWithoutResult(status -> {
+            for (int i = 0; i < batchSize; i++) {
+                store.append(new ReviewUpdated((long) i, i % 1000, 42L, 3, 4, Instant.now()));
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int relayBatch() {
+        return relay.relayBatch();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(OutboxRelayBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bookreviewapi.benchmark;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON vs CBOR for a bulk pull of books and reviews: encode and decode time per list.
+ * Payload sizes are printed before the run (JMH itself only measures time).
+ *
+ * Run from the IDE (main method), or after `./mvnw test-compile`:
+ *   java -cp target/test-classes:target/classes:$(./mvnw -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.example.bookreviewapi.benchmark.PayloadFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    private static final TypeReference<List<BookDTO>> BOOK_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<ReviewDTO>> REVIEW_LIST = new TypeReference<>() {};
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"10000"})
+    public int size;
+
+    private List<BookDTO> books;
+    private List<ReviewDTO> reviews;
+    private ObjectWriter bookWriter;
+    private ObjectWriter reviewWriter;
+    private ObjectReader bookReader;
+    private ObjectReader reviewReader;
+    private byte[] encodedBooks;
+    private byte[] encodedReviews;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = mapper(format);
+        books = books(size);
+        reviews = reviews(size);
+        bookWriter = mapper.writerFor(BOOK_LIST);
+        reviewWriter = mapper.writerFor(REVIEW_LIST);
+        bookReader = mapper.readerFor(BOOK_LIST);
+        reviewReader = mapper.readerFor(REVIEW_LIST);
+        encodedBooks = bookWriter.writeValueAsBytes(books);
+        encodedReviews = reviewWriter.writeValueAsBytes(reviews);
+    }
+
+    @Benchmark
+    public byte[] encodeBooks() throws Exception {
+        return bookWriter.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public List<BookDTO> decodeBooks() throws Exception {
+        return bookReader.readValue(encodedBooks);
+    }
+
+    @Benchmark
+    public byte[] encodeReviews() throws Exception {
+        return reviewWriter.writeValueAsBytes(reviews);
+    }
+
+    @Benchmark
+    public List<ReviewDTO> decodeReviews() throws Exception {
+        return reviewReader.readValue(encodedReviews);
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Payload size comparison for the same data
+        int size = 10_000;
+        for (String format : new String[] {"json", "cbor"}) {
+            ObjectMapper mapper = mapper(format);
+            int bookBytes = mapper.writerFor(BOOK_LIST).writeValueAsBytes(books(size)).length;
+            int reviewBytes = mapper.writerFor(REVIEW_LIST).writeValueAsBytes(reviews(size)).length;
+            System.out.printf("%s: %d books = %,d bytes, %d reviews = %,d bytes%n",
+                format, size, bookBytes, size, reviewBytes);
+        }
+        new Runner(new OptionsBuilder().include(PayloadFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        // Same builders Spring MVC uses for its JSON and CBOR message converters
+        return "cbor".equals(format) ? Jackson2ObjectMapperBuilder.cbor().build() : Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    private static List<BookDTO> books(int size) {
+        List<BookDTO> books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BookDTO book = new BookDTO((long) i + 1, "Book title number " + i, "Author " + (i % 500), "Genre " + (i % 12));
+            book.setAvgRating(1.0 + (i % 400) / 100.0);
+            book.setReviewCount((long) (i % 37));
+            books.add(book);
+        }
+        return books;
+    }
+
+    private static List<ReviewDTO> reviews(int size) {
+        List<ReviewDTO> reviews = new ArrayList<>(size);
+        LocalDateTime base = LocalDateTime.of(2025, 7, 1, 10, 30, 15, 123_000_000);
+        for (int i = 0; i < size; i++) {
+            reviews.add(new ReviewDTO((long) i + 1, "A thoughtful review comment of moderate length, number " + i,
+                1 + i % 5, "reader" + (i % 1000), (long) (i % 1000) + 1, base.plusMinutes(i), base.plusMinutes(i + 5)));
+        }
+        return reviews;
+    }
+}
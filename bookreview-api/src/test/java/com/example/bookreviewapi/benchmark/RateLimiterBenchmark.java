@@ -0,0 +1,71 @@
+package com.example.bookreviewapi.benchmark;
+
+import com.example.bookreviewapi.resilience.RateLimiter;
+import com.example.bookreviewapi.resilience.RateLimiter.Group;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the rate limiter adds to a request: one bucket decision, which should stay well under a
+ * microsecond even with every thread hitting the same bucket.
+ *
+ * - hotKey: 8 threads on one bucket (worst case for the CAS loop), mostly rejections.
+ * - manyKeys: 8 threads over 50,000 clients, the map lookup dominating.
+ *
+ * Run from the IDE (main method), or after `./mvnw test-compile`:
+ *   java -cp target/test-classes:target/classes:$(./mvnw -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.example.bookreviewapi.benchmark.RateLimiterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 50_000;
+
+    private RateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        // Production defaults, room for every client
+        limiter = new RateLimiter(new SimpleMeterRegistry(), true, CLIENTS * 2, 0, 10, 0.2, 60, 10, 30, 5);
+        keys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            keys[i] = "ip:10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public RateLimiter.Decision hotKey() {
+        return limiter.tryConsume(Group.CATALOGUE, "ip:10.0.0.1");
+    }
+
+    @Benchmark
+    public RateLimiter.Decision manyKeys() {
+        return limiter.tryConsume(Group.CATALOGUE, keys[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(RateLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
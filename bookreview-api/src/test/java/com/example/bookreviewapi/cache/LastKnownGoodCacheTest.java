@@ -0,0 +1,250 @@
+package com.example.bookreviewapi.cache;
+
+import com.example.bookreviewapi.cache.LastKnownGoodCache.Read;
+import com.example.bookreviewapi.cache.LastKnownGoodCache.Snapshot;
+import com.example.bookreviewapi.exception.BookNotFoundException;
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LastKnownGoodCacheTest {
+
+    private static final long MAX_STALENESS_MS = 60_000;
+    private static final long RETRY_INTERVAL_MS = 5_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private final LastKnownGoodCache cache = new LastKnownGoodCache(
+        meterRegistry, clock, true, MAX_STALENESS_MS, 100, RETRY_INTERVAL_MS, 10_000, 100);
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void firstRead_shouldLoadAndBeFresh() {
+        Read<String> read = cache.read("book:1", previous -> {
+            assertNull(previous);
+            return snapshot("\"v1\"", "first");
+        });
+
+        assertFalse(read.isStale());
+        assertEquals("first", read.snapshot().body());
+        assertEquals(0, read.ageSeconds());
+    }
+
+    @Test
+    void unchangedVersion_shouldHandThePreviousSnapshotToTheLoader() {
+        Snapshot<String> first = cache.<String>read("book:1", previous -> snapshot("\"v1\"", "first")).snapshot();
+
+        Read<String> read = cache.read("book:1", previous -> {
+            assertSame(first, previous);
+            return previous;
+        });
+
+        assertFalse(read.isStale());
+        assertSame(first, read.snapshot());
+    }
+
+    @Test
+    void databaseError_withCopy_shouldServeCopyWithRevalidationFailedWarning() {
+        cache.read("reviews:1", previous -> snapshot("\"r1\"", "reviews"));
+        clock.advance(30_000);
+
+        Read<String> read = cache.read("reviews:1", previous -> {
+            throw new DatabaseOperationException("find reviews", new RuntimeException("connection refused"));
+        });
+
+        assertTrue(read.isStale());
+        assertEquals(LastKnownGoodCache.WARNING_REVALIDATION_FAILED, read.warning());
+        assertEquals("reviews", read.snapshot().body());
+        assertEquals(30, read.ageSeconds());
+    }
+
+    @Test
+    void whileFailing_shouldServeCopyWithoutLoadingUntilRetryInterval() throws Exception {
+        cache.read("rating:1", previous -> snapshot("\"a1\"", 4.5));
+        cache.read("rating:1", previous -> {
+            throw new DatabaseOperationException("find rating", new RuntimeException("down"));
+        });
+
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            Read<Double> read = cache.read("rating:1", previous -> {
+                loads.incrementAndGet();
+                return snapshot("\"a2\"", 3.0);
+            });
+            assertEquals(4.5, read.snapshot().body());
+        }
+        assertEquals(0, loads.get());
+
+        // After the retry interval exactly one background refresh probes the database
+        CountDownLatch refreshed = new CountDownLatch(1);
+        clock.advance(RETRY_INTERVAL_MS);
+        for (int i = 0; i < 10; i++) {
+            cache.read("rating:1", previous -> {
+                loads.incrementAndGet();
+                await(refreshed);
+                return snapshot("\"a2\"", 3.0);
+            });
+        }
+        refreshed.countDown();
+        waitFor(() -> "\"a2\"".equals(cache.current("rating:1").eTag()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void slowLoad_withCopy_shouldServeCopyAndReplaceItWhenTheLoadFinishes() throws Exception {
+        cache.read("book:1", previous -> snapshot("\"v1\"", "first"));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Read<String> read = cache.read("book:1", previous -> {
+            await(release);
+            return snapshot("\"v2\"", "second");
+        });
+
+        assertEquals(LastKnownGoodCache.WARNING_STALE, read.warning());
+        assertEquals("first", read.snapshot().body());
+
+        release.countDown();
+        waitFor(() -> "\"v2\"".equals(cache.current("book:1").eTag()));
+    }
+
+    @Test
+    void slowLoad_withConcurrentCallers_shouldRunOnlyOneLoad() throws Exception {
+        cache.read("book:1", previous -> snapshot("\"v1\"", "first"));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        UnaryOperator<Snapshot<String>> slowLoader = previous -> {
+            loads.incrementAndGet();
+            await(release);
+            return snapshot("\"v2\"", "second");
+        };
+
+        List<Callable<Read<String>>> callers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            callers.add(() -> cache.read("book:1", slowLoader));
+        }
+        try (ExecutorService pool = Executors.newFixedThreadPool(20)) {
+            for (Future<Read<String>> read : pool.invokeAll(callers)) {
+                assertEquals("first", read.get().snapshot().body());
+            }
+        }
+        // The load overran the timeout: later callers get the copy without waiting or loading
+        Read<String> later = cache.read("book:1", slowLoader);
+
+        assertEquals(LastKnownGoodCache.WARNING_STALE, later.warning());
+        assertEquals(1, loads.get());
+        release.countDown();
+        waitFor(() -> "\"v2\"".equals(cache.current("book:1").eTag()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void copyOlderThanMaxStaleness_shouldNotBeServed() {
+        cache.read("book:1", previous -> snapshot("\"v1\"", "first"));
+        clock.advance(MAX_STALENESS_MS + 1);
+
+        assertThrows(DatabaseOperationException.class, () -> cache.read("book:1", previous -> {
+            throw new DatabaseOperationException("find book", new RuntimeException("down"));
+        }));
+    }
+
+    @Test
+    void businessException_shouldDropCopyAndPropagate() {
+        cache.read("book:1", previous -> snapshot("\"v1\"", "first"));
+
+        assertThrows(BookNotFoundException.class, () -> cache.read("book:1", previous -> {
+            throw new BookNotFoundException(1L);
+        }));
+        cache.read("book:1", previous -> {
+            assertNull(previous);
+            return snapshot("\"v2\"", "second");
+        });
+    }
+
+    @Test
+    void disabled_shouldAlwaysLoadWithoutPreviousSnapshot() {
+        LastKnownGoodCache disabled = new LastKnownGoodCache(meterRegistry, clock, false, MAX_STALENESS_MS, 100, RETRY_INTERVAL_MS, 10_000, 100);
+        try {
+            disabled.read("book:1", previous -> snapshot("\"v1\"", "first"));
+            Read<String> read = disabled.read("book:1", previous -> {
+                assertNull(previous);
+                return snapshot("\"v1\"", "again");
+            });
+            assertEquals("again", read.snapshot().body());
+        } finally {
+            disabled.shutdown();
+        }
+    }
+
+    private static <T> Snapshot<T> snapshot(String eTag, T body) {
+        return new Snapshot<>(eTag, 0L, body);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile long millis = 1_000_000;
+
+        void advance(long deltaMillis) {
+            millis += deltaMillis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
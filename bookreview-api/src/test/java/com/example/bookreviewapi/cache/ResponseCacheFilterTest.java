@@ -0,0 +1,188 @@
+package com.example.bookreviewapi.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"id\":1,\"title\":\"" + "A".repeat(400) + "\",\"author\":\"Author\",\"genre\":\"Fiction\"}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseBodyCache cache;
+    private ResponseCacheFilter filter;
+    private AtomicInteger controllerCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ResponseBodyCache(meterRegistry, true, 100);
+        filter = new ResponseCacheFilter(cache);
+        controllerCalls = new AtomicInteger();
+    }
+
+    @Test
+    void secondAnonymousGet_shouldBeServedFromCacheWithoutCallingController() throws Exception {
+        MockHttpServletResponse first = perform(get("/api/books/1"));
+        MockHttpServletResponse second = perform(get("/api/books/1"));
+
+        assertEquals(1, controllerCalls.get());
+        assertEquals(200, second.getStatus());
+        assertEquals(BODY, second.getContentAsString());
+        assertEquals(first.getHeader(HttpHeaders.ETAG), second.getHeader(HttpHeaders.ETAG));
+        assertEquals("no-cache", second.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(1.0, meterRegistry.get("bookreview.response.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("bookreview.response.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void cachedHit_whenClientAcceptsGzip_shouldServePrecompressedBody() throws Exception {
+        perform(get("/api/books/1"));
+
+        MockHttpServletRequest request = get("/api/books/1");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        MockHttpServletResponse response = perform(request);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(response.getContentAsByteArray().length < BODY.length());
+        assertEquals(BODY, gunzip(response.getContentAsByteArray()));
+        assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+        assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void cachedHit_whenETagMatches_shouldReturnNotModified() throws Exception {
+        String eTag = perform(get("/api/books/1")).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest request = get("/api/books/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        MockHttpServletResponse response = perform(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1, controllerCalls.get());
+    }
+
+    @Test
+    void evictBook_shouldDropBookAndCatalogueEntries() throws Exception {
+        perform(get("/api/books/1"));
+        perform(get("/api/books"));
+
+        cache.evictBook(1L);
+        perform(get("/api/books/1"));
+        perform(get("/api/books"));
+
+        assertEquals(4, controllerCalls.get());
+    }
+
+    @Test
+    void evictReviews_shouldDropBookAndRatingEntriesButKeepOtherBooks() throws Exception {
+        perform(get("/api/books/1"));
+        perform(get("/api/books/1/average-rating"));
+        perform(get("/api/books/2"));
+
+        cache.evictReviews(1L);
+        perform(get("/api/books/1"));
+        perform(get("/api/books/1/average-rating"));
+        perform(get("/api/books/2"));
+
+        // The book's Last-Modified moves with its reviews, so its entry goes too
+        assertEquals(5, controllerCalls.get());
+    }
+
+    @Test
+    void put_whenWriteHappenedWhileRendering_shouldNotStoreBody() {
+        long observed = cache.generation();
+        cache.evictBook(1L); // No transaction active, so this runs immediately
+
+        cache.put("/api/books/1", CachedResponse.of("application/json", null, null, null, BODY.getBytes()), observed);
+
+        assertNull(cache.get("/api/books/1"));
+    }
+
+    @Test
+    void staleFallbackResponse_shouldNotBeStored() throws Exception {
+        MockHttpServletRequest stale = get("/api/books/1");
+        stale.setAttribute("stale", true);
+        perform(stale);
+        perform(get("/api/books/1"));
+
+        assertEquals(2, controllerCalls.get());
+    }
+
+    @Test
+    void authenticatedGet_shouldBypassCache() throws Exception {
+        perform(get("/api/books/1"));
+
+        MockHttpServletRequest request = get("/api/books/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        perform(request);
+
+        assertEquals(2, controllerCalls.get());
+    }
+
+    @Test
+    void keyFor_shouldOnlyAcceptKnownRoutesAndParameters() {
+        assertEquals("/api/books", ResponseBodyCache.keyFor(get("/api/books")));
+        assertEquals("/api/books?includeRatings=true", ResponseBodyCache.keyFor(withParam("includeRatings", "TRUE")));
+        assertNull(ResponseBodyCache.keyFor(withParam("includeRatings", "yes")));
+        assertNull(ResponseBodyCache.keyFor(withParam("ids", "1,2")));
+        assertNull(ResponseBodyCache.keyFor(get("/api/books/1/reviews")));
+        assertNull(ResponseBodyCache.keyFor(get("/api/books/1/detail")));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                // Stands in for the controller: same headers as BookController's 200 responses
+                controllerCalls.incrementAndGet();
+                resp.setStatus(200);
+                resp.setContentType("application/json");
+                resp.setHeader(HttpHeaders.ETAG, "\"book-1-1\"");
+                resp.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+                if (req.getAttribute("stale") != null) {
+                    resp.setHeader(HttpHeaders.WARNING, LastKnownGoodCache.WARNING_REVALIDATION_FAILED);
+                }
+                resp.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader(HttpHeaders.ACCEPT, "application/json");
+        return request;
+    }
+
+    private static MockHttpServletRequest withParam(String name, String value) {
+        MockHttpServletRequest request = get("/api/books");
+        request.setQueryString(name + "=" + value);
+        request.setParameter(name, value);
+        return request;
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
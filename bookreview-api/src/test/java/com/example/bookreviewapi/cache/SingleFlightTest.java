@@ -0,0 +1,171 @@
+package com.example.bookreviewapi.cache;
+
+import com.example.bookreviewapi.exception.BookNotFoundException;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentCallersForSameKey_shouldShareOneLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 5000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(9);
+        try {
+            Future<Double> leader = pool.submit(() -> singleFlight.execute("average-rating", 1L, () -> {
+                loads.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return 4.5;
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<Double>> followers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                followers.add(pool.submit(() -> singleFlight.execute("average-rating", 1L, () -> {
+                    loads.incrementAndGet();
+                    return 0.0;
+                })));
+            }
+            waitForCoalescedCalls(followers.size());
+            release.countDown();
+
+            assertEquals(4.5, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Double> follower : followers) {
+                assertEquals(4.5, follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("average-rating", "leader"));
+        assertEquals(8.0, count("average-rating", "coalesced"));
+    }
+
+    @Test
+    void followers_shouldSeeLeadersBusinessException() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 5000);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = pool.submit(() -> singleFlight.execute("reviews", 7L, () -> {
+                leaderStarted.countDown();
+                await(release);
+                throw new BookNotFoundException(7L);
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<Object> follower = pool.submit(() -> singleFlight.execute("reviews", 7L, () -> "not used"));
+            waitForCoalescedCalls(1);
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(BookNotFoundException.class, leaderError.getCause());
+            assertInstanceOf(BookNotFoundException.class, followerError.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void follower_whenLeaderIsTooSlow_shouldLoadItself() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 50);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> singleFlight.execute("reviews", 3L, () -> {
+                leaderStarted.countDown();
+                await(release);
+                return "slow";
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            // Bounded wait: the follower gives up after 50 ms and runs its own load
+            assertEquals("own", singleFlight.execute("reviews", 3L, () -> "own"));
+            assertEquals(1.0, count("reviews", "timeout"));
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void sequentialCalls_shouldNotReuseFinishedLoads() {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, 1000);
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("reviews", 1L, loads::incrementAndGet);
+        singleFlight.execute("reviews", 1L, loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+        assertEquals(0.0, meterRegistry.get("bookreview.singleflight.in.flight").gauge().value());
+    }
+
+    @Test
+    void disabled_shouldAlwaysRunTheLoad() {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, false, 1000);
+
+        assertEquals("value", singleFlight.execute("reviews", 1L, () -> "value"));
+        assertTrue(meterRegistry.find(SingleFlight.METRIC).counters().isEmpty());
+    }
+
+    private double count(String operation, String result) {
+        return meterRegistry.get(SingleFlight.METRIC).tag("operation", operation).tag("result", result).counter().count();
+    }
+
+    // Followers are parked on the leader's future once they are no longer runnable
+    private void waitForCoalescedCalls(int expectedWaiting) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waitingThreads() < expectedWaiting && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static long waitingThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getState() == Thread.State.TIMED_WAITING)
+            .filter(thread -> thread.getName().startsWith("pool-"))
+            .filter(thread -> isWaitingOnFuture(thread.getStackTrace()))
+            .count();
+    }
+
+    private static boolean isWaitingOnFuture(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().equals("java.util.concurrent.CompletableFuture")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.bookreviewapi.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -250,6 +252,31 @@ class BookControllerIntegrationTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void getBookEvents_unauthenticated_shouldOpenTheStream() throws Exception {
+        String adminToken = registerAndLoginAdmin("admin6", "admin6@example.com", "password123");
+        String bookJson = """
+            {
+              "title": "Book for Events Test",
+              "author": "Author E",
+              "genre": "Genre E"
+            }
+            """;
+        MvcResult result = mockMvc.perform(post("/api/books")
+                                .header("Authorization", adminToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(bookJson))
+                                .andExpect(status().isOk())
+                                .andReturn();
+        Long id = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+        // No token: a browser EventSource cannot send one
+        mockMvc.perform(get("/api/books/{id}/events", id)
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                // The headers are written on the first event, so only the open stream is checked here
+                .andExpect(request().asyncStarted());
+    }
+
     @Test
     void getAverageRating_shouldReturnCorrectAverage () throws Exception {
         String token = registerAndLoginUser("user5", "user5@example.com", "password123");
@@ -303,4 +330,274 @@ class BookControllerIntegrationTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").value(4.0)); // Expected: (5 + 3) / 2 = 4.0
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBooks_withIncludeRatings_shouldReturnAverageAndCount() throws Exception {
+        String token = registerAndLoginUser("user6", "user6@example.com", "password123");
+        String bookJson = """
+            {
+                "title": "Book for Summary Test",
+                "author": "Summary Author",
+                "genre": "Summary Genre"
+            }
+            """;
+        MvcResult result = mockMvc.perform(post("/api/books")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(bookJson))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        Long bookId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(post("/api/books/{bookId}/reviews", bookId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"comment\": \"Loved it\", \"rating\": 5}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/books/{bookId}/reviews", bookId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"comment\": \"It was fine\", \"rating\": 2}"))
+                .andExpect(status().isOk());
+
+        // Default list stays unchanged
+        mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].avgRating").doesNotExist())
+                .andExpect(jsonPath("$[0].reviewCount").doesNotExist());
+
+        mockMvc.perform(get("/api/books").param("includeRatings", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + bookId + ")].avgRating").value(3.5))
+                .andExpect(jsonPath("$[?(@.id == " + bookId + ")].reviewCount").value(2));
+    }
+
+    @Test
+    void getRatingSummaries_shouldReturnSummariesInRequestOrder() throws Exception {
+        String token = registerAndLoginUser("user7", "user7@example.com", "password123");
+        String bookJson = """
+            {
+                "title": "Book for Batch Rating Test",
+                "author": "Batch Author",
+                "genre": "Batch Genre"
+            }
+            """;
+        MvcResult result = mockMvc.perform(post("/api/books")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(bookJson))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        Long bookId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(post("/api/books/{bookId}/reviews", bookId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"comment\": \"Solid\", \"rating\": 4}"))
+                .andExpect(status().isOk());
+
+        // Public endpoint, no token needed
+        mockMvc.perform(post("/api/books/ratings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookIds\": [999, " + bookId + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].bookId").value(999))
+                .andExpect(jsonPath("$[0].reviewCount").value(0))
+                .andExpect(jsonPath("$[1].bookId").value(bookId))
+                .andExpect(jsonPath("$[1].avgRating").value(4.0))
+                .andExpect(jsonPath("$[1].reviewCount").value(1));
+    }
+
+    @Test
+    void getRatingSummaries_whenNoIds_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/books/ratings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookIds\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getBooksByIds_shouldReturnBooksInOrderAndMissingIds() throws Exception {
+        String token = registerAndLoginUser("user8", "user8@example.com", "password123");
+        MvcResult first = mockMvc.perform(post("/api/books")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\": \"Batch One\", \"author\": \"Batch Author\", \"genre\": \"Batch\"}"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        MvcResult second = mockMvc.perform(post("/api/books")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\": \"Batch Two\", \"author\": \"Batch Author\", \"genre\": \"Batch\"}"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        Long firstId = objectMapper.readTree(first.getResponse().getContentAsString()).get("id").asLong();
+        Long secondId = objectMapper.readTree(second.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/books").param("ids", secondId + ",999," + firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books.length()").value(2))
+                .andExpect(jsonPath("$.books[0].title").value("Batch Two"))
+                .andExpect(jsonPath("$.books[1].title").value("Batch One"))
+                .andExpect(jsonPath("$.missingIds[0]").value(999));
+    }
+
+    @Test
+    void getBooksByIds_whenIdIsNotANumber_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/books").param("ids", "1,abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Detail parts load on their own virtual threads and connections, so they cannot see this
+    // test's uncommitted rows; the assembled response is covered in BookDetailServiceImplTest.
+    @Test
+    void getBookDetail_whenBookDoesNotExist_shouldReturn404() throws Exception {
+        mockMvc.perform(get("/api/books/{id}/detail", 999L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getBookById_withMatchingETag_shouldReturn304() throws Exception {
+        String token = registerAndLoginUser("user10", "user10@example.com", "password123");
+        MvcResult created = mockMvc.perform(post("/api/books")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\": \"ETag Book\", \"author\": \"ETag Author\", \"genre\": \"ETag\"}"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        Long bookId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        MvcResult first = mockMvc.perform(get("/api/books/{id}", bookId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/books/{id}", bookId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAverageRating_afterNewReview_shouldChangeETag() throws Exception {
+        String token = registerAndLoginUser("user11", "user11@example.com", "password123");
+        MvcResult created = mockMvc.perform(post("/api/books")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\": \"Versioned Book\", \"author\": \"Versioned Author\", \"genre\": \"ETag\"}"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        Long bookId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        String eTag = mockMvc.perform(get("/api/books/{id}/average-rating", bookId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post("/api/books/{bookId}/reviews", bookId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"comment\": \"Changes the stats\", \"rating\": 3}"))
+                .andExpect(status().isOk());
+
+        // The old ETag no longer matches, so the new average is sent
+        mockMvc.perform(get("/api/books/{id}/average-rating", bookId).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(3.0))
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(eTag)));
+    }
+
+    @Test
+    void getBooks_withMatchingETag_shouldReturn304UntilCatalogueChanges() throws Exception {
+        String token = registerAndLoginUser("user12", "user12@example.com", "password123");
+        String eTag = mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/books").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/books")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\": \"New Arrival\", \"author\": \"Catalogue Author\", \"genre\": \"ETag\"}"))
+                    .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/books").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.title == 'New Arrival')]").exists());
+    }
+
+    @Test
+    void getBooks_withCborAccept_shouldReturnCborBody() throws Exception {
+        String token = registerAndLoginUser("user13", "user13@example.com", "password123");
+        mockMvc.perform(post("/api/books")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\": \"Binary Book\", \"author\": \"Cbor Author\", \"genre\": \"Bulk\"}"))
+                    .andExpect(status().isOk());
+
+        byte[] body = mockMvc.perform(get("/api/books").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().stringValues("Vary", org.hamcrest.Matchers.hasItem("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Same fields as the JSON body, see /schemas/bookreview.cddl
+        JsonNode books = new CBORMapper().readTree(body);
+        assertThat(books.isArray()).isTrue();
+        assertThat(books.findValuesAsText("title")).contains("Binary Book");
+        assertThat(books.get(0).get("id").isIntegralNumber()).isTrue();
+    }
+
+    @Test
+    void getCborSchema_shouldBePublic() throws Exception {
+        mockMvc.perform(get("/schemas/bookreview.cddl"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("book-list")));
+    }
+
+    @Test
+    void getBooks_withFields_shouldReturnOnlySelectedFields() throws Exception {
+        String token = registerAndLoginUser("user14", "user14@example.com", "password123");
+        mockMvc.perform(post("/api/books")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\": \"Sparse Book\", \"author\": \"Fieldset Author\", \"genre\": \"Mobile\"}"))
+                    .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/books").param("fields", "title,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.title == 'Sparse Book')].id").isNotEmpty())
+                .andExpect(jsonPath("$[0].author").doesNotExist())
+                .andExpect(jsonPath("$[0].genre").doesNotExist());
+
+        // Ratings still come with includeRatings, the id is not leaked when it was not asked for
+        mockMvc.perform(get("/api/books").param("fields", "title").param("includeRatings", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.title == 'Sparse Book')].reviewCount").value(org.hamcrest.Matchers.contains(0)))
+                .andExpect(jsonPath("$[0].id").doesNotExist());
+    }
+
+    @Test
+    void getBooks_withFields_shouldUseItsOwnETag() throws Exception {
+        String fullETag = mockMvc.perform(get("/api/books"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // The full list's ETag must not validate the trimmed representation
+        mockMvc.perform(get("/api/books").param("fields", "id").header("If-None-Match", fullETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(fullETag)));
+    }
+
+    @Test
+    void getBooks_withUnknownField_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/books").param("fields", "id,isbn"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown field 'isbn'. Allowed fields: id, title, author, genre"));
+
+        mockMvc.perform(get("/api/books").param("fields", ""))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -316,4 +316,99 @@ class ReviewControllerIntegrationTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").value(4.0));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getReviewsByBookId_withFields_shouldReturnOnlySelectedFields() throws Exception {
+        String token = registerAndLoginUser("reviewuser", "reviewuser@example.com", "password123");
+        MvcResult bookResult = mockMvc.perform(post("/api/books")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Sparse Reviews\", \"author\": \"Fieldset Author\", \"genre\": \"Mobile\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Long bookId = objectMapper.readTree(bookResult.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(post("/api/books/{bookId}/reviews", bookId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"comment\": \"Short and sweet\", \"rating\": 4}"))
+                .andExpect(status().isOk());
+
+        // Requested order does not matter, fields come back in ReviewDTO order
+        MvcResult result = mockMvc.perform(get("/api/books/{bookId}/reviews", bookId)
+                .param("fields", "reviewerName,rating")
+                .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rating").value(4))
+                .andExpect(jsonPath("$[0].reviewerName").value("reviewuser"))
+                .andExpect(jsonPath("$[0].comment").doesNotExist())
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andReturn();
+        assertThat(result.getResponse().getContentAsString()).isEqualTo("[{\"rating\":4,\"reviewerName\":\"reviewuser\"}]");
+    }
+
+    @Test
+    void getReviewsByBookId_withUnknownField_shouldReturn400() throws Exception {
+        String token = registerAndLoginUser("reviewuser", "reviewuser@example.com", "password123");
+
+        mockMvc.perform(get("/api/books/{bookId}/reviews", 1L)
+                .param("fields", "rating,password")
+                .header("Authorization", token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.startsWith("Unknown field 'password'")));
+    }
+
+    @Test
+    void getLatestReviews_shouldReturnNewestFirstAcrossBooks() throws Exception {
+        String token = registerAndLoginUser("feeduser", "feeduser@example.com", "password123");
+        Long firstBook = createBook(token, "Feed Book One");
+        Long secondBook = createBook(token, "Feed Book Two");
+
+        MvcResult older = mockMvc.perform(post("/api/books/{bookId}/reviews", firstBook)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"comment\": \"Older review\", \"rating\": 3}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        mockMvc.perform(post("/api/books/{bookId}/reviews", secondBook)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"comment\": \"Newer review\", \"rating\": 5}"))
+                .andExpect(status().isOk());
+        Long userId = objectMapper.readTree(older.getResponse().getContentAsString()).get("userId").asLong();
+
+        mockMvc.perform(get("/api/reviews/latest")
+                .param("limit", "1")
+                .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].comment").value("Newer review"));
+
+        mockMvc.perform(get("/api/users/{userId}/reviews", userId)
+                .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].comment").value("Newer review"))
+                .andExpect(jsonPath("$[1].comment").value("Older review"));
+    }
+
+    @Test
+    void getLatestReviews_withLimitOutOfRange_shouldReturn400() throws Exception {
+        String token = registerAndLoginUser("feeduser", "feeduser@example.com", "password123");
+
+        mockMvc.perform(get("/api/reviews/latest")
+                .param("limit", "101")
+                .header("Authorization", token))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long createBook(String token, String title) throws Exception {
+        MvcResult bookResult = mockMvc.perform(post("/api/books")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"" + title + "\", \"author\": \"Feed Author\", \"genre\": \"Feed\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(bookResult.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
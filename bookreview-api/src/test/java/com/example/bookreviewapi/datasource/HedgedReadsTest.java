@@ -0,0 +1,158 @@
+package com.example.bookreviewapi.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedReadsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        PrimaryReads.clear();
+    }
+
+    @Test
+    void fastRead_shouldRunOnTheCallersThreadAndNotBeHedged() {
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, true, 95, 200, 200, 5);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        assertEquals("book", hedgedReads.execute("find-book", () -> {
+            thread.set(Thread.currentThread());
+            return "book";
+        }));
+        assertSame(Thread.currentThread(), thread.get());
+        assertEquals(1.0, count("not-hedged"));
+    }
+
+    @Test
+    void slowRead_shouldBeHedgedAndTheLoserCancelled() throws Exception {
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, true, 95, 20, 20, 5);
+        CountDownLatch firstCancelled = new CountDownLatch(1);
+
+        String result = hedgedReads.execute("find-book", () -> {
+            if (ReadAttempt.current().isHedge()) {
+                return "from hedge";
+            }
+            try {
+                Thread.sleep(10_000); // A stuck connection
+                return "from first";
+            } catch (InterruptedException e) {
+                firstCancelled.countDown();
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals("from hedge", result);
+        assertTrue(firstCancelled.await(5, TimeUnit.SECONDS));
+        assertFalse(Thread.currentThread().isInterrupted()); // The cancel leaves nothing behind on the caller
+        assertEquals(1.0, count("hedge-won"));
+    }
+
+    @Test
+    void failedAttempt_shouldLeaveTheOtherToAnswer() {
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, true, 95, 20, 20, 5);
+
+        String result = hedgedReads.execute("find-book", () -> {
+            if (!ReadAttempt.current().isHedge()) {
+                sleep(50);
+                return "from first";
+            }
+            throw new IllegalStateException("replica went away");
+        });
+
+        assertEquals("from first", result);
+        assertEquals(1.0, count("first-won"));
+    }
+
+    @Test
+    void firstFailingAfterTheHedgeWasSent_shouldWaitForTheHedge() {
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, true, 95, 20, 20, 5);
+
+        String result = hedgedReads.execute("find-book", () -> {
+            if (ReadAttempt.current().isHedge()) {
+                sleep(50);
+                return "from hedge";
+            }
+            sleep(40);
+            throw new IllegalStateException("replica went away");
+        });
+
+        assertEquals("from hedge", result);
+        assertEquals(1.0, count("hedge-won"));
+    }
+
+    @Test
+    void firstFailingBeforeTheDelay_shouldFailWithoutAHedge() {
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, true, 95, 200, 200, 5);
+
+        assertThrows(IllegalStateException.class, () -> hedgedReads.execute("find-book", () -> {
+            throw new IllegalStateException("replica went away");
+        }));
+        assertEquals(1.0, count("failed"));
+    }
+
+    @Test
+    void hedges_shouldStopWhenTheBudgetIsSpent() {
+        // No top-up: only the initial burst of ten hedges is available
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, true, 95, 5, 5, 0);
+
+        for (int i = 0; i < 11; i++) {
+            hedgedReads.execute("find-book", () -> {
+                if (!ReadAttempt.current().isHedge()) {
+                    sleep(40);
+                }
+                return "book";
+            });
+        }
+
+        assertEquals(10.0, count("hedge-won"));
+        assertEquals(1.0, count("budget-exhausted"));
+    }
+
+    @Test
+    void delay_shouldFollowTheLatencyPercentile() {
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, true, 95, 1, 500, 5);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), hedgedReads.delayNanos("find-book"));
+
+        for (int i = 0; i < 100; i++) {
+            hedgedReads.execute("find-book", () -> "book");
+        }
+
+        assertTrue(hedgedReads.delayNanos("find-book") < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    void pinnedRead_shouldRunInlineOnThePrimary() {
+        HedgedReads hedgedReads = new HedgedReads(meterRegistry, true, 95, 20, 20, 5);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        PrimaryReads.pin();
+
+        hedgedReads.execute("find-book", () -> {
+            thread.set(Thread.currentThread());
+            return "book";
+        });
+
+        assertSame(Thread.currentThread(), thread.get());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(HedgedReads.METRIC).tag("operation", "find-book").tag("result", result).counter().count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
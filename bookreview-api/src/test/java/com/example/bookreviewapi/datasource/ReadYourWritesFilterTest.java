@@ -0,0 +1,95 @@
+package com.example.bookreviewapi.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(true, 5000, clock::get);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void isWrite_shouldTreatPublicPostsAsReads() {
+        assertFalse(ReadYourWritesFilter.isWrite("GET", "/api/books/7"));
+        assertFalse(ReadYourWritesFilter.isWrite("POST", "/api/books/ratings"));
+        assertTrue(ReadYourWritesFilter.isWrite("POST", "/api/books/7/reviews"));
+        assertTrue(ReadYourWritesFilter.isWrite("DELETE", "/api/books/7"));
+    }
+
+    @Test
+    void writeRequest_shouldRunPinnedToThePrimary() throws Exception {
+        signIn("alice");
+
+        assertTrue(perform("POST", "/api/books/7/reviews", 201));
+        assertFalse(PrimaryReads.isPinned());
+    }
+
+    @Test
+    void readsAfterAWrite_shouldStayOnThePrimaryForTheWindow() throws Exception {
+        signIn("alice");
+        perform("POST", "/api/books/7/reviews", 201);
+
+        clock.addAndGet(4_000_000_000L);
+        assertTrue(perform("GET", "/api/books/7/reviews", 200));
+
+        clock.addAndGet(1_000_000_000L);
+        assertFalse(perform("GET", "/api/books/7/reviews", 200));
+        assertEquals(0, filter.trackedUsers());
+    }
+
+    @Test
+    void window_shouldBePerUser() throws Exception {
+        signIn("alice");
+        perform("POST", "/api/books/7/reviews", 201);
+
+        signIn("bob");
+        assertFalse(perform("GET", "/api/books/7/reviews", 200));
+    }
+
+    @Test
+    void failedWrite_shouldNotOpenAWindow() throws Exception {
+        signIn("alice");
+        perform("POST", "/api/books/7/reviews", 400);
+
+        assertFalse(perform("GET", "/api/books/7/reviews", 200));
+    }
+
+    private void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            username, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    // Whether the request ran pinned to the primary
+    private boolean perform(String method, String path, int status) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(new MockHttpServletRequest(method, path), new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                pinned.set(PrimaryReads.isPinned());
+                resp.setStatus(status);
+            }
+        }));
+        return pinned.get();
+    }
+}
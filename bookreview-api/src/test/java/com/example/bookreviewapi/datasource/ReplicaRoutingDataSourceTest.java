@@ -0,0 +1,136 @@
+package com.example.bookreviewapi.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaSet replicaSet = new ReplicaSet(Map.of("replica-0", replica), meterRegistry, "", 10, 1, 1000);
+    private final ReadWriteDataSource dataSource;
+
+    ReplicaRoutingDataSourceTest() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.isValid(anyInt())).thenReturn(true);
+        replicaSet.checkAll();
+        reset(replica);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        dataSource = new ReadWriteDataSource(primary, new ReplicaRoutingDataSource(primary, replicaSet, meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        PrimaryReads.clear();
+    }
+
+    @Test
+    void readOnlyConnection_shouldUseTheReplica() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.setReadOnly(true); // What a readOnly transaction does before its first statement
+        connection.createStatement();
+
+        verify(replica).getConnection();
+        verify(replicaConnection).createStatement();
+        verify(primaryConnection, never()).createStatement();
+    }
+
+    @Test
+    void readWriteConnection_shouldUseThePrimary() throws Exception {
+        dataSource.getConnection().createStatement();
+
+        verify(primaryConnection).createStatement();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void pinnedThread_shouldReadFromThePrimary() throws Exception {
+        PrimaryReads.pin();
+
+        Connection connection = dataSource.getConnection();
+        connection.setReadOnly(true);
+        connection.createStatement();
+
+        verify(primaryConnection).createStatement();
+        verify(replica, never()).getConnection();
+        assertEquals(1.0, meterRegistry.get(ReplicaRoutingDataSource.METRIC)
+            .tag("target", "primary").tag("reason", "read-your-writes").counter().count());
+    }
+
+    @Test
+    void failingReplica_shouldFallBackToThePrimaryUntilItPassesACheck() throws Exception {
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicaSet, meterRegistry);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertFalse(replicaSet.getReplicas().get(0).isHealthy());
+        assertSame(primaryConnection, routing.getConnection());
+        verify(replica, times(1)).getConnection(); // Not tried again while down
+
+        reset(replica);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        replicaSet.checkAll();
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void replicaTooFarBehind_shouldBeTakenOut() throws Exception {
+        ReplicaSet lagging = new ReplicaSet(Map.of("replica-0", replica), meterRegistry, "SELECT lag", 10, 1, 1000);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SELECT lag")).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(30L);
+
+        lagging.checkAll();
+
+        assertNull(lagging.next(null));
+        assertTrue(lagging.getReplicas().get(0).getLastError().contains("30s behind"));
+    }
+
+    @Test
+    void next_shouldRoundRobinOverHealthyReplicas() throws Exception {
+        DataSource other = mock(DataSource.class);
+        Connection otherConnection = mock(Connection.class);
+        when(other.getConnection()).thenReturn(otherConnection);
+        when(otherConnection.isValid(anyInt())).thenReturn(true);
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        pools.put("replica-0", replica);
+        pools.put("replica-1", other);
+        ReplicaSet set = new ReplicaSet(pools, meterRegistry, "", 10, 1, 1000);
+        set.checkAll();
+
+        assertEquals("replica-0", set.next(null).getName());
+        assertEquals("replica-1", set.next(null).getName());
+        assertEquals("replica-0", set.next(null).getName());
+    }
+
+    @Test
+    void hedge_shouldAvoidTheReplicaOfTheFirstAttempt() throws Exception {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicaSet, meterRegistry);
+        ReadAttempt first = ReadAttempt.first();
+        first.wrap(routing::getConnection).call();
+        assertEquals("replica-0", first.servedBy());
+
+        // The only replica is busy with the first attempt, so the hedge goes to the primary
+        assertSame(primaryConnection, ReadAttempt.hedgeFor(first).wrap(routing::getConnection).call());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.bookreviewapi.event;
+
+import com.example.bookreviewapi.outbox.OutboxStore;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DomainEventPublisherTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxStore outbox = mock(OutboxStore.class);
+
+    @Test
+    void publishInsideATransaction_shouldWriteTheOutboxRowNowAndNotifyListenersAfterCommit() throws Exception {
+        DomainEventListener listener = mock(DomainEventListener.class);
+        DomainEventPublisher publisher = publisher(Map.of("listener", listener), 2, 100);
+        ReviewCreated event = new ReviewCreated(1L, 7L, 10L, 5, NOW);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publish(event);
+            Thread.sleep(50);
+            verify(outbox).append(event); // Part of the transaction
+            verifyNoInteractions(listener);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        publisher.shutdown();
+
+        verify(listener).onEvent(event);
+    }
+
+    @Test
+    void publishOutsideATransaction_shouldDeliverRightAway() throws Exception {
+        DomainEventListener listener = mock(DomainEventListener.class);
+        DomainEventPublisher publisher = publisher(Map.of("listener", listener), 2, 100);
+        BookDeleted event = new BookDeleted(7L, NOW);
+
+        publisher.publish(event);
+        publisher.shutdown();
+
+        verify(listener).onEvent(event);
+    }
+
+    @Test
+    void eventsOfOneBook_shouldArriveInPublishOrder() throws Exception {
+        Map<Long, List<Integer>> seen = new ConcurrentHashMap<>();
+        DomainEventListener recorder = event -> seen.computeIfAbsent(event.bookId(), id -> new ArrayList<>())
+            .add(((ReviewUpdated) event).newRating());
+        DomainEventPublisher publisher = publisher(Map.of("recorder", recorder), 3, 1000);
+
+        for (int i = 0; i < 300; i++) {
+            publisher.publish(new ReviewUpdated(1L, i % 5, 10L, 0, i, NOW));
+        }
+        publisher.shutdown();
+
+        assertEquals(5, seen.size());
+        seen.forEach((bookId, ratings) -> {
+            assertEquals(60, ratings.size());
+            for (int i = 1; i < ratings.size(); i++) {
+                assertTrue(ratings.get(i - 1) < ratings.get(i), "book " + bookId + " out of order: " + ratings);
+            }
+        });
+    }
+
+    @Test
+    void failingListener_shouldNotStopTheOthers() throws Exception {
+        DomainEventListener broken = mock(DomainEventListener.class);
+        DomainEventListener healthy = mock(DomainEventListener.class);
+        doThrow(new IllegalStateException("boom")).when(broken).onEvent(any());
+        DomainEventPublisher publisher = publisher(Map.of("broken", broken, "healthy", healthy), 1, 10);
+
+        publisher.publish(new BookDeleted(3L, NOW));
+        publisher.shutdown();
+
+        verify(healthy).onEvent(any());
+        assertEquals(1.0, meterRegistry.get(DomainEventPublisher.METRIC)
+            .tag("type", "BookDeleted").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void fullLane_shouldDropAndCountInsteadOfBlocking() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        DomainEventListener slow = event -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // One lane holding one queued event
+        DomainEventPublisher publisher = publisher(Map.of("slow", slow), 1, 1);
+
+        publisher.publish(new BookDeleted(1L, NOW)); // Running
+        publisher.publish(new BookDeleted(2L, NOW)); // Queued
+        publisher.publish(new BookDeleted(3L, NOW)); // Dropped
+        release.countDown();
+        publisher.shutdown();
+
+        assertEquals(1.0, meterRegistry.get(DomainEventPublisher.METRIC)
+            .tag("type", "BookDeleted").tag("result", "dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get(DomainEventPublisher.METRIC)
+            .tag("type", "BookDeleted").tag("result", "delivered").counter().count());
+    }
+
+    private DomainEventPublisher publisher(Map<String, DomainEventListener> listeners, int threads, int capacity) {
+        return new DomainEventPublisher(meterRegistry, outbox,
+            new StaticListableBeanFactory(Map.<String, Object>copyOf(listeners)).getBeanProvider(DomainEventListener.class),
+            true, threads, capacity);
+    }
+}
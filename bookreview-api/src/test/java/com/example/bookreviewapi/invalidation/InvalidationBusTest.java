@@ -0,0 +1,79 @@
+package com.example.bookreviewapi.invalidation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InvalidationBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    // Two nodes sharing one in-JVM transport
+    private final InMemoryInvalidationTransport transport = new InMemoryInvalidationTransport();
+    private final InvalidationListener cacheOnA = mock(InvalidationListener.class);
+    private final InvalidationListener cacheOnB = mock(InvalidationListener.class);
+    private final InvalidationBus nodeA = node(cacheOnA);
+    private final InvalidationBus nodeB = node(cacheOnB);
+
+    @Test
+    void publish_shouldReachTheOtherNodesOnly() {
+        nodeA.publish(InvalidationEvent.Kind.BOOK, 7L);
+
+        verify(cacheOnB).onInvalidation(new InvalidationEvent(InvalidationEvent.Kind.BOOK, 7L, nodeA.nodeId(), 1_000_000));
+        verifyNoInteractions(cacheOnA); // A evicted its own copies on the write path
+    }
+
+    @Test
+    void receivedEvents_shouldRecordDeliveryLag() {
+        InvalidationEvent published = new InvalidationEvent(InvalidationEvent.Kind.REVIEWS, 3L, "other-node", 1_000_000);
+        clock.addAndGet(250);
+
+        nodeB.receive(published);
+
+        assertEquals(250.0, meterRegistry.get(InvalidationBus.LAG_METRIC).timer().max(TimeUnit.MILLISECONDS));
+        verify(cacheOnB).onInvalidation(published);
+    }
+
+    @Test
+    void failingListener_shouldNotStopTheOthers() {
+        InvalidationListener broken = mock(InvalidationListener.class);
+        InvalidationListener healthy = mock(InvalidationListener.class);
+        doThrow(new IllegalStateException("boom")).when(broken).onInvalidation(any());
+        InvalidationBus nodeC = new InvalidationBus(meterRegistry, transport,
+            new StaticListableBeanFactory(Map.of("broken", broken, "healthy", healthy))
+                .getBeanProvider(InvalidationListener.class), clock::get, true);
+        nodeC.start();
+
+        nodeA.publish(InvalidationEvent.Kind.USER, 11L);
+
+        verify(healthy).onInvalidation(any());
+        verify(cacheOnB).onInvalidation(any());
+    }
+
+    @Test
+    void disabledBus_shouldNotPublish() {
+        InvalidationBus off = new InvalidationBus(meterRegistry, transport,
+            new StaticListableBeanFactory().getBeanProvider(InvalidationListener.class), clock::get, false);
+        off.start();
+
+        off.publish(InvalidationEvent.Kind.BOOK, 7L);
+
+        verifyNoInteractions(cacheOnA, cacheOnB);
+    }
+
+    private InvalidationBus node(InvalidationListener listener) {
+        InvalidationBus bus = new InvalidationBus(meterRegistry, transport,
+            new StaticListableBeanFactory(Map.of("cache", listener)).getBeanProvider(InvalidationListener.class),
+            clock::get, true);
+        bus.start();
+        return bus;
+    }
+}
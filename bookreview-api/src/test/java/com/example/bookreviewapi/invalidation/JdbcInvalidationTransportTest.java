@@ -0,0 +1,103 @@
+package com.example.bookreviewapi.invalidation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcInvalidationTransportTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final List<InvalidationEvent> received = new ArrayList<>();
+    private DataSource dataSource;
+    private JdbcInvalidationTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:invalidation-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(dataSource).execute("CREATE TABLE cache_invalidation (id BIGINT PRIMARY KEY, "
+            + "kind VARCHAR(16) NOT NULL, entity_id BIGINT NOT NULL, origin VARCHAR(64) NOT NULL, published_at BIGINT NOT NULL)");
+        transport = start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transport.close();
+    }
+
+    @Test
+    void poll_shouldDeliverNewRowsOnceAcrossBatches() {
+        for (long id = 1; id <= 5; id++) {
+            insert(id, id * 10);
+        }
+
+        transport.poll();
+        transport.poll();
+
+        assertEquals(List.of(10L, 20L, 30L, 40L, 50L), received.stream().map(InvalidationEvent::id).toList());
+    }
+
+    @Test
+    void rowsPresentAtStart_shouldNotBeDelivered() {
+        insert(1, 10);
+        transport.close();
+
+        transport = start();
+        insert(2, 20);
+        transport.poll();
+
+        assertEquals(List.of(20L), received.stream().map(InvalidationEvent::id).toList());
+    }
+
+    @Test
+    void rowCommittedOutOfIdOrder_shouldStillBeDeliveredWithinGrace() {
+        insert(2, 20); // id 1 is still uncommitted
+        transport.poll();
+
+        clock.addAndGet(1_000);
+        insert(1, 10);
+        transport.poll();
+
+        assertEquals(List.of(20L, 10L), received.stream().map(InvalidationEvent::id).toList());
+
+        clock.addAndGet(10_000);
+        transport.poll();
+        assertEquals(2, transport.watermark());
+    }
+
+    @Test
+    void purge_shouldDeleteRowsPastRetention() {
+        insert(1, 10);
+        clock.addAndGet(120_000);
+        insert(2, 20);
+
+        transport.purge();
+
+        assertEquals(List.of(2L), new JdbcTemplate(dataSource).queryForList("SELECT id FROM cache_invalidation", Long.class));
+    }
+
+    // Polls only when the test says so, two rows per query
+    private JdbcInvalidationTransport start() {
+        JdbcInvalidationTransport started = new JdbcInvalidationTransport(
+            dataSource, new SimpleMeterRegistry(), clock::get, 3_600_000, 5_000, 60_000, 2);
+        started.start(received::add);
+        return started;
+    }
+
+    private void insert(long id, long bookId) {
+        new JdbcTemplate(dataSource).update(
+            "INSERT INTO cache_invalidation (id, kind, entity_id, origin, published_at) VALUES (?, 'BOOK', ?, 'node-a', ?)",
+            id, bookId, clock.get());
+    }
+}
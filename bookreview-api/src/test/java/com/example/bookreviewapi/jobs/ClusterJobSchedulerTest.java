@@ -0,0 +1,104 @@
+package com.example.bookreviewapi.jobs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterJobSchedulerTest {
+
+    private static final long LEASE_MS = 60_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final AtomicInteger runs = new AtomicInteger();
+    private final ClusterJob job = ClusterJob.of("reconcile", Duration.ofMinutes(5), runs::incrementAndGet);
+    private JobStore store;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:jobs-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE job_lock (name VARCHAR(64) PRIMARY KEY, owner VARCHAR(128), "
+            + "lease_until BIGINT NOT NULL, next_run_at BIGINT NOT NULL)");
+        jdbc.execute("CREATE TABLE job_run (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(64) NOT NULL, "
+            + "owner VARCHAR(128) NOT NULL, started_at BIGINT NOT NULL, finished_at BIGINT, status VARCHAR(16) NOT NULL, "
+            + "message VARCHAR(1000))");
+        store = new JobStore(dataSource);
+    }
+
+    @Test
+    void job_shouldRunOncePerIntervalAcrossNodes() {
+        ClusterJobScheduler nodeA = node("node-a", job);
+        ClusterJobScheduler nodeB = node("node-b", job);
+
+        assertTrue(nodeA.tick(job));
+        assertFalse(nodeB.tick(job)); // Same interval, already done by A
+        clock.addAndGet(Duration.ofMinutes(4).toMillis());
+        assertFalse(nodeB.tick(job));
+        clock.addAndGet(Duration.ofMinutes(1).toMillis());
+        assertTrue(nodeB.tick(job));
+
+        assertEquals(2, runs.get());
+        List<JobStore.Run> history = store.runs("reconcile", 10);
+        assertEquals(List.of("node-b", "node-a"), history.stream().map(JobStore.Run::owner).toList());
+        assertTrue(history.stream().allMatch(run -> run.status().equals("SUCCEEDED")));
+    }
+
+    @Test
+    void heldLease_shouldKeepOtherNodesOut() {
+        ClusterJobScheduler nodeB = node("node-b", job);
+        assertTrue(store.tryAcquire("reconcile", "node-a", clock.get(), clock.get() + LEASE_MS));
+
+        assertFalse(nodeB.tick(job));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void leaseOfADeadNode_shouldBeTakenOverOnceExpired() {
+        // node-a started a run and died without finishing it
+        assertTrue(store.tryAcquire("reconcile", "node-a", clock.get(), clock.get() + LEASE_MS));
+        store.startRun("reconcile", "node-a", clock.get());
+        ClusterJobScheduler nodeB = node("node-b", job);
+
+        clock.addAndGet(LEASE_MS + 1);
+        assertTrue(nodeB.tick(job));
+
+        assertEquals(List.of("SUCCEEDED", "ABANDONED"),
+            store.runs("reconcile", 10).stream().map(JobStore.Run::status).toList());
+        assertFalse(store.renew("reconcile", "node-a", clock.get() + LEASE_MS)); // Its lease is gone
+    }
+
+    @Test
+    void failingJob_shouldBeRecordedAndStillWaitForItsNextInterval() {
+        ClusterJob broken = ClusterJob.of("broken", Duration.ofMinutes(1), () -> {
+            throw new IllegalStateException("no luck");
+        });
+        ClusterJobScheduler nodeA = node("node-a", broken);
+
+        assertTrue(nodeA.tick(broken));
+        assertFalse(nodeA.tick(broken));
+
+        JobStore.Run run = store.runs("broken", 1).get(0);
+        assertEquals("FAILED", run.status());
+        assertEquals("java.lang.IllegalStateException: no luck", run.message());
+        JobStore.Lock lock = store.locks().get(0);
+        assertEquals(0, lock.leaseUntil());
+        assertEquals(clock.get() + 60_000, lock.nextRunAt());
+    }
+
+    private ClusterJobScheduler node(String owner, ClusterJob... jobs) {
+        return new ClusterJobScheduler(store, new SimpleMeterRegistry(), List.of(jobs), clock::get,
+            true, 15_000, LEASE_MS, Duration.ofDays(7).toMillis(), owner);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.bookreviewapi.json;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.mapper.ReviewMapper;
+import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.model.User;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DtoJsonWriterTest {
+
+    // Configured the way Spring Boot configures the application ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void writeBooks_shouldMatchJacksonByteForByte() throws Exception {
+        BookDTO plain = new BookDTO(1L, "Effective Java", "Joshua Bloch", "Programming");
+        BookDTO rated = new BookDTO(2L, "Dune", "Frank Herbert", "Sci-Fi");
+        rated.setAvgRating(4.333333333333333);
+        rated.setReviewCount(3L);
+        BookDTO zeroRated = new BookDTO(3L, "Empty", "Nobody", null);
+        zeroRated.setAvgRating(0.0);
+        zeroRated.setReviewCount(0L);
+        BookDTO escaped = new BookDTO(4L, "Quote \" backslash \\ tab \t newline \n", "Ünïcödé 作者 📚", "</script>");
+        BookDTO nulls = new BookDTO(null, null, null, null);
+        BookDTO large = new BookDTO(Long.MAX_VALUE, "", " ", "\u0000\u001f");
+        large.setAvgRating(1.0E-5);
+
+        List<BookDTO> books = Arrays.asList(plain, rated, zeroRated, escaped, nulls, large, null);
+
+        assertArrayEquals(jackson(books, new TypeReference<List<BookDTO>>() {}), streamed(books, true));
+    }
+
+    @Test
+    void writeReviews_shouldMatchJacksonByteForByte() throws Exception {
+        List<ReviewDTO> reviews = new ArrayList<>();
+        reviews.add(new ReviewDTO(1L, "Great", 5, "alice", 10L,
+            LocalDateTime.of(2025, 7, 1, 10, 30), LocalDateTime.of(2025, 7, 1, 10, 30, 15)));
+        reviews.add(new ReviewDTO(2L, "Millis", 4, "bob", 11L,
+            LocalDateTime.of(2025, 1, 2, 3, 4, 5, 120_000_000), LocalDateTime.of(2025, 1, 2, 3, 4, 0, 1_000)));
+        reviews.add(new ReviewDTO(3L, "Nanos \"quoted\"", 1, "émile", null,
+            LocalDateTime.of(999, 12, 31, 23, 59, 59, 999_999_999), null));
+        reviews.add(new ReviewDTO(4L, null, 0, null, null, null, null));
+        reviews.add(new ReviewDTO(5L, "Far future", 3, "carol", 12L,
+            LocalDateTime.of(12025, 6, 1, 0, 0), LocalDateTime.of(-5, 6, 1, 0, 0)));
+
+        // Mapper-built DTO and one with only the String dates set
+        reviews.add(ReviewMapper.toDTO(review(6L, LocalDateTime.of(2024, 2, 29, 12, 0, 0, 500))));
+        ReviewDTO stringDates = new ReviewDTO();
+        stringDates.setId(7L);
+        stringDates.setCreatedAt("2025-07-01T10:30");
+        reviews.add(stringDates);
+        reviews.add(null);
+
+        assertArrayEquals(jackson(reviews, new TypeReference<List<ReviewDTO>>() {}), streamed(reviews, false));
+    }
+
+    @Test
+    void writeReviews_whenEmpty_shouldWriteEmptyArray() throws Exception {
+        assertEquals("[]", new String(streamed(List.of(), false)));
+    }
+
+    @Test
+    void timestampFormat_shouldMatchLocalDateTimeToString() {
+        char[] buffer = new char[TimestampFormat.MAX_LENGTH];
+        LocalDateTime[] times = {
+            LocalDateTime.of(2025, 7, 1, 10, 30),
+            LocalDateTime.of(2025, 7, 1, 10, 30, 1),
+            LocalDateTime.of(2025, 7, 1, 0, 0, 0, 1),
+            LocalDateTime.of(2025, 7, 1, 0, 0, 0, 10_000),
+            LocalDateTime.of(2025, 7, 1, 0, 0, 0, 100_000_000),
+            LocalDateTime.of(2025, 7, 1, 0, 0, 0, 123_456_789),
+            LocalDateTime.of(1, 1, 1, 1, 1),
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_000_000)
+        };
+        for (LocalDateTime time : times) {
+            int length = TimestampFormat.format(time, buffer);
+            assertEquals(time.toString(), new String(buffer, 0, length));
+        }
+        assertEquals(-1, TimestampFormat.format(LocalDateTime.of(10000, 1, 1, 0, 0), buffer));
+        assertEquals(-1, TimestampFormat.format(LocalDateTime.of(-1, 1, 1, 0, 0), buffer));
+    }
+
+    @Test
+    void converter_shouldOnlyWriteBookAndReviewLists() throws Exception {
+        DtoListHttpMessageConverter converter = new DtoListHttpMessageConverter(objectMapper.getFactory());
+
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<List<BookDTO>>() {}.getType(), List.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<List<ReviewDTO>>() {}.getType(), List.class, null));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<List<String>>() {}.getType(), List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<List<BookDTO>>() {}.getType(), List.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canWrite(BookDTO.class, BookDTO.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(new ParameterizedTypeReference<List<BookDTO>>() {}.getType(), null, MediaType.APPLICATION_JSON));
+
+        List<BookDTO> books = List.of(new BookDTO(1L, "Dune", "Frank Herbert", "Sci-Fi"));
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(books, new ParameterizedTypeReference<List<BookDTO>>() {}.getType(), MediaType.APPLICATION_JSON, output);
+
+        assertArrayEquals(jackson(books, new TypeReference<List<BookDTO>>() {}), output.getBodyAsBytes());
+        assertEquals(MediaType.APPLICATION_JSON, output.getHeaders().getContentType());
+    }
+
+    private <T> byte[] jackson(List<T> values, TypeReference<List<T>> type) throws Exception {
+        return objectMapper.writerFor(type).writeValueAsBytes(values);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] streamed(List<?> values, boolean books) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            if (books) {
+                DtoJsonWriter.writeBooks(generator, (List<BookDTO>) values);
+            } else {
+                DtoJsonWriter.writeReviews(generator, (List<ReviewDTO>) values);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static Review review(Long id, LocalDateTime time) {
+        User user = new User();
+        user.setId(20L);
+        user.setUsername("dave");
+        Review review = new Review();
+        review.setId(id);
+        review.setComment("Mapped");
+        review.setRating(2);
+        review.setUser(user);
+        review.setCreatedAt(time);
+        review.setUpdatedAt(time);
+        return review;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.bookreviewapi.outbox;
+
+import com.example.bookreviewapi.event.BookCreated;
+import com.example.bookreviewapi.event.DomainEvent;
+import com.example.bookreviewapi.event.ReviewDeleted;
+import com.example.bookreviewapi.event.ReviewUpdated;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxRelayTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final List<OutboxMessage> handled = new CopyOnWriteArrayList<>();
+    private volatile RuntimeException handlerFailure;
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+    private OutboxStore store;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:outbox-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE outbox_event (id BIGINT AUTO_INCREMENT PRIMARY KEY, event_type VARCHAR(32) NOT NULL, "
+            + "book_id BIGINT NOT NULL, payload VARCHAR(4000) NOT NULL, created_at BIGINT NOT NULL, "
+            + "available_at BIGINT NOT NULL, attempts INT NOT NULL DEFAULT 0, last_error VARCHAR(1000))");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        store = new OutboxStore(dataSource, Jackson2ObjectMapperBuilder.json().build(), true);
+    }
+
+    @Test
+    void relayBatch_shouldDeliverEventsInOrderAndDeleteThem() {
+        List<DomainEvent> events = List.of(
+            new BookCreated(7L, "Dune", "Frank Herbert", "Science Fiction", now()),
+            new ReviewUpdated(11L, 7L, 3L, 5, 2, now()),
+            new ReviewDeleted(11L, 7L, 2, now()));
+        events.forEach(store::append);
+        clock.addAndGet(40);
+
+        assertEquals(3, relay(3, 10).relayBatch());
+
+        assertEquals(events, handled.stream().map(OutboxMessage::event).toList());
+        assertEquals(0, rows());
+        assertEquals(40.0, meterRegistry.get(OutboxRelay.LAG_METRIC).timer().max(TimeUnit.MILLISECONDS));
+        assertEquals(1.0, meterRegistry.get(OutboxRelay.MESSAGES_METRIC)
+            .tag("type", "ReviewUpdated").tag("result", "delivered").counter().count());
+    }
+
+    @Test
+    void appendInARolledBackTransaction_shouldLeaveNoRow() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            store.append(new BookCreated(7L, "Dune", "Frank Herbert", "Science Fiction", now()));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, rows());
+    }
+
+    @Test
+    void failedMessage_shouldBeRetriedAfterItsBackoff() {
+        store.append(new ReviewDeleted(11L, 7L, 2, now()));
+        OutboxRelay relay = relay(3, 10);
+        handlerFailure = new IllegalStateException("index down");
+
+        assertEquals(1, relay.relayBatch());
+        assertEquals("java.lang.IllegalStateException: index down",
+            jdbc.queryForObject("SELECT last_error FROM outbox_event", String.class));
+
+        handlerFailure = null;
+        assertEquals(0, relay.relayBatch()); // Not due yet
+        clock.addAndGet(1000);
+        assertEquals(1, relay.relayBatch());
+
+        assertEquals(List.of(0, 1), handled.stream().map(OutboxMessage::attempts).toList());
+        assertEquals(0, rows());
+    }
+
+    @Test
+    void messageOutOfAttempts_shouldStayInTheTableUnclaimed() {
+        store.append(new ReviewDeleted(11L, 7L, 2, now()));
+        OutboxRelay relay = relay(1, 10);
+        handlerFailure = new IllegalStateException("bad message");
+
+        relay.relayBatch();
+        handlerFailure = null;
+        clock.addAndGet(3_600_000);
+
+        assertEquals(0, relay.relayBatch());
+        assertEquals(1, rows());
+    }
+
+    @Test
+    void relayBatch_withoutHandlers_shouldLeaveTheRowsUnclaimed() {
+        store.append(new ReviewDeleted(11L, 7L, 2, now()));
+        OutboxRelay relay = new OutboxRelay(store, transactionManager, meterRegistry,
+            new StaticListableBeanFactory().getBeanProvider(OutboxHandler.class),
+            clock::get, true, 1000, 10, 3, 1000, 60_000, 1);
+
+        assertEquals(0, relay.relayBatch());
+        assertEquals(1, rows());
+        assertEquals(0, jdbc.queryForObject("SELECT attempts FROM outbox_event", Integer.class));
+    }
+
+    @Test
+    void concurrentRelays_shouldSkipRowsTheOtherHasClaimed() throws Exception {
+        for (long reviewId = 1; reviewId <= 4; reviewId++) {
+            store.append(new ReviewDeleted(reviewId, 7L, 3, now()));
+        }
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<OutboxStore.Row>> first = CompletableFuture.supplyAsync(() ->
+            transactions.execute(status -> {
+                List<OutboxStore.Row> rows = store.claim(clock.get(), 10, 2);
+                claimed.countDown();
+                await(release);
+                return rows;
+            }));
+        await(claimed);
+        List<OutboxStore.Row> second = transactions.execute(status -> store.claim(clock.get(), 10, 10));
+        release.countDown();
+
+        assertEquals(List.of(1L, 2L), first.get(5, TimeUnit.SECONDS).stream().map(OutboxStore.Row::id).toList());
+        assertEquals(List.of(3L, 4L), second.stream().map(OutboxStore.Row::id).toList());
+    }
+
+    private OutboxRelay relay(int maxAttempts, int batchSize) {
+        OutboxHandler recorder = message -> {
+            handled.add(message);
+            if (handlerFailure != null) {
+                throw handlerFailure;
+            }
+        };
+        return new OutboxRelay(store, transactionManager, meterRegistry,
+            new StaticListableBeanFactory(Map.of("recorder", recorder)).getBeanProvider(OutboxHandler.class),
+            clock::get, true, 1000, batchSize, maxAttempts, 1000, 60_000, 1);
+    }
+
+    private Instant now() {
+        return Instant.ofEpochMilli(clock.get());
+    }
+
+    private int rows() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM outbox_event", Integer.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
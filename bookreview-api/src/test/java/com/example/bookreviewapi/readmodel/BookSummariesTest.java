@@ -0,0 +1,192 @@
+package com.example.bookreviewapi.readmodel;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.LatestReviewDTO;
+import com.example.bookreviewapi.dto.RatingCountDTO;
+import com.example.bookreviewapi.model.Book;
+import com.example.bookreviewapi.model.BookSummary;
+import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.model.User;
+import com.example.bookreviewapi.repository.BookRepository;
+import com.example.bookreviewapi.repository.BookSummaryRepository;
+import com.example.bookreviewapi.repository.ReviewRepository;
+import com.example.bookreviewapi.repository.ShardedReviewRepository;
+import com.example.bookreviewapi.writebehind.PendingReview;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSummariesTest {
+
+    @Mock
+    private BookSummaryRepository bookSummaryRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    // Sharding off (isEnabled() is false): the JPA repositories above are used
+    @Mock
+    private ShardedReviewRepository shardedReviews;
+
+    private BookSummaries bookSummaries;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 7, 1, 10, 30);
+
+    @BeforeEach
+    void setUp() {
+        bookSummaries = new BookSummaries(bookSummaryRepository, bookRepository, reviewRepository, shardedReviews, true);
+        // Every book has its summary row unless a test says otherwise
+        lenient().when(bookSummaryRepository.addRatings(any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+            anyLong(), anyLong())).thenReturn(1);
+        lenient().when(bookSummaryRepository.updateBook(any(), any(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void bookSaved_shouldInsertAnEmptyRowForANewBookAndUpdateTheFieldsOtherwise() {
+        Book book = new Book();
+        book.setId(7L);
+        book.setTitle("Dune");
+        book.setAuthor("Frank Herbert");
+
+        bookSummaries.bookSaved(book, true);
+        bookSummaries.bookSaved(book, false);
+
+        verify(bookSummaryRepository).save(argThat(summary -> summary.getId() == 7L
+            && "Dune".equals(summary.getTitle()) && summary.getReviewCount() == 0 && summary.getLatestReviewId() == null));
+        verify(bookSummaryRepository).updateBook(7L, "Dune", "Frank Herbert", null);
+    }
+
+    @Test
+    void reviewSaved_whenCreated_shouldCountItAndOfferItAsTheNewest() {
+        bookSummaries.reviewSaved(7L, review(11L, 4, "Loved it"), Optional.empty());
+
+        verify(bookSummaryRepository).addRatings(7L, 1, 4, 0, 0, 0, 1, 0);
+        verify(bookSummaryRepository).offerLatestReview(7L, 11L, "reader", "Loved it", now);
+    }
+
+    @Test
+    void reviewSaved_whenUpdated_shouldMoveItBetweenHistogramBucketsOnly() {
+        bookSummaries.reviewSaved(7L, review(11L, 2, "Changed my mind"), Optional.of(5));
+
+        verify(bookSummaryRepository).addRatings(7L, 0, -3, 0, 1, 0, 0, -1);
+        verify(bookSummaryRepository).updateLatestReviewSnippet(7L, 11L, "Changed my mind");
+        verify(bookSummaryRepository, never()).offerLatestReview(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void reviewDeleted_whenItWasTheNewest_shouldOfferTheNextNewest() {
+        when(bookSummaryRepository.clearLatestReview(7L, 11L)).thenReturn(1);
+        when(reviewRepository.findLatestReviewByBookId(7L, PageRequest.of(0, 1)))
+            .thenReturn(List.of(new LatestReviewDTO(7L, 10L, "other", "Older one", now.minusDays(1))));
+
+        bookSummaries.reviewDeleted(7L, 11L, 4);
+
+        verify(bookSummaryRepository).addRatings(7L, -1, -4, 0, 0, 0, -1, 0);
+        verify(bookSummaryRepository).offerLatestReview(7L, 10L, "other", "Older one", now.minusDays(1));
+        // One book inside the write: not the set-based query the rebuild uses
+        verify(reviewRepository, never()).findLatestReviewsByBookIds(any());
+    }
+
+    @Test
+    void reviewDeleted_whenItWasNotTheNewest_shouldNotLookForAnother() {
+        when(bookSummaryRepository.clearLatestReview(7L, 11L)).thenReturn(0);
+
+        bookSummaries.reviewDeleted(7L, 11L, 4);
+
+        verify(reviewRepository, never()).findLatestReviewByBookId(any(), any());
+    }
+
+    @Test
+    void reviewSaved_whenTheBookHasNoRow_shouldComputeTheWholeRowInstead() {
+        when(bookSummaryRepository.addRatings(7L, 1, 4, 0, 0, 0, 1, 0)).thenReturn(0);
+        when(bookRepository.findBookDTOsByIdIn(List.of(7L))).thenReturn(List.of(new BookDTO(7L, "Dune", "Frank Herbert", null)));
+        // The review being saved is already in review
+        when(reviewRepository.findRatingCountsByBookIds(Set.of(7L))).thenReturn(List.of(new RatingCountDTO(7L, 4, 1L)));
+        when(reviewRepository.findLatestReviewsByBookIds(Set.of(7L)))
+            .thenReturn(List.of(new LatestReviewDTO(7L, 11L, "reader", "Loved it", now)));
+
+        bookSummaries.reviewSaved(7L, review(11L, 4, "Loved it"), Optional.empty());
+
+        verify(bookSummaryRepository).save(argThat(summary -> summary.getId() == 7L && summary.getReviewCount() == 1
+            && summary.getRating4() == 1 && summary.getLatestReviewId() == 11L));
+        verify(bookSummaryRepository, never()).offerLatestReview(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void reviewsInserted_shouldApplyOneUpdatePerBook() {
+        bookSummaries.reviewsInserted(List.of(
+            new PendingReview(1L, 7L, 3L, "reader", "First", 5, now),
+            new PendingReview(2L, 7L, 4L, "other", "Second", 3, now.plusSeconds(1)),
+            new PendingReview(3L, 8L, 3L, "reader", "Third", 1, now)));
+
+        verify(bookSummaryRepository).addRatings(7L, 2, 8, 0, 0, 1, 0, 1);
+        verify(bookSummaryRepository).addRatings(8L, 1, 1, 1, 0, 0, 0, 0);
+        verify(bookSummaryRepository).offerLatestReview(7L, 2L, "other", "Second", now.plusSeconds(1));
+        verify(bookSummaryRepository).offerLatestReview(8L, 3L, "reader", "Third", now);
+    }
+
+    @Test
+    void compute_shouldBuildHistogramSumAndNewestReviewFromTheSource() {
+        when(reviewRepository.findRatingCountsByBookIds(Set.of(7L, 8L))).thenReturn(List.of(
+            new RatingCountDTO(7L, 5, 2L), new RatingCountDTO(7L, 2, 1L)));
+        when(reviewRepository.findLatestReviewsByBookIds(Set.of(7L, 8L)))
+            .thenReturn(List.of(new LatestReviewDTO(7L, 11L, "reader", "Loved it", now)));
+
+        Map<Long, BookSummary> summaries = bookSummaries.compute(List.of(
+            new BookDTO(7L, "Dune", "Frank Herbert", null), new BookDTO(8L, "Emma", "Jane Austen", null)));
+
+        BookSummary dune = summaries.get(7L);
+        assertEquals(3, dune.getReviewCount());
+        assertEquals(12, dune.getRatingSum());
+        assertEquals(1, dune.getRating2());
+        assertEquals(2, dune.getRating5());
+        assertEquals(11L, dune.getLatestReviewId());
+        BookSummary emma = summaries.get(8L);
+        assertEquals(0, emma.getReviewCount());
+        assertNull(emma.getLatestReviewId());
+    }
+
+    @Test
+    void disabled_shouldWriteNothing() {
+        BookSummaries disabled = new BookSummaries(bookSummaryRepository, bookRepository, reviewRepository, shardedReviews,
+            false);
+
+        disabled.reviewSaved(7L, review(11L, 4, "Loved it"), Optional.empty());
+        disabled.reviewDeleted(7L, 11L, 4);
+        disabled.bookDeleted(7L);
+
+        verifyNoInteractions(bookSummaryRepository, reviewRepository);
+    }
+
+    private Review review(Long id, int rating, String comment) {
+        User user = new User();
+        user.setId(3L);
+        user.setUsername("reader");
+        Review review = new Review();
+        review.setId(id);
+        review.setUser(user);
+        review.setRating(rating);
+        review.setComment(comment);
+        review.setCreatedAt(now);
+        return review;
+    }
+}
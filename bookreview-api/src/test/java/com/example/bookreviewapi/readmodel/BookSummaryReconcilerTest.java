@@ -0,0 +1,113 @@
+package com.example.bookreviewapi.readmodel;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.model.BookSummary;
+import com.example.bookreviewapi.repository.BookRepository;
+import com.example.bookreviewapi.repository.BookSummaryRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSummaryReconcilerTest {
+
+    @Mock
+    private BookSummaries bookSummaries;
+
+    @Mock
+    private BookSummaryRepository bookSummaryRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookSummaryReconciler reconciler;
+
+    private final List<BookDTO> books = List.of(
+        new BookDTO(1L, "Dune", "Frank Herbert", null), new BookDTO(2L, "Emma", "Jane Austen", null));
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new BookSummaryReconciler(bookSummaries, bookSummaryRepository, bookRepository,
+            transactionManager, meterRegistry, 500);
+        when(bookRepository.findBookDTOsAfter(eq(0L), any(Pageable.class))).thenReturn(books);
+        when(bookRepository.findBookDTOsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+    }
+
+    @Test
+    void check_whenEverythingMatches_shouldLockNothingAndRepairNothing() {
+        when(bookSummaries.compute(books)).thenReturn(Map.of(1L, summary(1L, 3), 2L, summary(2L, 0)));
+        when(bookSummaryRepository.findAllById(any())).thenReturn(List.of(summary(1L, 3), summary(2L, 0)));
+
+        BookSummaryReconciler.Report report = reconciler.check(true);
+
+        assertEquals(new BookSummaryReconciler.Report(2, 0, 0, 0, 0), report);
+        verify(bookRepository, never()).lockExistingIds(any());
+        verify(bookSummaryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void rebuild_shouldRewriteDifferingAndMissingRowsUnderLockAndDropOrphans() {
+        List<BookDTO> suspects = List.of(books.get(1));
+        when(bookSummaries.compute(books)).thenReturn(Map.of(1L, summary(1L, 3), 2L, summary(2L, 5)));
+        when(bookSummaries.compute(suspects)).thenReturn(Map.of(2L, summary(2L, 5)));
+        when(bookSummaryRepository.findAllById(any()))
+            .thenReturn(List.of(summary(1L, 3), summary(2L, 4))) // Unlocked page
+            .thenReturn(List.of(summary(2L, 4)));                // Locked re-read
+        when(bookRepository.lockExistingIds(List.of(2L))).thenReturn(List.of(2L));
+        when(bookRepository.findBookDTOsByIdIn(List.of(2L))).thenReturn(suspects);
+        when(bookSummaryRepository.findOrphanIds()).thenReturn(List.of(9L));
+
+        BookSummaryReconciler.Report report = reconciler.rebuild();
+
+        assertEquals(new BookSummaryReconciler.Report(2, 1, 0, 1, 2), report);
+        verify(bookSummaryRepository).saveAll(List.of(summary(2L, 5)));
+        verify(bookSummaryRepository).deleteAllByIdInBatch(List.of(9L));
+        assertEquals(1.0, meterRegistry.counter(BookSummaryReconciler.METRIC, "kind", "mismatched").count());
+    }
+
+    @Test
+    void check_whenTheDifferenceIsGoneOnceLocked_shouldNotCountIt() {
+        List<BookDTO> suspects = List.of(books.get(0));
+        when(bookSummaries.compute(books)).thenReturn(Map.of(1L, summary(1L, 3), 2L, summary(2L, 0)));
+        when(bookSummaries.compute(suspects)).thenReturn(Map.of(1L, summary(1L, 4)));
+        // A review was committed between the unlocked read and the lock
+        when(bookSummaryRepository.findAllById(any()))
+            .thenReturn(List.of(summary(1L, 4), summary(2L, 0)))
+            .thenReturn(List.of(summary(1L, 4)));
+        when(bookRepository.lockExistingIds(List.of(1L))).thenReturn(List.of(1L));
+        when(bookRepository.findBookDTOsByIdIn(List.of(1L))).thenReturn(suspects);
+
+        BookSummaryReconciler.Report report = reconciler.check(false);
+
+        assertEquals(new BookSummaryReconciler.Report(2, 0, 0, 0, 0), report);
+        verify(bookSummaryRepository, never()).saveAll(anyList());
+    }
+
+    private static BookSummary summary(Long id, long reviewCount) {
+        BookSummary summary = new BookSummary();
+        summary.setId(id);
+        summary.setReviewCount(reviewCount);
+        summary.setRatingSum(reviewCount * 4);
+        return summary;
+    }
+}
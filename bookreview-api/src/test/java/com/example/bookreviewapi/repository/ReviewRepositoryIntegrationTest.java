@@ -0,0 +1,125 @@
+package com.example.bookreviewapi.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.bookreviewapi.model.Book;
+import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.model.User;
+import com.example.bookreviewapi.writebehind.PendingReview;
+import com.example.bookreviewapi.writebehind.ReviewIdBlocks;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ReviewRepositoryIntegrationTest {
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Book book;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        book = new Book();
+        book.setTitle("Dune");
+        book.setAuthor("Frank Herbert");
+        book = bookRepository.save(book);
+        alice = userRepository.save(user("alice"));
+        bob = userRepository.save(user("bob"));
+    }
+
+    @Test
+    void insertNew_shouldInsertUnderTheGivenIdAndSkipAReplay() {
+        PendingReview pending = pending(existingReviewId() + 1000, alice);
+
+        assertEquals(List.of(pending), reviewRepository.insertNew(List.of(pending)));
+        // The journal is replayed after a crash that came after the commit
+        assertEquals(List.of(), reviewRepository.insertNew(List.of(pending)));
+
+        entityManager.clear();
+        Review review = reviewRepository.findById(pending.id()).orElseThrow();
+        assertEquals("Great", review.getComment());
+        assertEquals(alice.getId(), review.getUser().getId());
+    }
+
+    @Test
+    void insertNew_whenTheIdBelongsToAnotherReview_shouldFailRatherThanSkip() {
+        // JPA numbered this one itself; a pending review under the same id is someone else's
+        long taken = existingReviewId();
+
+        assertThrows(DuplicateKeyException.class, () -> reviewRepository.insertNew(List.of(pending(taken, bob))));
+    }
+
+    @Test
+    void insertNew_withIdsFromTheBlocks_shouldNeverMeetTheIdsJpaHandsOut() {
+        ReviewIdBlocks blocks = new ReviewIdBlocks(dataSource, transactionManager, 10);
+        List<PendingReview> pending = new ArrayList<>();
+        List<Long> jpaIds = new ArrayList<>();
+        // Interleaved so both sides need new blocks along the way
+        for (int i = 0; i < 60; i++) {
+            pending.add(pending(blocks.nextId(), i % 2 == 0 ? alice : bob));
+            jpaIds.add(existingReviewId());
+        }
+
+        assertEquals(pending, reviewRepository.insertNew(pending));
+        assertTrue(pending.stream().map(PendingReview::id).noneMatch(jpaIds::contains));
+    }
+
+    private long existingReviewId() {
+        Review review = new Review();
+        review.setComment("Fine");
+        review.setRating(3);
+        review.setBook(book);
+        review.setUser(alice);
+        review.setCreatedAt(LocalDateTime.now());
+        review.setUpdatedAt(review.getCreatedAt());
+        return reviewRepository.saveAndFlush(review).getId();
+    }
+
+    private PendingReview pending(long id, User user) {
+        return new PendingReview(id, book.getId(), user.getId(), user.getUsername(), "Great", 5,
+            LocalDateTime.now().withNano(0));
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password123");
+        return user;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bookreviewapi.resilience;
+
+import com.example.bookreviewapi.resilience.AdaptiveConcurrencyLimiter.Priority;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(800);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void lowerPriorities_shouldOnlyGetTheirShareOfTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 7; i++) {
+            assertTrue(limiter.tryAcquire(Priority.ANONYMOUS));
+        }
+        assertFalse(limiter.tryAcquire(Priority.ANONYMOUS));
+        assertTrue(limiter.tryAcquire(Priority.AUTHENTICATED_READ));
+        assertTrue(limiter.tryAcquire(Priority.AUTHENTICATED_READ));
+        assertFalse(limiter.tryAcquire(Priority.AUTHENTICATED_READ));
+        assertTrue(limiter.tryAcquire(Priority.AUTHENTICATED_WRITE));
+        assertFalse(limiter.tryAcquire(Priority.AUTHENTICATED_WRITE));
+
+        assertEquals(10, limiter.getInFlight());
+        assertEquals(1.0, meterRegistry.get(AdaptiveConcurrencyLimiter.REJECTED_METRIC).tag("priority", "anonymous").counter().count());
+    }
+
+    @Test
+    void slowResponses_shouldShrinkTheLimitDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        limiter.tryAcquire(Priority.AUTHENTICATED_WRITE);
+        limiter.release(SLOW);
+        assertEquals(18, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire(Priority.AUTHENTICATED_WRITE);
+            limiter.release(SLOW);
+        }
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void fastResponses_shouldOnlyGrowTheLimitWhenItIsInUse() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        // One request at a time never needs more room
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(Priority.AUTHENTICATED_WRITE);
+            limiter.release(FAST);
+        }
+        assertEquals(10, limiter.getLimit());
+
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire(Priority.AUTHENTICATED_WRITE);
+        }
+        limiter.release(FAST);
+        assertEquals(11, limiter.getLimit());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, true, initialLimit, 5, 200, 500, 0.9, 0.7, 0.9);
+    }
+}
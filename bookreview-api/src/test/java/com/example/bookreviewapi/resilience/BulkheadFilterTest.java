@@ -0,0 +1,72 @@
+package com.example.bookreviewapi.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // One request slot per lane, no waiting
+    private final Bulkheads bulkheads = new Bulkheads(meterRegistry, true, 0, 0, 1, 1, 1, 1, 1, 1);
+    private final BulkheadFilter filter = new BulkheadFilter(bulkheads, Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void laneOf_shouldFollowSecurityConfigRouteGroups() {
+        assertEquals(Lane.PUBLIC_READ, BulkheadFilter.laneOf("GET", "/api/books"));
+        assertEquals(Lane.PUBLIC_READ, BulkheadFilter.laneOf("GET", "/api/books/7"));
+        assertEquals(Lane.PUBLIC_READ, BulkheadFilter.laneOf("GET", "/api/books/7/average-rating"));
+        assertEquals(Lane.PUBLIC_READ, BulkheadFilter.laneOf("POST", "/api/books/ratings"));
+        assertEquals(Lane.AUTHENTICATED, BulkheadFilter.laneOf("GET", "/api/books/7/reviews"));
+        assertEquals(Lane.AUTHENTICATED, BulkheadFilter.laneOf("POST", "/api/books"));
+        assertEquals(Lane.ADMIN, BulkheadFilter.laneOf("DELETE", "/api/books/7"));
+        assertNull(BulkheadFilter.laneOf("POST", "/auth/login"));
+        assertNull(BulkheadFilter.laneOf("GET", "/actuator/health"));
+    }
+
+    @Test
+    void request_shouldRunWithItsLaneOnTheThread() throws Exception {
+        AtomicReference<Lane> seen = new AtomicReference<>();
+
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("DELETE", "/api/books/7"), seen);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(Lane.ADMIN, seen.get());
+        assertNull(Lane.current());
+    }
+
+    @Test
+    void fullLane_shouldRejectOnlyThatLane() throws Exception {
+        assertTrue(bulkheads.tryEnter(Lane.ADMIN)); // A long-running admin delete
+
+        MockHttpServletResponse admin = perform(new MockHttpServletRequest("DELETE", "/api/books/8"), new AtomicReference<>());
+        MockHttpServletResponse browse = perform(new MockHttpServletRequest("GET", "/api/books"), new AtomicReference<>());
+
+        assertEquals(503, admin.getStatus());
+        assertEquals(200, browse.getStatus());
+        assertEquals(1.0, meterRegistry.get(Bulkheads.REJECTED_METRIC).tag("lane", "admin").tag("resource", "requests").counter().count());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, AtomicReference<Lane> seen) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                seen.set(Lane.current());
+            }
+        }));
+        return response;
+    }
+}
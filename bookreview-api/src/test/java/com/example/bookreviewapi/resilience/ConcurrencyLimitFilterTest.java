@@ -0,0 +1,74 @@
+package com.example.bookreviewapi.resilience;
+
+import com.example.bookreviewapi.resilience.AdaptiveConcurrencyLimiter.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    // Limit 1: anonymous and authenticated reads get max(1, share) = 1 permit as well
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+        new SimpleMeterRegistry(), true, 1, 1, 1, 500, 0.9, 0.7, 0.9);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, objectMapper);
+
+    @Test
+    void requestWithinLimit_shouldPassAndReleaseItsPermit() throws Exception {
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/api/books"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void requestOverLimit_shouldBeShedWith503() throws Exception {
+        assertTrue(limiter.tryAcquire(Priority.AUTHENTICATED_WRITE));
+
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/api/books"));
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        Map<?, ?> body = objectMapper.readValue(response.getContentAsByteArray(), Map.class);
+        assertEquals(503, body.get("status"));
+        assertEquals("/api/books", body.get("path"));
+    }
+
+    @Test
+    void healthProbe_shouldBypassTheLimit() throws Exception {
+        assertTrue(limiter.tryAcquire(Priority.AUTHENTICATED_WRITE));
+
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/actuator/health/liveness"));
+
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void priorityOf_shouldRankBearerWritesAboveReadsAboveAnonymous() {
+        MockHttpServletRequest write = new MockHttpServletRequest("POST", "/api/books/1/reviews");
+        write.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/books/1/reviews");
+        read.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+
+        assertEquals(Priority.AUTHENTICATED_WRITE, ConcurrencyLimitFilter.priorityOf(write));
+        assertEquals(Priority.AUTHENTICATED_READ, ConcurrencyLimitFilter.priorityOf(read));
+        assertEquals(Priority.ANONYMOUS, ConcurrencyLimitFilter.priorityOf(new MockHttpServletRequest("POST", "/auth/login")));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.bookreviewapi.resilience;
+
+import com.example.bookreviewapi.resilience.DatabaseCircuitBreaker.State;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(2500);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    // Window 10, minimum 10 calls, 50% failures or 80% slow calls, 10 s open, 3 trial calls
+    private final DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(
+        meterRegistry, nanos::get, true, 10, 10, 50, 80, 2000, 10_000, 3);
+
+    @Test
+    void failuresBelowMinimumCalls_shouldKeepBreakerClosed() {
+        for (int i = 0; i < 9; i++) {
+            call(true, FAST);
+        }
+
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failureRateAtThreshold_shouldOpenAndRejectCalls() {
+        for (int i = 0; i < 5; i++) {
+            call(false, FAST);
+            call(true, FAST);
+        }
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1.0, meterRegistry.get(DatabaseCircuitBreaker.METRIC).tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void slowCallRate_shouldOpenBreaker() {
+        for (int i = 0; i < 2; i++) {
+            call(false, FAST);
+        }
+        for (int i = 0; i < 8; i++) {
+            call(false, SLOW);
+        }
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void window_shouldOnlyCountRecentCalls() {
+        for (int i = 0; i < 4; i++) {
+            call(true, FAST);
+        }
+        // Ten healthy calls push the old failures out of the window
+        for (int i = 0; i < 10; i++) {
+            call(false, FAST);
+        }
+        call(true, FAST);
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(10.0, breaker.snapshot().failureRate());
+    }
+
+    @Test
+    void afterOpenDuration_successfulTrials_shouldCloseBreaker() {
+        open();
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire()); // Only three trial calls at a time
+
+        for (int i = 0; i < 3; i++) {
+            breaker.record(FAST, false);
+        }
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.snapshot().bufferedCalls());
+    }
+
+    @Test
+    void afterOpenDuration_failingTrials_shouldReopenBreaker() {
+        open();
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+        }
+        breaker.record(FAST, true);
+        breaker.record(FAST, true);
+        breaker.record(FAST, false);
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void isDatabaseFailure_shouldOnlyMatchConnectionAndTimeoutErrors() {
+        assertTrue(DatabaseCircuitBreaker.isDatabaseFailure(new CannotCreateTransactionException("no connection")));
+        assertTrue(DatabaseCircuitBreaker.isDatabaseFailure(
+            new RuntimeException(new SQLTransientConnectionException("pool timeout"))));
+        assertFalse(DatabaseCircuitBreaker.isDatabaseFailure(new DataIntegrityViolationException("duplicate")));
+        assertFalse(DatabaseCircuitBreaker.isDatabaseFailure(new IllegalArgumentException()));
+    }
+
+    @Test
+    void disabled_shouldAlwaysPermit() {
+        DatabaseCircuitBreaker disabled = new DatabaseCircuitBreaker(
+            new SimpleMeterRegistry(), nanos::get, false, 10, 10, 50, 80, 2000, 10_000, 3);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(disabled.tryAcquire());
+            disabled.record(FAST, true);
+        }
+
+        assertEquals(State.CLOSED, disabled.getState());
+    }
+
+    @Test
+    void healthIndicator_whenOpen_shouldReportUnknownRatherThanDown() {
+        DatabaseCircuitBreakerHealthIndicator indicator = new DatabaseCircuitBreakerHealthIndicator(breaker);
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        open();
+        Health health = indicator.health();
+
+        assertEquals(Status.UNKNOWN, health.getStatus());
+        assertEquals(State.OPEN, health.getDetails().get("state"));
+    }
+
+    private void open() {
+        for (int i = 0; i < 10; i++) {
+            call(true, FAST);
+        }
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    private void call(boolean failed, long durationNanos) {
+        assertTrue(breaker.tryAcquire());
+        breaker.record(durationNanos, failed);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.bookreviewapi.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LaneQuotaDataSourceTest {
+
+    // Admin lane: two connections, no waiting
+    private final Bulkheads bulkheads = new Bulkheads(new SimpleMeterRegistry(), true, 0, 0, 10, 10, 10, 10, 1, 2);
+    private final DataSource pool = mock(DataSource.class);
+    private final LaneQuotaDataSource dataSource = new LaneQuotaDataSource(pool, () -> bulkheads);
+
+    @AfterEach
+    void tearDown() {
+        Lane.clear();
+    }
+
+    @Test
+    void lane_shouldNotHoldMoreThanItsConnectionQuota() throws Exception {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+
+        // Each Lane.set starts another request in the lane
+        Lane.set(Lane.ADMIN);
+        Connection first = dataSource.getConnection();
+        Lane.set(Lane.ADMIN);
+        dataSource.getConnection();
+        Lane.set(Lane.ADMIN);
+        assertThrows(LaneQuotaExceededException.class, dataSource::getConnection);
+
+        first.close();
+        first.close(); // Closing twice gives back one permit only
+        assertNotNull(dataSource.getConnection());
+        Lane.set(Lane.ADMIN);
+        assertThrows(LaneQuotaExceededException.class, dataSource::getConnection);
+    }
+
+    @Test
+    void connectionTakenOnAnotherThread_shouldCountAgainstTheCallersLane() throws Exception {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        Lane.set(Lane.ADMIN);
+        Callable<Connection> subtask = Lane.callable(dataSource::getConnection);
+        Lane.clear();
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(subtask).get();
+            executor.submit(subtask).get();
+        }
+
+        // Both connections are still open and hold the lane's two permits
+        assertFalse(bulkheads.tryAcquireConnection(Lane.ADMIN));
+    }
+
+    @Test
+    void requestHoldingAConnection_shouldNotWaitOnItsOwnLanesPermits() throws Exception {
+        // Admin lane: one connection, and a long wait for it
+        Bulkheads waiting = new Bulkheads(new SimpleMeterRegistry(), true, 0, 5_000, 10, 10, 10, 10, 1, 1);
+        LaneQuotaDataSource quotaDataSource = new LaneQuotaDataSource(pool, () -> waiting);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        Lane.set(Lane.ADMIN);
+        Connection held = quotaDataSource.getConnection();
+
+        // A subtask of the same request needs a second one while the first is still open
+        Callable<Connection> subtask = Lane.callable(quotaDataSource::getConnection);
+        Connection extra = assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+                return executor.submit(subtask).get();
+            }
+        });
+
+        extra.close(); // Went through without a permit, so it gives none back
+        assertFalse(waiting.tryAcquireSpareConnection(Lane.ADMIN));
+        held.close();
+        assertTrue(waiting.tryAcquireSpareConnection(Lane.ADMIN));
+    }
+
+    @Test
+    void failedPoolCheckout_shouldGiveThePermitBack() throws Exception {
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+        Lane.set(Lane.ADMIN);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+        assertTrue(bulkheads.tryAcquireConnection(Lane.ADMIN));
+    }
+
+    @Test
+    void connectionsOutsideALane_shouldNotBeCounted() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(connection);
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(connection, dataSource.getConnection());
+        }
+    }
+
+    @Test
+    void quotaExhaustion_shouldNotCountAsDatabaseFailure() {
+        assertFalse(DatabaseCircuitBreaker.isDatabaseFailure(
+            new CannotCreateTransactionException("no connection",
+                new LaneQuotaExceededException(Lane.ADMIN))));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bookreviewapi.resilience;
+
+import com.example.bookreviewapi.resilience.RateLimiter.Group;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    // auth: 2 tokens, catalogue: 3 tokens, api: 2 tokens, all refilled at 1/s
+    private final RateLimiter limiter = new RateLimiter(new SimpleMeterRegistry(), () -> 0L, true, 100, 0, 2, 1, 3, 1, 2, 1);
+    private final RateLimitFilter filter = new RateLimitFilter(limiter, Jackson2ObjectMapperBuilder.json().build());
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void allowedRequest_shouldCarryRateLimitHeaders() throws Exception {
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/api/books"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("3", response.getHeader("RateLimit-Limit"));
+        assertEquals("2", response.getHeader("RateLimit-Remaining"));
+        assertEquals("1", response.getHeader("RateLimit-Reset"));
+    }
+
+    @Test
+    void emptyBucket_shouldAnswer429WithRetryAfter() throws Exception {
+        perform(login());
+        perform(login());
+
+        MockHttpServletResponse response = perform(login());
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", response.getHeader("RateLimit-Remaining"));
+        assertTrue(response.getContentAsString().contains("\"status\":429"));
+    }
+
+    @Test
+    void signedInUser_shouldBeLimitedByUsernameNotIp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/books/1/reviews");
+        assertEquals("ip:127.0.0.1", RateLimitFilter.keyOf(Group.API, request));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            "alice", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        assertEquals("user:alice", RateLimitFilter.keyOf(Group.API, request));
+        assertEquals("ip:127.0.0.1", RateLimitFilter.keyOf(Group.AUTH, login()));
+    }
+
+    @Test
+    void groupOf_shouldMapRoutesToGroups() {
+        assertEquals(Group.AUTH, RateLimitFilter.groupOf(login()));
+        assertEquals(Group.CATALOGUE, RateLimitFilter.groupOf(new MockHttpServletRequest("GET", "/api/books/1/reviews")));
+        assertEquals(Group.API, RateLimitFilter.groupOf(new MockHttpServletRequest("POST", "/api/books")));
+        assertNull(RateLimitFilter.groupOf(new MockHttpServletRequest("GET", "/actuator/health")));
+        assertNull(RateLimitFilter.groupOf(new MockHttpServletRequest("GET", "/swagger-ui/index.html")));
+    }
+
+    private static MockHttpServletRequest login() {
+        return new MockHttpServletRequest("POST", "/auth/login");
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
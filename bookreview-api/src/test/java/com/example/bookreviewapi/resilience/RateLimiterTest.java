@@ -0,0 +1,89 @@
+package com.example.bookreviewapi.resilience;
+
+import com.example.bookreviewapi.resilience.RateLimiter.Decision;
+import com.example.bookreviewapi.resilience.RateLimiter.Group;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    // auth: 3 tokens, one every 5 s; catalogue: 5 tokens, 1/s; api: 2 tokens, 1/s; at most 2 buckets per group
+    private final RateLimiter limiter = new RateLimiter(meterRegistry, nanos::get, true, 2, 0, 3, 0.2, 5, 1, 2, 1);
+
+    @Test
+    void fullBucket_shouldAllowBurstUpToCapacityThenReject() {
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            Decision decision = limiter.tryConsume(Group.AUTH, "ip:10.0.0.1");
+            assertTrue(decision.allowed());
+            assertEquals(3, decision.limit());
+            assertEquals(remaining, decision.remaining());
+        }
+
+        Decision rejected = limiter.tryConsume(Group.AUTH, "ip:10.0.0.1");
+        assertFalse(rejected.allowed());
+        assertEquals(0, rejected.remaining());
+        assertEquals(5, rejected.retryAfterSeconds());
+        assertEquals(15, rejected.resetSeconds());
+        assertEquals(1.0, meterRegistry.get("bookreview.ratelimit.requests").tag("group", "auth").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void tokens_shouldRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryConsume(Group.AUTH, "ip:10.0.0.1");
+        }
+        assertFalse(limiter.tryConsume(Group.AUTH, "ip:10.0.0.1").allowed());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertTrue(limiter.tryConsume(Group.AUTH, "ip:10.0.0.1").allowed());
+        assertFalse(limiter.tryConsume(Group.AUTH, "ip:10.0.0.1").allowed());
+    }
+
+    @Test
+    void keysAndGroups_shouldHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryConsume(Group.AUTH, "ip:10.0.0.1");
+        }
+
+        assertTrue(limiter.tryConsume(Group.AUTH, "ip:10.0.0.2").allowed());
+        assertTrue(limiter.tryConsume(Group.CATALOGUE, "ip:10.0.0.1").allowed());
+    }
+
+    @Test
+    void sweep_shouldDropIdleBucketsAndMakeRoomForNewKeys() {
+        limiter.tryConsume(Group.API, "user:alice");
+        limiter.tryConsume(Group.API, "user:bob");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1)); // alice and bob are full again
+        limiter.tryConsume(Group.API, "user:bob");
+
+        limiter.sweep();
+
+        assertEquals(1, limiter.bucketCount(Group.API)); // bob has just taken a token
+        assertTrue(limiter.tryConsume(Group.API, "user:carol").allowed());
+        assertEquals(2, limiter.bucketCount(Group.API));
+    }
+
+    @Test
+    void fullMap_shouldThrottleNewKeysWithASharedOverflowBucket() {
+        limiter.tryConsume(Group.API, "user:alice");
+        limiter.tryConsume(Group.API, "user:bob");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1)); // Idle, but nothing runs on the request path to drop them
+
+        // The api group's two tokens are shared by every key that does not fit
+        assertTrue(limiter.tryConsume(Group.API, "user:carol").allowed());
+        assertTrue(limiter.tryConsume(Group.API, "user:dave").allowed());
+        assertFalse(limiter.tryConsume(Group.API, "user:erin").allowed());
+
+        assertEquals(2, limiter.bucketCount(Group.API));
+        assertEquals(3.0, meterRegistry.get("bookreview.ratelimit.requests").tag("group", "api").tag("result", "overflow").counter().count());
+    }
+}
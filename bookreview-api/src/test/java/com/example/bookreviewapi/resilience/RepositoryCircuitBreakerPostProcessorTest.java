@@ -0,0 +1,71 @@
+package com.example.bookreviewapi.resilience;
+
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.repository.Repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryCircuitBreakerPostProcessorTest {
+
+    interface TitleRepository extends Repository<Object, Long> {
+        String findTitle(Long id);
+    }
+
+    private final DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(
+        new SimpleMeterRegistry(), System::nanoTime, true, 4, 4, 50, 80, 2000, 60_000, 1);
+
+    @Test
+    void repositoryCalls_shouldFailFastOnceDatabaseErrorsOpenTheBreaker() {
+        AtomicInteger calls = new AtomicInteger();
+        TitleRepository repository = wrap(id -> {
+            calls.incrementAndGet();
+            throw new DataAccessResourceFailureException("Connection is not available");
+        });
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(DataAccessResourceFailureException.class, () -> repository.findTitle(1L));
+        }
+
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(DatabaseOperationException.class, () -> repository.findTitle(1L));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void businessErrors_shouldNotOpenTheBreaker() {
+        TitleRepository repository = wrap(id -> {
+            throw new IllegalStateException("not a database failure");
+        });
+
+        for (int i = 0; i < 8; i++) {
+            assertThrows(IllegalStateException.class, () -> repository.findTitle(1L));
+        }
+
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void otherBeans_shouldBeLeftAlone() {
+        Object bean = new Object();
+
+        assertSame(bean, postProcessor().postProcessAfterInitialization(bean, "other"));
+    }
+
+    private TitleRepository wrap(TitleRepository target) {
+        return (TitleRepository) postProcessor().postProcessAfterInitialization(target, "titleRepository");
+    }
+
+    private RepositoryCircuitBreakerPostProcessor postProcessor() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("databaseCircuitBreaker", breaker);
+        return new RepositoryCircuitBreakerPostProcessor(beanFactory.getBeanProvider(DatabaseCircuitBreaker.class));
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.bookreviewapi.service;
+
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.BookDetailDTO;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.exception.BookNotFoundException;
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+import com.example.bookreviewapi.model.BookSummary;
+import com.example.bookreviewapi.readmodel.BookSummaries;
+import com.example.bookreviewapi.repository.BookRepository;
+import com.example.bookreviewapi.repository.BookSummaryRepository;
+import com.example.bookreviewapi.repository.ReviewRepository;
+import com.example.bookreviewapi.repository.ShardedReviewRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT) // Subtasks may be cancelled before they hit every stub
+class BookDetailServiceImplTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    // Sharding off (isEnabled() is false): the JPA repositories above are used
+    @Mock
+    private ShardedReviewRepository shardedReviews;
+
+    // Read model off (isEnabled() is false) unless a test turns it on
+    @Mock
+    private BookSummaries bookSummaries;
+
+    @Mock
+    private BookSummaryRepository bookSummaryRepository;
+
+    private BookDetailServiceImpl bookDetailService;
+
+    private final Long bookId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        bookDetailService = new BookDetailServiceImpl(bookRepository, reviewRepository, shardedReviews,
+            bookSummaries, bookSummaryRepository, 500, 10);
+    }
+
+    @Test
+    void getBookDetail_whenAllPartsLoad_shouldReturnBookReviewsAndStats() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(bookRepository.findBookDTOById(bookId))
+            .thenReturn(Optional.of(new BookDTO(bookId, "Dune", "Frank Herbert", "Science Fiction")));
+        when(reviewRepository.findReviewDTOsByBookId(eq(bookId), any(Pageable.class)))
+            .thenReturn(List.of(new ReviewDTO(5L, "Epic", 5, "john", 2L, now, now)));
+        when(reviewRepository.findRatingSummariesByBookIds(List.of(bookId)))
+            .thenReturn(List.of(new RatingSummaryDTO(bookId, 5.0, 1L)));
+
+        // Act
+        BookDetailDTO result = bookDetailService.getBookDetail(bookId);
+
+        // Assert
+        assertEquals("Dune", result.getBook().getTitle());
+        assertEquals(1, result.getReviews().size());
+        assertEquals(5.0, result.getRatingStats().getAvgRating(), 0.01);
+        assertTrue(result.getDegraded().isEmpty());
+
+        // The book is resolved once, as a projection
+        verify(bookRepository, times(1)).findBookDTOById(bookId);
+        verify(bookRepository, never()).findById(any());
+    }
+
+    @Test
+    void getBookDetail_whenStatsFail_shouldDegradeInsteadOfFailing() {
+        // Arrange
+        when(bookRepository.findBookDTOById(bookId))
+            .thenReturn(Optional.of(new BookDTO(bookId, "Dune", "Frank Herbert", "Science Fiction")));
+        when(reviewRepository.findReviewDTOsByBookId(eq(bookId), any(Pageable.class))).thenReturn(List.of());
+        when(reviewRepository.findRatingSummariesByBookIds(List.of(bookId)))
+            .thenThrow(new RuntimeException("Database connection failed"));
+
+        // Act
+        BookDetailDTO result = bookDetailService.getBookDetail(bookId);
+
+        // Assert
+        assertEquals("Dune", result.getBook().getTitle());
+        assertNull(result.getRatingStats());
+        assertEquals(List.of(BookDetailServiceImpl.RATING_STATS), result.getDegraded());
+    }
+
+    @Test
+    void getBookDetail_whenStatsMissTheDeadline_shouldDegradeWithinDeadline() {
+        // Arrange
+        when(bookRepository.findBookDTOById(bookId))
+            .thenReturn(Optional.of(new BookDTO(bookId, "Dune", "Frank Herbert", "Science Fiction")));
+        when(reviewRepository.findReviewDTOsByBookId(eq(bookId), any(Pageable.class))).thenReturn(List.of());
+        when(reviewRepository.findRatingSummariesByBookIds(List.of(bookId))).thenAnswer(invocation -> {
+            Thread.sleep(5_000); // Interrupted by cancellation once the deadline passes
+            return List.of();
+        });
+
+        // Act
+        long start = System.nanoTime();
+        BookDetailDTO result = bookDetailService.getBookDetail(bookId);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertNull(result.getRatingStats());
+        assertEquals(List.of(BookDetailServiceImpl.RATING_STATS), result.getDegraded());
+        assertTrue(elapsedMs < 2_000, "detail should return shortly after the 500 ms deadline, took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void getBookDetail_whenAStatsQueryIgnoresCancellation_shouldStillReturnWithinDeadline() {
+        // Arrange
+        when(bookRepository.findBookDTOById(bookId))
+            .thenReturn(Optional.of(new BookDTO(bookId, "Dune", "Frank Herbert", "Science Fiction")));
+        when(reviewRepository.findReviewDTOsByBookId(eq(bookId), any(Pageable.class))).thenReturn(List.of());
+        when(reviewRepository.findRatingSummariesByBookIds(List.of(bookId))).thenAnswer(invocation -> {
+            // Like a driver blocked on the socket: the interrupt is not noticed until it returns
+            long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+            return List.of();
+        });
+
+        // Act
+        long start = System.nanoTime();
+        BookDetailDTO result = bookDetailService.getBookDetail(bookId);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals(List.of(BookDetailServiceImpl.RATING_STATS), result.getDegraded());
+        assertTrue(elapsedMs < 2_000, "detail should not wait for the cancelled query, took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void getBookDetail_whenBookDoesNotExist_shouldThrowBookNotFoundException() {
+        // Arrange
+        when(bookRepository.findBookDTOById(bookId)).thenReturn(Optional.empty());
+        when(reviewRepository.findReviewDTOsByBookId(eq(bookId), any(Pageable.class))).thenReturn(List.of());
+        when(reviewRepository.findRatingSummariesByBookIds(List.of(bookId))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(BookNotFoundException.class, () -> bookDetailService.getBookDetail(bookId));
+    }
+
+    @Test
+    void getBookDetail_whenReviewsFail_shouldThrowDatabaseOperationException() {
+        // Arrange
+        when(bookRepository.findBookDTOById(bookId))
+            .thenReturn(Optional.of(new BookDTO(bookId, "Dune", "Frank Herbert", "Science Fiction")));
+        when(reviewRepository.findReviewDTOsByBookId(eq(bookId), any(Pageable.class)))
+            .thenThrow(new RuntimeException("Database connection failed"));
+        when(reviewRepository.findRatingSummariesByBookIds(List.of(bookId))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(DatabaseOperationException.class, () -> bookDetailService.getBookDetail(bookId));
+    }
+
+    @Test
+    void getBookDetail_withReadModel_shouldReadOneSummaryRowAndTheReviewPage() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        BookSummary summary = new BookSummary(bookId, "Dune", "Frank Herbert", "Science Fiction", 3, 13,
+            0, 0, 1, 0, 2, 9L, "john", "Epic", now);
+        when(bookSummaries.isEnabled()).thenReturn(true);
+        when(bookSummaryRepository.findById(bookId)).thenReturn(Optional.of(summary));
+        when(reviewRepository.findReviewDTOsByBookId(eq(bookId), any(Pageable.class)))
+            .thenReturn(List.of(new ReviewDTO(5L, "Epic", 5, "john", 2L, now, now)));
+
+        // Act
+        BookDetailDTO result = bookDetailService.getBookDetail(bookId);
+
+        // Assert
+        assertEquals("Dune", result.getBook().getTitle());
+        assertEquals(1, result.getReviews().size());
+        assertEquals(13.0 / 3, result.getRatingStats().getAvgRating(), 0.01);
+        assertEquals(List.of(0L, 0L, 1L, 0L, 2L), result.getRatingHistogram());
+        assertEquals(9L, result.getLatestReview().getId());
+        assertTrue(result.getDegraded().isEmpty());
+        verifyNoInteractions(bookRepository);
+        verify(reviewRepository, never()).findRatingSummariesByBookIds(any());
+    }
+
+    @Test
+    void getBookDetail_withReadModelAndNoRow_shouldFallBackToBookAndReview() {
+        // Arrange
+        when(bookSummaries.isEnabled()).thenReturn(true);
+        when(bookSummaryRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.findBookDTOById(bookId))
+            .thenReturn(Optional.of(new BookDTO(bookId, "Dune", "Frank Herbert", "Science Fiction")));
+        when(reviewRepository.findReviewDTOsByBookId(eq(bookId), any(Pageable.class))).thenReturn(List.of());
+        when(reviewRepository.findRatingSummariesByBookIds(List.of(bookId)))
+            .thenReturn(List.of(new RatingSummaryDTO(bookId, 5.0, 1L)));
+
+        // Act
+        BookDetailDTO result = bookDetailService.getBookDetail(bookId);
+
+        // Assert
+        assertEquals("Dune", result.getBook().getTitle());
+        assertEquals(5.0, result.getRatingStats().getAvgRating(), 0.01);
+    }
+
+    @Test
+    void getBookDetail_withReadModelAndNoSuchBook_shouldThrowBookNotFoundException() {
+        // Arrange
+        when(bookSummaries.isEnabled()).thenReturn(true);
+        when(bookSummaryRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.findBookDTOById(bookId)).thenReturn(Optional.empty());
+        when(reviewRepository.findReviewDTOsByBookId(eq(bookId), any(Pageable.class))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(BookNotFoundException.class, () -> bookDetailService.getBookDetail(bookId));
+    }
+}
@@ -1,26 +1,49 @@
 package com.example.bookreviewapi.service;
 
+import com.example.bookreviewapi.cache.ResponseBodyCache;
+import com.example.bookreviewapi.cache.SingleFlight;
+import com.example.bookreviewapi.datasource.HedgedReads;
+import com.example.bookreviewapi.dto.BookBatchDTO;
+import com.example.bookreviewapi.dto.BookDTO;
+import com.example.bookreviewapi.dto.BookField;
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
+import com.example.bookreviewapi.event.BookDeleted;
+import com.example.bookreviewapi.event.BookUpdated;
+import com.example.bookreviewapi.event.DomainEventPublisher;
 import com.example.bookreviewapi.exception.BookNotFoundException;
 import com.example.bookreviewapi.exception.InvalidBookDataException;
 import com.example.bookreviewapi.exception.BookAlreadyExistsException;
 import com.example.bookreviewapi.exception.DatabaseOperationException;
+import com.example.bookreviewapi.invalidation.InvalidationBus;
+import com.example.bookreviewapi.invalidation.InvalidationEvent;
 import com.example.bookreviewapi.model.Book;
+import com.example.bookreviewapi.model.BookSummary;
 import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.readmodel.BookSummaries;
 import com.example.bookreviewapi.repository.BookRepository;
+import com.example.bookreviewapi.repository.BookSummaryRepository;
 import com.example.bookreviewapi.repository.ReviewRepository;
+import com.example.bookreviewapi.repository.ShardedReviewRepository;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +55,34 @@ class BookServiceImplTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    // Sharding off (isEnabled() is false): the JPA repositories above are used
+    @Mock
+    private ShardedReviewRepository shardedReviews;
+
+    @Mock
+    private ResponseBodyCache responseBodyCache;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private DomainEventPublisher domainEvents;
+
+    // Read model off (isEnabled() is false) unless a test turns it on
+    @Mock
+    private BookSummaries bookSummaries;
+
+    @Mock
+    private BookSummaryRepository bookSummaryRepository;
+
+    // Real instance: with no concurrent callers it simply runs the load
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry(), true, 1000);
+
+    // Inactive (no replicas): reads run inline
+    @Spy
+    private HedgedReads hedgedReads = new HedgedReads(new SimpleMeterRegistry(), false, 95, 10, 500, 5);
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -57,6 +108,10 @@ class BookServiceImplTest {
 
         // This proves service delegated the call to the repository properly.
         verify(bookRepository, times(1)).save(inputBook);
+        verify(responseBodyCache, times(1)).evictBook(2L);
+        verify(invalidationBus, times(1)).publish(InvalidationEvent.Kind.BOOK, 2L);
+        // The book already had an id, so this was an update
+        verify(domainEvents, times(1)).publish(any(BookUpdated.class));
     }
 
     @Test
@@ -211,13 +266,19 @@ class BookServiceImplTest {
         
         when(bookRepository.findByTitleAndAuthor("Test Book", "Test Author"))
             .thenReturn(Optional.empty());
-        when(bookRepository.save(inputBook)).thenReturn(inputBook);
+        when(bookRepository.save(inputBook)).thenAnswer(invocation -> {
+            // The repository hands back the persisted entity with its generated id
+            Book persisted = invocation.getArgument(0);
+            persisted.setId(1L);
+            return persisted;
+        });
 
         // Act
         Book savedBook = bookService.saveBook(inputBook);
 
         // Assert
         assertNotNull(savedBook);
+        assertEquals(1L, savedBook.getId());
         assertEquals("Test Book", savedBook.getTitle());
         assertEquals("Test Author", savedBook.getAuthor());
         
@@ -338,6 +399,9 @@ class BookServiceImplTest {
         // Assert
         verify(bookRepository, times(1)).existsById(bookId);
         verify(bookRepository, times(1)).deleteById(bookId);
+        verify(responseBodyCache, times(1)).evictBook(bookId);
+        verify(invalidationBus, times(1)).publish(InvalidationEvent.Kind.BOOK, bookId);
+        verify(domainEvents, times(1)).publish(any(BookDeleted.class));
     }
 
     @Test
@@ -485,6 +549,25 @@ class BookServiceImplTest {
         verify(bookRepository, times(1)).findByIdWithReviews(bookId);
     }
     
+    @Test
+    void getAverageRating_withReviewVersion_shouldGoThroughSingleFlightKeyedByVersion() {
+        // Arrange
+        Long bookId = 1L;
+        Book book = new Book();
+        book.setId(bookId);
+        Review review = new Review();
+        review.setRating(3);
+        book.setReviews(new ArrayList<>(List.of(review)));
+        when(bookRepository.findByIdWithReviews(bookId)).thenReturn(Optional.of(book));
+
+        // Act
+        double average = bookService.getAverageRating(bookId, 7L);
+
+        // Assert
+        assertEquals(3.0, average);
+        verify(singleFlight, times(1)).execute(eq("average-rating"), eq("1@7"), any());
+    }
+
     @Test
     void getAverageRating_whenBookHasSingleReview_shouldReturnThatRating() {
         // Arrange
@@ -686,4 +769,228 @@ class BookServiceImplTest {
         // Verify repository was called
         verify(bookRepository, times(1)).findById(1L);
     }
+
+    @Test
+    void getBookFields_withRatings_shouldSelectIdInternallyAndDropIt() {
+        // Arrange
+        Map<String, Object> first = new LinkedHashMap<>(Map.of("id", 1L));
+        first.put("title", "Dune");
+        Map<String, Object> second = new LinkedHashMap<>(Map.of("id", 2L));
+        second.put("title", "Emma");
+        when(bookRepository.findBookFields(EnumSet.of(BookField.ID, BookField.TITLE)))
+            .thenReturn(List.of(first, second));
+        when(reviewRepository.findAllRatingSummaries())
+            .thenReturn(List.of(new RatingSummaryDTO(1L, 4.5, 2L)));
+
+        // Act
+        List<Map<String, Object>> result = bookService.getBookFields(EnumSet.of(BookField.TITLE), true);
+
+        // Assert - the id was only needed to attach the ratings
+        assertEquals(List.of("title", "avgRating", "reviewCount"), List.copyOf(result.get(0).keySet()));
+        assertEquals(4.5, result.get(0).get("avgRating"));
+        assertEquals(2L, result.get(0).get("reviewCount"));
+        assertEquals(0.0, result.get(1).get("avgRating"));
+        assertEquals(0L, result.get(1).get("reviewCount"));
+        verify(bookRepository, never()).findAll();
+    }
+
+    @Test
+    void getBookFields_withoutRatings_shouldReturnProjectionRows() {
+        // Arrange
+        List<Map<String, Object>> rows = List.of(Map.of("id", 1L));
+        when(bookRepository.findBookFields(EnumSet.of(BookField.ID))).thenReturn(rows);
+
+        // Act & Assert
+        assertEquals(rows, bookService.getBookFields(EnumSet.of(BookField.ID), false));
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void getRatingSummaries_shouldUseOneGroupedQueryAndDefaultMissingBooks() {
+        // Arrange
+        List<Long> bookIds = List.of(1L, 2L);
+        when(reviewRepository.findRatingSummariesByBookIds(bookIds))
+            .thenReturn(List.of(new RatingSummaryDTO(1L, 4.5, 2L)));
+
+        // Act
+        Map<Long, RatingSummaryDTO> result = bookService.getRatingSummaries(bookIds);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(4.5, result.get(1L).getAvgRating(), 0.01);
+        assertEquals(2L, result.get(1L).getReviewCount());
+        assertEquals(0.0, result.get(2L).getAvgRating(), 0.01);
+        assertEquals(0L, result.get(2L).getReviewCount());
+
+        // Verify a single grouped query was issued and no book was loaded
+        verify(reviewRepository, times(1)).findRatingSummariesByBookIds(bookIds);
+        verify(bookRepository, never()).findByIdWithReviews(any());
+    }
+
+    @Test
+    void getRatingSummaries_whenRepositoryThrowsException_shouldThrowDatabaseOperationException() {
+        // Arrange
+        List<Long> bookIds = List.of(1L);
+        when(reviewRepository.findRatingSummariesByBookIds(bookIds))
+            .thenThrow(new RuntimeException("Database connection failed"));
+
+        // Act & Assert
+        assertThrows(DatabaseOperationException.class, () -> bookService.getRatingSummaries(bookIds));
+    }
+
+    @Test
+    void getBooksByIds_shouldKeepRequestedOrderAndReportMissingIds() {
+        // Arrange
+        BookDTO book1 = new BookDTO(1L, "First", "Author One", "Fiction");
+        BookDTO book3 = new BookDTO(3L, "Third", "Author Three", "Poetry");
+
+        // Repository returns rows in arbitrary order
+        when(bookRepository.findBookDTOsByIdIn(any())).thenReturn(List.of(book1, book3));
+
+        // Act
+        BookBatchDTO result = bookService.getBooksByIds(List.of(3L, 2L, 1L, 3L));
+
+        // Assert
+        assertEquals(2, result.getBooks().size());
+        assertEquals(3L, result.getBooks().get(0).getId());
+        assertEquals(1L, result.getBooks().get(1).getId());
+        assertEquals(List.of(2L), result.getMissingIds());
+
+        // Verify a single IN query was issued and no entity lookups happened
+        verify(bookRepository, times(1)).findBookDTOsByIdIn(any());
+        verify(bookRepository, never()).findById(any());
+    }
+
+    @Test
+    void getBooksByIds_whenTooManyIds_shouldThrowInvalidBookDataException() {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= BookServiceImpl.MAX_BATCH_SIZE + 1; i++) {
+            ids.add(i);
+        }
+
+        // Act & Assert
+        assertThrows(InvalidBookDataException.class, () -> bookService.getBooksByIds(ids));
+
+        // Verify repository was not called
+        verify(bookRepository, never()).findBookDTOsByIdIn(any());
+    }
+
+    @Test
+    void getBooksByIds_whenNoIds_shouldThrowInvalidBookDataException() {
+        // Act & Assert
+        assertThrows(InvalidBookDataException.class, () -> bookService.getBooksByIds(List.of()));
+
+        // Verify repository was not called
+        verify(bookRepository, never()).findBookDTOsByIdIn(any());
+    }
+
+    @Test
+    void getAllBookDTOs_withReadModel_shouldReadOnlyTheSummaryTable() {
+        // Arrange
+        when(bookSummaries.isEnabled()).thenReturn(true);
+        when(bookSummaryRepository.findAllByOrderByIdAsc()).thenReturn(List.of(
+            summary(1L, "Dune", 3, 12), summary(2L, "Emma", 0, 0)));
+
+        // Act
+        List<BookDTO> books = bookService.getAllBookDTOs(true);
+
+        // Assert
+        assertEquals(2, books.size());
+        assertEquals(4.0, books.get(0).getAvgRating(), 0.01);
+        assertEquals(3L, books.get(0).getReviewCount());
+        assertEquals(0.0, books.get(1).getAvgRating(), 0.01);
+        verifyNoInteractions(reviewRepository);
+        verify(bookRepository, never()).findAll();
+    }
+
+    @Test
+    void getAverageRating_withReadModel_shouldUseTheStoredSumAndCount() {
+        // Arrange
+        when(bookSummaries.isEnabled()).thenReturn(true);
+        when(bookSummaryRepository.findById(1L)).thenReturn(Optional.of(summary(1L, "Dune", 4, 14)));
+
+        // Act
+        double average = bookService.getAverageRating(1L);
+
+        // Assert
+        assertEquals(3.5, average, 0.001);
+        verify(bookRepository, never()).findByIdWithReviews(any());
+    }
+
+    @Test
+    void getAverageRating_withReadModelAndNoRow_shouldFallBackToTheBook() {
+        // Arrange
+        when(bookSummaries.isEnabled()).thenReturn(true);
+        when(bookSummaryRepository.findById(1L)).thenReturn(Optional.empty());
+        Book book = new Book();
+        book.setId(1L);
+        Review review = new Review();
+        review.setRating(4);
+        book.setReviews(List.of(review));
+        when(bookRepository.findByIdWithReviews(1L)).thenReturn(Optional.of(book));
+
+        // Act
+        double average = bookService.getAverageRating(1L);
+
+        // Assert
+        assertEquals(4.0, average, 0.001);
+    }
+
+    @Test
+    void getAverageRating_withReadModelAndNoSuchBook_shouldThrowBookNotFoundException() {
+        // Arrange
+        when(bookSummaries.isEnabled()).thenReturn(true);
+        when(bookSummaryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(bookRepository.findByIdWithReviews(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(BookNotFoundException.class, () -> bookService.getAverageRating(999L));
+    }
+
+    @Test
+    void getBookDTOOrThrow_withReadModelAndNoRow_shouldFallBackToTheBook() {
+        // Arrange
+        when(bookSummaries.isEnabled()).thenReturn(true);
+        when(bookSummaryRepository.findBookDTOById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.findBookDTOById(1L)).thenReturn(Optional.of(new BookDTO(1L, "Dune", "Frank Herbert", null)));
+
+        // Act
+        BookDTO book = bookService.getBookDTOOrThrow(1L);
+
+        // Assert
+        assertEquals("Dune", book.getTitle());
+    }
+
+    @Test
+    void saveAndDeleteBook_shouldKeepTheReadModelInStep() {
+        // Arrange
+        Book book = new Book();
+        book.setTitle("Dune");
+        book.setAuthor("Frank Herbert");
+        Book saved = new Book();
+        saved.setId(5L);
+        saved.setTitle("Dune");
+        saved.setAuthor("Frank Herbert");
+        when(bookRepository.save(book)).thenReturn(saved);
+        when(bookRepository.existsById(5L)).thenReturn(true);
+
+        // Act
+        bookService.saveBook(book);
+        bookService.deleteBook(5L);
+
+        // Assert
+        verify(bookSummaries, times(1)).bookSaved(saved, true);
+        verify(bookSummaries, times(1)).bookDeleted(5L);
+    }
+
+    private static BookSummary summary(Long id, String title, long reviewCount, long ratingSum) {
+        BookSummary summary = new BookSummary();
+        summary.setId(id);
+        summary.setTitle(title);
+        summary.setAuthor("Author");
+        summary.setReviewCount(reviewCount);
+        summary.setRatingSum(ratingSum);
+        return summary;
+    }
 }
\ No newline at end of file
@@ -1,26 +1,47 @@
 package com.example.bookreviewapi.service;
 
+import com.example.bookreviewapi.cache.ResponseBodyCache;
+import com.example.bookreviewapi.cache.SingleFlight;
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.dto.ReviewField;
+import com.example.bookreviewapi.event.DomainEventPublisher;
+import com.example.bookreviewapi.event.ReviewCreated;
+import com.example.bookreviewapi.event.ReviewDeleted;
+import com.example.bookreviewapi.event.ReviewUpdated;
 import com.example.bookreviewapi.exception.BookNotFoundException;
 import com.example.bookreviewapi.exception.InvalidReviewDataException;
 import com.example.bookreviewapi.exception.DatabaseOperationException;
+import com.example.bookreviewapi.invalidation.InvalidationBus;
+import com.example.bookreviewapi.invalidation.InvalidationEvent;
 import com.example.bookreviewapi.model.Book;
 import com.example.bookreviewapi.model.Review;
 import com.example.bookreviewapi.model.User;
+import com.example.bookreviewapi.readmodel.BookSummaries;
 import com.example.bookreviewapi.repository.BookRepository;
 import com.example.bookreviewapi.repository.ReviewRepository;
+import com.example.bookreviewapi.repository.ShardedReviewRepository;
+import com.example.bookreviewapi.writebehind.PendingReview;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,6 +54,26 @@ class ReviewServiceImplTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    // Sharding off (isEnabled() is false): the JPA repositories above are used
+    @Mock
+    private ShardedReviewRepository shardedReviews;
+
+    @Mock
+    private ResponseBodyCache responseBodyCache;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private DomainEventPublisher domainEvents;
+
+    @Mock
+    private BookSummaries bookSummaries;
+
+    // Real instance: with no concurrent callers it simply runs the load
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry(), true, 1000);
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
@@ -85,100 +126,187 @@ class ReviewServiceImplTest {
     }
 
     @Test
-    void getReviewsByBookId_whenBookExistsWithReviews_shouldReturnReviews() {
+    void saveReview_shouldBumpReviewVersionOfBook() {
         // Arrange
         Long bookId = 1L;
-        
-        // Create users
-        User user1 = new User();
-        user1.setId(10L);
-        user1.setUsername("John");
-        User user2 = new User();
-        user2.setId(11L);
-        user2.setUsername("Jane");
-        // Create reviews
-        Review review1 = new Review();
-        review1.setId(1L);
-        review1.setRating(5);
-        review1.setUser(user1);
-        review1.setComment("Great book!");
-        
-        Review review2 = new Review();
-        review2.setId(2L);
-        review2.setRating(4);
-        review2.setUser(user2);
-        review2.setComment("Good book");
-        
-        // Create book with reviews
         Book book = new Book();
         book.setId(bookId);
-        book.setTitle("Test Book");
-        book.setAuthor("Test Author");
-        book.setReviews(List.of(review1, review2));
-        
-        when(bookRepository.findByIdWithReviews(bookId)).thenReturn(Optional.of(book));
-        
+
+        User user = new User();
+        user.setId(10L);
+        user.setUsername("John");
+
+        Review inputReview = new Review();
+        inputReview.setComment("Versioned review");
+        inputReview.setRating(4);
+        inputReview.setUser(user);
+
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(reviewRepository.save(any(Review.class))).thenReturn(inputReview);
+
         // Act
-        List<Review> result = reviewService.getReviewsByBookId(bookId);
-        
-        // Assert
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getUser().getUsername()).isEqualTo("John");
-        assertThat(result.get(1).getUser().getUsername()).isEqualTo("Jane");
-        
-        // Verify repository was called
-        verify(bookRepository, times(1)).findByIdWithReviews(bookId);
+        reviewService.saveReview(bookId, inputReview);
+
+        // Assert - the book's review set version moves with the review's own timestamp (ETag / Last-Modified)
+        verify(bookRepository, times(1)).markReviewsChanged(bookId, inputReview.getUpdatedAt());
+        verify(responseBodyCache, times(1)).evictReviews(bookId);
+        verify(invalidationBus, times(1)).publish(InvalidationEvent.Kind.REVIEWS, bookId);
+        verify(domainEvents, times(1)).publish(any(ReviewCreated.class));
     }
-    
+
     @Test
-    void getReviewsByBookId_whenBookExistsButNoReviews_shouldReturnEmptyList() {
+    void saveReview_whenReviewExists_shouldPublishUpdateWithOldAndNewRating() {
         // Arrange
         Long bookId = 1L;
-        
-        // Create book with no reviews
         Book book = new Book();
         book.setId(bookId);
-        book.setTitle("Test Book");
-        book.setAuthor("Test Author");
-        book.setReviews(new ArrayList<>());
+
+        User user = new User();
+        user.setId(10L);
+        user.setUsername("John");
+
+        Review inputReview = new Review();
+        inputReview.setId(7L);
+        inputReview.setComment("Changed my mind");
+        inputReview.setRating(2);
+        inputReview.setUser(user);
+
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(reviewRepository.findRatingById(7L)).thenReturn(Optional.of(5));
+        when(reviewRepository.save(any(Review.class))).thenReturn(inputReview);
+
+        // Act
+        reviewService.saveReview(bookId, inputReview);
+
+        // Assert
+        verify(domainEvents, times(1)).publish(argThat(event -> event instanceof ReviewUpdated updated
+            && updated.reviewId() == 7L && updated.bookId() == bookId && updated.userId() == 10L
+            && updated.oldRating() == 5 && updated.newRating() == 2));
+    }
+
+    @Test
+    void deleteReview_shouldPublishDeleteWithTheStoredRating() {
+        // Arrange
+        when(reviewRepository.findBookIdById(7L)).thenReturn(Optional.of(1L));
+        when(reviewRepository.findRatingById(7L)).thenReturn(Optional.of(4));
+
+        // Act
+        reviewService.deleteReview(7L);
+
+        // Assert
+        verify(reviewRepository, times(1)).deleteById(7L);
+        verify(domainEvents, times(1)).publish(argThat(event -> event instanceof ReviewDeleted deleted
+            && deleted.reviewId() == 7L && deleted.bookId() == 1L && deleted.oldRating() == 4));
+    }
+
+    @Test
+    void saveReview_whenReviewExists_shouldPassTheOldRatingToTheReadModel() {
+        // Arrange
+        Book book = new Book();
+        book.setId(1L);
+        User user = new User();
+        user.setId(10L);
+        user.setUsername("John");
+        Review inputReview = new Review();
+        inputReview.setId(7L);
+        inputReview.setComment("Changed my mind");
+        inputReview.setRating(2);
+        inputReview.setUser(user);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(reviewRepository.findRatingById(7L)).thenReturn(Optional.of(5));
+        when(reviewRepository.save(any(Review.class))).thenReturn(inputReview);
+
+        // Act
+        reviewService.saveReview(1L, inputReview);
+
+        // Assert: after the version bump, which locks the book row the summary belongs to
+        var inOrder = inOrder(bookRepository, bookSummaries);
+        inOrder.verify(bookRepository).markReviewsChanged(eq(1L), any(LocalDateTime.class));
+        inOrder.verify(bookSummaries).reviewSaved(1L, inputReview, Optional.of(5));
+    }
+
+    @Test
+    void saveReview_whenReviewBelongsToAnotherBook_shouldThrowInvalidReviewDataException() {
+        // Arrange
+        Book book = new Book();
+        book.setId(2L);
+        Review inputReview = new Review();
+        inputReview.setId(7L);
+        inputReview.setComment("Changed my mind");
+        inputReview.setRating(2);
+        inputReview.setUser(new User());
+        inputReview.getUser().setUsername("John");
+        when(bookRepository.findById(2L)).thenReturn(Optional.of(book));
+        when(reviewRepository.findBookIdById(7L)).thenReturn(Optional.of(1L));
+
+        // Act & Assert
+        assertThrows(InvalidReviewDataException.class, () -> reviewService.saveReview(2L, inputReview));
+
+        // Neither book's summary is touched
+        verify(reviewRepository, never()).save(any(Review.class));
+        verify(bookSummaries, never()).reviewSaved(any(), any(), any());
+    }
+
+    @Test
+    void deleteReview_shouldTakeTheStoredRatingOffTheReadModel() {
+        // Arrange
+        when(reviewRepository.findBookIdById(7L)).thenReturn(Optional.of(1L));
+        when(reviewRepository.findRatingById(7L)).thenReturn(Optional.of(4));
+
+        // Act
+        reviewService.deleteReview(7L);
+
+        // Assert
+        verify(bookSummaries, times(1)).reviewDeleted(1L, 7L, 4);
+    }
+
+    @Test
+    void getReviewsByBookId_whenBookExistsWithReviews_shouldReturnReviews() {
+        // Arrange
+        Long bookId = 1L;
+        LocalDateTime createdAt = LocalDateTime.of(2025, 7, 1, 10, 30);
         
-        when(bookRepository.findByIdWithReviews(bookId)).thenReturn(Optional.of(book));
+        // Projection rows as returned by the JOIN query
+        ReviewDTO review1 = new ReviewDTO(1L, "Great book!", 5, "John", 10L, createdAt, createdAt);
+        ReviewDTO review2 = new ReviewDTO(2L, "Good book", 4, "Jane", 11L, createdAt, createdAt);
+        
+        when(reviewRepository.findReviewDTOsByBookId(bookId)).thenReturn(List.of(review1, review2));
         
         // Act
-        List<Review> result = reviewService.getReviewsByBookId(bookId);
+        List<ReviewDTO> result = reviewService.getReviewsByBookId(bookId);
         
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result).isEmpty();
-        
-        // Verify repository was called
-        verify(bookRepository, times(1)).findByIdWithReviews(bookId);
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getReviewerName()).isEqualTo("John");
+        assertThat(result.get(0).getUserId()).isEqualTo(10L);
+        assertThat(result.get(0).getCreatedAt()).isEqualTo(createdAt.toString());
+        assertThat(result.get(1).getReviewerName()).isEqualTo("Jane");
+        
+        // Verify no entity was loaded and the existence check was skipped
+        verify(reviewRepository, times(1)).findReviewDTOsByBookId(bookId);
+        verify(bookRepository, never()).existsById(any());
+        verify(bookRepository, never()).findByIdWithReviews(any());
     }
     
     @Test
-    void getReviewsByBookId_whenBookExistsButReviewsIsNull_shouldReturnEmptyList() {
+    void getReviewsByBookId_whenBookExistsButNoReviews_shouldReturnEmptyList() {
         // Arrange
         Long bookId = 1L;
         
-        // Create book with null reviews
-        Book book = new Book();
-        book.setId(bookId);
-        book.setTitle("Test Book");
-        book.setAuthor("Test Author");
-        book.setReviews(null);
-        
-        when(bookRepository.findByIdWithReviews(bookId)).thenReturn(Optional.of(book));
+        when(reviewRepository.findReviewDTOsByBookId(bookId)).thenReturn(new ArrayList<>());
+        when(bookRepository.existsById(bookId)).thenReturn(true);
         
         // Act
-        List<Review> result = reviewService.getReviewsByBookId(bookId);
+        List<ReviewDTO> result = reviewService.getReviewsByBookId(bookId);
         
         // Assert
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
         
         // Verify repository was called
-        verify(bookRepository, times(1)).findByIdWithReviews(bookId);
+        verify(reviewRepository, times(1)).findReviewDTOsByBookId(bookId);
+        verify(bookRepository, times(1)).existsById(bookId);
     }
     
     @Test
@@ -186,13 +314,58 @@ class ReviewServiceImplTest {
         // Arrange
         Long bookId = 999L;
         
-        when(bookRepository.findByIdWithReviews(bookId)).thenReturn(Optional.empty());
+        when(reviewRepository.findReviewDTOsByBookId(bookId)).thenReturn(List.of());
+        when(bookRepository.existsById(bookId)).thenReturn(false);
         
         // Act & Assert
         assertThrows(BookNotFoundException.class, () -> reviewService.getReviewsByBookId(bookId));
         
         // Verify repository was called
-        verify(bookRepository, times(1)).findByIdWithReviews(bookId);
+        verify(bookRepository, times(1)).existsById(bookId);
+    }
+
+    @Test
+    void getReviewsByBookId_withReviewVersion_shouldGoThroughSingleFlightKeyedByVersion() {
+        // Arrange
+        Long bookId = 1L;
+        List<ReviewDTO> rows = List.of(new ReviewDTO(1L, "Great", 5, "John", 10L, null, null));
+        when(reviewRepository.findReviewDTOsByBookId(bookId)).thenReturn(rows);
+
+        // Act
+        List<ReviewDTO> result = reviewService.getReviewsByBookId(bookId, 3L);
+
+        // Assert
+        assertThat(result).isEqualTo(rows);
+        verify(singleFlight, times(1)).execute(eq("reviews"), eq("1@3"), any());
+    }
+
+    @Test
+    void getReviewFieldsByBookId_shouldUseFieldQueryAndOnlyCheckBookWhenEmpty() {
+        // Arrange
+        Long bookId = 1L;
+        EnumSet<ReviewField> fields = EnumSet.of(ReviewField.RATING, ReviewField.REVIEWER_NAME);
+        List<Map<String, Object>> rows = List.of(Map.of("rating", 5, "reviewerName", "John"));
+        when(reviewRepository.findReviewFieldsByBookId(bookId, fields)).thenReturn(rows);
+
+        // Act
+        List<Map<String, Object>> result = reviewService.getReviewFieldsByBookId(bookId, fields);
+
+        // Assert
+        assertThat(result).isEqualTo(rows);
+        verify(bookRepository, never()).existsById(any());
+        verify(reviewRepository, never()).findReviewDTOsByBookId(any());
+    }
+
+    @Test
+    void getReviewFieldsByBookId_whenBookDoesNotExist_shouldThrowBookNotFoundException() {
+        // Arrange
+        Long bookId = 999L;
+        EnumSet<ReviewField> fields = EnumSet.of(ReviewField.RATING);
+        when(reviewRepository.findReviewFieldsByBookId(bookId, fields)).thenReturn(List.of());
+        when(bookRepository.existsById(bookId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(BookNotFoundException.class, () -> reviewService.getReviewFieldsByBookId(bookId, fields));
     }
 
     // ========== EXCEPTION HANDLING TESTS ==========
@@ -406,17 +579,17 @@ class ReviewServiceImplTest {
     }
 
     @Test
-    void getReviewsByBookId_whenBookRepositoryThrowsException_shouldThrowDatabaseOperationException() {
+    void getReviewsByBookId_whenReviewRepositoryThrowsException_shouldThrowDatabaseOperationException() {
         // Arrange
         Long bookId = 1L;
         
-        when(bookRepository.findByIdWithReviews(bookId)).thenThrow(new RuntimeException("Database error"));
+        when(reviewRepository.findReviewDTOsByBookId(bookId)).thenThrow(new RuntimeException("Database error"));
         
         // Act & Assert
         assertThrows(DatabaseOperationException.class, () -> reviewService.getReviewsByBookId(bookId));
         
         // Verify repository was called
-        verify(bookRepository, times(1)).findByIdWithReviews(bookId);
+        verify(reviewRepository, times(1)).findReviewDTOsByBookId(bookId);
     }
 
     // ========== BOUNDARY VALUE TESTS ==========
@@ -494,4 +667,39 @@ class ReviewServiceImplTest {
         // Verify the book was set on the review before saving
         assertEquals(book, inputReview.getBook());
     }
+
+    @Test
+    void saveReviewBatch_shouldBumpEachBookOnceAndSkipDeletedBooks() {
+        LocalDateTime earlier = LocalDateTime.of(2026, 10, 1, 12, 0);
+        LocalDateTime later = earlier.plusSeconds(5);
+        PendingReview first = new PendingReview(101L, 1L, 10L, "reader", "Great", 5, earlier);
+        PendingReview second = new PendingReview(102L, 1L, 11L, "critic", "Fine", 3, later);
+        PendingReview orphan = new PendingReview(103L, 2L, 10L, "reader", "Gone", 1, later);
+        when(bookRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L));
+        when(reviewRepository.insertNew(List.of(first, second))).thenReturn(List.of(first, second));
+
+        int written = reviewService.saveReviewBatch(List.of(first, second, orphan));
+
+        assertEquals(2, written);
+        verify(bookRepository, times(1)).markReviewsChanged(1L, later);
+        verify(bookRepository, never()).markReviewsChanged(eq(2L), any());
+        verify(responseBodyCache, times(1)).evictReviews(1L);
+        verify(invalidationBus, times(1)).publish(InvalidationEvent.Kind.REVIEWS, 1L);
+        verify(domainEvents, times(2)).publish(any(ReviewCreated.class));
+    }
+
+    @Test
+    void validateNewReview_whenBookDoesNotExist_shouldThrowBookNotFoundException() {
+        User user = new User();
+        user.setId(10L);
+        user.setUsername("reader");
+        Review review = new Review();
+        review.setUser(user);
+        review.setComment("Great book!");
+        review.setRating(4);
+        when(bookRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(BookNotFoundException.class, () -> reviewService.validateNewReview(99L, review));
+        verify(bookRepository, never()).findById(any());
+    }
 } 
\ No newline at end of file
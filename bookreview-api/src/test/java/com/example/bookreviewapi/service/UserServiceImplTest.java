@@ -1,5 +1,6 @@
 package com.example.bookreviewapi.service;
 
+import com.example.bookreviewapi.invalidation.InvalidationBus;
 import com.example.bookreviewapi.model.User;
 import com.example.bookreviewapi.model.UserRole;
 import com.example.bookreviewapi.repository.UserRepository;
@@ -26,6 +27,9 @@ class UserServiceImplTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    private InvalidationBus invalidationBus;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -0,0 +1,49 @@
+package com.example.bookreviewapi.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashShardMapTest {
+
+    private static final int BOOKS = 20_000;
+
+    @Test
+    void shardFor_shouldBeStableAndSpreadBooksEvenly() {
+        ConsistentHashShardMap map = new ConsistentHashShardMap(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+        ConsistentHashShardMap same = new ConsistentHashShardMap(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (long bookId = 1; bookId <= BOOKS; bookId++) {
+            assertEquals(map.shardFor(bookId), same.shardFor(bookId));
+            counts.merge(map.shardFor(bookId), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        // Within 25% of a fair share with 128 virtual nodes each
+        counts.values().forEach(count -> assertTrue(Math.abs(count - BOOKS / 4) < BOOKS / 16, counts.toString()));
+    }
+
+    @Test
+    void addingAShard_shouldOnlyMoveBooksToTheNewShard() {
+        ConsistentHashShardMap before = new ConsistentHashShardMap(List.of("shard-0", "shard-1", "shard-2"), 128);
+        ConsistentHashShardMap after = new ConsistentHashShardMap(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+
+        int moved = 0;
+        for (long bookId = 1; bookId <= BOOKS; bookId++) {
+            String from = before.shardFor(bookId);
+            String to = after.shardFor(bookId);
+            if (!from.equals(to)) {
+                assertEquals("shard-3", to);
+                moved++;
+            }
+        }
+
+        // About a quarter, not the three quarters a modulo map would move
+        assertTrue(moved > BOOKS / 6 && moved < BOOKS / 3, "moved " + moved);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bookreviewapi.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewIdGeneratorTest {
+
+    @Test
+    void nextId_shouldIncreaseAndCarryTheNodeId() {
+        long now = ReviewIdGenerator.EPOCH_SECONDS + 1_000;
+        ReviewIdGenerator generator = new ReviewIdGenerator(5, () -> now);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertTrue(second > first);
+        assertEquals(5, (first >>> 16) & 63);
+        assertEquals(1_000, first >>> 22);
+        assertTrue(first < (1L << 53));
+    }
+
+    @Test
+    void usedUpSecond_shouldBorrowTheNextInsteadOfRepeating() {
+        ReviewIdGenerator generator = new ReviewIdGenerator(0, () -> ReviewIdGenerator.EPOCH_SECONDS + 10);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 70_000; i++) {
+            assertTrue(ids.add(generator.nextId()));
+        }
+        assertEquals(11, generator.nextId() >>> 22);
+    }
+
+    @Test
+    void differentNodes_shouldNotCollide() {
+        ReviewIdGenerator a = new ReviewIdGenerator(1, () -> ReviewIdGenerator.EPOCH_SECONDS);
+        ReviewIdGenerator b = new ReviewIdGenerator(2, () -> ReviewIdGenerator.EPOCH_SECONDS);
+
+        assertNotEquals(a.nextId(), b.nextId());
+        assertThrows(IllegalArgumentException.class, () -> new ReviewIdGenerator(64));
+    }
+}
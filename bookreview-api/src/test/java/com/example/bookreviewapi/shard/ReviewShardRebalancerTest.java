@@ -0,0 +1,111 @@
+package com.example.bookreviewapi.shard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.bookreviewapi.dto.ReviewDTO;
+import com.example.bookreviewapi.model.Book;
+import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.model.User;
+import com.example.bookreviewapi.repository.ShardedReviewRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewShardRebalancerTest {
+
+    private final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        // Fresh in-memory databases per test
+        String run = UUID.randomUUID().toString();
+        for (String name : List.of("shard-0", "shard-1", "shard-2")) {
+            DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + run + ";DB_CLOSE_DELAY=-1", "sa", "");
+            ReviewShards.initializeSchema(dataSource);
+            dataSources.put(name, dataSource);
+        }
+    }
+
+    @Test
+    void crossShardQueries_shouldMergeEveryShardNewestFirst() {
+        ShardedReviewRepository repository = repository(new ConsistentHashShardMap(List.copyOf(dataSources.keySet()), 64));
+        LocalDateTime start = LocalDateTime.of(2025, 6, 1, 12, 0);
+        for (long bookId = 1; bookId <= 30; bookId++) {
+            assertTrue(repository.save(review(bookId, bookId % 2 == 0 ? 7L : 8L, start.plusMinutes(bookId))));
+        }
+
+        List<ReviewDTO> byUser = repository.findReviewDTOsByUserId(7L);
+        List<ReviewDTO> latest = repository.findLatestReviewDTOs(5);
+
+        assertEquals(15, byUser.size());
+        assertEquals(start.plusMinutes(30), byUser.get(0).getCreatedAtTime());
+        assertEquals(5, latest.size());
+        assertEquals(List.of("book 30", "book 29", "book 28", "book 27", "book 26"),
+            latest.stream().map(ReviewDTO::getComment).toList());
+        assertEquals(30, repository.findAllRatingSummaries().size());
+    }
+
+    @Test
+    void rebalance_shouldMoveReviewsToTheirNewShardOnce() {
+        // Everything written while only shard-0 was in the map
+        ShardMap single = new ConsistentHashShardMap(List.of("shard-0"), 64);
+        ShardedReviewRepository before = repository(single);
+        for (long bookId = 1; bookId <= 30; bookId++) {
+            before.save(review(bookId, 7L, LocalDateTime.of(2025, 6, 1, 12, 0)));
+            before.save(review(bookId, 8L, LocalDateTime.of(2025, 6, 1, 13, 0)));
+        }
+
+        ShardMap three = new ConsistentHashShardMap(List.copyOf(dataSources.keySet()), 64);
+        ReviewShards shards = shards(three);
+        ReviewShardRebalancer.Report report = new ReviewShardRebalancer(shards).rebalance();
+        ReviewShardRebalancer.Report again = new ReviewShardRebalancer(shards).rebalance();
+
+        assertTrue(report.booksMoved() > 0);
+        assertEquals(report.booksMoved() * 2, report.reviewsMoved());
+        assertEquals(new ReviewShardRebalancer.Report(0, 0), again);
+        ShardedReviewRepository after = new ShardedReviewRepository(shards);
+        for (long bookId = 1; bookId <= 30; bookId++) {
+            assertEquals(2, after.findReviewDTOsByBookId(bookId).size());
+            for (String name : dataSources.keySet()) {
+                int rows = shards.shard(name).queryForObject(
+                    "SELECT COUNT(*) FROM reviews WHERE book_id = ?", Integer.class, bookId);
+                assertEquals(name.equals(three.shardFor(bookId)) ? 2 : 0, rows);
+            }
+        }
+    }
+
+    private ShardedReviewRepository repository(ShardMap shardMap) {
+        return new ShardedReviewRepository(shards(shardMap));
+    }
+
+    private ReviewShards shards(ShardMap shardMap) {
+        return new ReviewShards(new SimpleMeterRegistry(), dataSources, shardMap, 1, 2000);
+    }
+
+    private static Review review(long bookId, long userId, LocalDateTime createdAt) {
+        Book book = new Book();
+        book.setId(bookId);
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        Review review = new Review();
+        review.setBook(book);
+        review.setUser(user);
+        review.setComment("book " + bookId);
+        review.setRating((int) (bookId % 5) + 1);
+        review.setCreatedAt(createdAt);
+        review.setUpdatedAt(createdAt);
+        return review;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.bookreviewapi.stream;
+
+import com.example.bookreviewapi.dto.RatingSummaryDTO;
+import com.example.bookreviewapi.event.BookDeleted;
+import com.example.bookreviewapi.event.ReviewCreated;
+import com.example.bookreviewapi.event.ReviewDeleted;
+import com.example.bookreviewapi.service.BookService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class BookEventBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookService bookService = mock(BookService.class);
+    private final Deque<RecordingEmitter> emitters = new ArrayDeque<>();
+    private BookEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.stop();
+        }
+    }
+
+    @Test
+    void reviewEvent_shouldReachOnlyTheBooksSubscribersFollowedByTheNewRating() throws Exception {
+        broadcaster = create(8, 60_000, 10);
+        when(bookService.getRatingSummaries(List.of(7L))).thenReturn(Map.of(7L, new RatingSummaryDTO(7L, 5.0, 1L)));
+        RecordingEmitter dune = subscribe(7L);
+        RecordingEmitter emma = subscribe(8L);
+
+        broadcaster.onEvent(new ReviewCreated(11L, 7L, 3L, 5, Instant.now()));
+
+        String created = dune.next();
+        assertTrue(created.startsWith("event:review-created\n"), created);
+        assertTrue(created.contains("\"reviewId\":11"), created);
+        String rating = dune.next();
+        assertTrue(rating.startsWith("event:rating\n"), rating);
+        assertTrue(rating.contains("\"avgRating\":5.0"), rating);
+        assertNull(emma.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_beyondMaxConnections_shouldBeRefusedUntilAStreamEnds() throws Exception {
+        broadcaster = create(8, 60_000, 1);
+        RecordingEmitter first = subscribe(7L);
+
+        assertTrue(broadcaster.subscribe(7L).isEmpty());
+        assertEquals(1.0, meterRegistry.counter(BookEventBroadcaster.METRIC, "result", "rejected").count());
+
+        // The book goes away: its streams get the event and end
+        broadcaster.onEvent(new BookDeleted(7L, Instant.now()));
+        assertTrue(first.next().startsWith("event:book-deleted\n"));
+        waitFor(() -> first.completed && broadcaster.connections() == 0);
+
+        assertTrue(broadcaster.subscribe(7L).isPresent());
+    }
+
+    @Test
+    void slowSubscriber_shouldBeDroppedWhileTheOthersKeepReceiving() throws Exception {
+        broadcaster = create(3, 60_000, 10);
+        when(bookService.getRatingSummaries(anyList())).thenReturn(Map.of());
+        RecordingEmitter fast = subscribe(7L);
+        RecordingEmitter slow = subscribe(7L);
+        slow.gate = new CountDownLatch(1); // Its client reads nothing
+
+        for (long reviewId = 1; reviewId <= 6; reviewId++) {
+            broadcaster.onEvent(new ReviewDeleted(reviewId, 7L, 4, Instant.now()));
+            String expected = "\"reviewId\":" + reviewId;
+            waitFor(() -> fast.sent.stream().anyMatch(event -> event.contains(expected)));
+        }
+
+        assertEquals(1.0, meterRegistry.counter(BookEventBroadcaster.METRIC, "result", "dropped").count());
+        slow.gate.countDown();
+        waitFor(() -> slow.completed && broadcaster.connections() == 1);
+        assertFalse(fast.completed);
+    }
+
+    @Test
+    void idleStream_shouldGetHeartbeats() throws Exception {
+        broadcaster = create(8, 50, 10);
+        RecordingEmitter emitter = subscribe(7L);
+
+        assertEquals(":heartbeat\n\n", emitter.next());
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void subscribe_whenDisabled_shouldBeRefused() {
+        broadcaster = new BookEventBroadcaster(bookService, Jackson2ObjectMapperBuilder.json().build(), meterRegistry,
+            RecordingEmitter::new, false, 10, 8, 60_000);
+
+        assertTrue(broadcaster.subscribe(7L).isEmpty());
+    }
+
+    private BookEventBroadcaster create(int bufferSize, long heartbeatMs, int maxConnections) {
+        return new BookEventBroadcaster(bookService, Jackson2ObjectMapperBuilder.json().build(), meterRegistry, () -> {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }, true, maxConnections, bufferSize, heartbeatMs);
+    }
+
+    private RecordingEmitter subscribe(long bookId) {
+        Optional<SseEmitter> emitter = broadcaster.subscribe(bookId);
+        assertTrue(emitter.isPresent());
+        assertSame(emitters.getLast(), emitter.get());
+        return emitters.getLast();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    // Records what would go to the client instead of writing a response
+    static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        volatile CountDownLatch gate;
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            CountDownLatch blocked = gate;
+            if (blocked != null) {
+                try {
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            sent.add(builder.build().stream().map(part -> part.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        String next() throws InterruptedException {
+            String event = sent.poll(2, TimeUnit.SECONDS);
+            assertNotNull(event, "no event in time");
+            return event;
+        }
+    }
+}
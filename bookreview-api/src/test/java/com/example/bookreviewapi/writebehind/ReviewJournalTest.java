@@ -0,0 +1,113 @@
+package com.example.bookreviewapi.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void release_shouldDeleteWrittenSegmentsWhileNewerEntriesKeepComing() throws Exception {
+        Path path = dir.resolve("review-journal.log");
+        try (ReviewJournal journal = new ReviewJournal(path, false, 2)) {
+            assertEquals(List.of(), journal.readAll());
+            for (long id = 1; id <= 5; id++) {
+                journal.append(pending(id));
+            }
+            assertEquals(List.of("review-journal.log", "review-journal.log.1", "review-journal.log.2"), files());
+
+            journal.release(3); // The second segment still holds an unwritten entry
+            assertEquals(List.of("review-journal.log", "review-journal.log.2"), files());
+
+            journal.append(pending(6));
+            journal.release(4);
+            assertEquals(List.of("review-journal.log"), files());
+        }
+
+        // Entries 5 and 6 were never written
+        try (ReviewJournal journal = new ReviewJournal(path, false, 2)) {
+            assertEquals(List.of(5L, 6L), journal.readAll().stream().map(PendingReview::id).toList());
+
+            journal.append(pending(7));
+            journal.release(3);
+            assertEquals(List.of("review-journal.log"), files());
+            assertEquals(0, Files.size(path));
+        }
+    }
+
+    @Test
+    void readAll_shouldSkipATornLastLineAndNotAppendBehindIt() throws Exception {
+        Path path = dir.resolve("review-journal.log");
+        try (ReviewJournal journal = new ReviewJournal(path, false, 10)) {
+            journal.append(pending(1));
+        }
+        Files.writeString(path, "{\"id\":2,\"bookId\"", StandardOpenOption.APPEND);
+
+        try (ReviewJournal journal = new ReviewJournal(path, false, 10)) {
+            assertEquals(List.of(1L), journal.readAll().stream().map(PendingReview::id).toList());
+            journal.append(pending(3));
+        }
+
+        try (ReviewJournal journal = new ReviewJournal(path, false, 10)) {
+            assertEquals(List.of(1L, 3L), journal.readAll().stream().map(PendingReview::id).toList());
+        }
+    }
+
+    @Test
+    void sync_fromConcurrentCallers_shouldKeepEveryEntryAcrossSegments() throws Exception {
+        Path path = dir.resolve("review-journal.log");
+        Object appendLock = new Object(); // What ReviewWriteBehind's submitLock does for append
+        try (ReviewJournal journal = new ReviewJournal(path, true, 5)) {
+            journal.readAll();
+            try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+                List<Future<?>> submits = new ArrayList<>();
+                for (long id = 1; id <= 40; id++) {
+                    long reviewId = id;
+                    submits.add(executor.submit(() -> {
+                        long position;
+                        synchronized (appendLock) {
+                            position = journal.append(pending(reviewId));
+                        }
+                        journal.sync(position);
+                    }));
+                }
+                for (Future<?> submit : submits) {
+                    submit.get(5, TimeUnit.SECONDS);
+                }
+            }
+        }
+
+        try (ReviewJournal journal = new ReviewJournal(path, true, 5)) {
+            assertEquals(LongStream.rangeClosed(1, 40).boxed().toList(),
+                journal.readAll().stream().map(PendingReview::id).sorted().toList());
+        }
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static PendingReview pending(long id) {
+        return new PendingReview(id, 7L, 3L, "reader", "Review " + id, 4, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.bookreviewapi.writebehind;
+
+import com.example.bookreviewapi.exception.DatabaseOperationException;
+import com.example.bookreviewapi.exception.InvalidReviewDataException;
+import com.example.bookreviewapi.model.Review;
+import com.example.bookreviewapi.model.User;
+import com.example.bookreviewapi.resilience.DatabaseCircuitBreaker;
+import com.example.bookreviewapi.service.ReviewService;
+import com.example.bookreviewapi.writebehind.ReviewWriteBehind.Durability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReviewWriteBehindTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReviewService reviewService = mock(ReviewService.class);
+    private final AtomicLong ids = new AtomicLong(100);
+    private Path journalPath;
+    private ReviewWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        journalPath = dir.resolve("review-journal.log");
+        when(reviewService.saveReviewBatch(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writeBehind != null) {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    void submit_shouldAcknowledgeWithAnIdAndJournalBeforeTheBatchIsWritten() throws Exception {
+        writeBehind = start(3, 10, 1000);
+
+        Optional<Review> accepted = writeBehind.submit(7L, review("Loved it", 5));
+
+        assertTrue(accepted.isPresent());
+        assertEquals(101L, accepted.get().getId());
+        assertNotNull(accepted.get().getCreatedAt());
+        assertEquals(1, Files.readAllLines(journalPath).size());
+        verify(reviewService).validateNewReview(eq(7L), any(Review.class));
+        verify(reviewService, never()).saveReviewBatch(anyList());
+        assertEquals(1.0, counter("accepted"));
+    }
+
+    @Test
+    void fullBatch_shouldBeWrittenAtOnceAndTheJournalEmptied() throws Exception {
+        writeBehind = start(3, 10, 60_000);
+
+        for (int rating = 1; rating <= 3; rating++) {
+            writeBehind.submit(7L, review("Review " + rating, rating));
+        }
+
+        verify(reviewService, timeout(2000)).saveReviewBatch(argThat(batch ->
+            batch.stream().map(PendingReview::id).toList().equals(List.of(101L, 102L, 103L))));
+        waitFor(() -> counter("written") == 3.0);
+        waitFor(() -> journalSize() == 0);
+    }
+
+    @Test
+    void invalidReview_shouldBeRejectedWithoutBeingQueued() {
+        writeBehind = start(3, 10, 1000);
+        doThrow(new InvalidReviewDataException("Rating must be between 1 and 5"))
+            .when(reviewService).validateNewReview(eq(7L), any(Review.class));
+
+        assertThrows(InvalidReviewDataException.class, () -> writeBehind.submit(7L, review("Meh", 9)));
+
+        assertEquals(0, writeBehind.queued());
+        assertEquals(100L, ids.get()); // No id used
+    }
+
+    @Test
+    void fullQueue_shouldDeclineSoTheCallerWritesSynchronously() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reviewService.saveReviewBatch(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.<List<?>>getArgument(0).size();
+        });
+        writeBehind = start(1, 1, 1000);
+
+        assertTrue(writeBehind.submit(7L, review("First", 4)).isPresent());
+        assertTrue(writing.await(2, TimeUnit.SECONDS)); // The flusher holds the first one
+        assertTrue(writeBehind.submit(7L, review("Second", 4)).isPresent());
+        Optional<Review> third = writeBehind.submit(7L, review("Third", 4));
+        release.countDown();
+
+        assertTrue(third.isEmpty());
+        assertEquals(1.0, counter("declined"));
+    }
+
+    @Test
+    void start_shouldReplayWhatTheJournalHolds() throws Exception {
+        try (ReviewJournal journal = new ReviewJournal(journalPath, false, 10)) {
+            journal.append(new PendingReview(41L, 7L, 3L, "reader", "Left behind", 4, LocalDateTime.now()));
+            journal.append(new PendingReview(42L, 8L, 3L, "reader", "Also left", 2, LocalDateTime.now()));
+        }
+
+        writeBehind = start(10, 10, 100);
+
+        verify(reviewService, timeout(2000)).saveReviewBatch(argThat(batch ->
+            batch.stream().map(PendingReview::id).toList().equals(List.of(41L, 42L))));
+        assertEquals(2.0, counter("replayed"));
+        waitFor(() -> journalSize() == 0);
+    }
+
+    @Test
+    void databaseFailure_shouldRetryTheBatchUntilItIsWritten() {
+        writeBehind = create(10, 10, 100, 1);
+        when(reviewService.saveReviewBatch(anyList()))
+            .thenThrow(new DatabaseOperationException("save review batch",
+                new DataAccessResourceFailureException("connection refused")))
+            .thenThrow(new DatabaseOperationException("save review batch",
+                new DataAccessResourceFailureException("connection refused")))
+            .thenReturn(2);
+        writeBehind.start();
+
+        assertTrue(writeBehind.write(List.of(pending(1L), pending(2L))));
+
+        verify(reviewService, times(3)).saveReviewBatch(anyList());
+        assertEquals(2.0, counter("written"));
+    }
+
+    @Test
+    void failingBatch_shouldFallBackToSingleReviewsAndDropOnlyTheBadOne() {
+        writeBehind = create(10, 10, 100, 2);
+        when(reviewService.saveReviewBatch(anyList())).thenAnswer(invocation -> {
+            List<PendingReview> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(review -> review.id() == 2L)) {
+                throw new IllegalStateException("bad review");
+            }
+            return batch.size();
+        });
+
+        assertTrue(writeBehind.write(List.of(pending(1L), pending(2L))));
+
+        assertEquals(1.0, counter("written"));
+        assertEquals(1.0, counter("failed"));
+    }
+
+    private ReviewWriteBehind start(int batchSize, int queueCapacity, long flushIntervalMs) {
+        ReviewWriteBehind started = create(batchSize, queueCapacity, flushIntervalMs, 3);
+        started.start();
+        return started;
+    }
+
+    private ReviewWriteBehind create(int batchSize, int queueCapacity, long flushIntervalMs, int maxAttempts) {
+        DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(meterRegistry, false, 50, 20, 50, 80, 2000, 10_000, 5);
+        return new ReviewWriteBehind(reviewService, breaker, ids::incrementAndGet, meterRegistry, true,
+            Durability.JOURNAL, journalPath, queueCapacity, batchSize, flushIntervalMs, maxAttempts, 1);
+    }
+
+    private static Review review(String comment, int rating) {
+        User user = new User();
+        user.setId(3L);
+        user.setUsername("reader");
+        Review review = new Review();
+        review.setUser(user);
+        review.setComment(comment);
+        review.setRating(rating);
+        return review;
+    }
+
+    private static PendingReview pending(long id) {
+        return new PendingReview(id, 7L, 3L, "reader", "Review " + id, 4, LocalDateTime.now());
+    }
+
+    private double counter(String result) {
+        return meterRegistry.counter(ReviewWriteBehind.METRIC, "result", result).count();
+    }
+
+    // All segments together
+    private long journalSize() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.mapToLong(file -> file.toFile().length()).sum();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}